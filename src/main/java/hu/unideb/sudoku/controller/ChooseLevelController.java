@@ -1,13 +1,17 @@
 package hu.unideb.sudoku.controller;
 
 import hu.unideb.sudoku.model.GameDifficulty;
+import hu.unideb.sudoku.model.GameModel;
+import hu.unideb.sudoku.model.PuzzlePool;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Node;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
+import javafx.scene.control.ChoiceBox;
 import javafx.stage.Stage;
+import javafx.util.StringConverter;
 
 import java.io.IOException;
 import java.net.URL;
@@ -21,9 +25,38 @@ import static hu.unideb.sudoku.model.GameModel.setDifficulty;
  * Átirányít a játék vagy a főmenü ablakhoz.
  */
 public class ChooseLevelController {
+    private static final int[] BOARD_BOX_SIZES = {2, 3, 4, 5};
+
+    @FXML
+    private ChoiceBox<Integer> boardSizeChoice;
+
+    /**
+     * Inicializálja az osztályt.
+     * Már a szintválasztó megjelenésekor elkezdi a háttérben feltölteni a feladvány készletet,
+     * és feltölti a táblaméret választót (4×4, 9×9, 16×16, 25×25) a legutóbb választott mérettel.
+     */
+    public void initialize() {
+        PuzzlePool.getInstance().warmUp();
+        for (int boxSize : BOARD_BOX_SIZES) {
+            boardSizeChoice.getItems().add(boxSize);
+        }
+        boardSizeChoice.setConverter(new StringConverter<>() {
+            @Override
+            public String toString(Integer boxSize) {
+                int size = boxSize * boxSize;
+                return size + "×" + size;
+            }
+
+            @Override
+            public Integer fromString(String text) {
+                return (int) Math.round(Math.sqrt(Integer.parseInt(text.substring(0, text.indexOf('×')))));
+            }
+        });
+        boardSizeChoice.setValue(GameModel.getBoardBoxSize());
+    }
 
     /**
-     * Beállítja a megadott nehézségi szintet, majd átadja megjelenítésre a játék ablakot.
+     * Beállítja a megadott nehézségi szintet és a választott táblaméretet, majd átadja megjelenítésre a játék ablakot.
      *
      * @param difficulty nehézségi szint
      * @param event      esemény, mely tárolja az adatokat
@@ -31,6 +64,8 @@ public class ChooseLevelController {
      */
     private void loadGameScreen(GameDifficulty difficulty, ActionEvent event) throws IOException {
         setDifficulty(difficulty);
+        GameModel.setBoardBoxSize(boardSizeChoice.getValue());
+        GameModel.setNeedHistoryLoad(false);
 
         String fxmlPath = "fxml/GameView.fxml";
         showWindow(event, fxmlPath);
@@ -96,4 +131,26 @@ public class ChooseLevelController {
     public void handleHardButtonAction(ActionEvent event) throws IOException {
         loadGameScreen(GameDifficulty.HARD, event);
     }
+
+    /**
+     * Meghívja a loadGameScreen(...)-t, paraméterként átadja az event-et, szakértő nehézségi szinttel.
+     *
+     * @param event esemény, mely kiváltja a metódus hívását, tárolja az adatokat
+     * @throws IOException kivételt dobunk, ha hiba történne a képernyő betöltése során
+     */
+    @FXML
+    public void handleExpertButtonAction(ActionEvent event) throws IOException {
+        loadGameScreen(GameDifficulty.EXPERT, event);
+    }
+
+    /**
+     * Meghívja a loadGameScreen(...)-t, paraméterként átadja az event-et, extrém nehézségi szinttel.
+     *
+     * @param event esemény, mely kiváltja a metódus hívását, tárolja az adatokat
+     * @throws IOException kivételt dobunk, ha hiba történne a képernyő betöltése során
+     */
+    @FXML
+    public void handleExtremeButtonAction(ActionEvent event) throws IOException {
+        loadGameScreen(GameDifficulty.EXTREME, event);
+    }
 }
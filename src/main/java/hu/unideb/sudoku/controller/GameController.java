@@ -4,6 +4,7 @@ import hu.unideb.sudoku.model.*;
 import javafx.animation.Animation;
 import javafx.animation.KeyFrame;
 import javafx.animation.Timeline;
+import javafx.concurrent.Task;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -11,10 +12,13 @@ import javafx.scene.Node;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
+import javafx.scene.layout.ColumnConstraints;
 import javafx.scene.layout.GridPane;
+import javafx.scene.layout.RowConstraints;
 import javafx.stage.Stage;
 import javafx.util.Duration;
 import javafx.util.Pair;
+import org.tinylog.Logger;
 
 import java.io.IOException;
 import java.util.*;
@@ -24,8 +28,10 @@ import java.util.stream.Collectors;
  * A játék kontroller osztálya, összeköti a játék ablakot a játék logikával.
  */
 public class GameController {
-    private final GameModel model = new GameModel();
-    private final TextArea[][] textAreas = new TextArea[9][9];
+    private final SudokuGame model = GameModel.newGame();
+    private final int size = model.getGeometry().getSize();
+    private final int boxSize = model.getGeometry().getBoxSize();
+    private final TextArea[][] textAreas = new TextArea[size][size];
     private Set<Pair<Integer, Pair<Integer, Integer>>> singleHelpSet = new HashSet<>();
     PairsType pairsType;
 
@@ -33,10 +39,14 @@ public class GameController {
     private static final String POSSIBLE_VALUES = "possible-values";
     private static final String ERROR = "error";
     private static final String HINT = "hint";
+    private static final String LARGE_BOARD = "large-board";
+    private static final double BOARD_PERCENT = 85.5;
 
     private boolean needMoreHelp = false;
     private Timeline timeline;
     private Duration time = Duration.ZERO;
+    private CancellationToken generationToken;
+    private Task<Void> generationTask;
 
     @FXML
     private GridPane board;
@@ -52,14 +62,79 @@ public class GameController {
     private Button recalculateButton;
     @FXML
     private Button resetButton;
+    @FXML
+    private Button backButton;
 
     /**
      * Inicializálja az osztályt.
+     * Klasszikus táblánál, ha van kész feladvány a készletben, azonnal betölti, különben a háttérben generál egyet.
      */
     public void initialize() {
         if (!GameModel.isNeedHistoryLoad()) {
-            model.generateSudoku();
+            Optional<Puzzle> ready = model instanceof GameModel
+                    ? PuzzlePool.getInstance().poll(GameModel.getDifficulty())
+                    : Optional.empty();
+            if (ready.isPresent()) {
+                ((GameModel) model).loadPuzzle(ready.get());
+                loadBoard();
+            } else {
+                startGeneration();
+            }
+        }
+    }
+
+    /**
+     * Háttérszálon generál új feladványt, hogy a felület ne akadjon meg.
+     * A generálás legfeljebb {@link GameModel#GENERATION_TIME_BUDGET} ideig tart,
+     * és a {@link #cancelGeneration()} hívással (a képernyő elhagyásakor) megszakítható.
+     * A generálás alatt csak a vissza gomb használható.
+     */
+    private void startGeneration() {
+        CancellationToken token = CancellationToken.withTimeout(GameModel.GENERATION_TIME_BUDGET);
+        Task<Void> task = new Task<>() {
+            @Override
+            protected Void call() {
+                model.generateSudoku(token);
+                return null;
+            }
+        };
+        task.setOnSucceeded(e -> {
+            setControlsDisabled(false);
             loadBoard();
+        });
+        task.setOnFailed(e -> {
+            Logger.error(task.getException(), "Nem sikerült a feladvány generálása!");
+            setControlsDisabled(false);
+        });
+        generationToken = token;
+        generationTask = task;
+        setControlsDisabled(true);
+
+        Thread thread = new Thread(task, "sudoku-generator");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Megszakítja a még futó generálást, az eredménye ekkor már nem kerül betöltésre.
+     */
+    private void cancelGeneration() {
+        if (generationTask != null && generationTask.isRunning()) {
+            generationToken.cancel();
+            generationTask.cancel(false);
+        }
+    }
+
+    /**
+     * A vissza gomb kivételével tiltja vagy engedélyezi a képernyő vezérlőit.
+     *
+     * @param disabled true ha tiltja, false ha engedélyezi
+     */
+    private void setControlsDisabled(boolean disabled) {
+        for (Node node : board.getParent().getChildrenUnmodifiable()) {
+            if (node != backButton) {
+                node.setDisable(disabled);
+            }
         }
     }
 
@@ -117,9 +192,10 @@ public class GameController {
      * Ráteszi a cellákra a megfelelő stílust
      */
     private void createBoard() {
+        createBoardConstraints();
         CellPosition[][] sudokuBoard = model.getSudokuBoard();
-        for (int row = 0; row < 9; row++) {
-            for (int col = 0; col < 9; col++) {
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
                 TextArea textArea = new TextArea();
                 List<String> styles = determineBorderStyles(row, col);
 
@@ -141,6 +217,29 @@ public class GameController {
         }
     }
 
+    /**
+     * A tábla méretéhez igazítja a rács sorait és oszlopait.
+     * A rács mindig ugyanakkora helyet foglal, nagy tábláknál kisebb betűméretet kap.
+     */
+    private void createBoardConstraints() {
+        double percent = BOARD_PERCENT / size;
+        List<ColumnConstraints> columns = new ArrayList<>();
+        List<RowConstraints> rows = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            ColumnConstraints column = new ColumnConstraints();
+            column.setPercentWidth(percent);
+            columns.add(column);
+            RowConstraints row = new RowConstraints();
+            row.setPercentHeight(percent);
+            rows.add(row);
+        }
+        board.getColumnConstraints().setAll(columns);
+        board.getRowConstraints().setAll(rows);
+        if (size > BitBoard.SIZE) {
+            addStyleToNode(board, LARGE_BOARD);
+        }
+    }
+
     /**
      * A checkbox-hoz rendel egy listener-t.
      * Kezdetben aktívra teszi
@@ -165,8 +264,8 @@ public class GameController {
      */
     private void togglePossibleValuesDisplay(boolean show) {
         boolean hasError = false;
-        for (int row = 0; row < 9; row++) {
-            for (int col = 0; col < 9; col++) {
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
                 if (updateTextAreaBasedOnVisibility(show, row, col)) {
                     hasError = true;
                 }
@@ -225,8 +324,18 @@ public class GameController {
      * @param style    amit rárakunk a cellára
      */
     private void addStyleToTextArea(TextArea textArea, String style) {
-        if (!textArea.getStyleClass().contains(style)) {
-            textArea.getStyleClass().add(style);
+        addStyleToNode(textArea, style);
+    }
+
+    /**
+     * Hozzáadja a megadott stílust egy elemhez, ha még nincs rajta.
+     *
+     * @param node  az elem amelyet módosítunk
+     * @param style amit rárakunk az elemre
+     */
+    private void addStyleToNode(Node node, String style) {
+        if (!node.getStyleClass().contains(style)) {
+            node.getStyleClass().add(style);
         }
     }
 
@@ -236,7 +345,8 @@ public class GameController {
     @FXML
     private void saveGame() {
         long elapsedTimeSeconds = (long) time.toSeconds();
-        GameHistory gameHistory = new GameHistory(model.getOriginalBoard(), model.getSolvedBoard(), elapsedTimeSeconds, GameModel.getDifficulty().toString());
+        GameHistory gameHistory = new GameHistory(model.getOriginalBoard(), model.getSolvedBoard(), elapsedTimeSeconds,
+                Objects.requireNonNullElse(model.getPuzzleDifficulty(), GameModel.getDifficulty()).toString());
         GameHistoryService.saveGameHistory(gameHistory);
     }
 
@@ -296,7 +406,7 @@ public class GameController {
     private void setupTextArea(TextArea textArea, int row, int col) {
         if (isNotInitialNumber(textArea)) {
             textArea.textProperty().addListener((obs, oldVal, newVal) -> {
-                if (!newVal.matches("([1-9,\\n ]*)")) {
+                if (!newVal.matches(size > BitBoard.SIZE ? "([0-9,\\n ]*)" : "([1-9,\\n ]*)")) {
                     textArea.setText(oldVal);
                 }
             });
@@ -326,7 +436,7 @@ public class GameController {
         if (isNotInitialNumber(textArea)) {
             if (text.isEmpty()) {
                 revertTextAreaToModelValues(textArea, row, col);
-            } else if (text.matches("\\d")) {
+            } else if (text.matches("\\d+") && isValid(Set.of(Integer.parseInt(text)))) {
                 processSingleDigit(textArea, row, col, text);
             } else {
                 processPossibleValues(textArea, row, col, text);
@@ -364,7 +474,7 @@ public class GameController {
 
         if (!model.isValueValid(row, col, value)) {
             textArea.getStyleClass().add(ERROR);
-            showAlert("Hiba", "A(z) " + value + " szám már szerepel a sorban, oszlopban, vagy a 3x3-as blokkban!");
+            showAlert("Hiba", "A(z) " + value + " szám már szerepel a sorban, oszlopban, vagy a " + boxSize + "x" + boxSize + "-as blokkban!");
         }
         model.setValueAt(row, col, value);
     }
@@ -396,13 +506,13 @@ public class GameController {
 
     /**
      * Megvizsgálja, hogy valós a beírt lehetséges értékek.
-     * Valós: 1-9 közé esik
+     * Valós: 1 és a tábla mérete közé esik
      *
      * @param possibleValues lehetséges értékek
-     * @return igazzal tér vissza ha 1-9 közé esik
+     * @return igazzal tér vissza ha 1 és a tábla mérete közé esik
      */
     private boolean isValid(Set<Integer> possibleValues) {
-        return possibleValues.stream().allMatch(num -> num >= 1 && num <= 9);
+        return possibleValues.stream().allMatch(num -> num >= 1 && num <= size);
     }
 
     /**
@@ -486,7 +596,7 @@ public class GameController {
 
         for (int i = 0; i < sortedValues.size(); i++) {
             sb.append(sortedValues.get(i));
-            if ((i + 1) % 3 == 0 && i < sortedValues.size() - 1) {
+            if ((i + 1) % boxSize == 0 && i < sortedValues.size() - 1) {
                 sb.append("\n");
             } else if (i < sortedValues.size() - 1) {
                 sb.append(" ");
@@ -552,23 +662,23 @@ public class GameController {
     }
 
     /**
-     * Megvizsgálja, hogy a cella sora 2, 5 vagy 8.
+     * Megvizsgálja, hogy a cella sora egy blokk utolsó sora-e (9×9-es táblán 2, 5 vagy 8).
      *
      * @param row cella sora
      * @return igazzal tér vissza ha igen
      */
     private boolean isThickBorderRow(int row) {
-        return row == 2 || row == 5 || row == 8;
+        return (row + 1) % boxSize == 0;
     }
 
     /**
-     * Megvizsgálja, hogy a cella oszlopa 2, 5 vagy 8.
+     * Megvizsgálja, hogy a cella oszlopa egy blokk utolsó oszlopa-e (9×9-es táblán 2, 5 vagy 8).
      *
      * @param col cella oszlopa
      * @return igazzal tér vissza ha igen
      */
     private boolean isThickBorderCol(int col) {
-        return col == 2 || col == 5 || col == 8;
+        return (col + 1) % boxSize == 0;
     }
 
     /**
@@ -589,8 +699,8 @@ public class GameController {
      * @param sudokuBoard megadott tábla állapota
      */
     private void updateViewWithSudokuBoard(CellPosition[][] sudokuBoard) {
-        for (int row = 0; row < 9; row++) {
-            for (int col = 0; col < 9; col++) {
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
                 String textValue = sudokuBoard[row][col].getValue() != 0 ? String.valueOf(sudokuBoard[row][col].getValue()) : formatNumbers(sudokuBoard[row][col].getPossibleValues());
 
                 textAreas[row][col].setText(textValue);
@@ -642,6 +752,7 @@ public class GameController {
      */
     @FXML
     private void backToMainMenu(ActionEvent event) throws IOException {
+        cancelGeneration();
         Parent gameView = FXMLLoader.load(Objects.requireNonNull(getClass().getClassLoader().getResource("fxml/StarterView.fxml")));
         Scene gameScene = new Scene(gameView);
         Stage window = (Stage) ((Node) event.getSource()).getScene().getWindow();
@@ -671,8 +782,8 @@ public class GameController {
      * @param enabled true ha engedélyezi, false ha nem
      */
     private void setEditingEnabled(boolean enabled) {
-        for (int row = 0; row < 9; row++) {
-            for (int col = 0; col < 9; col++) {
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
                 TextArea textArea = textAreas[row][col];
                 if (!textArea.getStyleClass().contains(INITIAL_NUMBER)) {
                     textArea.setEditable(enabled);
@@ -686,8 +797,8 @@ public class GameController {
      */
     private void validateBoardAfterHelp() {
         boolean conflictFound = false;
-        for (int row = 0; row < 9; row++) {
-            for (int col = 0; col < 9; col++) {
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
                 int cellValue = model.getValueAt(row, col);
                 if (cellValue != 0 && !model.isValueValid(row, col, cellValue)) {
                     conflictFound = true;
@@ -830,9 +941,9 @@ public class GameController {
      */
     private void revealRandomCell() {
         List<Pair<Integer, Integer>> emptyCells = new ArrayList<>();
-        for (int row = 0; row < 9; row++) {
-            for (int col = 0; col < 9; col++) {
-                if (model.getSudokuBoard()[row][col].getValue() == 0) {
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                if (model.getValueAt(row, col) == 0) {
                     emptyCells.add(new Pair<>(row, col));
                 }
             }
@@ -842,7 +953,7 @@ public class GameController {
         Pair<Integer, Integer> chosenCell = emptyCells.get(0);
         int row = chosenCell.getKey();
         int col = chosenCell.getValue();
-        int correctValue = model.getSolvedBoard()[row][col].getValue();
+        int correctValue = model.getSolvedValueAt(row, col);
 
         model.setValueAt(row, col, correctValue);
         TextArea textArea = textAreas[row][col];
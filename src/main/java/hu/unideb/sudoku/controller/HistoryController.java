@@ -102,6 +102,7 @@ public class HistoryController {
         try {
             FXMLLoader loader = new FXMLLoader(getClass().getClassLoader().getResource("fxml/GameView.fxml"));
             GameModel.setNeedHistoryLoad(true);
+            GameModel.setBoardBoxSize(history.getBoxSize());
             Parent gameView = loader.load();
 
             GameController gameController = loader.getController();
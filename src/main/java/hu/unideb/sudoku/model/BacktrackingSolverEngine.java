@@ -0,0 +1,76 @@
+package hu.unideb.sudoku.model;
+
+import static hu.unideb.sudoku.model.BitBoard.*;
+
+/**
+ * Referencia megoldó: sorfolytonos, rekurzív visszalépéses keresés,
+ * amely minden üres cellában növekvő sorrendben próbálja a beírható értékeket.
+ * A többi motor helyességét ehhez lehet mérni.
+ */
+public class BacktrackingSolverEngine implements SolverEngine {
+    /**
+     * A motor neve.
+     */
+    public static final String NAME = "backtracking";
+
+    private final BitBoard scratch = new BitBoard();
+    private int[] solution;
+    private int solutionCount;
+    private int limit;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public int countSolutions(int[] grid, int limit, int[] solution) {
+        scratch.setValues(grid);
+        for (int cell = 0; cell < CELLS; cell++) {
+            int value = grid[cell];
+            if (value < 0 || value > SIZE || (value != 0 && !scratch.isValueValid(cell, value))) {
+                return 0;
+            }
+        }
+        this.solution = solution;
+        this.solutionCount = 0;
+        this.limit = limit;
+        search(0);
+        this.solution = null;
+        return solutionCount;
+    }
+
+    /**
+     * Rekurzív metódus, amely megszámolja a tábla lehetséges megoldásait.
+     * A munkatábla minden üres cellájában próbálkozik a beírható értékekkel,
+     * és rekurzívan ellenőrzi, hogy a tábla ezekkel az értékekkel megoldható-e.
+     *
+     * @param cell A jelenlegi cella indexe.
+     * @return Igaz, ha elértük a megoldások korlátját, és a keresést le kell állítani.
+     */
+    private boolean search(int cell) {
+        if (cell == CELLS) {
+            if (solutionCount == 0 && solution != null) {
+                System.arraycopy(scratch.toValueArray(), 0, solution, 0, CELLS);
+            }
+            solutionCount++;
+            return solutionCount >= limit;
+        }
+
+        if (scratch.getValue(cell) != 0) {
+            // Ugrás a következő cellára, ha ez már ki van töltve
+            return search(cell + 1);
+        }
+
+        int possibleValues = scratch.computeCandidates(cell);
+        while (possibleValues != 0) {
+            scratch.setValue(cell, lowestValue(possibleValues));
+            possibleValues &= possibleValues - 1;
+            if (search(cell + 1)) {
+                return true;
+            }
+            scratch.setValue(cell, 0); // BackTrack
+        }
+        return false;
+    }
+}
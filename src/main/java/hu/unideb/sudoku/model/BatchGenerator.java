@@ -0,0 +1,498 @@
+package hu.unideb.sudoku.model;
+
+import org.tinylog.Logger;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static hu.unideb.sudoku.model.BitBoard.CELLS;
+
+/**
+ * Nagy feladványgyűjtemények kötegelt előállítása több folyamattal.
+ * <p>
+ * A munka szeletekre (shard) oszlik: minden szeletet egy külön JVM folyamat állít elő
+ * ({@link #runWorkers(int, long, long)}), saját, át nem fedő magtartománnyal, saját szeletfájlba.
+ * A tartomány minden magjából pontosan egy feladvány készül, a szinteket a mag szerint felváltva, így egy szelet
+ * tartalma csak a tartománytól függ. A szeletfájl {@value #RECORD_SIZE} bájtos rekordokból áll
+ * (mag, nehézségi szint, a feladvány és a megoldás cellánként 4 biten).
+ * <p>
+ * A folyamatok {@link #getCheckpointInterval()} rekordonként ellenőrzőpontot írnak: a szeletfájl lemezre írása után
+ * atomi átnevezéssel frissítik a következő mag sorszámát. Megszakított futás után ugyanazzal a hívással
+ * folytatható: a szeletfájl az utolsó ellenőrzőpontig csonkolódik, és a munka onnan folytatódik,
+ * a kész szeletek pedig azonnal végeznek.
+ * <p>
+ * Az összefésülés ({@link #merge(Path)}) a szeletek ellenőrzőponttal lezárt rekordjait olvassa,
+ * a kanonikus alak ({@link CanonicalForm}) szerint kiszűri az ismétlődő (egymás transzformáltjaként előálló)
+ * feladványokat, és a maradékot értékelve, indexelt {@link PuzzleStore} tárba írja.
+ */
+public final class BatchGenerator {
+    /**
+     * Egy szeletrekord mérete bájtban.
+     */
+    public static final int RECORD_SIZE = 96;
+    /**
+     * Az ellenőrzőpontok közötti rekordok alapértelmezett száma.
+     */
+    public static final int DEFAULT_CHECKPOINT_INTERVAL = 256;
+    private static final int CHECKPOINT_MAGIC = 0x53444B43;
+    private static final int LEVEL_OFFSET = Long.BYTES;
+    private static final int GIVENS_OFFSET = LEVEL_OFFSET + 1;
+    private static final int SOLUTION_OFFSET = GIVENS_OFFSET + PackedGrid.BYTES;
+    private final Path directory;
+    private final GameDifficulty[] levels;
+    private int checkpointInterval = DEFAULT_CHECKPOINT_INTERVAL;
+
+    /**
+     * Létrehoz egy kötegelt generálást a megadott munkakönyvtárban.
+     *
+     * @param directory a szeletek és ellenőrzőpontok könyvtára
+     * @param levels    a generálandó nehézségi szintek, üres esetén az összes
+     */
+    public BatchGenerator(Path directory, GameDifficulty... levels) {
+        this.directory = directory;
+        this.levels = levels.length == 0 ? GameDifficulty.values() : levels.clone();
+    }
+
+    /**
+     * Visszaadja az ellenőrzőpontok közötti rekordok számát.
+     *
+     * @return a rekordok száma
+     */
+    public int getCheckpointInterval() {
+        return checkpointInterval;
+    }
+
+    /**
+     * Beállítja az ellenőrzőpontok közötti rekordok számát.
+     *
+     * @param checkpointInterval a rekordok száma
+     */
+    public void setCheckpointInterval(int checkpointInterval) {
+        if (checkpointInterval < 1) {
+            throw new IllegalArgumentException("Az ellenőrzőpontok távolsága legalább 1 kell legyen!");
+        }
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    /**
+     * Visszaadja egy szelet fájlját.
+     *
+     * @param shard a szelet sorszáma
+     * @return a szeletfájl
+     */
+    public Path shardFile(int shard) {
+        return directory.resolve(String.format("shard-%03d.bin", shard));
+    }
+
+    /**
+     * Visszaadja egy szelet ellenőrzőpont fájlját.
+     *
+     * @param shard a szelet sorszáma
+     * @return az ellenőrzőpont fájl
+     */
+    public Path checkpointFile(int shard) {
+        return directory.resolve(String.format("shard-%03d.ckpt", shard));
+    }
+
+    /**
+     * Előállítja (vagy az utolsó ellenőrzőponttól folytatja) egy szelet feladványait a hívó folyamatban.
+     *
+     * @param shard     a szelet sorszáma
+     * @param firstSeed a tartomány első magja
+     * @param count     a tartomány mérete
+     * @param token     a munka megszakítására szolgáló jelző, megszakításkor ellenőrzőpontot ír és visszatér
+     * @return a szeletben ellenőrzőponttal lezárt rekordok száma
+     * @throws IOException              ha a fájlok nem írhatók
+     * @throws IllegalArgumentException ha a meglévő ellenőrzőpont más tartományhoz tartozik
+     */
+    public long runShard(int shard, long firstSeed, long count, CancellationToken token) throws IOException {
+        Files.createDirectories(directory);
+        Checkpoint checkpoint = readCheckpoint(shard);
+        long next = 0;
+        if (checkpoint != null) {
+            if (checkpoint.firstSeed != firstSeed || checkpoint.count != count || !checkpoint.levels.equals(levelNames())) {
+                throw new IllegalArgumentException("A szelet ellenőrzőpontja más tartományhoz tartozik: " + shard);
+            }
+            next = checkpoint.next;
+            if (next >= count) {
+                return next;
+            }
+            Logger.info("Szelet {}: folytatás a(z) {}. magtól", shard, next);
+        }
+
+        SolverEngine engine = SolverEngines.createDefault();
+        ByteBuffer buffer = ByteBuffer.allocate(checkpointInterval * RECORD_SIZE);
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(shardFile(shard), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE)) {
+            channel.truncate(next * RECORD_SIZE);
+            channel.position(next * RECORD_SIZE);
+            while (next < count && !token.isCancelled()) {
+                long seed = firstSeed + next;
+                GameDifficulty level = levels[(int) Math.floorMod(seed, (long) levels.length)];
+                Puzzle puzzle = new PuzzleGenerator(new SplittableRandom(seed), engine).generate(level);
+                encode(seed, puzzle, buffer);
+                next++;
+                if (!buffer.hasRemaining() || next == count) {
+                    flush(channel, buffer);
+                    writeCheckpoint(shard, new Checkpoint(firstSeed, count, levelNames(), next));
+                }
+            }
+            if (buffer.position() > 0) {
+                flush(channel, buffer);
+                writeCheckpoint(shard, new Checkpoint(firstSeed, count, levelNames(), next));
+            }
+        }
+        Logger.info("Szelet {}: {}/{} feladvány ({} ms)", shard, next, count, (System.nanoTime() - start) / 1_000_000);
+        return next;
+    }
+
+    /**
+     * Elindít a megadott számú munkafolyamatot, amelyek a teljes magtartományt egyenlő szeletekre osztva
+     * állítják elő, és megvárja a végüket. A folyamatok kimenete a szeletek mellé, .log fájlba kerül.
+     * Megszakított futás után ugyanazokkal a paraméterekkel újra hívva az ellenőrzőpontoktól folytatódik.
+     *
+     * @param workers   a munkafolyamatok (szeletek) száma
+     * @param firstSeed a tartomány első magja
+     * @param total     a feladványok teljes száma
+     * @throws IOException           ha a folyamatok nem indíthatók
+     * @throws InterruptedException  ha a várakozás megszakad
+     * @throws IllegalStateException ha valamelyik munkafolyamat hibával állt le
+     */
+    public void runWorkers(int workers, long firstSeed, long total) throws IOException, InterruptedException {
+        Files.createDirectories(directory);
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        List<Process> processes = new ArrayList<>();
+        long offset = 0;
+        for (int shard = 0; shard < workers; shard++) {
+            long count = total / workers + (shard < total % workers ? 1 : 0);
+            File log = directory.resolve(String.format("shard-%03d.log", shard)).toFile();
+            processes.add(new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                    BatchGenerator.class.getName(), "worker", directory.toString(), Integer.toString(shard),
+                    Long.toString(firstSeed + offset), Long.toString(count), levelNames(),
+                    Integer.toString(checkpointInterval))
+                    .redirectErrorStream(true).redirectOutput(ProcessBuilder.Redirect.appendTo(log)).start());
+            offset += count;
+        }
+        for (int shard = 0; shard < workers; shard++) {
+            int exit = processes.get(shard).waitFor();
+            if (exit != 0) {
+                throw new IllegalStateException("A(z) " + shard + ". munkafolyamat hibával állt le: " + exit);
+            }
+        }
+        Logger.info("{} munkafolyamat végzett, {} feladvány", workers, total);
+    }
+
+    /**
+     * Összefésüli a könyvtár szeleteit: sorra olvassa az ellenőrzőponttal lezárt rekordokat, a kanonikus alak
+     * szerint kiszűri az ismétlődéseket, és az egyedi feladványokat értékelve a tárba írja.
+     * A félbemaradt szeletek lezárt részét is felhasználja, de figyelmeztetést ír.
+     *
+     * @param output a létrehozandó tár fájlja
+     * @return az összefésülés eredménye
+     * @throws IOException ha a fájlok nem olvashatók vagy írhatók
+     */
+    public MergeResult merge(Path output) throws IOException {
+        List<Integer> shards;
+        try (Stream<Path> files = Files.list(directory)) {
+            shards = files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.matches("shard-\\d+\\.ckpt"))
+                    .map(name -> Integer.parseInt(name.substring(6, name.length() - 5)))
+                    .sorted().collect(Collectors.toList());
+        }
+        Set<ByteBuffer> seen = new HashSet<>();
+        long read = 0;
+        long duplicates = 0;
+        ByteBuffer block = ByteBuffer.allocate(checkpointInterval * RECORD_SIZE);
+        int[] givens = new int[CELLS];
+        int[] solution = new int[CELLS];
+        try (PuzzleStore.Writer writer = PuzzleStore.create(output)) {
+            for (int shard : shards) {
+                Checkpoint checkpoint = readCheckpoint(shard);
+                if (checkpoint.next < checkpoint.count) {
+                    Logger.warn("A(z) {}. szelet félbemaradt: {}/{}", shard, checkpoint.next, checkpoint.count);
+                }
+                try (FileChannel channel = FileChannel.open(shardFile(shard), StandardOpenOption.READ)) {
+                    long remaining = checkpoint.next;
+                    while (remaining > 0) {
+                        block.clear().limit((int) Math.min(block.capacity(), remaining * RECORD_SIZE));
+                        while (block.hasRemaining()) {
+                            if (channel.read(block) < 0) {
+                                throw new IOException("Csonka szeletfájl: " + shardFile(shard));
+                            }
+                        }
+                        for (int position = 0; position < block.limit(); position += RECORD_SIZE) {
+                            PackedGrid.unpack(block, position + GIVENS_OFFSET, givens);
+                            PackedGrid.unpack(block, position + SOLUTION_OFFSET, solution);
+                            GameDifficulty level = GameDifficulty.values()[block.get(position + LEVEL_OFFSET)];
+                            read++;
+                            ByteBuffer key = ByteBuffer.allocate(PackedGrid.BYTES);
+                            PackedGrid.pack(CanonicalForm.of(givens).getGrid(), key, 0);
+                            if (seen.add(key)) {
+                                writer.add(new Puzzle(givens, solution, level));
+                            } else {
+                                duplicates++;
+                            }
+                        }
+                        remaining -= block.limit() / RECORD_SIZE;
+                    }
+                }
+            }
+            MergeResult result = new MergeResult(shards.size(), read, duplicates, writer.size());
+            Logger.info("Összefésülés: {}", result);
+            return result;
+        }
+    }
+
+    /**
+     * A szintek neve vesszővel elválasztva, az ellenőrzőpontba és a munkafolyamatok paraméterei közé.
+     *
+     * @return a szintek neve
+     */
+    private String levelNames() {
+        return Arrays.stream(levels).map(Enum::name).collect(Collectors.joining(","));
+    }
+
+    /**
+     * Rekorddá alakít egy feladványt a pufferben.
+     *
+     * @param seed   a feladvány magja
+     * @param puzzle a feladvány
+     * @param buffer a puffer, a rekord a pozíciójára kerül
+     */
+    private static void encode(long seed, Puzzle puzzle, ByteBuffer buffer) {
+        int start = buffer.position();
+        buffer.putLong(start, seed);
+        buffer.put(start + LEVEL_OFFSET, (byte) puzzle.getDifficulty().ordinal());
+        PackedGrid.pack(puzzle.getGivens(), buffer, start + GIVENS_OFFSET);
+        PackedGrid.pack(puzzle.getSolution(), buffer, start + SOLUTION_OFFSET);
+        buffer.position(start + RECORD_SIZE);
+    }
+
+    /**
+     * Kiírja a puffert a szeletfájlba, és megvárja, hogy lemezre kerüljön.
+     *
+     * @param channel a szeletfájl
+     * @param buffer  a puffer
+     * @throws IOException ha az írás nem sikerült
+     */
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+        channel.force(false);
+    }
+
+    /**
+     * Beolvassa egy szelet ellenőrzőpontját.
+     *
+     * @param shard a szelet sorszáma
+     * @return az ellenőrzőpont, null ha még nincs
+     * @throws IOException ha a fájl nem olvasható
+     */
+    private Checkpoint readCheckpoint(int shard) throws IOException {
+        Path file = checkpointFile(shard);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (InputStream stream = Files.newInputStream(file)) {
+            DataInputStream in = new DataInputStream(stream);
+            if (in.readInt() != CHECKPOINT_MAGIC) {
+                throw new IllegalArgumentException("Nem ellenőrzőpont fájl: " + file);
+            }
+            return new Checkpoint(in.readLong(), in.readLong(), in.readUTF(), in.readLong());
+        }
+    }
+
+    /**
+     * Atomi átnevezéssel kiírja egy szelet ellenőrzőpontját, így megszakításkor is a régi vagy az új marad meg.
+     *
+     * @param shard      a szelet sorszáma
+     * @param checkpoint az ellenőrzőpont
+     * @throws IOException ha az írás nem sikerült
+     */
+    private void writeCheckpoint(int shard, Checkpoint checkpoint) throws IOException {
+        Path file = checkpointFile(shard);
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (OutputStream stream = Files.newOutputStream(temporary)) {
+            DataOutputStream out = new DataOutputStream(stream);
+            out.writeInt(CHECKPOINT_MAGIC);
+            out.writeLong(checkpoint.firstSeed);
+            out.writeLong(checkpoint.count);
+            out.writeUTF(checkpoint.levels);
+            out.writeLong(checkpoint.next);
+            out.flush();
+        }
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Beolvassa a vesszővel elválasztott szintneveket.
+     *
+     * @param names a szintek neve
+     * @return a szintek
+     */
+    private static GameDifficulty[] parseLevels(String names) {
+        return Arrays.stream(names.split(",")).map(String::trim).filter(name -> !name.isEmpty())
+                .map(GameDifficulty::valueOf).toArray(GameDifficulty[]::new);
+    }
+
+    /**
+     * Parancssori belépési pont. Alparancsok:
+     * <ul>
+     *     <li>{@code run <könyvtár> <folyamatok> <darabszám> [első mag] [szintek]}: munkafolyamatok, majd
+     *     összefésülés a könyvtár {@code bank.store} fájljába;</li>
+     *     <li>{@code worker <könyvtár> <szelet> <első mag> <darabszám> [szintek] [ellenőrzőpont távolság]}:
+     *     egy szelet előállítása (ezt indítja a {@code run});</li>
+     *     <li>{@code merge <könyvtár> <kimenet> [szintek]}: csak az összefésülés.</li>
+     * </ul>
+     *
+     * @param args parancssori argumentumok
+     * @throws IOException          ha a fájlok nem írhatók
+     * @throws InterruptedException ha a várakozás megszakad
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 3 || !"merge".equals(args[0]) && args.length < 4) {
+            throw new IllegalArgumentException("Használat: BatchGenerator run|worker|merge <könyvtár> ...");
+        }
+        Path directory = Path.of(args[1]);
+        switch (args[0]) {
+            case "run" -> {
+                BatchGenerator batch = new BatchGenerator(directory,
+                        args.length > 5 ? parseLevels(args[5]) : new GameDifficulty[0]);
+                batch.runWorkers(Integer.parseInt(args[2]), args.length > 4 ? Long.parseLong(args[4]) : 0,
+                        Long.parseLong(args[3]));
+                batch.merge(directory.resolve("bank.store"));
+            }
+            case "worker" -> {
+                BatchGenerator batch = new BatchGenerator(directory,
+                        args.length > 5 ? parseLevels(args[5]) : new GameDifficulty[0]);
+                if (args.length > 6) {
+                    batch.setCheckpointInterval(Integer.parseInt(args[6]));
+                }
+                batch.runShard(Integer.parseInt(args[2]), Long.parseLong(args[3]), Long.parseLong(args[4]),
+                        new CancellationToken());
+            }
+            case "merge" -> new BatchGenerator(directory, args.length > 3 ? parseLevels(args[3]) : new GameDifficulty[0])
+                    .merge(Path.of(args[2]));
+            default -> throw new IllegalArgumentException("Ismeretlen alparancs: " + args[0]);
+        }
+    }
+
+    /**
+     * Egy szelet ellenőrzőpontja: a tartomány, a szintek és a következő előállítandó mag sorszáma.
+     */
+    private static final class Checkpoint {
+        private final long firstSeed;
+        private final long count;
+        private final String levels;
+        private final long next;
+
+        /**
+         * Létrehoz egy ellenőrzőpontot.
+         *
+         * @param firstSeed a tartomány első magja
+         * @param count     a tartomány mérete
+         * @param levels    a szintek neve
+         * @param next      a következő mag sorszáma a tartományon belül (egyben a lezárt rekordok száma)
+         */
+        private Checkpoint(long firstSeed, long count, String levels, long next) {
+            this.firstSeed = firstSeed;
+            this.count = count;
+            this.levels = levels;
+            this.next = next;
+        }
+    }
+
+    /**
+     * Az összefésülés eredménye.
+     */
+    public static final class MergeResult {
+        private final int shards;
+        private final long read;
+        private final long duplicates;
+        private final int written;
+
+        /**
+         * Létrehoz egy eredményt.
+         *
+         * @param shards     a szeletek száma
+         * @param read       a beolvasott rekordok száma
+         * @param duplicates a kiszűrt ismétlődések száma
+         * @param written    a tárba írt feladványok száma
+         */
+        MergeResult(int shards, long read, long duplicates, int written) {
+            this.shards = shards;
+            this.read = read;
+            this.duplicates = duplicates;
+            this.written = written;
+        }
+
+        /**
+         * Visszaadja a szeletek számát.
+         *
+         * @return a szeletek száma
+         */
+        public int getShards() {
+            return shards;
+        }
+
+        /**
+         * Visszaadja a beolvasott rekordok számát.
+         *
+         * @return a beolvasott rekordok száma
+         */
+        public long getRead() {
+            return read;
+        }
+
+        /**
+         * Visszaadja a kanonikus alak szerint kiszűrt ismétlődések számát.
+         *
+         * @return az ismétlődések száma
+         */
+        public long getDuplicates() {
+            return duplicates;
+        }
+
+        /**
+         * Visszaadja a tárba írt feladványok számát.
+         *
+         * @return a feladványok száma
+         */
+        public int getWritten() {
+            return written;
+        }
+
+        /**
+         * Visszaadja az eredmény szöveges alakját.
+         *
+         * @return az eredmény szöveges alakja
+         */
+        @Override
+        public String toString() {
+            return "MergeResult{shards=" + shards + ", read=" + read + ", duplicates=" + duplicates
+                    + ", written=" + written + '}';
+        }
+    }
+}
@@ -0,0 +1,349 @@
+package hu.unideb.sudoku.model;
+
+import org.tinylog.Logger;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+import static hu.unideb.sudoku.model.BitBoard.CELLS;
+
+/**
+ * Fordítási időben generált, értékelt feladványok tömör, bináris gyűjteménye.
+ * A fájlt a build a {@link PuzzleBankBuilder} futtatásával, rögzített magból állítja elő, és a jar
+ * {@value #DEFAULT_RESOURCE} erőforrásaként kerül az alkalmazásba.
+ * <p>
+ * A fájl felépítése: fejléc (azonosító, verzió, mag, majd nehézségi szintenként a szint neve, a feladványok
+ * száma és az első feladvány sorszáma), utána a {@value #RECORD_SIZE} bájtos, rögzített méretű rekordok:
+ * <ul>
+ *     <li>11 bájt: a megadott cellák bitmaszkja (a cella sorszámának megfelelő bit);</li>
+ *     <li>41 bájt: a megoldás cellánként 4 biten;</li>
+ *     <li>2 bájt: a {@link DifficultyGrader} szerinti pontszám;</li>
+ *     <li>1 bájt: a legnehezebb szükséges technika sorszáma plusz egy (0, ha nem volt szükség technikára);</li>
+ *     <li>1 bájt: jelzők, az első bit igaz, ha a technikák végig megoldják a feladványt.</li>
+ * </ul>
+ * Szintenként a rekordok pontszám szerint növekvő sorrendben állnak.
+ * Betöltéskor csak a fejléc értelmeződik, a rekordokat a {@link #get(GameDifficulty, int)} hívás
+ * bontja ki, amikor szükség van rájuk.
+ */
+public final class BinaryPuzzleBank {
+    /**
+     * Az alapértelmezett gyűjtemény erőforrásának neve.
+     */
+    public static final String DEFAULT_RESOURCE = "bank/puzzle_bank.bin";
+    /**
+     * Egy feladvány rekordjának mérete bájtban.
+     */
+    public static final int RECORD_SIZE = 56;
+    private static final int MAGIC = 0x53444B42;
+    private static final int VERSION = 1;
+    private static final int MASK_BYTES = (CELLS + 7) / 8;
+    private static final int SOLUTION_BYTES = (CELLS + 1) / 2;
+    private static final int RATING_OFFSET = MASK_BYTES + SOLUTION_BYTES;
+    private static final int SOLVED_FLAG = 1;
+    private static BinaryPuzzleBank defaultBank;
+    private final ByteBuffer data;
+    private final int dataStart;
+    private final long seed;
+    private final int[] counts = new int[GameDifficulty.values().length];
+    private final int[] firstRecords = new int[GameDifficulty.values().length];
+
+    /**
+     * Létrehoz egy gyűjteményt a bináris tartalomból, csak a fejlécet értelmezi.
+     *
+     * @param bytes a gyűjtemény bináris tartalma
+     * @throws IOException ha a fejléc nem olvasható
+     */
+    private BinaryPuzzleBank(byte[] bytes) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        if (in.readInt() != MAGIC) {
+            throw new IllegalArgumentException("Nem feladvány gyűjtemény fájl!");
+        }
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Nem támogatott gyűjtemény verzió: " + version);
+        }
+        seed = in.readLong();
+        int sections = in.readUnsignedByte();
+        int records = 0;
+        for (int i = 0; i < sections; i++) {
+            GameDifficulty difficulty = GameDifficulty.valueOf(in.readUTF());
+            counts[difficulty.ordinal()] = in.readInt();
+            firstRecords[difficulty.ordinal()] = in.readInt();
+            records += counts[difficulty.ordinal()];
+        }
+        dataStart = bytes.length - in.available();
+        if (in.available() < (long) records * RECORD_SIZE) {
+            throw new IllegalArgumentException("Csonka feladvány gyűjtemény fájl!");
+        }
+        data = ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+    }
+
+    /**
+     * Visszaadja az alapértelmezett, a jarba csomagolt gyűjteményt, első használatkor tölti be.
+     * Ha az erőforrás hiányzik (például a build generáló lépése nem futott le), üres gyűjteményt ad.
+     *
+     * @return az alapértelmezett gyűjtemény
+     */
+    public static synchronized BinaryPuzzleBank getDefault() {
+        if (defaultBank == null) {
+            defaultBank = loadDefault();
+        }
+        return defaultBank;
+    }
+
+    /**
+     * Betölti az alapértelmezett gyűjteményt, hiba esetén üres gyűjteményt ad.
+     *
+     * @return a betöltött gyűjtemény
+     */
+    private static BinaryPuzzleBank loadDefault() {
+        try (InputStream stream = BinaryPuzzleBank.class.getClassLoader().getResourceAsStream(DEFAULT_RESOURCE)) {
+            if (stream == null) {
+                Logger.warn("Nem található a beépített feladvány gyűjtemény: {}", DEFAULT_RESOURCE);
+                return empty();
+            }
+            BinaryPuzzleBank bank = read(stream.readAllBytes());
+            Logger.debug("Beépített feladvány gyűjtemény betöltve, mag: {}", bank.getSeed());
+            return bank;
+        } catch (IOException | IllegalArgumentException e) {
+            Logger.warn("A beépített feladvány gyűjtemény nem olvasható: {}", e.getMessage());
+            return empty();
+        }
+    }
+
+    /**
+     * Üres gyűjteményt készít.
+     *
+     * @return az üres gyűjtemény
+     */
+    private static BinaryPuzzleBank empty() {
+        try {
+            return new BinaryPuzzleBank(header(0, new int[GameDifficulty.values().length]));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Beolvas egy gyűjteményt a bináris tartalomból.
+     *
+     * @param bytes a gyűjtemény bináris tartalma
+     * @return a gyűjtemény
+     * @throws IOException              ha a fejléc csonka
+     * @throws IllegalArgumentException ha a tartalom nem támogatott formátumú
+     */
+    public static BinaryPuzzleBank read(byte[] bytes) throws IOException {
+        return new BinaryPuzzleBank(bytes);
+    }
+
+    /**
+     * Értékeli és kiírja a feladványokat bináris formában.
+     * Szintenként pontszám szerint rendezi a feladványokat.
+     *
+     * @param out     a kimenet
+     * @param seed    a feladványok előállításához használt mag, a fejlécbe kerül
+     * @param puzzles a feladványok nehézségi szint szerint
+     * @throws IOException ha az írás nem sikerült
+     */
+    public static void write(OutputStream out, long seed, Map<GameDifficulty, List<Puzzle>> puzzles)
+            throws IOException {
+        DifficultyGrader grader = new DifficultyGrader();
+        int[] counts = new int[GameDifficulty.values().length];
+        List<byte[]> records = new ArrayList<>();
+        for (GameDifficulty difficulty : GameDifficulty.values()) {
+            List<byte[]> level = new ArrayList<>();
+            for (Puzzle puzzle : puzzles.getOrDefault(difficulty, List.of())) {
+                level.add(encode(puzzle, grader.grade(puzzle)));
+            }
+            level.sort(Comparator.comparingInt(BinaryPuzzleBank::rating));
+            counts[difficulty.ordinal()] = level.size();
+            records.addAll(level);
+        }
+        out.write(header(seed, counts));
+        for (byte[] record : records) {
+            out.write(record);
+        }
+        out.flush();
+    }
+
+    /**
+     * Elkészíti a fájl fejlécét.
+     *
+     * @param seed   a mag
+     * @param counts a feladványok száma nehézségi szintenként
+     * @return a fejléc bájtjai
+     * @throws IOException ha az írás nem sikerült
+     */
+    private static byte[] header(long seed, int[] counts) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeLong(seed);
+        out.writeByte(counts.length);
+        int first = 0;
+        for (GameDifficulty difficulty : GameDifficulty.values()) {
+            out.writeUTF(difficulty.name());
+            out.writeInt(counts[difficulty.ordinal()]);
+            out.writeInt(first);
+            first += counts[difficulty.ordinal()];
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Egy feladványt és értékelését rekorddá alakítja.
+     *
+     * @param puzzle a feladvány
+     * @param grade  a feladvány értékelése
+     * @return a {@value #RECORD_SIZE} bájtos rekord
+     */
+    private static byte[] encode(Puzzle puzzle, Grade grade) {
+        byte[] record = new byte[RECORD_SIZE];
+        int[] givens = puzzle.getGivens();
+        int[] solution = puzzle.getSolution();
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (givens[cell] != 0) {
+                record[cell >> 3] |= (byte) (1 << (cell & 7));
+            }
+            record[MASK_BYTES + (cell >> 1)] |= (byte) (solution[cell] << ((cell & 1) == 0 ? 4 : 0));
+        }
+        int rating = Math.min(grade.getRating(), 0xFFFF);
+        record[RATING_OFFSET] = (byte) (rating >> 8);
+        record[RATING_OFFSET + 1] = (byte) rating;
+        Technique hardest = grade.getHardestTechnique();
+        record[RATING_OFFSET + 2] = (byte) (hardest == null ? 0 : hardest.ordinal() + 1);
+        record[RATING_OFFSET + 3] = (byte) (grade.isSolved() ? SOLVED_FLAG : 0);
+        return record;
+    }
+
+    /**
+     * Kiolvassa a rekordból a pontszámot.
+     *
+     * @param record a rekord
+     * @return a pontszám
+     */
+    private static int rating(byte[] record) {
+        return (record[RATING_OFFSET] & 0xFF) << 8 | record[RATING_OFFSET + 1] & 0xFF;
+    }
+
+    /**
+     * Visszaadja a gyűjtemény előállításához használt magot.
+     *
+     * @return a mag
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Visszaadja a megadott nehézségi szintű feladványok számát.
+     *
+     * @param difficulty a nehézségi szint
+     * @return a feladványok száma
+     */
+    public int size(GameDifficulty difficulty) {
+        return counts[difficulty.ordinal()];
+    }
+
+    /**
+     * Kibontja a megadott szint megadott sorszámú feladványát.
+     *
+     * @param difficulty a nehézségi szint
+     * @param index      a feladvány sorszáma a szinten belül (pontszám szerint növekvő sorrendben)
+     * @return a feladvány
+     * @throws IndexOutOfBoundsException ha nincs ilyen sorszámú feladvány
+     */
+    public Puzzle get(GameDifficulty difficulty, int index) {
+        int position = position(difficulty, index);
+        int[] givens = new int[CELLS];
+        int[] solution = new int[CELLS];
+        for (int cell = 0; cell < CELLS; cell++) {
+            int packed = data.get(position + MASK_BYTES + (cell >> 1)) & 0xFF;
+            solution[cell] = (cell & 1) == 0 ? packed >> 4 : packed & 0xF;
+            if ((data.get(position + (cell >> 3)) & (1 << (cell & 7))) != 0) {
+                givens[cell] = solution[cell];
+            }
+        }
+        return new Puzzle(givens, solution, difficulty);
+    }
+
+    /**
+     * Visszaadja a feladvány értékelés szerinti pontszámát ({@link Grade#getRating()}).
+     *
+     * @param difficulty a nehézségi szint
+     * @param index      a feladvány sorszáma a szinten belül
+     * @return a pontszám
+     */
+    public int getRating(GameDifficulty difficulty, int index) {
+        int position = position(difficulty, index) + RATING_OFFSET;
+        return (data.get(position) & 0xFF) << 8 | data.get(position + 1) & 0xFF;
+    }
+
+    /**
+     * Visszaadja a feladvány megoldásához szükséges legnehezebb technikát ({@link Grade#getHardestTechnique()}).
+     *
+     * @param difficulty a nehézségi szint
+     * @param index      a feladvány sorszáma a szinten belül
+     * @return a legnehezebb technika, null ha nem volt szükség technikára
+     */
+    public Technique getHardestTechnique(GameDifficulty difficulty, int index) {
+        int ordinal = data.get(position(difficulty, index) + RATING_OFFSET + 2) & 0xFF;
+        return ordinal == 0 ? null : Technique.values()[ordinal - 1];
+    }
+
+    /**
+     * Megadja, hogy a technikák végig megoldják-e a feladványt ({@link Grade#isSolved()}).
+     *
+     * @param difficulty a nehézségi szint
+     * @param index      a feladvány sorszáma a szinten belül
+     * @return Igaz, ha a feladvány találgatás nélkül megoldható.
+     */
+    public boolean isLogicallySolved(GameDifficulty difficulty, int index) {
+        return (data.get(position(difficulty, index) + RATING_OFFSET + 3) & SOLVED_FLAG) != 0;
+    }
+
+    /**
+     * Véletlenszerűen választ egy feladványt a szintről, és véletlen transzformációt alkalmaz rá.
+     *
+     * @param difficulty a kért nehézségi szint
+     * @param random     a véletlenszám generátor
+     * @return az új feladvány
+     * @throws IllegalStateException ha nincs a szinthez feladvány
+     */
+    public Puzzle next(GameDifficulty difficulty, RandomGenerator random) {
+        int size = size(difficulty);
+        if (size == 0) {
+            throw new IllegalStateException("Nincs beépített feladvány ehhez a szinthez: " + difficulty);
+        }
+        return PuzzleTransformer.random(random).apply(get(difficulty, random.nextInt(size)));
+    }
+
+    /**
+     * Kiszámítja egy rekord helyét a tartalomban.
+     *
+     * @param difficulty a nehézségi szint
+     * @param index      a feladvány sorszáma a szinten belül
+     * @return a rekord első bájtjának helye
+     * @throws IndexOutOfBoundsException ha nincs ilyen sorszámú feladvány
+     */
+    private int position(GameDifficulty difficulty, int index) {
+        if (index < 0 || index >= counts[difficulty.ordinal()]) {
+            throw new IndexOutOfBoundsException("Érvénytelen feladvány sorszám: " + index);
+        }
+        return dataStart + (firstRecords[difficulty.ordinal()] + index) * RECORD_SIZE;
+    }
+}
@@ -0,0 +1,483 @@
+package hu.unideb.sudoku.model;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Tömör, bitmaszkos Sudoku tábla reprezentáció.
+ * A cellák értékeit egy 81 elemű tömbben, a lehetséges értékeket cellánként egy 9 bites maszkban tárolja,
+ * a sorokban, oszlopokban és blokkokban már felhasznált számokat pedig házanként egy-egy maszk jelöli.
+ * Az i. bit (0-tól számozva) az i + 1 értéket jelenti.
+ * A házak és a szomszédok táblázatait a {@link BoardGeometry#CLASSIC} kényszergráf adja,
+ * a gyors elérés érdekében statikus tömbökben.
+ */
+public final class BitBoard {
+    /**
+     * A tábla mérete (sorok és oszlopok száma).
+     */
+    public static final int SIZE = 9;
+    /**
+     * A blokkok mérete.
+     */
+    public static final int BOX_SIZE = 3;
+    /**
+     * A cellák száma.
+     */
+    public static final int CELLS = SIZE * SIZE;
+    /**
+     * Az összes lehetséges értéket tartalmazó maszk.
+     */
+    public static final int ALL_CANDIDATES = (1 << SIZE) - 1;
+    /**
+     * A házak (sorok, oszlopok és blokkok) száma.
+     */
+    public static final int HOUSE_COUNT = 3 * SIZE;
+
+    private static final int[] ROW_OF = new int[CELLS];
+    private static final int[] COL_OF = new int[CELLS];
+    private static final int[] BOX_OF = new int[CELLS];
+    private static final int[][] PEERS = new int[CELLS][];
+    private static final int[][] HOUSES_OF = new int[CELLS][];
+    private static final int[][] HOUSES = new int[HOUSE_COUNT][];
+
+    private final int[] values = new int[CELLS];
+    private final int[] candidates = new int[CELLS];
+    private final int[] rowUsed = new int[SIZE];
+    private final int[] colUsed = new int[SIZE];
+    private final int[] boxUsed = new int[SIZE];
+
+    static {
+        BoardGeometry geometry = BoardGeometry.CLASSIC;
+        for (int cell = 0; cell < CELLS; cell++) {
+            ROW_OF[cell] = geometry.rowOf(cell);
+            COL_OF[cell] = geometry.colOf(cell);
+            BOX_OF[cell] = geometry.boxOf(cell);
+            PEERS[cell] = geometry.peersOf(cell);
+            HOUSES_OF[cell] = geometry.housesOf(cell);
+        }
+        for (int house = 0; house < HOUSE_COUNT; house++) {
+            HOUSES[house] = geometry.houseCells(house);
+        }
+    }
+
+    /**
+     * Visszaadja a sor és oszlop párhoz tartozó cella indexét.
+     *
+     * @param row A cella sorának indexe.
+     * @param col A cella oszlopának indexe.
+     * @return A cella indexe (0-80).
+     */
+    public static int index(int row, int col) {
+        return row * SIZE + col;
+    }
+
+    /**
+     * Visszaadja a cella sorának indexét.
+     *
+     * @param cell A cella indexe.
+     * @return A sor indexe.
+     */
+    public static int rowOf(int cell) {
+        return ROW_OF[cell];
+    }
+
+    /**
+     * Visszaadja a cella oszlopának indexét.
+     *
+     * @param cell A cella indexe.
+     * @return Az oszlop indexe.
+     */
+    public static int colOf(int cell) {
+        return COL_OF[cell];
+    }
+
+    /**
+     * Visszaadja a cella blokkjának indexét (sorfolytonosan 0-8).
+     *
+     * @param cell A cella indexe.
+     * @return A blokk indexe.
+     */
+    public static int boxOf(int cell) {
+        return BOX_OF[cell];
+    }
+
+    /**
+     * Visszaadja a cella 20 szomszédját (azonos sor, oszlop vagy blokk cellái).
+     * A visszaadott tömb nem módosítható.
+     *
+     * @param cell A cella indexe.
+     * @return A szomszédos cellák indexei.
+     */
+    static int[] peersOf(int cell) {
+        return PEERS[cell];
+    }
+
+    /**
+     * Visszaadja a cellát tartalmazó három ház (sor, oszlop, blokk) indexét a {@link #houseCells(int)} számozása szerint.
+     * A visszaadott tömb nem módosítható.
+     *
+     * @param cell A cella indexe.
+     * @return A cella házai.
+     */
+    static int[] housesOf(int cell) {
+        return HOUSES_OF[cell];
+    }
+
+    /**
+     * Visszaadja a sor celláinak indexeit balról jobbra.
+     * A visszaadott tömb nem módosítható.
+     *
+     * @param row A sor indexe.
+     * @return A sor cellái.
+     */
+    static int[] rowCells(int row) {
+        return HOUSES[row];
+    }
+
+    /**
+     * Visszaadja az oszlop celláinak indexeit fentről lefelé.
+     * A visszaadott tömb nem módosítható.
+     *
+     * @param col Az oszlop indexe.
+     * @return Az oszlop cellái.
+     */
+    static int[] colCells(int col) {
+        return HOUSES[SIZE + col];
+    }
+
+    /**
+     * Visszaadja a blokk celláinak indexeit sorfolytonosan.
+     * A visszaadott tömb nem módosítható.
+     *
+     * @param box A blokk indexe.
+     * @return A blokk cellái.
+     */
+    static int[] boxCells(int box) {
+        return HOUSES[2 * SIZE + box];
+    }
+
+    /**
+     * Visszaadja a ház celláinak indexeit: 0-8 a sorok, 9-17 az oszlopok, 18-26 a blokkok.
+     * A visszaadott tömb nem módosítható.
+     *
+     * @param house A ház indexe.
+     * @return A ház cellái.
+     */
+    static int[] houseCells(int house) {
+        return HOUSES[house];
+    }
+
+    /**
+     * Visszaadja az értékhez tartozó bitet.
+     *
+     * @param value Az érték (1-9).
+     * @return Az értékhez tartozó bit.
+     */
+    public static int bit(int value) {
+        return 1 << (value - 1);
+    }
+
+    /**
+     * Visszaadja a maszk legkisebb értékét.
+     *
+     * @param mask A maszk.
+     * @return A legkisebb érték, vagy 0, ha a maszk üres.
+     */
+    public static int lowestValue(int mask) {
+        return mask == 0 ? 0 : Integer.numberOfTrailingZeros(mask) + 1;
+    }
+
+    /**
+     * Halmazból maszkot készít, a tartományon kívüli értékeket figyelmen kívül hagyja.
+     *
+     * @param values Az értékek halmaza.
+     * @return Az értékeket tartalmazó maszk.
+     */
+    public static int toMask(Set<Integer> values) {
+        int mask = 0;
+        for (int value : values) {
+            if (isDigit(value)) {
+                mask |= bit(value);
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Maszkból halmazt készít.
+     *
+     * @param mask A maszk.
+     * @return A maszkban szereplő értékek halmaza.
+     */
+    public static Set<Integer> toSet(int mask) {
+        Set<Integer> result = new HashSet<>();
+        while (mask != 0) {
+            result.add(lowestValue(mask));
+            mask &= mask - 1;
+        }
+        return result;
+    }
+
+    /**
+     * Megvizsgálja, hogy az érték érvényes Sudoku szám-e.
+     *
+     * @param value Az érték.
+     * @return Igaz, ha 1 és 9 közé esik.
+     */
+    private static boolean isDigit(int value) {
+        return value >= 1 && value <= SIZE;
+    }
+
+    /**
+     * Visszaadja a cella értékét.
+     *
+     * @param cell A cella indexe.
+     * @return A cella értéke, 0 ha üres.
+     */
+    public int getValue(int cell) {
+        return values[cell];
+    }
+
+    /**
+     * Beállítja a cella értékét, és törli a lehetséges értékeit.
+     * A házak maszkjait is frissíti; érték törlésekor a házakat újraszámolja,
+     * így ütköző (duplikált) értékek esetén is helyes marad.
+     *
+     * @param cell  A cella indexe.
+     * @param value A beállítandó érték, 0 ha törölni szeretnénk.
+     */
+    public void setValue(int cell, int value) {
+        int oldValue = values[cell];
+        values[cell] = value;
+        candidates[cell] = 0;
+        if (oldValue == value) {
+            return;
+        }
+        if (isDigit(oldValue)) {
+            recomputeHouses(cell);
+        } else if (isDigit(value)) {
+            int bit = bit(value);
+            rowUsed[ROW_OF[cell]] |= bit;
+            colUsed[COL_OF[cell]] |= bit;
+            boxUsed[BOX_OF[cell]] |= bit;
+        }
+    }
+
+    /**
+     * Visszaadja a cella lehetséges értékeinek maszkját.
+     *
+     * @param cell A cella indexe.
+     * @return A lehetséges értékek maszkja.
+     */
+    public int getCandidates(int cell) {
+        return candidates[cell];
+    }
+
+    /**
+     * Beállítja a cella lehetséges értékeit, és a cella értékét 0-ra állítja.
+     *
+     * @param cell A cella indexe.
+     * @param mask A lehetséges értékek maszkja.
+     */
+    public void setCandidates(int cell, int mask) {
+        setValue(cell, 0);
+        candidates[cell] = mask & ALL_CANDIDATES;
+    }
+
+    /**
+     * Visszaadja a cella sorában, oszlopában és blokkjában már szereplő értékek maszkját.
+     *
+     * @param cell A cella indexe.
+     * @return A felhasznált értékek maszkja.
+     */
+    public int usedMask(int cell) {
+        return rowUsed[ROW_OF[cell]] | colUsed[COL_OF[cell]] | boxUsed[BOX_OF[cell]];
+    }
+
+    /**
+     * Kiszámítja a cellába az aktuális állapot alapján beírható értékek maszkját.
+     *
+     * @param cell A cella indexe.
+     * @return A beírható értékek maszkja.
+     */
+    public int computeCandidates(int cell) {
+        return ALL_CANDIDATES & ~usedMask(cell);
+    }
+
+    /**
+     * Ellenőrzi, hogy az érték egyik szomszédos cellában sem szerepel-e.
+     *
+     * @param cell  A cella indexe.
+     * @param value Az ellenőrizendő érték.
+     * @return Igaz, ha egyik szomszéd értéke sem egyezik meg vele.
+     */
+    public boolean isValueValid(int cell, int value) {
+        for (int peer : PEERS[cell]) {
+            if (values[peer] == value) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Megvizsgálja, hogy minden cellában van-e érték.
+     *
+     * @return Igaz, ha nincs üres cella.
+     */
+    public boolean isComplete() {
+        for (int value : values) {
+            if (value == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Megszámolja az üres cellákat.
+     *
+     * @return Az üres cellák száma.
+     */
+    public int emptyCount() {
+        int count = 0;
+        for (int value : values) {
+            if (value == 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Kiüríti a táblát.
+     */
+    public void clear() {
+        Arrays.fill(values, 0);
+        Arrays.fill(candidates, 0);
+        Arrays.fill(rowUsed, 0);
+        Arrays.fill(colUsed, 0);
+        Arrays.fill(boxUsed, 0);
+    }
+
+    /**
+     * Átmásolja egy másik tábla teljes állapotát.
+     *
+     * @param other A másolandó tábla.
+     */
+    public void copyFrom(BitBoard other) {
+        System.arraycopy(other.values, 0, values, 0, CELLS);
+        System.arraycopy(other.candidates, 0, candidates, 0, CELLS);
+        System.arraycopy(other.rowUsed, 0, rowUsed, 0, SIZE);
+        System.arraycopy(other.colUsed, 0, colUsed, 0, SIZE);
+        System.arraycopy(other.boxUsed, 0, boxUsed, 0, SIZE);
+    }
+
+    /**
+     * Visszaadja a cellák értékeinek másolatát.
+     *
+     * @return A 81 elemű értéktömb másolata.
+     */
+    public int[] toValueArray() {
+        return values.clone();
+    }
+
+    /**
+     * Beállítja az összes cella értékét, a lehetséges értékeket törli.
+     *
+     * @param newValues A 81 elemű értéktömb.
+     */
+    public void setValues(int[] newValues) {
+        System.arraycopy(newValues, 0, values, 0, CELLS);
+        Arrays.fill(candidates, 0);
+        recomputeAllHouses();
+    }
+
+    /**
+     * Betölti az állapotot egy CellPosition nézetből.
+     *
+     * @param cells A betöltendő tábla.
+     */
+    public void readFrom(CellPosition[][] cells) {
+        for (int row = 0; row < SIZE; row++) {
+            for (int col = 0; col < SIZE; col++) {
+                int cell = index(row, col);
+                values[cell] = cells[row][col].getValue();
+                candidates[cell] = values[cell] == 0 ? toMask(cells[row][col].getPossibleValues()) : 0;
+            }
+        }
+        recomputeAllHouses();
+    }
+
+    /**
+     * Kiírja az állapotot egy CellPosition nézetbe, a meglévő cellákat felülírva.
+     *
+     * @param cells A cél tábla, hiányzó cellák esetén újakat hoz létre.
+     */
+    public void writeTo(CellPosition[][] cells) {
+        for (int row = 0; row < SIZE; row++) {
+            for (int col = 0; col < SIZE; col++) {
+                int cell = index(row, col);
+                if (cells[row][col] == null) {
+                    cells[row][col] = new CellPosition();
+                }
+                if (values[cell] != 0) {
+                    cells[row][col].setValue(values[cell]);
+                } else {
+                    cells[row][col].setPossibleValues(toSet(candidates[cell]));
+                }
+            }
+        }
+    }
+
+    /**
+     * Újraszámolja a cellát tartalmazó sor, oszlop és blokk maszkját.
+     *
+     * @param cell A cella indexe.
+     */
+    private void recomputeHouses(int cell) {
+        rowUsed[ROW_OF[cell]] = houseMask(rowCells(ROW_OF[cell]));
+        colUsed[COL_OF[cell]] = houseMask(colCells(COL_OF[cell]));
+        boxUsed[BOX_OF[cell]] = houseMask(boxCells(BOX_OF[cell]));
+    }
+
+    /**
+     * Kiszámítja a ház celláiban szereplő értékek maszkját.
+     *
+     * @param house A ház cellái.
+     * @return A szereplő értékek maszkja.
+     */
+    private int houseMask(int[] house) {
+        int mask = 0;
+        for (int cell : house) {
+            mask |= digitBit(values[cell]);
+        }
+        return mask;
+    }
+
+    /**
+     * Újraszámolja az összes ház maszkját.
+     */
+    private void recomputeAllHouses() {
+        Arrays.fill(rowUsed, 0);
+        Arrays.fill(colUsed, 0);
+        Arrays.fill(boxUsed, 0);
+        for (int cell = 0; cell < CELLS; cell++) {
+            int bit = digitBit(values[cell]);
+            rowUsed[ROW_OF[cell]] |= bit;
+            colUsed[COL_OF[cell]] |= bit;
+            boxUsed[BOX_OF[cell]] |= bit;
+        }
+    }
+
+    /**
+     * Visszaadja az értékhez tartozó bitet, érvénytelen érték esetén 0-t.
+     *
+     * @param value Az érték.
+     * @return Az értékhez tartozó bit, vagy 0.
+     */
+    private static int digitBit(int value) {
+        return isDigit(value) ? bit(value) : 0;
+    }
+}
@@ -0,0 +1,555 @@
+package hu.unideb.sudoku.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Tetszőleges blokkméretű (n×n blokkokból álló, n²×n² cellás) Sudoku tábla kényszergráfja.
+ * A szabályokat házak írják le: olyan n² cellás csoportok, amelyekben minden érték pontosan egyszer szerepel.
+ * A klasszikus táblán ezek a sorok, oszlopok és blokkok; a változatok csak házakat adnak hozzá vagy cserélnek:
+ * X-Sudokuban a két átló ({@link #withDiagonals()}), Jigsaw Sudokuban a blokkok helyett szabálytalan régiók
+ * ({@link #withRegions(int[])}), Killer Sudokuban pedig összeggel megadott ketrecek ({@link #withCages(List)}).
+ * Előre kiszámolja a házak celláit, a cellákat tartalmazó házakat és a cellák szomszédait,
+ * így a {@link GridBoard}, a {@link GridSolver}, a {@link BitBoard} és a segítő algoritmusok csak táblázatokat olvasnak.
+ * A lehetséges értékeket 64 bites maszkok tárolják, ezért a tábla legfeljebb 64 értékű (8×8-as blokkok) lehet.
+ * Az i. bit (0-tól számozva) az i + 1 értéket jelenti. A példányok nem módosíthatók,
+ * a klasszikus elrendezésből blokkméretenként egy készül.
+ */
+public final class BoardGeometry {
+    /**
+     * A legkisebb támogatott blokkméret (4×4-es tábla).
+     */
+    public static final int MIN_BOX_SIZE = 2;
+    /**
+     * A legnagyobb támogatott blokkméret (64×64-es tábla).
+     */
+    public static final int MAX_BOX_SIZE = 8;
+    private static final BoardGeometry[] INSTANCES = new BoardGeometry[MAX_BOX_SIZE + 1];
+    /**
+     * A klasszikus 9×9-es tábla geometriája.
+     */
+    public static final BoardGeometry CLASSIC = of(BitBoard.BOX_SIZE);
+
+    private final int boxSize;
+    private final int size;
+    private final int cells;
+    private final long allCandidates;
+    private final int[] rowOf;
+    private final int[] colOf;
+    private final int[] boxOf;
+    private final boolean standardRegions;
+    private final boolean diagonals;
+    private final int[][] houses;
+    private final int[][] housesOf;
+    private final int[][] peers;
+    private final List<Cage> cages;
+    private final int[] cageOf;
+
+    /**
+     * Kiszámolja a tábla táblázatait.
+     *
+     * @param boxSize   a blokkok oldalhossza
+     * @param regionOf  cellánként a régió (blokk) indexe, null esetén a szabályos blokkok
+     * @param diagonals Igaz, ha a két átló is ház (X-Sudoku)
+     * @param cages     a Killer ketrecek, üres lista ha nincsenek
+     */
+    private BoardGeometry(int boxSize, int[] regionOf, boolean diagonals, List<Cage> cages) {
+        this.boxSize = boxSize;
+        this.size = boxSize * boxSize;
+        this.cells = size * size;
+        this.allCandidates = size == Long.SIZE ? -1L : (1L << size) - 1;
+        this.rowOf = new int[cells];
+        this.colOf = new int[cells];
+        this.boxOf = new int[cells];
+        this.diagonals = diagonals;
+        this.houses = new int[diagonals ? 3 * size + 2 : 3 * size][size];
+        this.cages = List.copyOf(cages);
+        this.cageOf = new int[cells];
+
+        int[] regionFill = new int[size];
+        boolean standard = true;
+        for (int cell = 0; cell < cells; cell++) {
+            int row = cell / size;
+            int col = cell % size;
+            int box = (row / boxSize) * boxSize + col / boxSize;
+            rowOf[cell] = row;
+            colOf[cell] = col;
+            boxOf[cell] = regionOf == null ? box : regionOf[cell];
+            standard &= boxOf[cell] == box;
+            houses[row][col] = cell;
+            houses[size + col][row] = cell;
+            houses[2 * size + boxOf[cell]][regionFill[boxOf[cell]]++] = cell;
+            if (diagonals && row == col) {
+                houses[3 * size][row] = cell;
+            }
+            if (diagonals && row + col == size - 1) {
+                houses[3 * size + 1][row] = cell;
+            }
+        }
+        this.standardRegions = standard;
+
+        Arrays.fill(cageOf, -1);
+        for (int i = 0; i < this.cages.size(); i++) {
+            Cage cage = this.cages.get(i);
+            for (int j = 0; j < cage.size(); j++) {
+                cageOf[cage.cellAt(j)] = i;
+            }
+        }
+        this.housesOf = buildHousesOf();
+        this.peers = buildPeers();
+    }
+
+    /**
+     * Cellánként összegyűjti az őt tartalmazó házak indexeit.
+     *
+     * @return a cellák házainak táblázata
+     */
+    private int[][] buildHousesOf() {
+        int[] counts = new int[cells];
+        for (int[] house : houses) {
+            for (int cell : house) {
+                counts[cell]++;
+            }
+        }
+        int[][] result = new int[cells][];
+        for (int cell = 0; cell < cells; cell++) {
+            result[cell] = new int[counts[cell]];
+            counts[cell] = 0;
+        }
+        for (int house = 0; house < houses.length; house++) {
+            for (int cell : houses[house]) {
+                result[cell][counts[cell]++] = house;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Cellánként összegyűjti a szomszédokat növekvő sorrendben: minden olyan cellát,
+     * amely valamelyik házában vagy a ketrecében szerepel.
+     *
+     * @return a szomszédok táblázata
+     */
+    private int[][] buildPeers() {
+        int[][] result = new int[cells][];
+        boolean[] mark = new boolean[cells];
+        int[] buffer = new int[cells];
+        for (int cell = 0; cell < cells; cell++) {
+            for (int house : housesOf[cell]) {
+                for (int other : houses[house]) {
+                    mark[other] = true;
+                }
+            }
+            if (cageOf[cell] >= 0) {
+                Cage cage = cages.get(cageOf[cell]);
+                for (int j = 0; j < cage.size(); j++) {
+                    mark[cage.cellAt(j)] = true;
+                }
+            }
+            mark[cell] = false;
+            int count = 0;
+            for (int other = 0; other < cells; other++) {
+                if (mark[other]) {
+                    buffer[count++] = other;
+                    mark[other] = false;
+                }
+            }
+            result[cell] = Arrays.copyOf(buffer, count);
+        }
+        return result;
+    }
+
+    /**
+     * Visszaadja a megadott blokkméretű tábla geometriáját.
+     *
+     * @param boxSize a blokkok oldalhossza ({@link #MIN_BOX_SIZE}-{@link #MAX_BOX_SIZE})
+     * @return a geometria
+     * @throws IllegalArgumentException ha a blokkméret nem támogatott
+     */
+    public static BoardGeometry of(int boxSize) {
+        if (boxSize < MIN_BOX_SIZE || boxSize > MAX_BOX_SIZE) {
+            throw new IllegalArgumentException("Nem támogatott blokkméret: " + boxSize);
+        }
+        synchronized (INSTANCES) {
+            if (INSTANCES[boxSize] == null) {
+                INSTANCES[boxSize] = new BoardGeometry(boxSize, null, false, List.of());
+            }
+            return INSTANCES[boxSize];
+        }
+    }
+
+    /**
+     * X-Sudoku: a táblához hozzáadja a két átlót mint házat.
+     *
+     * @return az átlókkal bővített geometria
+     */
+    public BoardGeometry withDiagonals() {
+        return new BoardGeometry(boxSize, boxOf, true, cages);
+    }
+
+    /**
+     * Jigsaw Sudoku: a blokkokat szabálytalan régiókra cseréli.
+     *
+     * @param regionOf cellánként a régió indexe (0-tól a tábla méretéig), minden régió pontosan annyi cellából áll,
+     *                 amekkora a tábla mérete
+     * @return a régiókkal megadott geometria
+     * @throws IllegalArgumentException ha a régiók nem osztják egyenlő részekre a táblát
+     */
+    public BoardGeometry withRegions(int[] regionOf) {
+        if (regionOf.length != cells) {
+            throw new IllegalArgumentException("A régió táblának " + cells + " cellából kell állnia!");
+        }
+        int[] regionSizes = new int[size];
+        for (int region : regionOf) {
+            if (region < 0 || region >= size || ++regionSizes[region] > size) {
+                throw new IllegalArgumentException("Érvénytelen régió felosztás!");
+            }
+        }
+        return new BoardGeometry(boxSize, regionOf.clone(), diagonals, cages);
+    }
+
+    /**
+     * Killer Sudoku: a táblához ketreceket ad, a korábbi ketreceket lecseréli.
+     * Egy cella legfeljebb egy ketrecben lehet, a ketrec cellái a tábla szomszédaivá válnak.
+     *
+     * @param newCages a ketrecek, üres lista esetén a geometria ketrecek nélküli
+     * @return a ketrecekkel bővített geometria
+     * @throws IllegalArgumentException ha egy ketrec a táblán kívülre esik, átfed egy másikkal,
+     *                                  túl nagy, vagy az összege nem érhető el különböző értékekkel
+     */
+    public BoardGeometry withCages(List<Cage> newCages) {
+        boolean[] covered = new boolean[cells];
+        for (Cage cage : newCages) {
+            if (cage.size() > size || cage.getSum() < minSum(cage.size()) || cage.getSum() > maxSum(cage.size())) {
+                throw new IllegalArgumentException("Érvénytelen ketrec: " + cage);
+            }
+            for (int j = 0; j < cage.size(); j++) {
+                int cell = cage.cellAt(j);
+                if (cell < 0 || cell >= cells || covered[cell]) {
+                    throw new IllegalArgumentException("Érvénytelen vagy átfedő ketrec: " + cage);
+                }
+                covered[cell] = true;
+            }
+        }
+        return new BoardGeometry(boxSize, boxOf, diagonals, newCages);
+    }
+
+    /**
+     * Visszaadja a k legkisebb különböző érték összegét.
+     *
+     * @param k az értékek száma
+     * @return a legkisebb elérhető összeg
+     */
+    private static int minSum(int k) {
+        return k * (k + 1) / 2;
+    }
+
+    /**
+     * Visszaadja a k legnagyobb különböző érték összegét ezen a táblán.
+     *
+     * @param k az értékek száma
+     * @return a legnagyobb elérhető összeg
+     */
+    private int maxSum(int k) {
+        return k * (2 * size - k + 1) / 2;
+    }
+
+    /**
+     * Visszaadja a blokkok oldalhosszát.
+     *
+     * @return a blokkméret
+     */
+    public int getBoxSize() {
+        return boxSize;
+    }
+
+    /**
+     * Visszaadja a tábla méretét (sorok, oszlopok és értékek száma).
+     *
+     * @return a tábla mérete
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Visszaadja a cellák számát.
+     *
+     * @return a cellák száma
+     */
+    public int getCellCount() {
+        return cells;
+    }
+
+    /**
+     * Visszaadja a házak (sorok, oszlopok, blokkok vagy régiók, és ha vannak, az átlók) számát.
+     *
+     * @return a házak száma
+     */
+    public int getHouseCount() {
+        return houses.length;
+    }
+
+    /**
+     * Visszaadja az összes lehetséges értéket tartalmazó maszkot.
+     *
+     * @return a teljes maszk
+     */
+    public long getAllCandidates() {
+        return allCandidates;
+    }
+
+    /**
+     * Visszaadja a sor és oszlop párhoz tartozó cella indexét.
+     *
+     * @param row A cella sorának indexe.
+     * @param col A cella oszlopának indexe.
+     * @return A cella indexe.
+     */
+    public int index(int row, int col) {
+        return row * size + col;
+    }
+
+    /**
+     * Visszaadja a cella sorának indexét.
+     *
+     * @param cell A cella indexe.
+     * @return A sor indexe.
+     */
+    public int rowOf(int cell) {
+        return rowOf[cell];
+    }
+
+    /**
+     * Visszaadja a cella oszlopának indexét.
+     *
+     * @param cell A cella indexe.
+     * @return Az oszlop indexe.
+     */
+    public int colOf(int cell) {
+        return colOf[cell];
+    }
+
+    /**
+     * Visszaadja a cella blokkjának (Jigsaw táblán régiójának) indexét.
+     *
+     * @param cell A cella indexe.
+     * @return A blokk indexe.
+     */
+    public int boxOf(int cell) {
+        return boxOf[cell];
+    }
+
+    /**
+     * Visszaadja a cella szomszédait növekvő sorrendben: minden cellát, amely vele közös házban vagy ketrecben van.
+     * A visszaadott tömb nem módosítható.
+     *
+     * @param cell A cella indexe.
+     * @return A szomszédos cellák indexei.
+     */
+    public int[] peersOf(int cell) {
+        return peers[cell];
+    }
+
+    /**
+     * Visszaadja a cellát tartalmazó házak indexeit növekvő sorrendben.
+     * A visszaadott tömb nem módosítható.
+     *
+     * @param cell A cella indexe.
+     * @return A cella házai.
+     */
+    public int[] housesOf(int cell) {
+        return housesOf[cell];
+    }
+
+    /**
+     * Visszaadja a ház celláinak indexeit: előbb a sorok, aztán az oszlopok, majd a blokkok (régiók),
+     * végül X-Sudokuban a főátló és a mellékátló következnek. A visszaadott tömb nem módosítható.
+     *
+     * @param house A ház indexe.
+     * @return A ház cellái.
+     */
+    public int[] houseCells(int house) {
+        return houses[house];
+    }
+
+    /**
+     * Visszaadja a sor celláinak indexeit balról jobbra.
+     *
+     * @param row A sor indexe.
+     * @return A sor cellái.
+     */
+    public int[] rowCells(int row) {
+        return houses[row];
+    }
+
+    /**
+     * Visszaadja az oszlop celláinak indexeit fentről lefelé.
+     *
+     * @param col Az oszlop indexe.
+     * @return Az oszlop cellái.
+     */
+    public int[] colCells(int col) {
+        return houses[size + col];
+    }
+
+    /**
+     * Visszaadja a blokk (régió) celláinak indexeit sorfolytonosan.
+     *
+     * @param box A blokk indexe.
+     * @return A blokk cellái.
+     */
+    public int[] boxCells(int box) {
+        return houses[2 * size + box];
+    }
+
+    /**
+     * Megvizsgálja, hogy a ház blokk (Jigsaw táblán régió)-e.
+     *
+     * @param house A ház indexe.
+     * @return Igaz, ha a ház blokk.
+     */
+    public boolean isBox(int house) {
+        return house >= 2 * size && house < 3 * size;
+    }
+
+    /**
+     * Megvizsgálja, hogy a blokkok a szabályos n×n-es blokkok-e.
+     *
+     * @return Hamis, ha a táblát szabálytalan régiók osztják fel.
+     */
+    public boolean hasStandardRegions() {
+        return standardRegions;
+    }
+
+    /**
+     * Megvizsgálja, hogy az átlók is házak-e (X-Sudoku).
+     *
+     * @return Igaz, ha a két átló is ház.
+     */
+    public boolean hasDiagonals() {
+        return diagonals;
+    }
+
+    /**
+     * Megvizsgálja, hogy a tábla a klasszikus szabályokat követi-e: szabályos blokkok, átlók és ketrecek nélkül.
+     *
+     * @return Igaz, ha nincs a táblán változat szabály.
+     */
+    public boolean isClassicLayout() {
+        return standardRegions && !diagonals && cages.isEmpty();
+    }
+
+    /**
+     * Visszaadja a Killer ketreceket.
+     *
+     * @return a ketrecek nem módosítható listája, üres ha nincsenek
+     */
+    public List<Cage> getCages() {
+        return cages;
+    }
+
+    /**
+     * Visszaadja a cellát tartalmazó ketrec sorszámát.
+     *
+     * @param cell A cella indexe.
+     * @return A ketrec sorszáma a {@link #getCages()} listában, -1 ha a cella nincs ketrecben.
+     */
+    public int cageOf(int cell) {
+        return cageOf[cell];
+    }
+
+    /**
+     * A régió táblázat másolata, például a {@link #withRegions(int[])} módosított bemenetének elkészítéséhez.
+     *
+     * @return cellánként a blokk (régió) indexe
+     */
+    public int[] regionTable() {
+        return boxOf.clone();
+    }
+
+    /**
+     * Megvizsgálja, hogy az érték érvényes szám-e ezen a táblán.
+     *
+     * @param value Az érték.
+     * @return Igaz, ha 1 és a tábla mérete közé esik.
+     */
+    public boolean isDigit(int value) {
+        return value >= 1 && value <= size;
+    }
+
+    /**
+     * Halmazból maszkot készít, a tartományon kívüli értékeket figyelmen kívül hagyja.
+     *
+     * @param values Az értékek halmaza.
+     * @return Az értékeket tartalmazó maszk.
+     */
+    public long toMask(Set<Integer> values) {
+        long mask = 0;
+        for (int value : values) {
+            if (isDigit(value)) {
+                mask |= bit(value);
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Visszaadja az értékhez tartozó bitet.
+     *
+     * @param value Az érték.
+     * @return Az értékhez tartozó bit.
+     */
+    public static long bit(int value) {
+        return 1L << (value - 1);
+    }
+
+    /**
+     * Visszaadja a maszk legkisebb értékét.
+     *
+     * @param mask A maszk.
+     * @return A legkisebb érték, vagy 0, ha a maszk üres.
+     */
+    public static int lowestValue(long mask) {
+        return mask == 0 ? 0 : Long.numberOfTrailingZeros(mask) + 1;
+    }
+
+    /**
+     * Maszkból halmazt készít.
+     *
+     * @param mask A maszk.
+     * @return A maszkban szereplő értékek halmaza.
+     */
+    public static Set<Integer> toSet(long mask) {
+        Set<Integer> result = new HashSet<>();
+        while (mask != 0) {
+            result.add(lowestValue(mask));
+            mask &= mask - 1;
+        }
+        return result;
+    }
+
+    /**
+     * Szöveges alak naplózáshoz, például "16×16" vagy "9×9 X Killer".
+     *
+     * @return a tábla mérete és változat szabályai szövegként
+     */
+    @Override
+    public String toString() {
+        List<String> parts = new ArrayList<>();
+        parts.add(size + "×" + size);
+        if (diagonals) {
+            parts.add("X");
+        }
+        if (!standardRegions) {
+            parts.add("Jigsaw");
+        }
+        if (!cages.isEmpty()) {
+            parts.add("Killer");
+        }
+        return String.join(" ", parts);
+    }
+}
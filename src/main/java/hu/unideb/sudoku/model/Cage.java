@@ -0,0 +1,82 @@
+package hu.unideb.sudoku.model;
+
+import java.util.Arrays;
+
+/**
+ * Killer Sudoku ketrec: a cellák értékei különbözők, és összegük a megadott szám.
+ * A ketrecet a {@link BoardGeometry#withCages(java.util.List)} veszi fel a tábla kényszerei közé.
+ * Az osztály nem módosítható.
+ */
+public final class Cage {
+    private final int[] cells;
+    private final int sum;
+
+    /**
+     * Létrehoz egy ketrecet.
+     *
+     * @param sum   a cellák értékeinek összege
+     * @param cells a ketrec celláinak indexei
+     * @throws IllegalArgumentException ha a ketrec üres, vagy egy cella többször szerepel benne
+     */
+    public Cage(int sum, int... cells) {
+        if (cells.length == 0) {
+            throw new IllegalArgumentException("A ketrec nem lehet üres!");
+        }
+        int[] sorted = cells.clone();
+        Arrays.sort(sorted);
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i] == sorted[i - 1]) {
+                throw new IllegalArgumentException("A ketrecben többször szerepel a(z) " + sorted[i] + ". cella!");
+            }
+        }
+        this.cells = sorted;
+        this.sum = sum;
+    }
+
+    /**
+     * Visszaadja a ketrec celláinak indexeit növekvő sorrendben.
+     *
+     * @return a cellák másolata
+     */
+    public int[] getCells() {
+        return cells.clone();
+    }
+
+    /**
+     * Visszaadja a cellák számát.
+     *
+     * @return a ketrec mérete
+     */
+    public int size() {
+        return cells.length;
+    }
+
+    /**
+     * Visszaadja a cellák értékeinek előírt összegét.
+     *
+     * @return az összeg
+     */
+    public int getSum() {
+        return sum;
+    }
+
+    /**
+     * Visszaadja a ketrec i. celláját, másolás nélkül.
+     *
+     * @param i a cella sorszáma a ketrecen belül
+     * @return a cella indexe
+     */
+    int cellAt(int i) {
+        return cells[i];
+    }
+
+    /**
+     * Szöveges alak naplózáshoz.
+     *
+     * @return a ketrec összege és cellái
+     */
+    @Override
+    public String toString() {
+        return sum + Arrays.toString(cells);
+    }
+}
@@ -0,0 +1,74 @@
+package hu.unideb.sudoku.model;
+
+import java.time.Duration;
+
+/**
+ * Hosszabb műveletek (például a feladvány generálás) megszakítására szolgáló jelző.
+ * A műveletet egy másik szál a {@link #cancel()} hívással állíthatja le,
+ * illetve megadható egy határidő, amelynek lejárta után a jelző magától megszakítottnak számít.
+ * A megszakítást a művelet a saját ütemében, a {@link #isCancelled()} lekérdezésével veszi észre.
+ * A {@link #createChild()} olyan jelzőt ad, amely a szülő megszakításakor szintén megszakítottnak számít.
+ */
+public class CancellationToken {
+    private final long deadlineNanos;
+    private final boolean hasDeadline;
+    private final CancellationToken parent;
+    private volatile boolean cancelled;
+
+    /**
+     * Létrehoz egy határidő nélküli jelzőt, amely csak a {@link #cancel()} hívással szakítható meg.
+     */
+    public CancellationToken() {
+        this(0, false, null);
+    }
+
+    /**
+     * Létrehoz egy jelzőt a megadott határidővel és szülővel.
+     *
+     * @param deadlineNanos a határidő {@link System#nanoTime()} szerint
+     * @param hasDeadline   igaz, ha a határidőt figyelembe kell venni
+     * @param parent        a szülő jelző, vagy null
+     */
+    private CancellationToken(long deadlineNanos, boolean hasDeadline, CancellationToken parent) {
+        this.deadlineNanos = deadlineNanos;
+        this.hasDeadline = hasDeadline;
+        this.parent = parent;
+    }
+
+    /**
+     * Létrehoz egy jelzőt, amely a megadott idő elteltével magától megszakítottnak számít.
+     *
+     * @param timeout a rendelkezésre álló idő
+     * @return az új jelző
+     */
+    public static CancellationToken withTimeout(Duration timeout) {
+        return new CancellationToken(System.nanoTime() + timeout.toNanos(), true, null);
+    }
+
+    /**
+     * Létrehoz egy gyermek jelzőt, amely önállóan is megszakítható,
+     * de a szülő megszakításakor (vagy határidejének lejártakor) is megszakítottnak számít.
+     *
+     * @return az új gyermek jelző
+     */
+    public CancellationToken createChild() {
+        return new CancellationToken(0, false, this);
+    }
+
+    /**
+     * Megszakítja a jelzőhöz tartozó műveletet.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Visszaadja, hogy a műveletet meg kell-e szakítani.
+     *
+     * @return Igaz, ha a jelzőt vagy a szülőjét megszakították, vagy lejárt a határideje.
+     */
+    public boolean isCancelled() {
+        return cancelled || (hasDeadline && System.nanoTime() - deadlineNanos >= 0)
+                || (parent != null && parent.isCancelled());
+    }
+}
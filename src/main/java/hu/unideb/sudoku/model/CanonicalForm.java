@@ -0,0 +1,346 @@
+package hu.unideb.sudoku.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static hu.unideb.sudoku.model.BitBoard.*;
+
+/**
+ * Egy tábla kanonikus (minimális lexikografikus) alakja a Sudoku szimmetriák szerint.
+ * A {@link PuzzleTransformer} által leírt transzformációk (tükrözés, sávok, sorok, oszlopsávok és oszlopok cseréje,
+ * a számjegyek átcímkézése) közül azt választja, amelyikkel a tábla sorfolytonosan olvasva a legkisebb
+ * (az üres cella, 0, minden számjegynél kisebb). Két tábla pontosan akkor egymás transzformáltja,
+ * ha a kanonikus alakjuk megegyezik, így a kanonikus alak gyorsítótár kulcsként használható.
+ * A keresés soronként halad: minden lépésben csak azokat a részleges transzformációkat viszi tovább,
+ * amelyek az eddigi sorokban a legkisebb eredményt adják; a számjegyek címkéi az első előfordulás sorrendjében
+ * alakulnak ki, mert ez adja az adott elrendezés legkisebb átcímkézését.
+ * Az osztály nem módosítható.
+ */
+public final class CanonicalForm {
+    private static final int[][] COLUMN_MAPS = columnMaps();
+
+    private final int[] grid;
+    private final PuzzleTransformer transformer;
+
+    /**
+     * Konstruktor.
+     *
+     * @param grid        a kanonikus tábla
+     * @param transformer az eredeti táblát a kanonikusba vivő transzformáció
+     */
+    private CanonicalForm(int[] grid, PuzzleTransformer transformer) {
+        this.grid = grid;
+        this.transformer = transformer;
+    }
+
+    /**
+     * Kiszámolja a tábla kanonikus alakját.
+     *
+     * @param original a 81 elemű tábla, 0 jelöli az üres cellát
+     * @return a kanonikus alak és a hozzá vezető transzformáció
+     * @throws IllegalArgumentException ha a tábla mérete vagy valamely értéke érvénytelen
+     */
+    public static CanonicalForm of(int[] original) {
+        if (original.length != CELLS) {
+            throw new IllegalArgumentException("A táblának " + CELLS + " cellából kell állnia!");
+        }
+        for (int value : original) {
+            if (value < 0 || value > SIZE) {
+                throw new IllegalArgumentException("Érvénytelen érték a táblában: " + value);
+            }
+        }
+
+        List<Candidate> candidates = firstRowCandidates(original);
+        for (int row = 1; row < SIZE; row++) {
+            candidates = nextRowCandidates(original, candidates, row);
+        }
+
+        Candidate best = candidates.get(0);
+        for (int digit = 1; digit <= SIZE; digit++) {
+            if (best.labels[digit] == 0) {
+                best.labels[digit] = ++best.nextLabel;
+            }
+        }
+        PuzzleTransformer transformer = new PuzzleTransformer(best.labels, best.rowMap, best.colMap, best.transpose);
+        return new CanonicalForm(transformer.apply(original), transformer);
+    }
+
+    /**
+     * Visszaadja a kanonikus táblát.
+     *
+     * @return a kanonikus tábla másolata
+     */
+    public int[] getGrid() {
+        return grid.clone();
+    }
+
+    /**
+     * Visszaadja a kanonikus tábla 81 karakteres szöveges alakját, amely gyorsítótár kulcsként használható.
+     *
+     * @return a kanonikus alak szövegként
+     */
+    public String getKey() {
+        return Puzzle.formatGrid(grid);
+    }
+
+    /**
+     * Visszaadja az eredeti táblát a kanonikus alakba vivő transzformációt.
+     *
+     * @return a transzformáció
+     */
+    public PuzzleTransformer getTransformer() {
+        return transformer;
+    }
+
+    /**
+     * Egy kanonikus alakban megadott táblát (például a kanonikus feladvány megoldását)
+     * visszaalakít az eredeti tábla elrendezésébe.
+     *
+     * @param canonicalGrid a kanonikus elrendezésű tábla
+     * @return a tábla az eredeti elrendezésben
+     */
+    public int[] toOriginal(int[] canonicalGrid) {
+        return transformer.inverse().apply(canonicalGrid);
+    }
+
+    /**
+     * Előállítja az első sor legjobb választásait (tükrözés, forrás sor, oszlop-sorrend).
+     * Egy sorban minden számjegy legfeljebb egyszer szerepel, ezért az átcímkézett sor mindig 1, 2, 3, ...
+     * sorrendben tartalmazza a számjegyeket, és a sorok sorrendjét csak az üres cellák helye dönti el:
+     * az a jobb, amelyikben az első eltérő helyen üres cella áll. Így először soronként kiszámolja
+     * a legjobb elérhető üres/kitöltött mintát, és az 1296 oszlop-sorrendet csak a legjobb mintájú sorokra járja be.
+     *
+     * @param original az eredeti tábla
+     * @return a legjobb részleges transzformációk
+     */
+    private static List<Candidate> firstRowCandidates(int[] original) {
+        int[] bestMasks = new int[2 * SIZE];
+        int bestMask = Integer.MAX_VALUE;
+        for (int t = 0; t < 2; t++) {
+            for (int sourceRow = 0; sourceRow < SIZE; sourceRow++) {
+                int mask = bestRowMask(original, t == 1, sourceRow);
+                bestMasks[t * SIZE + sourceRow] = mask;
+                bestMask = Math.min(bestMask, mask);
+            }
+        }
+
+        List<Candidate> best = new ArrayList<>();
+        int[] row = new int[SIZE];
+        int[] labels = new int[SIZE + 1];
+        for (int t = 0; t < 2; t++) {
+            boolean transpose = t == 1;
+            for (int sourceRow = 0; sourceRow < SIZE; sourceRow++) {
+                if (bestMasks[t * SIZE + sourceRow] != bestMask) {
+                    continue;
+                }
+                for (int[] colMap : COLUMN_MAPS) {
+                    if (rowMask(original, transpose, sourceRow, colMap) == bestMask) {
+                        Arrays.fill(labels, 0);
+                        int nextLabel = relabelRow(original, transpose, sourceRow, colMap, labels, 0, row);
+                        Candidate candidate = new Candidate(transpose, colMap, labels.clone(), nextLabel);
+                        candidate.rowMap[0] = sourceRow;
+                        candidate.usedRows = 1 << sourceRow;
+                        best.add(candidate);
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Kiszámolja a sor legjobb elérhető kitöltött-cella mintáját: az oszlopsávok a kitöltött cellák száma szerint
+     * növekvő sorrendben, sávon belül előbb az üres cellák. A minta első oszlopa a legmagasabb helyiértékű bit.
+     *
+     * @param original  az eredeti tábla
+     * @param transpose igaz, ha a táblát tükrözve kell olvasni
+     * @param sourceRow a forrás sor indexe
+     * @return a legkisebb elérhető minta
+     */
+    private static int bestRowMask(int[] original, boolean transpose, int sourceRow) {
+        int[] counts = new int[BOX_SIZE];
+        for (int col = 0; col < SIZE; col++) {
+            if (original[transpose ? index(col, sourceRow) : index(sourceRow, col)] != 0) {
+                counts[col / BOX_SIZE]++;
+            }
+        }
+        Arrays.sort(counts);
+        int mask = 0;
+        for (int count : counts) {
+            mask = (mask << BOX_SIZE) | ((1 << count) - 1);
+        }
+        return mask;
+    }
+
+    /**
+     * Kiszámolja a sor kitöltött-cella mintáját a megadott oszlop-sorrendben.
+     *
+     * @param original  az eredeti tábla
+     * @param transpose igaz, ha a táblát tükrözve kell olvasni
+     * @param sourceRow a forrás sor indexe
+     * @param colMap    az oszlop-sorrend
+     * @return a minta, az első oszlop a legmagasabb helyiértékű bit
+     */
+    private static int rowMask(int[] original, boolean transpose, int sourceRow, int[] colMap) {
+        int mask = 0;
+        for (int col = 0; col < SIZE; col++) {
+            int sourceCol = colMap[col];
+            int value = original[transpose ? index(sourceCol, sourceRow) : index(sourceRow, sourceCol)];
+            mask = (mask << 1) | (value != 0 ? 1 : 0);
+        }
+        return mask;
+    }
+
+    /**
+     * Minden részleges transzformációt kiegészít a következő sor minden megengedett forrás sorával,
+     * és megtartja azokat, amelyek a legkisebb sort adják.
+     * Sáv eleji sorhoz bármelyik még nem használt sáv bármelyik sora választható,
+     * a sávon belül csak az előző sorral azonos sáv még nem használt sorai.
+     *
+     * @param original   az eredeti tábla
+     * @param candidates az eddigi legjobb részleges transzformációk
+     * @param target     a kitöltendő sor indexe a kanonikus táblában
+     * @return az új legjobb részleges transzformációk
+     */
+    private static List<Candidate> nextRowCandidates(int[] original, List<Candidate> candidates, int target) {
+        List<Candidate> best = new ArrayList<>();
+        int[] bestRow = null;
+        int[] row = new int[SIZE];
+        int[] labels = new int[SIZE + 1];
+        for (Candidate candidate : candidates) {
+            for (int sourceRow = 0; sourceRow < SIZE; sourceRow++) {
+                if (!candidate.allows(sourceRow, target)) {
+                    continue;
+                }
+                System.arraycopy(candidate.labels, 0, labels, 0, labels.length);
+                int nextLabel = relabelRow(original, candidate.transpose, sourceRow, candidate.colMap, labels,
+                        candidate.nextLabel, row);
+                int cmp = bestRow == null ? -1 : Arrays.compare(row, bestRow);
+                if (cmp < 0) {
+                    best.clear();
+                    bestRow = row.clone();
+                }
+                if (cmp <= 0) {
+                    best.add(candidate.extend(target, sourceRow, labels.clone(), nextLabel));
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Kiolvassa a forrás sort az oszlop-sorrend szerint, és átcímkézi a számjegyeket:
+     * a még címke nélküli számjegy a következő szabad címkét kapja.
+     *
+     * @param original  az eredeti tábla
+     * @param transpose igaz, ha a táblát tükrözve kell olvasni
+     * @param sourceRow a forrás sor indexe
+     * @param colMap    az oszlop-sorrend
+     * @param labels    a számjegyek eddigi címkéi, a metódus kiegészíti
+     * @param nextLabel az utolsó kiosztott címke
+     * @param row       ide kerül az átcímkézett sor
+     * @return az utolsó kiosztott címke a sor után
+     */
+    private static int relabelRow(int[] original, boolean transpose, int sourceRow, int[] colMap, int[] labels,
+                                  int nextLabel, int[] row) {
+        for (int col = 0; col < SIZE; col++) {
+            int sourceCol = colMap[col];
+            int value = original[transpose ? index(sourceCol, sourceRow) : index(sourceRow, sourceCol)];
+            if (value != 0 && labels[value] == 0) {
+                labels[value] = ++nextLabel;
+            }
+            row[col] = labels[value];
+        }
+        return nextLabel;
+    }
+
+    /**
+     * Előállítja az összes megengedett oszlop-sorrendet (az oszlopsávok és a sávokon belüli oszlopok cseréi, 1296 darab).
+     *
+     * @return az oszlop-sorrendek
+     */
+    private static int[][] columnMaps() {
+        int[][] perms = {{0, 1, 2}, {0, 2, 1}, {1, 0, 2}, {1, 2, 0}, {2, 0, 1}, {2, 1, 0}};
+        int[][] result = new int[1296][];
+        int count = 0;
+        for (int[] stacks : perms) {
+            for (int[] first : perms) {
+                for (int[] second : perms) {
+                    for (int[] third : perms) {
+                        int[][] inner = {first, second, third};
+                        int[] map = new int[SIZE];
+                        for (int col = 0; col < SIZE; col++) {
+                            map[col] = stacks[col / BOX_SIZE] * BOX_SIZE + inner[col / BOX_SIZE][col % BOX_SIZE];
+                        }
+                        result[count++] = map;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Egy részleges transzformáció: a tükrözés, a teljes oszlop-sorrend, az eddig kiválasztott forrás sorok
+     * és a számjegyek eddigi címkéi.
+     */
+    private static final class Candidate {
+        private final boolean transpose;
+        private final int[] colMap;
+        private final int[] rowMap = new int[SIZE];
+        private final int[] labels;
+        private int nextLabel;
+        private int usedRows;
+
+        /**
+         * Konstruktor.
+         *
+         * @param transpose igaz, ha a táblát tükrözve kell olvasni
+         * @param colMap    az oszlop-sorrend
+         * @param labels    a számjegyek címkéi
+         * @param nextLabel az utolsó kiosztott címke
+         */
+        Candidate(boolean transpose, int[] colMap, int[] labels, int nextLabel) {
+            this.transpose = transpose;
+            this.colMap = colMap;
+            this.labels = labels;
+            this.nextLabel = nextLabel;
+        }
+
+        /**
+         * Megvizsgálja, hogy a forrás sor kerülhet-e a kanonikus tábla adott sorába.
+         *
+         * @param sourceRow a forrás sor indexe
+         * @param target    a kanonikus sor indexe
+         * @return Igaz, ha a sor még nem használt, és a sávszerkezet megengedi (sáv elején az előző sávok
+         * már teljesen elfogytak, így bármelyik nem használt sor egy új sávot kezd).
+         */
+        boolean allows(int sourceRow, int target) {
+            if ((usedRows & (1 << sourceRow)) != 0) {
+                return false;
+            }
+            if (target % BOX_SIZE == 0) {
+                return true;
+            }
+            return sourceRow / BOX_SIZE == rowMap[target - 1] / BOX_SIZE;
+        }
+
+        /**
+         * Létrehozza a következő sorral kiegészített részleges transzformációt.
+         *
+         * @param target    a kanonikus sor indexe
+         * @param sourceRow a választott forrás sor
+         * @param labels    a számjegyek új címkéi
+         * @param nextLabel az utolsó kiosztott címke
+         * @return az új részleges transzformáció
+         */
+        Candidate extend(int target, int sourceRow, int[] labels, int nextLabel) {
+            Candidate next = new Candidate(transpose, colMap, labels, nextLabel);
+            System.arraycopy(rowMap, 0, next.rowMap, 0, target);
+            next.rowMap[target] = sourceRow;
+            next.usedRows = usedRows | (1 << sourceRow);
+            return next;
+        }
+    }
+}
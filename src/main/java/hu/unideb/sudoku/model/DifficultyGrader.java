@@ -0,0 +1,252 @@
+package hu.unideb.sudoku.model;
+
+import java.util.Arrays;
+
+import static hu.unideb.sudoku.model.BitBoard.*;
+
+/**
+ * Logikai megoldással értékeli egy feladvány nehézségét.
+ * A segítség funkció technikáit ({@link SolvingTechniques}) alkalmazza a legolcsóbbtól kezdve;
+ * ha egy technika előrelépést hozott, újra a legolcsóbbal próbálkozik. Akkor áll meg,
+ * ha a tábla megtelt, ellentmondás keletkezett, vagy egyik technika sem alkalmazható.
+ * A számítás egy előre lefoglalt táblán, bitmaszkokkal történik, így a generálás közben is futtatható.
+ * Egy példány nem szálbiztos.
+ */
+public class DifficultyGrader {
+    private static final Technique[] TECHNIQUES = Technique.values();
+
+    private final BitBoard board = new BitBoard();
+    private final int[] counts = new int[TECHNIQUES.length];
+    private final SolvingTechniques.PairConsumer nakedPairEliminator = this::eliminateNakedPair;
+    private final SolvingTechniques.PairConsumer hiddenPairEliminator = this::eliminateHiddenPair;
+    private int[] currentHouse;
+    private boolean contradiction;
+    private boolean eliminated;
+
+    /**
+     * Értékeli a feladványt.
+     *
+     * @param puzzle a feladvány
+     * @return az értékelés eredménye
+     */
+    public Grade grade(Puzzle puzzle) {
+        return grade(puzzle.getGivens());
+    }
+
+    /**
+     * Értékeli a megadott kezdőállapotot.
+     *
+     * @param givens 81 elemű tömb, 0 jelöli az üres cellát, a hívás után változatlan marad
+     * @return az értékelés eredménye
+     */
+    public Grade grade(int[] givens) {
+        load(givens);
+        while (!contradiction && board.emptyCount() > 0) {
+            if (!applyCheapest()) {
+                break;
+            }
+        }
+        int remaining = board.emptyCount();
+        return new Grade(counts, !contradiction && remaining == 0, remaining);
+    }
+
+    /**
+     * Betölti a táblát, és kiszámolja az üres cellák lehetséges értékeit.
+     *
+     * @param givens a kezdőállapot
+     */
+    private void load(int[] givens) {
+        board.setValues(givens);
+        Arrays.fill(counts, 0);
+        contradiction = false;
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (board.getValue(cell) == 0) {
+                int candidates = board.computeCandidates(cell);
+                board.setCandidates(cell, candidates);
+                contradiction |= candidates == 0;
+            }
+        }
+    }
+
+    /**
+     * Sorban kipróbálja a technikákat, és az első előrelépést hozót alkalmazza.
+     *
+     * @return Igaz, ha valamelyik technika előrelépést hozott.
+     */
+    private boolean applyCheapest() {
+        for (Technique technique : TECHNIQUES) {
+            int applied = apply(technique);
+            if (applied > 0) {
+                counts[technique.ordinal()] += applied;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Egy menetben alkalmazza a technikát az egész táblán.
+     *
+     * @param technique az alkalmazandó technika
+     * @return az alkalmazások (beírások vagy eredményes párok) száma
+     */
+    private int apply(Technique technique) {
+        switch (technique) {
+            case FULL_HOUSE:
+                return applyFullHouses();
+            case NAKED_SINGLE:
+                return applyNakedSingles();
+            case HIDDEN_SINGLE:
+                return applyHiddenSingles();
+            case NAKED_PAIR:
+                return applyPairs(nakedPairEliminator, false);
+            case HIDDEN_PAIR:
+                return applyPairs(hiddenPairEliminator, true);
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Kitölti azokat a házakat, amelyekben egyetlen üres cella maradt.
+     *
+     * @return a beírt értékek száma
+     */
+    private int applyFullHouses() {
+        int applied = 0;
+        for (int house = 0; house < HOUSE_COUNT && !contradiction; house++) {
+            int cell = SolvingTechniques.fullHouseCell(board, houseCells(house));
+            if (cell >= 0) {
+                int candidates = board.getCandidates(cell);
+                if (Integer.bitCount(candidates) != 1) {
+                    contradiction = true;
+                } else {
+                    place(cell, lowestValue(candidates));
+                    applied++;
+                }
+            }
+        }
+        return applied;
+    }
+
+    /**
+     * Beírja azokat az értékeket, amelyek a cellában egyetlen lehetőségként maradtak.
+     *
+     * @return a beírt értékek száma
+     */
+    private int applyNakedSingles() {
+        int applied = 0;
+        for (int cell = 0; cell < CELLS && !contradiction; cell++) {
+            int value = SolvingTechniques.nakedSingleValue(board, cell);
+            if (value != 0) {
+                place(cell, value);
+                applied++;
+            }
+        }
+        return applied;
+    }
+
+    /**
+     * Beírja azokat az értékeket, amelyek a cella valamelyik házában sehol máshol nem lehetségesek.
+     *
+     * @return a beírt értékek száma
+     */
+    private int applyHiddenSingles() {
+        int applied = 0;
+        for (int cell = 0; cell < CELLS && !contradiction; cell++) {
+            int hiddenValues = SolvingTechniques.houseHiddenSingleMask(board, cell);
+            if (hiddenValues != 0) {
+                if (Integer.bitCount(hiddenValues) > 1) {
+                    contradiction = true;
+                } else {
+                    place(cell, lowestValue(hiddenValues));
+                    applied++;
+                }
+            }
+        }
+        return applied;
+    }
+
+    /**
+     * Minden házban megkeresi a párokat, és elvégzi a hozzájuk tartozó törléseket.
+     *
+     * @param eliminator a törlést végző művelet
+     * @param hidden     igaz, ha rejtett párokat keres
+     * @return az eredményes (legalább egy értéket törlő) párok száma
+     */
+    private int applyPairs(SolvingTechniques.PairConsumer eliminator, boolean hidden) {
+        int applied = 0;
+        for (int house = 0; house < HOUSE_COUNT; house++) {
+            currentHouse = houseCells(house);
+            eliminated = false;
+            if (hidden) {
+                SolvingTechniques.findHiddenPairs(board, currentHouse, eliminator);
+            } else {
+                SolvingTechniques.findNakedPairs(board, currentHouse, eliminator);
+            }
+            if (eliminated) {
+                applied++;
+            }
+        }
+        return applied;
+    }
+
+    /**
+     * Naked pair esetén a pár értékeit törli a ház többi cellájából.
+     *
+     * @param first      a pár első cellája
+     * @param second     a pár második cellája
+     * @param pairValues a pár értékeinek maszkja
+     */
+    private void eliminateNakedPair(int first, int second, int pairValues) {
+        for (int cell : currentHouse) {
+            if (cell != first && cell != second && board.getValue(cell) == 0) {
+                restrict(cell, board.getCandidates(cell) & ~pairValues);
+            }
+        }
+    }
+
+    /**
+     * Hidden pair esetén a pár celláiból a páron kívüli értékeket törli.
+     *
+     * @param first      a pár első cellája
+     * @param second     a pár második cellája
+     * @param pairValues a pár értékeinek maszkja
+     */
+    private void eliminateHiddenPair(int first, int second, int pairValues) {
+        restrict(first, board.getCandidates(first) & pairValues);
+        restrict(second, board.getCandidates(second) & pairValues);
+    }
+
+    /**
+     * Leszűkíti egy üres cella lehetséges értékeit, és jelzi, ha ez változást vagy ellentmondást okozott.
+     *
+     * @param cell       a cella indexe
+     * @param candidates az új lehetséges értékek
+     */
+    private void restrict(int cell, int candidates) {
+        if (candidates != board.getCandidates(cell)) {
+            board.setCandidates(cell, candidates);
+            eliminated = true;
+            contradiction |= candidates == 0;
+        }
+    }
+
+    /**
+     * Beírja az értéket, és törli a lehetséges értékek közül a szomszédos üres cellákban.
+     *
+     * @param cell  a cella indexe
+     * @param value a beírandó érték
+     */
+    private void place(int cell, int value) {
+        board.setValue(cell, value);
+        int bit = bit(value);
+        for (int peer : peersOf(cell)) {
+            int candidates = board.getCandidates(peer);
+            if (board.getValue(peer) == 0 && (candidates & bit) != 0) {
+                board.setCandidates(peer, candidates & ~bit);
+                contradiction |= candidates == bit;
+            }
+        }
+    }
+}
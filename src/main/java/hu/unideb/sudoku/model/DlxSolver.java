@@ -0,0 +1,228 @@
+package hu.unideb.sudoku.model;
+
+import static hu.unideb.sudoku.model.BitBoard.*;
+
+/**
+ * Dancing Links (DLX) alapú pontos lefedés megoldó.
+ * A Sudoku-t 324 oszlopos (cella, sor-érték, oszlop-érték, blokk-érték) és 729 soros
+ * pontos lefedési feladatként kezeli, a kétirányú láncolt listákat tömbökben tárolja.
+ * A tömbök egyszer foglalódnak le, minden futás előtt csak újra láncolja őket.
+ * Egy példány nem szálbiztos.
+ */
+public class DlxSolver implements SolverEngine {
+    /**
+     * A motor neve.
+     */
+    public static final String NAME = "dlx";
+
+    private static final int COLUMNS = 4 * CELLS;
+    private static final int ROWS = CELLS * SIZE;
+    private static final int ROOT = 0;
+    private static final int NODES = 1 + COLUMNS + ROWS * 4;
+
+    private final int[] left = new int[NODES];
+    private final int[] right = new int[NODES];
+    private final int[] up = new int[NODES];
+    private final int[] down = new int[NODES];
+    private final int[] column = new int[NODES];
+    private final int[] rowOfNode = new int[NODES];
+    private final int[] columnSize = new int[COLUMNS + 1];
+    private final int[] selectedRows = new int[CELLS];
+    private final int[] firstSolution = new int[CELLS];
+    private int solutionCount;
+    private int limit;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    /**
+     * Megszámolja a tábla megoldásait legfeljebb a megadott korlátig,
+     * és az elsőként megtalált megoldást kimásolja.
+     *
+     * @param grid     81 elemű tömb, 0 jelöli az üres cellát
+     * @param maxCount ennyi megoldás után leáll a keresés
+     * @param solution ide kerül az első megoldás, ha nem null és van megoldás
+     * @return a megtalált megoldások száma (legfeljebb maxCount)
+     */
+    @Override
+    public int countSolutions(int[] grid, int maxCount, int[] solution) {
+        solutionCount = 0;
+        limit = maxCount;
+        int depth = initialize(grid);
+        if (depth >= 0) {
+            search(depth);
+        }
+        if (solution != null && solutionCount > 0) {
+            System.arraycopy(firstSolution, 0, solution, 0, CELLS);
+        }
+        return solutionCount;
+    }
+
+    /**
+     * Felépíti a teljes mátrixot, majd lefedi a megadott értékekhez tartozó sorokat.
+     *
+     * @param grid a kiinduló tábla
+     * @return a kiválasztott sorok száma, vagy -1, ha a megadott értékek ütköznek
+     */
+    private int initialize(int[] grid) {
+        for (int col = 0; col <= COLUMNS; col++) {
+            left[col] = col - 1;
+            right[col] = col + 1;
+            up[col] = col;
+            down[col] = col;
+            column[col] = col;
+            columnSize[col] = 0;
+        }
+        left[ROOT] = COLUMNS;
+        right[COLUMNS] = ROOT;
+
+        int node = COLUMNS + 1;
+        for (int row = 0; row < ROWS; row++) {
+            int cell = row / SIZE;
+            int digit = row % SIZE;
+            int first = node;
+            link(node++, row, 1 + cell, first);
+            link(node++, row, 1 + CELLS + rowOf(cell) * SIZE + digit, first);
+            link(node++, row, 1 + 2 * CELLS + colOf(cell) * SIZE + digit, first);
+            link(node++, row, 1 + 3 * CELLS + boxOf(cell) * SIZE + digit, first);
+        }
+
+        int depth = 0;
+        for (int cell = 0; cell < CELLS; cell++) {
+            int value = grid[cell];
+            if (value < 0 || value > SIZE) {
+                return -1;
+            }
+            if (value != 0) {
+                int first = COLUMNS + 1 + (cell * SIZE + value - 1) * 4;
+                for (int n = first; n < first + 4; n++) {
+                    if (isCovered(column[n])) {
+                        return -1;
+                    }
+                }
+                for (int n = first; n < first + 4; n++) {
+                    cover(column[n]);
+                }
+                selectedRows[depth++] = rowOfNode[first];
+            }
+        }
+        return depth;
+    }
+
+    /**
+     * Beláncol egy csomópontot az oszlopa aljára és a sora végére.
+     *
+     * @param node  a csomópont indexe
+     * @param row   a mátrix sorának indexe
+     * @param col   az oszlop fejlécének indexe
+     * @param first a sor első csomópontja
+     */
+    private void link(int node, int row, int col, int first) {
+        column[node] = col;
+        rowOfNode[node] = row;
+        up[node] = up[col];
+        down[node] = col;
+        down[up[col]] = node;
+        up[col] = node;
+        columnSize[col]++;
+        if (node == first) {
+            left[node] = node;
+            right[node] = node;
+        } else {
+            left[node] = left[first];
+            right[node] = first;
+            right[left[first]] = node;
+            left[first] = node;
+        }
+    }
+
+    /**
+     * Megvizsgálja, hogy az oszlop már ki van-e véve a fejléc listából.
+     *
+     * @param col az oszlop fejlécének indexe
+     * @return Igaz, ha az oszlop le van fedve.
+     */
+    private boolean isCovered(int col) {
+        return right[left[col]] != col;
+    }
+
+    /**
+     * Rekurzív Algorithm X keresés, mindig a legkevesebb sort tartalmazó oszlopot választja.
+     *
+     * @param depth az eddig kiválasztott sorok száma
+     * @return Igaz, ha elértük a megoldások korlátját, és a keresést le kell állítani.
+     */
+    private boolean search(int depth) {
+        if (right[ROOT] == ROOT) {
+            if (solutionCount == 0) {
+                for (int i = 0; i < depth; i++) {
+                    int row = selectedRows[i];
+                    firstSolution[row / SIZE] = row % SIZE + 1;
+                }
+            }
+            solutionCount++;
+            return solutionCount >= limit;
+        }
+
+        int best = right[ROOT];
+        for (int col = right[best]; col != ROOT; col = right[col]) {
+            if (columnSize[col] < columnSize[best]) {
+                best = col;
+            }
+        }
+        if (columnSize[best] == 0) {
+            return false;
+        }
+
+        cover(best);
+        boolean stop = false;
+        for (int rowNode = down[best]; rowNode != best && !stop; rowNode = down[rowNode]) {
+            selectedRows[depth] = rowOfNode[rowNode];
+            for (int n = right[rowNode]; n != rowNode; n = right[n]) {
+                cover(column[n]);
+            }
+            stop = search(depth + 1);
+            for (int n = left[rowNode]; n != rowNode; n = left[n]) {
+                uncover(column[n]);
+            }
+        }
+        uncover(best);
+        return stop;
+    }
+
+    /**
+     * Lefed egy oszlopot: kiveszi a fejlécek közül, és eltávolítja az oszlopot érintő sorokat.
+     *
+     * @param col az oszlop fejlécének indexe
+     */
+    private void cover(int col) {
+        right[left[col]] = right[col];
+        left[right[col]] = left[col];
+        for (int i = down[col]; i != col; i = down[i]) {
+            for (int j = right[i]; j != i; j = right[j]) {
+                down[up[j]] = down[j];
+                up[down[j]] = up[j];
+                columnSize[column[j]]--;
+            }
+        }
+    }
+
+    /**
+     * Visszaállítja a lefedett oszlopot, a lefedéssel ellentétes sorrendben.
+     *
+     * @param col az oszlop fejlécének indexe
+     */
+    private void uncover(int col) {
+        for (int i = up[col]; i != col; i = up[i]) {
+            for (int j = left[i]; j != i; j = left[j]) {
+                columnSize[column[j]]++;
+                down[up[j]] = j;
+                up[down[j]] = j;
+            }
+        }
+        right[left[col]] = col;
+        left[right[col]] = col;
+    }
+}
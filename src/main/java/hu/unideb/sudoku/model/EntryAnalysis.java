@@ -0,0 +1,167 @@
+package hu.unideb.sudoku.model;
+
+import javafx.util.Pair;
+
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Egy beírt feladvány elemzése: van-e megoldása, egyértelmű-e, és ha több megoldása van,
+ * melyik cella dönti el, melyik megoldásról van szó.
+ * A megoldásokat legfeljebb kettőig számolja, a két megtalált megoldás egy eltérő cellája a megkülönböztető cella;
+ * ha a játékos ezt kitölti, a két megoldás közül legalább az egyik kiesik.
+ * Az osztály nem módosítható.
+ */
+public final class EntryAnalysis {
+    private static final int SOLUTION_LIMIT = 2;
+    private final int solutionCount;
+    private final int[] solution;
+    private final int distinguishingRow;
+    private final int distinguishingCol;
+    private final int firstValue;
+    private final int secondValue;
+
+    /**
+     * Konstruktor.
+     *
+     * @param solutionCount     a megoldások száma, legfeljebb 2
+     * @param solution          az első megoldás, null ha nincs megoldás
+     * @param distinguishingRow a két megoldásban eltérő cella sora, -1 ha nincs két megoldás
+     * @param distinguishingCol a két megoldásban eltérő cella oszlopa, -1 ha nincs két megoldás
+     * @param firstValue        a cella értéke az első megoldásban
+     * @param secondValue       a cella értéke a második megoldásban
+     */
+    private EntryAnalysis(int solutionCount, int[] solution, int distinguishingRow, int distinguishingCol,
+                          int firstValue, int secondValue) {
+        this.solutionCount = solutionCount;
+        this.solution = solution;
+        this.distinguishingRow = distinguishingRow;
+        this.distinguishingCol = distinguishingCol;
+        this.firstValue = firstValue;
+        this.secondValue = secondValue;
+    }
+
+    /**
+     * Elemzi a táblát a megadott megoldóval.
+     *
+     * @param grid   sorfolytonos tömb, 0 jelöli az üres cellát
+     * @param solver a tábla geometriájához tartozó megoldó
+     * @param token  a keresés megszakítására szolgáló jelző
+     * @return az elemzés eredménye
+     * @throws CancellationException ha a jelzőt a keresés előtt vagy közben megszakították
+     */
+    static EntryAnalysis analyze(int[] grid, GridSolver solver, CancellationToken token) {
+        if (token.isCancelled()) {
+            throw new CancellationException();
+        }
+        int[][] solutions = new int[SOLUTION_LIMIT][grid.length];
+        int count = solver.countSolutions(grid, SOLUTION_LIMIT, solutions, token);
+        if (solver.isLastCancelled()) {
+            throw new CancellationException();
+        }
+        if (count < SOLUTION_LIMIT) {
+            return new EntryAnalysis(count, count == 1 ? solutions[0] : null, -1, -1, 0, 0);
+        }
+        int cell = 0;
+        while (solutions[0][cell] == solutions[1][cell]) {
+            cell++;
+        }
+        BoardGeometry geometry = solver.getGeometry();
+        return new EntryAnalysis(count, solutions[0], geometry.rowOf(cell), geometry.colOf(cell),
+                solutions[0][cell], solutions[1][cell]);
+    }
+
+    /**
+     * Visszaadja a megoldások számát, legfeljebb 2-t.
+     *
+     * @return a megoldások száma
+     */
+    public int getSolutionCount() {
+        return solutionCount;
+    }
+
+    /**
+     * Visszaadja, hogy a táblának nincs megoldása.
+     *
+     * @return Igaz, ha a beírt számok ellentmondanak egymásnak.
+     */
+    public boolean hasNoSolution() {
+        return solutionCount == 0;
+    }
+
+    /**
+     * Visszaadja, hogy a táblának pontosan egy megoldása van-e.
+     *
+     * @return Igaz, ha a megoldás egyértelmű.
+     */
+    public boolean isUnique() {
+        return solutionCount == 1;
+    }
+
+    /**
+     * Visszaadja, hogy a táblának több megoldása van-e.
+     *
+     * @return Igaz, ha legalább két megoldás van.
+     */
+    public boolean hasMultipleSolutions() {
+        return solutionCount >= SOLUTION_LIMIT;
+    }
+
+    /**
+     * Visszaadja az első megtalált megoldást.
+     *
+     * @return a megoldás másolata, null ha nincs megoldás
+     */
+    public int[] getSolution() {
+        return solution != null ? solution.clone() : null;
+    }
+
+    /**
+     * Visszaadja, hogy a megoldás megfelel-e a táblának, azaz a tábla minden kitöltött cellája egyezik vele.
+     *
+     * @param grid sorfolytonos tömb, 0 jelöli az üres cellát
+     * @return Igaz, ha van megoldás, és az a tábla kiegészítése.
+     */
+    boolean isSolutionOf(int[] grid) {
+        if (solution == null) {
+            return false;
+        }
+        for (int cell = 0; cell < grid.length; cell++) {
+            if (grid[cell] != 0 && grid[cell] != solution[cell]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Több megoldás esetén visszaadja azt a cellát, amelyben a két megtalált megoldás eltér.
+     *
+     * @return a cella (sor, oszlop) pozíciója, null ha nincs több megoldás
+     */
+    public Pair<Integer, Integer> getDistinguishingCell() {
+        return distinguishingRow < 0 ? null : new Pair<>(distinguishingRow, distinguishingCol);
+    }
+
+    /**
+     * Több megoldás esetén visszaadja a megkülönböztető cella két lehetséges értékét.
+     *
+     * @return a két érték, üres halmaz ha nincs több megoldás
+     */
+    public Set<Integer> getDistinguishingValues() {
+        return distinguishingRow < 0 ? Set.of() : Set.of(firstValue, secondValue);
+    }
+
+    /**
+     * Szöveges alak naplózáshoz.
+     *
+     * @return a megoldások száma, több megoldás esetén a megkülönböztető cellával
+     */
+    @Override
+    public String toString() {
+        if (hasMultipleSolutions()) {
+            return "több megoldás, eltérő cella: " + getDistinguishingCell() + " " + getDistinguishingValues();
+        }
+        return isUnique() ? "egyértelmű" : "nincs megoldás";
+    }
+}
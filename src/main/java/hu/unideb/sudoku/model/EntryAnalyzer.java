@@ -0,0 +1,121 @@
+package hu.unideb.sudoku.model;
+
+import org.tinylog.Logger;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * A beírt feladvány háttérben futó elemzője ({@link EntryAnalysis}).
+ * Minden táblaváltozás új elemzést indít, a még futó (vagy sorban álló) korábbit a jelzőjével megszakítja,
+ * így a régi állapot eredménye sosem érkezik meg; a megszakított elemzés {@link java.util.concurrent.CancellationException}-nel zárul.
+ * Ha az új tábla csak kitöltött cellákkal bővíti az utoljára elemzettet, keresés nélkül válaszol:
+ * megoldhatatlan tábla bővítése is megoldhatatlan, az egyértelmű megoldással egyező számok beírása után pedig
+ * a megoldás változatlan és egyértelmű marad.
+ * Az elemzések egy közös, alacsony prioritású háttérszálon futnak, a példány szálbiztos.
+ */
+final class EntryAnalyzer {
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "sudoku-entry-analysis");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+    private final GridSolver solver;
+    private CancellationToken running;
+    private CompletableFuture<EntryAnalysis> latest;
+    private int[] lastGrid;
+    private EntryAnalysis lastAnalysis;
+
+    /**
+     * Létrehoz egy elemzőt a megadott geometriájú táblához.
+     *
+     * @param geometry a tábla geometriája
+     */
+    EntryAnalyzer(BoardGeometry geometry) {
+        this.solver = new GridSolver(geometry);
+    }
+
+    /**
+     * Elindítja a tábla elemzését, a korábbi, még be nem fejezett elemzést megszakítja.
+     *
+     * @param grid sorfolytonos tömb, 0 jelöli az üres cellát; a hívó később módosíthatja
+     * @return az elemzés eredménye, amint elkészül
+     */
+    synchronized CompletableFuture<EntryAnalysis> submit(int[] grid) {
+        if (running != null) {
+            running.cancel();
+            running = null;
+        }
+        int[] snapshot = grid.clone();
+        if (lastAnalysis != null && extendsGrid(lastGrid, snapshot)
+                && (lastAnalysis.hasNoSolution() || (lastAnalysis.isUnique() && lastAnalysis.isSolutionOf(snapshot)))) {
+            latest = CompletableFuture.completedFuture(lastAnalysis);
+            return latest;
+        }
+        CancellationToken token = new CancellationToken();
+        running = token;
+        latest = CompletableFuture.supplyAsync(() -> {
+            EntryAnalysis analysis = EntryAnalysis.analyze(snapshot, solver, token);
+            completed(snapshot, analysis, token);
+            return analysis;
+        }, EXECUTOR);
+        return latest;
+    }
+
+    /**
+     * Visszaadja a legutóbb indított elemzést.
+     *
+     * @return az elemzés eredménye, null ha még nem volt elemzés
+     */
+    synchronized CompletableFuture<EntryAnalysis> latest() {
+        return latest;
+    }
+
+    /**
+     * Megszakítja a futó elemzést, és elfelejti a korábbi eredményeket.
+     */
+    synchronized void reset() {
+        if (running != null) {
+            running.cancel();
+            running = null;
+        }
+        latest = null;
+        lastGrid = null;
+        lastAnalysis = null;
+    }
+
+    /**
+     * Eltárolja a befejezett elemzést a későbbi bővítések gyors megválaszolásához.
+     *
+     * @param grid     az elemzett tábla
+     * @param analysis az eredmény
+     * @param token    az elemzés jelzője; ha közben újabb elemzés indult, az eredményt nem tárolja
+     */
+    private synchronized void completed(int[] grid, EntryAnalysis analysis, CancellationToken token) {
+        if (token != running) {
+            return;
+        }
+        running = null;
+        lastGrid = grid;
+        lastAnalysis = analysis;
+        Logger.debug("Beírt feladvány elemzése: {}", analysis);
+    }
+
+    /**
+     * Megvizsgálja, hogy a tábla a korábbi tábla minden kitöltött celláját ugyanazzal az értékkel tartalmazza-e.
+     *
+     * @param previous a korábbi tábla
+     * @param grid     az új tábla
+     * @return Igaz, ha az új tábla csak új számokkal bővíti a korábbit.
+     */
+    private static boolean extendsGrid(int[] previous, int[] grid) {
+        for (int cell = 0; cell < grid.length; cell++) {
+            if (previous[cell] != 0 && previous[cell] != grid[cell]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
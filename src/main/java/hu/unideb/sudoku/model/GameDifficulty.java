@@ -15,5 +15,13 @@ public enum GameDifficulty {
     /**
      * Nehéz szint.
      */
-    HARD
+    HARD,
+    /**
+     * Szakértő szint.
+     */
+    EXPERT,
+    /**
+     * Extrém szint, közel minimális feladványokkal.
+     */
+    EXTREME
 }
@@ -44,6 +44,15 @@ public class GameHistory {
         return solvedBoard;
     }
 
+    /**
+     * Visszaadja a mentett tábla blokkméretét, a tábla sorainak számából számolva.
+     *
+     * @return A blokkok oldalhossza (9×9-es táblánál 3).
+     */
+    public int getBoxSize() {
+        return (int) Math.round(Math.sqrt(originalBoard.length));
+    }
+
     /**
      * Az eltelt idő formázott megjelenítése percekben és másodpercekben.
      *
@@ -3,27 +3,57 @@ package hu.unideb.sudoku.model;
 import javafx.util.Pair;
 import org.tinylog.Logger;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+import static hu.unideb.sudoku.model.BitBoard.*;
 
 /**
  * Játék üzleti logikáját valósítja meg.
+ * A táblák állapotát bitmaszkos {@link BitBoard} példányok tárolják,
+ * a {@link CellPosition} tömbök csak nézetként szolgálnak a kontroller és a mentések számára.
+ * A klasszikus 9×9-es táblát valósítja meg, más méretű játékot a {@link #newGame()} a {@link GridGameModel}-lel hoz létre.
  */
-public class GameModel {
+public class GameModel implements SudokuGame {
+    /**
+     * A feladvány generálásának (a számok törlésének) időkorlátja.
+     */
+    public static final Duration GENERATION_TIME_BUDGET = Duration.ofSeconds(2);
+    /**
+     * A generálási mód kiválasztására szolgáló rendszertulajdonság neve ({@link GenerationMode} értékei).
+     */
+    public static final String GENERATION_PROPERTY = "sudoku.generation";
+    /**
+     * A párhuzamos megoldásszámlálás bekapcsolására szolgáló rendszertulajdonság neve ({@link #setParallelCounting(boolean)}).
+     */
+    public static final String PARALLEL_COUNTING_PROPERTY = "sudoku.parallelCounting";
     private static GameDifficulty difficulty;
-    private static final int SIZE = 9;
-    private static final int EASY_MOD_REVOME_DIGITS = 44;
-    private static final int MEDIUM_MOD_REVOME_DIGITS = 48;
-    private static final int HARD_MOD_REVOME_DIGITS = 52;
+    private static final int SIZE = BitBoard.SIZE;
     private static final String SINGLE_LOG_FORMAT = "[{}][{}] = {}";
     private static final String PAIR_LOG_FORMAT = "[{}, {}] and [{}, {}]";
     private static final String NAKED_PAIR = "NAKED PAIR:";
+    private static final GameDifficulty RACING_MIN_DIFFICULTY = GameDifficulty.EXPERT;
+    private static final ParallelSolutionCounter PARALLEL_COUNTER = new ParallelSolutionCounter();
+    private final BitBoard board = new BitBoard();
+    private final BitBoard solved = new BitBoard();
+    private final BitBoard original = new BitBoard();
     private final CellPosition[][] sudokuBoard;
     private final CellPosition[][] solvedBoard;
     private final CellPosition[][] originalBoard;
-    private static final Random rand = new Random();
     private static boolean needHistoryLoad = false;
+    private static String solverEngineName;
+    private static boolean parallelCounting = Boolean.getBoolean(PARALLEL_COUNTING_PROPERTY);
+    private static int boardBoxSize = BitBoard.BOX_SIZE;
+    private static GenerationMode generationMode = configuredGenerationMode();
+    private SolverEngine solverEngine;
+    private final SplittableRandom random = new SplittableRandom();
+    private GenerationStats lastGenerationStats;
+    private GameDifficulty puzzleDifficulty;
     private int helpCounter = 0;
-    private final Set<Pair<Pair<Integer, Integer>, Set<Integer>>> checkedPairSet = new HashSet<>();
+    private final int[] excludedCandidates = new int[CELLS];
+    private EntryAnalyzer entryAnalyzer;
+    private boolean entryMode = false;
 
     /**
      * Inicializálja a játékot.
@@ -34,14 +64,45 @@ public class GameModel {
         sudokuBoard = new CellPosition[SIZE][SIZE];
         solvedBoard = new CellPosition[SIZE][SIZE];
         originalBoard = new CellPosition[SIZE][SIZE];
+    }
 
-        for (int i = 0; i < SIZE; i++) {
-            for (int j = 0; j < SIZE; j++) {
-                sudokuBoard[i][j] = new CellPosition();
-            }
+    /**
+     * Beolvassa a generálási módot a {@link #GENERATION_PROPERTY} rendszertulajdonságból.
+     *
+     * @return a beállított mód, ismeretlen vagy hiányzó érték esetén {@link GenerationMode#RANDOM}
+     */
+    static GenerationMode configuredGenerationMode() {
+        String configured = System.getProperty(GENERATION_PROPERTY, GenerationMode.RANDOM.name());
+        try {
+            return GenerationMode.valueOf(configured);
+        } catch (IllegalArgumentException e) {
+            Logger.warn("Ismeretlen generálási mód: {}, véletlen generálást használunk.", configured);
+            return GenerationMode.RANDOM;
         }
     }
 
+    /**
+     * Létrehoz egy új játszmát a beállított táblamérettel ({@link #setBoardBoxSize(int)}).
+     * A klasszikus 9×9-es táblához a bitmaszkos {@link GameModel}, minden más mérethez {@link GridGameModel} készül.
+     *
+     * @return az új játszma
+     */
+    public static SudokuGame newGame() {
+        if (boardBoxSize == BitBoard.BOX_SIZE) {
+            return new GameModel();
+        }
+        return new GridGameModel(BoardGeometry.of(boardBoxSize));
+    }
+
+    /**
+     * Visszaadja a tábla geometriáját, ez mindig a klasszikus 9×9-es tábla.
+     *
+     * @return a klasszikus geometria
+     */
+    @Override
+    public BoardGeometry getGeometry() {
+        return BoardGeometry.CLASSIC;
+    }
 
     /**
      * Betölti a játékot egy korábban mentett állapotból.
@@ -49,182 +110,167 @@ public class GameModel {
      *
      * @param history A betöltendő játék előzménye.
      */
+    @Override
     public void loadGameFromHistory(GameHistory history) {
         setDifficulty(GameDifficulty.valueOf(history.getDifficulty()));
-        deepCopy(history.getOriginalBoard(), originalBoard);
-        deepCopy(history.getOriginalBoard(), sudokuBoard);
-        deepCopy(history.getSolvedBoard(), solvedBoard);
+        puzzleDifficulty = getDifficulty();
+        original.readFrom(history.getOriginalBoard());
+        board.readFrom(history.getOriginalBoard());
+        solved.readFrom(history.getSolvedBoard());
     }
 
     /**
      * Megoldja a játékot, átmásolva a megoldott tábla állapotát a jelenlegi táblába.
+     * Ha a megoldott tábla még nem ismert, akkor előbb az eredeti táblából kiszámolja
+     * a {@link PuzzleAnalysisCache} segítségével, így egy már elemzett feladvány bármely transzformáltja
+     * újraszámolás nélkül megoldható.
      */
+    @Override
     public void solve() {
-        deepCopy(solvedBoard, sudokuBoard);
+        if (!solved.isComplete()) {
+            int[] solution = PuzzleAnalysisCache.getDefault().analyze(original.toValueArray()).getSolution();
+            if (solution == null) {
+                Logger.debug("A táblának nincs megoldása!");
+                return;
+            }
+            solved.setValues(solution);
+        }
+        board.copyFrom(solved);
     }
 
     /**
      * Generál egy új Sudoku táblát.
-     * Először kitölti az átlós 3x3-as blokkokat, majd a maradék helyeket.
-     * végül eltávolít néhány számot a nehézségi szintnek megfelelően.
+     * Először véletlen teljes táblát készít, majd
+     * eltávolít néhány számot a nehézségi szintnek megfelelően ({@link PuzzleGenerator}).
+     * A törlés legfeljebb {@link #GENERATION_TIME_BUDGET} ideig tart, utána az addig elért feladvány marad.
      */
     public void generateSudoku() {
-        fillDiagonal();
-        fillRemaining(0, 3);
-
-        deepCopy(sudokuBoard, solvedBoard);
-
-        if (difficulty == GameDifficulty.EASY) {
-            removeDigits(EASY_MOD_REVOME_DIGITS);
-        } else if (difficulty == GameDifficulty.MEDIUM) {
-            removeDigits(MEDIUM_MOD_REVOME_DIGITS);
-        } else {
-            removeDigits(HARD_MOD_REVOME_DIGITS);
-        }
-        storePossibleValues();
-
-        deepCopy(sudokuBoard, originalBoard);
+        generateSudoku(CancellationToken.withTimeout(GENERATION_TIME_BUDGET));
     }
 
     /**
-     * Átmásolja a source tábla értékeit, a destination táblába.
+     * Generál egy új Sudoku táblát, a törlést a megadott jelző megszakíthatja.
+     * Megszakítás esetén is érvényes, egyértelmű feladvány jön létre, csak kevesebb szám törlődik
+     * (lásd {@link GenerationStats#isCancelled()}).
+     * {@link GenerationMode#SEED_BANK} módban a {@link PuzzleBank} egy transzformált feladványát tölti be,
+     * {@link GenerationMode#PREBUILT} módban a beépített {@link BinaryPuzzleBank} gyűjteményből dolgozik,
+     * és csak akkor generál, ha abban nincs a szinthez feladvány.
+     * {@link GenerationMode#RANDOM} módban a {@link GameDifficulty#EXPERT} és nehezebb szinteken, ahol egy táblából
+     * gyakran nem érhető el a törlési cél, a processzormagok számának megfelelő versenyzővel generál
+     * ({@link PuzzleGenerator#race(GameDifficulty, int, CancellationToken)}), így az időkeret jobban kihasználható.
      *
-     * @param source      tábla amelyet szeretnénk másolni
-     * @param destination tábla ahova szeretnénk másolni
+     * @param token a generálás megszakítására szolgáló jelző
      */
-    public void deepCopy(CellPosition[][] source, CellPosition[][] destination) {
-        for (int i = 0; i < SIZE; i++) {
-            for (int j = 0; j < SIZE; j++) {
-                destination[i][j] = new CellPosition(source[i][j].getValue(), new HashSet<>(source[i][j].getPossibleValues()));
-            }
-        }
+    @Override
+    public void generateSudoku(CancellationToken token) {
+        GameDifficulty level = difficulty != null ? difficulty : GameDifficulty.HARD;
+        GenerationMode mode = generationMode == GenerationMode.RANDOM && level.compareTo(RACING_MIN_DIFFICULTY) >= 0
+                ? GenerationMode.RACING : generationMode;
+        generate(newGenerator(random.split()), mode, token);
     }
 
     /**
-     * Kitölti tábla átlós 3x3-as blokkjait véletlenszerű számokkal.
+     * Generál egy új Sudoku táblát a megadott magból.
+     * Azonos mag és nehézségi szint minden gépen ugyanazt a feladványt adja
+     * (például a napi feladványhoz: {@link PuzzleGenerator#dailySeed(java.time.LocalDate)}).
+     * A beállított módot csak akkor használja, ha az reprodukálható ({@link GenerationMode#isReproducible()}),
+     * {@link GenerationMode#RACING} módban {@link GenerationMode#RANDOM} módban generál.
+     *
+     * @param seed a véletlenszám generátor magja
      */
-    private void fillDiagonal() {
-        for (int i = 0; i < SIZE; i = i + 3) {
-            fillBox(i, i);
-        }
+    public void generateSudoku(long seed) {
+        GenerationMode mode = generationMode.isReproducible() ? generationMode : GenerationMode.RANDOM;
+        generate(newGenerator(new SplittableRandom(seed)), mode, new CancellationToken());
     }
 
     /**
-     * Kitölt egy 3x3-as blokkot véletlenszerű számokkal,.
+     * Célzott generálás: a követelménynek megfelelő nehézségű feladványt készít és tölt be
+     * ({@link PuzzleGenerator#generate(PuzzleRequirement, CancellationToken)}).
+     * Ha a jelző lejár, vagy a generátor táblakerete ({@link PuzzleGenerator#MAX_TARGET_CANDIDATES}) elfogy,
+     * mielőtt megfelelő feladvány készült, a jelenlegi tábla változatlan marad.
      *
-     * @param row A blokk kezdő sorának indexe.
-     * @param col A blokk kezdő oszlopának indexe.
+     * @param requirement a teljesítendő követelmény
+     * @param token       a generálás megszakítására szolgáló jelző, egyben az időkeret
+     * @return Igaz, ha készült és betöltődött megfelelő feladvány.
      */
-    private void fillBox(int row, int col) {
-        int num;
-        for (int i = 0; i < 3; i++)
-            for (int j = 0; j < 3; j++) {
-                do {
-                    num = rand.nextInt(SIZE) + 1;
-                } while (!unUsedInBox(sudokuBoard, row, col, num));
-
-                sudokuBoard[row + i][col + j].setValue(num);
-            }
+    public boolean generateSudoku(PuzzleRequirement requirement, CancellationToken token) {
+        PuzzleGenerator generator = newGenerator(random.split());
+        Optional<Puzzle> puzzle = generator.generate(requirement, token);
+        puzzle.ifPresent(this::loadPuzzle);
+        lastGenerationStats = generator.getLastStats();
+        return puzzle.isPresent();
     }
 
     /**
-     * Ellenőrzi, hogy egy adott szám szerepel-e már az adott sorban.
+     * A megadott generátorral előállít egy feladványt a megadott mód és a beállított nehézségi szint szerint, majd betölti.
      *
-     * @param board A tábla.
-     * @param row   A sor indexe.
-     * @param value Az ellenőrizendő szám.
-     * @return Igaz, ha a szám nincs jelen a sorban, különben hamis.
+     * @param generator a használandó generátor
+     * @param mode      a generálási mód
+     * @param token     a generálás megszakítására szolgáló jelző
      */
-    private boolean unUsedInRow(CellPosition[][] board, int row, int value) {
-        for (int col = 0; col < SIZE; col++) {
-            if (board[row][col].getValue() == value) {
-                return false;
-            }
-        }
-        return true;
+    private void generate(PuzzleGenerator generator, GenerationMode mode, CancellationToken token) {
+        GameDifficulty level = difficulty != null ? difficulty : GameDifficulty.HARD;
+        Puzzle puzzle = generator.generate(level, mode, token);
+        loadPuzzle(puzzle);
+        lastGenerationStats = generator.getLastStats();
     }
 
     /**
-     * Ellenőrzi, hogy egy adott szám szerepel-e már az adott oszlopban.
+     * Betölti a megadott feladványt és a megoldását, majd eltárolja a cellák lehetséges értékeit.
+     * A játszma szintje a feladvány szintje lesz ({@link #getPuzzleDifficulty()}).
      *
-     * @param board A tábla.
-     * @param col   A sor indexe, amiben keresünk.
-     * @param value Az ellenőrizendő szám.
-     * @return Igaz, ha a szám nincs jelen a oszlopban, különben hamis.
+     * @param puzzle A betöltendő feladvány.
      */
-    private boolean unUsedInCol(CellPosition[][] board, int col, int value) {
-        for (int row = 0; row < SIZE; row++) {
-            if (board[row][col].getValue() == value) {
-                return false;
-            }
-        }
-        return true;
+    public void loadPuzzle(Puzzle puzzle) {
+        puzzleDifficulty = puzzle.getDifficulty();
+        board.setValues(puzzle.getGivens());
+        solved.setValues(puzzle.getSolution());
+        storePossibleValues();
+        original.copyFrom(board);
     }
 
     /**
-     * Ellenőrzi, hogy egy adott szám szerepel-e már az adott blokkban.
+     * Betölti a feladványtár megadott helyű rekordjának feladványát és megoldását
+     * (a helyet például a {@link PuzzleStore#randomOffset(GameDifficulty, java.util.random.RandomGenerator)} adja).
      *
-     * @param board    A tábla.
-     * @param rowStart A blokk kezdő sorának indexe.
-     * @param colStart A blokk kezdő oszlopának indexe.
-     * @param value    Az ellenőrizendő szám.
-     * @return Igaz, ha a szám nincs jelen a blokkban, különben hamis.
+     * @param store  a feladványtár
+     * @param offset a rekord helye a tárban
      */
-    private boolean unUsedInBox(CellPosition[][] board, int rowStart, int colStart, int value) {
-        for (int i = 0; i < 3; i++) {
-            for (int j = 0; j < 3; j++) {
-                if (board[rowStart + i][colStart + j].getValue() == value) {
-                    return false;
-                }
-            }
-        }
-        return true;
+    public void loadPuzzle(PuzzleStore store, long offset) {
+        loadPuzzle(store.read(offset));
     }
 
     /**
-     * Megpróbálja kitölteni a tábla maradék részeit anélkül, hogy szabályokat sértenénk.
-     * Rekurzív megoldást használ, visszalépéssel, ha nem talál megoldást egy adott útvonalon.
+     * Átmásolja a source tábla értékeit, a destination táblába.
+     * Ha a cél a modell valamelyik nézete, akkor a mögötte álló táblát is frissíti.
      *
-     * @param i A jelenlegi sor indexe.
-     * @param j A jelenlegi oszlop indexe.
-     * @return Igaz, ha sikerült kitölteni az egész táblát, különben hamis.
+     * @param source      tábla amelyet szeretnénk másolni
+     * @param destination tábla ahova szeretnénk másolni
      */
-    private boolean fillRemaining(int i, int j) {
-        if (i == SIZE - 1 && j == SIZE) {
-            return true;
-        }
-
-        if (j == SIZE) {
-            i++;
-            j = 0;
-        }
-
-        if (sudokuBoard[i][j].getValue() != 0) {
-            return fillRemaining(i, j + 1);
+    public void deepCopy(CellPosition[][] source, CellPosition[][] destination) {
+        for (int i = 0; i < SIZE; i++) {
+            for (int j = 0; j < SIZE; j++) {
+                destination[i][j] = new CellPosition(source[i][j].getValue(), new HashSet<>(source[i][j].getPossibleValues()));
+            }
         }
 
-        for (int num = 1; num <= SIZE; num++) {
-            if (isPlacementValid(sudokuBoard, i, j, num)) {
-                sudokuBoard[i][j].setValue(num);
-                if (fillRemaining(i, j + 1)) {
-                    return true;
-                }
-                sudokuBoard[i][j].setValue(0);
-            }
+        if (destination == sudokuBoard) {
+            board.readFrom(destination);
+        } else if (destination == solvedBoard) {
+            solved.readFrom(destination);
+        } else if (destination == originalBoard) {
+            original.readFrom(destination);
         }
-        return false;
     }
 
     /**
      * Eltárolja az összes cella lehetséges értékeit.
      */
+    @Override
     public void storePossibleValues() {
-        for (int i = 0; i < SIZE; i++) {
-            for (int j = 0; j < SIZE; j++) {
-                if (sudokuBoard[i][j].getValue() == 0) {
-                    Set<Integer> possibleValues = getNewPossibleValues(i, j);
-                    sudokuBoard[i][j].setPossibleValues(possibleValues);
-                }
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (board.getValue(cell) == 0) {
+                board.setCandidates(cell, newPossibleValuesMask(cell));
             }
         }
     }
@@ -232,15 +278,11 @@ public class GameModel {
     /**
      * Eltárolja a cellák lehetséges értékeit az aktuális tábla állapota alapján.
      */
+    @Override
     public void storeActualPossibleValues() {
-        for (int i = 0; i < SIZE; i++) {
-            for (int j = 0; j < SIZE; j++) {
-                if (sudokuBoard[i][j].getValue() == 0) {
-                    Set<Integer> newPossibleValues = getNewPossibleValues(i, j);
-                    Set<Integer> currentPossibleValues = sudokuBoard[i][j].getPossibleValues();
-                    currentPossibleValues.retainAll(newPossibleValues);
-                    sudokuBoard[i][j].setPossibleValues(currentPossibleValues);
-                }
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (board.getValue(cell) == 0) {
+                board.setCandidates(cell, board.getCandidates(cell) & newPossibleValuesMask(cell));
             }
         }
     }
@@ -252,10 +294,10 @@ public class GameModel {
      * @param col            A cella oszlopának indexe.
      * @param valuesToRemove Az eltávolítandó értékek halmaza.
      */
+    @Override
     public void removePossibleValuesAt(int row, int col, Set<Integer> valuesToRemove) {
-        Set<Integer> possibleValues = new HashSet<>(sudokuBoard[row][col].getPossibleValues());
-        possibleValues.removeAll(valuesToRemove);
-        sudokuBoard[row][col].setPossibleValues(possibleValues);
+        int cell = index(row, col);
+        board.setCandidates(cell, board.getCandidates(cell) & ~toMask(valuesToRemove));
     }
 
     /**
@@ -265,215 +307,212 @@ public class GameModel {
      * @param col A cella oszlopának indexe.
      * @return A cella számára lehetséges új értékek halmaza.
      */
+    @Override
     public Set<Integer> getNewPossibleValues(int row, int col) {
-        boolean[] usedValues = new boolean[SIZE + 1];
-
-        // Sor
-        for (int j = 0; j < SIZE; j++) {
-            int value = sudokuBoard[row][j].getValue();
-            usedValues[value] = true;
-        }
-
-        // oszlop
-        for (int i = 0; i < SIZE; i++) {
-            int value = sudokuBoard[i][col].getValue();
-            usedValues[value] = true;
-        }
-
-        // blokk
-        int boxStartRow = row - row % 3;
-        int boxStartCol = col - col % 3;
-        for (int i = 0; i < 3; i++) {
-            for (int j = 0; j < 3; j++) {
-                int value = sudokuBoard[boxStartRow + i][boxStartCol + j].getValue();
-                usedValues[value] = true;
-            }
-        }
-
-        Set<Integer> possibleValues = new HashSet<>();
-        for (int num = 1; num <= SIZE; num++) {
-            if (!usedValues[num]) {
-                possibleValues.add(num);
-            }
-        }
-
-        Pair<Integer, Integer> currentPosition = new Pair<>(row, col);
-        for (Pair<Pair<Integer, Integer>, Set<Integer>> checkedPosition : checkedPairSet) {
-            if (checkedPosition.getKey().equals(currentPosition)) {
-                possibleValues.removeAll(checkedPosition.getValue());
-            }
-        }
+        return toSet(newPossibleValuesMask(index(row, col)));
+    }
 
-        return possibleValues;
+    /**
+     * Kiszámítja egy adott cella lehetséges értékeinek maszkját,
+     * figyelembe véve a párok által korábban kizárt értékeket is.
+     *
+     * @param cell A cella indexe.
+     * @return A lehetséges értékek maszkja.
+     */
+    private int newPossibleValuesMask(int cell) {
+        return board.computeCandidates(cell) & ~excludedCandidates[cell];
     }
 
     /**
      * Ellenőrzi, hogy egy adott érték hozzáadható-e az adott cellához anélkül, hogy szabályokat sértenénk.
+     * A cella saját értékét nem veszi figyelembe, csak a sorában, oszlopában és blokkjában lévő többi cellát.
      *
      * @param row   A cella sorának indexe.
      * @param col   A cella oszlopának indexe.
      * @param value A hozzáadni kívánt érték.
      * @return Igaz, ha az érték hozzáadható anélkül, hogy szabályokat sértenénk, egyébként hamis.
      */
+    @Override
     public boolean isValueValid(int row, int col, int value) {
-        return isValueUnusedInRow(row, col, value) && isValueUnusedInCol(row, col, value) && isValueUnusedInBox(row, col, value);
+        return board.isValueValid(index(row, col), value);
     }
 
     /**
-     * Ellenőrzi, hogy egy adott érték szerepel-e egy adott sorban.
+     * Visszaadja az utolsó {@link #generateSudoku()} hívás mérőszámait.
      *
-     * @param row   A sor indexe.
-     * @param col   A oszlop indexe .
-     * @param value Az ellenőrizendő érték.
-     * @return Igaz, ha az érték nem szerepel a sorban, egyébként hamis.
+     * @return A generálás mérőszámai, null ha még nem volt generálás.
      */
-    private boolean isValueUnusedInRow(int row, int col, int value) {
-        for (int j = 0; j < 9; j++) {
-            if (j != col && sudokuBoard[row][j].getValue() == value) {
-                return false;
-            }
-        }
-        return true;
+    public GenerationStats getLastGenerationStats() {
+        return lastGenerationStats;
     }
 
     /**
-     * Ellenőrzi, hogy egy adott érték szerepel-e egy adott oszlopban.
+     * Visszaadja a betöltött feladvány szintjét. Ez eltérhet a beállított szinttől, ha a generálás
+     * nem érte el a kért szint törlési célját.
      *
-     * @param row   A sor indexe.
-     * @param col   A cella oszlopának indexe
-     * @param value Az ellenőrizendő érték.
-     * @return Igaz, ha az érték nem szerepel a oszlopban, egyébként hamis.
+     * @return a feladvány szintje, null ha még nincs betöltött feladvány
      */
-    private boolean isValueUnusedInCol(int row, int col, int value) {
-        for (int i = 0; i < 9; i++) {
-            if (i != row && sudokuBoard[i][col].getValue() == value) {
-                return false;
-            }
-        }
-        return true;
+    @Override
+    public GameDifficulty getPuzzleDifficulty() {
+        return puzzleDifficulty;
     }
 
     /**
-     * Ellenőrzi, hogy egy adott érték szerepel-e egy adott blokkban.
+     * Logikai megoldással értékeli a jelenlegi feladvány (az eredeti tábla) nehézségét.
+     * Az értékelés a feladvány kanonikus alakjára vonatkozik, és a {@link PuzzleAnalysisCache} tárolja.
      *
-     * @param row   A sor indexe.
-     * @param col   A cella oszlopának indexe
-     * @param value Az ellenőrizendő érték.
-     * @return Igaz, ha az érték nem szerepel a blokkban, egyébként hamis.
+     * @return Az értékelés eredménye.
      */
-    private boolean isValueUnusedInBox(int row, int col, int value) {
-        int boxRowStart = row - row % 3;
-        int boxColStart = col - col % 3;
-        for (int i = 0; i < 3; i++) {
-            for (int j = 0; j < 3; j++) {
-                if ((boxRowStart + i != row || boxColStart + j != col) && sudokuBoard[boxRowStart + i][boxColStart + j].getValue() == value) {
-                    return false;
-                }
-            }
-        }
-        return true;
+    public Grade gradePuzzle() {
+        return PuzzleAnalysisCache.getDefault().analyze(original.toValueArray()).getGrade();
     }
 
     /**
-     * Eltávolít véletlenszerűen számokat a cellából.
-     * Biztosítja, hogy minden eltávolított szám után a tábla még mindig egyedi megoldással rendelkezzen.
+     * Ellenőrzi, hogy a táblának van-e egyedi megoldása.
+     * A beállított megoldó motort használja ({@link #setSolverEngineName(String)}),
+     * amely megszakítja a keresést, ha több mint egy megoldást talál.
+     * Párhuzamos módban ({@link #setParallelCounting(boolean)}) a ritkán kitöltött táblákat
+     * a {@link ParallelSolutionCounter} vizsgálja több szálon, a sűrűbb táblákon a felosztás nem térül meg.
      *
-     * @param count Az eltávolítandó számok száma.
+     * @return Igaz, ha a táblának pontosan egy egyedi megoldása van, egyébként hamis.
      */
-    private void removeDigits(int count) {
-        Set<Pair<Integer, Integer>> cellsToRemove = new HashSet<>();
-        while (cellsToRemove.size() < count) {
-            int i = rand.nextInt(SIZE);
-            int j = rand.nextInt(SIZE);
-            if (sudokuBoard[i][j].getValue() != 0) {
-                int backupValue = sudokuBoard[i][j].getValue();
-                sudokuBoard[i][j].setValue(0);
+    public boolean hasUniqueSolution() {
+        int[] grid = board.toValueArray();
+        if (parallelCounting && board.emptyCount() >= ParallelSolutionCounter.MIN_EMPTY_CELLS) {
+            return PARALLEL_COUNTER.countSolutions(grid, 2) == 1;
+        }
+        return engine().isUnique(grid);
+    }
 
-                if (!hasUniqueSolution()) {
-                    sudokuBoard[i][j].setValue(backupValue);
-                } else {
-                    cellsToRemove.add(new Pair<>(i, j));
-                }
-            }
+    /**
+     * Beviteli módba lép: üres táblát készít, amelyre a játékos egy saját (például újságban talált) feladványt
+     * írhat be az {@link #enterValueAt(int, int, int)} hívásokkal. Minden beírás után a háttérben elindul
+     * a feladvány elemzése ({@link #getEntryAnalysis()}), a feladványt a {@link #finishEntry()} tölti be.
+     * Az elemző (és a megoldója) csak az első beviteli módba lépéskor jön létre.
+     */
+    public void startEntry() {
+        if (entryAnalyzer == null) {
+            entryAnalyzer = new EntryAnalyzer(BoardGeometry.CLASSIC);
+        } else {
+            entryAnalyzer.reset();
         }
+        entryMode = true;
+        helpCounter = 0;
+        Arrays.fill(excludedCandidates, 0);
+        board.setValues(new int[CELLS]);
+        solved.setValues(new int[CELLS]);
+        original.setValues(new int[CELLS]);
+        entryAnalyzer.submit(board.toValueArray());
     }
 
     /**
-     * Ellenőrzi, hogy a táblának van-e egyedi megoldása.
-     * Ez a metódus a backtracking algoritmust használja, hogy megtalálja az összes lehetséges megoldást,
-     * és megszakítja a keresést, ha több mint egy megoldást talál.
+     * Visszaadja, hogy a játék beviteli módban van-e.
      *
-     * @return Igaz, ha a táblának pontosan egy egyedi megoldása van, egyébként hamis.
+     * @return Igaz, ha a feladvány beírása még folyamatban van.
      */
-    public boolean hasUniqueSolution() {
-        int[] numberOfSolutions = new int[1];
-        checkForUniqueSolution(0, 0, numberOfSolutions);
-        return numberOfSolutions[0] == 1;
+    public boolean isEntryMode() {
+        return entryMode;
     }
 
     /**
-     * Rekurzív metódus, amely megszámolja a tábla összes lehetséges megoldását.
-     * A tábla minden lehetséges értékével próbálkozik minden üres cellában,
-     * és rekurzívan ellenőrzi, hogy a tábla ezekkel az értékekkel megoldható-e.
-     * A metódus az első megoldás megtalálása után is folytatja a keresést, hogy meghatározza,
-     * van-e több megoldás.
+     * Beviteli módban beírja vagy törli a cella értékét.
+     * A beírást azonnal ellenőrzi: ütköző érték esetén a táblát nem módosítja.
+     * Sikeres módosítás után a háttérben új elemzést indít, a még futó korábbit megszakítja.
      *
-     * @param row               A jelenlegi cella sorának indexe.
-     * @param col               A jelenlegi cella oszlopának indexe.
-     * @param numberOfSolutions Az eddig megtalált megoldások számát tartalmazó tömb.
-     * @return Igaz, ha csak egy megoldás van, egyébként hamis.
+     * @param row   A cella sorának indexe.
+     * @param col   A cella oszlopának indexe.
+     * @param value A beírandó érték, 0 esetén a cella törlődik.
+     * @return Hamis, ha az érték érvénytelen, vagy ütközik a sorában, oszlopában vagy blokkjában szereplő számmal.
+     * @throws IllegalStateException ha a játék nincs beviteli módban
      */
-    private boolean checkForUniqueSolution(int row, int col, int[] numberOfSolutions) {
-        if (row == SIZE) {
-            numberOfSolutions[0]++; // lehetséges megoldás pipa
-            return numberOfSolutions[0] == 1; // Csak akkor tér vissza igaz értékkel, ha ez az első megoldás
+    public boolean enterValueAt(int row, int col, int value) {
+        if (!entryMode) {
+            throw new IllegalStateException("A játék nincs beviteli módban!");
         }
+        int cell = index(row, col);
+        if (value < 0 || value > SIZE || (value != 0 && !board.isValueValid(cell, value))) {
+            return false;
+        }
+        if (board.getValue(cell) != value) {
+            board.setValue(cell, value);
+            entryAnalyzer.submit(board.toValueArray());
+        }
+        return true;
+    }
 
-        int nextRow = (col == SIZE - 1) ? row + 1 : row;
-        int nextCol = (col == SIZE - 1) ? 0 : col + 1;
+    /**
+     * Visszaadja a beírt feladvány legutóbbi állapotának elemzését.
+     * Az eredmény jelzi, hogy a feladványnak nincs, egy vagy több megoldása van,
+     * több megoldás esetén a megkülönböztető cellát is megadja.
+     *
+     * @return az elemzés eredménye, amint elkészül
+     * @throws IllegalStateException ha a játék nincs beviteli módban
+     */
+    public CompletableFuture<EntryAnalysis> getEntryAnalysis() {
+        if (!entryMode) {
+            throw new IllegalStateException("A játék nincs beviteli módban!");
+        }
+        return entryAnalyzer.latest();
+    }
 
-        if (sudokuBoard[row][col].getValue() != 0) {
-            // Ugrás a következő cellára, ha ez már ki van töltve
-            return checkForUniqueSolution(nextRow, nextCol, numberOfSolutions);
-        } else {
-            for (int num = 1; num <= SIZE; num++) {
-                if (isValueValid(row, col, num)) {
-                    sudokuBoard[row][col].setValue(num);
-                    if (checkForUniqueSolution(nextRow, nextCol, numberOfSolutions) && (numberOfSolutions[0] > 1)) {
-                        return false; // Már több mint egy megoldás van
+    /**
+     * Befejezi a beviteli módot, ha a beírt feladvány egyértelmű.
+     * Ekkor a megoldott és az eredeti tábla is beállítódik, a nehézségi szintet a {@link PuzzleAnalysisCache} értékelése adja,
+     * így a feladvány ugyanúgy játszható, mint egy generált. Szükség esetén megvárja a futó elemzést.
+     *
+     * @return Igaz, ha a feladvány betöltődött; hamis, ha nincs vagy nem egyértelmű a megoldása.
+     * @throws IllegalStateException ha a játék nincs beviteli módban
+     */
+    public boolean finishEntry() {
+        EntryAnalysis analysis = getEntryAnalysis().join();
+        if (!analysis.isUnique()) {
+            Logger.debug("A beírt feladvány nem tölthető be: {}", analysis);
+            return false;
+        }
+        int[] givens = board.toValueArray();
+        GameDifficulty level = PuzzleAnalysisCache.getDefault().analyze(givens).getGrade().getDifficulty();
+        entryMode = false;
+        loadPuzzle(new Puzzle(givens, analysis.getSolution(), level));
+        setDifficulty(level);
+        return true;
+    }
 
-                    }
-                    sudokuBoard[row][col].setValue(0); // BackTrack
-                }
-            }
+    /**
+     * Létrehoz egy generátort a beállított megoldó motorral; párhuzamos módban a ritka táblák
+     * törlési lépését a {@link ParallelSolutionCounter} vizsgálja.
+     *
+     * @param generatorRandom a generátor véletlenszám generátora
+     * @return az új generátor
+     */
+    private PuzzleGenerator newGenerator(SplittableRandom generatorRandom) {
+        PuzzleGenerator generator = new PuzzleGenerator(generatorRandom, engine());
+        if (parallelCounting) {
+            generator.setParallelCounter(PARALLEL_COUNTER);
         }
-        return numberOfSolutions[0] == 1;
+        return generator;
     }
 
     /**
-     * Ellenőrzi, hogy egy adott érték hozzáadható-e egy cellához anélkül, hogy megsértené a Sudoku szabályait.
+     * Visszaadja a beállított megoldó motort, ha a beállítás változott, újat hoz létre.
      *
-     * @param board aktuális tábla
-     * @param row   A cella sorának indexe.
-     * @param col   A cella oszlopának indexe.
-     * @param num   érték amit vizsgálunk
-     * @return Igaz, ha az érték hozzáadható a cellához, egyébként hamis.
+     * @return a használandó megoldó motor
      */
-    private boolean isPlacementValid(CellPosition[][] board, int row, int col, int num) {
-        return (unUsedInRow(board, row, num) && unUsedInCol(board, col, num) && unUsedInBox(board, row - row % 3, col - col % 3, num));
+    private SolverEngine engine() {
+        String name = getSolverEngineName();
+        if (solverEngine == null || !solverEngine.getName().equals(name)) {
+            solverEngine = SolverEngines.create(name);
+        }
+        return solverEngine;
     }
 
     /**
      * Alaphelyzetbe állítja a játéktáblát, visszaállítva az eredeti állapotot.
      */
+    @Override
     public void resetBoard() {
         helpCounter = 0;
-        checkedPairSet.clear();
-        for (int i = 0; i < SIZE; i++) {
-            for (int j = 0; j < SIZE; j++) {
-                sudokuBoard[i][j] = new CellPosition(originalBoard[i][j].getValue(), new HashSet<>(originalBoard[i][j].getPossibleValues()));
-            }
-        }
+        Arrays.fill(excludedCandidates, 0);
+        board.copyFrom(original);
     }
 
     /**
@@ -481,16 +520,9 @@ public class GameModel {
      *
      * @return Igaz, ha a játék befejeződött, egyébként hamis.
      */
+    @Override
     public boolean isComplete() {
-        for (int i = 0; i < SIZE; i++) {
-            for (int j = 0; j < SIZE; j++) {
-                int value = sudokuBoard[i][j].getValue();
-                if (value == 0) {
-                    return false;
-                }
-            }
-        }
-        return true;
+        return board.isComplete();
     }
 
     /**
@@ -499,14 +531,11 @@ public class GameModel {
      *
      * @return Igaz, ha a két tábla értékei azonosak, egyébként hamis.
      */
+    @Override
     public boolean isCorrect() {
-        for (int i = 0; i < SIZE; i++) {
-            for (int j = 0; j < SIZE; j++) {
-                int value = sudokuBoard[i][j].getValue();
-                int correctValue = solvedBoard[i][j].getValue();
-                if (value != correctValue) {
-                    return false;
-                }
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (board.getValue(cell) != solved.getValue(cell)) {
+                return false;
             }
         }
         return true;
@@ -518,15 +547,13 @@ public class GameModel {
      *
      * @return A helytelenül kitöltött cellák halmaza.
      */
+    @Override
     public Set<Pair<Integer, Integer>> getIncorrectValues() {
         Set<Pair<Integer, Integer>> incorrectValues = new HashSet<>();
-        for (int i = 0; i < SIZE; i++) {
-            for (int j = 0; j < SIZE; j++) {
-                int value = sudokuBoard[i][j].getValue();
-                int correctValue = solvedBoard[i][j].getValue();
-                if (value != 0 && value != correctValue) {
-                    incorrectValues.add(new Pair<>(i, j));
-                }
+        for (int cell = 0; cell < CELLS; cell++) {
+            int value = board.getValue(cell);
+            if (value != 0 && value != solved.getValue(cell)) {
+                incorrectValues.add(position(cell));
             }
         }
         return incorrectValues;
@@ -534,90 +561,37 @@ public class GameModel {
 
     /**
      * Segítő algoritmus.
-     * Bejárja a sorokat, oszlopokat és 3x3 blokkot.
+     * Bejárja a házakat (sorokat, oszlopokat és 3x3 blokkokat).
      * Olyan cellákat keres ahol már csak egy cella maradt kitöltetlen.
      * Ekkor az értéket, és a pozíciót letárolja egy halmazba
      *
      * @return a letárolt pozíció és értékek halmaza.
      */
+    @Override
     public Set<Pair<Integer, Pair<Integer, Integer>>> checkFullHouse() {
         Set<Pair<Integer, Pair<Integer, Integer>>> results = new HashSet<>();
-
-        results.addAll(checkFullHouseForRowCol(true));
-        results.addAll(checkFullHouseForRowCol(false));
-        results.addAll(checkFullHouseByBoxes());
-
-        return results;
-    }
-
-    /**
-     * A full house algoritmus sorokban és oszlopokban való keresésre van.
-     *
-     * @param isRow Igaz, ha sorokat kell ellenőrizni, hamis, ha oszlopokat.
-     * @return a letárolt pozíció és értékek halmaza.
-     */
-    private Set<Pair<Integer, Pair<Integer, Integer>>> checkFullHouseForRowCol(boolean isRow) {
-        Set<Pair<Integer, Pair<Integer, Integer>>> results = new HashSet<>();
-        for (int i = 0; i < SIZE; i++) {
-            int emptyCellCount = 0;
-            Pair<Integer, Integer> fullHousePosition = null;
-            int value = 0;
-            for (int j = 0; j < SIZE; j++) {
-                CellPosition cell = isRow ? sudokuBoard[i][j] : sudokuBoard[j][i];
-                if (cell.getValue() == 0) {
-                    emptyCellCount++;
-                    value = cell.getPossibleValues().iterator().next();
-                    fullHousePosition = isRow ? new Pair<>(i, j) : new Pair<>(j, i);
-                }
-            }
-            addFullHouseResult(emptyCellCount, value, fullHousePosition, results);
+        for (int house = 0; house < HOUSE_COUNT; house++) {
+            checkFullHouseInHouse(houseCells(house), results);
         }
         return results;
     }
 
     /**
-     * A full house algoritmus 3x3 blokkban való keresésre van.
+     * Megszámolja egy sor, oszlop vagy blokk üres celláit, és ha csak egy maradt, felveszi az eredmények közé.
+     * Az érték a cella legkisebb lehetséges értéke.
      *
-     * @return a letárolt pozíció és értékek halmaza.
-     */
-    private Set<Pair<Integer, Pair<Integer, Integer>>> checkFullHouseByBoxes() {
-        Set<Pair<Integer, Pair<Integer, Integer>>> results = new HashSet<>();
-        int boxSize = 3;
-        for (int boxRow = 0; boxRow < SIZE; boxRow += boxSize) {
-            for (int boxCol = 0; boxCol < SIZE; boxCol += boxSize) {
-                int emptyCellCount = 0;
-                Pair<Integer, Integer> fullHousePosition = null;
-                int value = 0;
-
-                for (int i = 0; i < boxSize; i++) {
-                    for (int j = 0; j < boxSize; j++) {
-                        CellPosition cell = sudokuBoard[boxRow + i][boxCol + j];
-                        if (cell.getValue() == 0) {
-                            emptyCellCount++;
-                            value = cell.getPossibleValues().iterator().next();
-                            fullHousePosition = new Pair<>(boxRow + i, boxCol + j);
-                        }
-                    }
-                }
-                addFullHouseResult(emptyCellCount, value, fullHousePosition, results);
+     * @param house   a vizsgált cellák indexei
+     * @param results ezeket tároló halmaz
+     */
+    private void checkFullHouseInHouse(int[] house, Set<Pair<Integer, Pair<Integer, Integer>>> results) {
+        int fullHouseCell = SolvingTechniques.fullHouseCell(board, house);
+        if (fullHouseCell >= 0) {
+            int value = lowestValue(board.getCandidates(fullHouseCell));
+            if (value != 0) {
+                results.add(new Pair<>(value, position(fullHouseCell)));
+                Logger.debug("FULL HOUSE: " + SINGLE_LOG_FORMAT, rowOf(fullHouseCell), colOf(fullHouseCell), value);
             }
         }
-        return results;
-    }
-
-    /**
-     * Hozzáadja a megtalált cella értékét és pozícióját a halmazhoz.
-     *
-     * @param emptyCellCount    ennyi üres cella van (nincs értéke)
-     * @param value             beírandó érték
-     * @param fullHousePosition megtalált cella pozíciója
-     * @param results           ezeket tároló halmaz
-     */
-    private void addFullHouseResult(int emptyCellCount, int value, Pair<Integer, Integer> fullHousePosition, Set<Pair<Integer, Pair<Integer, Integer>>> results) {
-        if (emptyCellCount == 1) {
-            results.add(new Pair<>(value, fullHousePosition));
-            Logger.debug("FULL HOUSE: " + SINGLE_LOG_FORMAT, fullHousePosition.getKey(), fullHousePosition.getValue(), value);
-        }
     }
 
     /**
@@ -628,21 +602,15 @@ public class GameModel {
      * @return Egy halmazt ad vissza, amely tartalmazza azon cellák pozícióját és az egyetlen lehetséges számot,
      * amelyet az adott cellákban elhelyezhetünk.
      */
+    @Override
     public Set<Pair<Integer, Pair<Integer, Integer>>> checkNakedSingles() {
         Set<Pair<Integer, Pair<Integer, Integer>>> results = new HashSet<>();
 
-        for (int row = 0; row < SIZE; row++) {
-            for (int col = 0; col < SIZE; col++) {
-                CellPosition cell = sudokuBoard[row][col];
-                if (cell.getValue() == 0) {
-                    Set<Integer> possibleValues = cell.getPossibleValues();
-
-                    if (possibleValues.size() == 1) {
-                        int value = possibleValues.iterator().next();
-                        results.add(new Pair<>(value, new Pair<>(row, col)));
-                        Logger.debug("NAKED SINGLE: " + SINGLE_LOG_FORMAT, row, col, value);
-                    }
-                }
+        for (int cell = 0; cell < CELLS; cell++) {
+            int value = SolvingTechniques.nakedSingleValue(board, cell);
+            if (value != 0) {
+                results.add(new Pair<>(value, position(cell)));
+                Logger.debug("NAKED SINGLE: " + SINGLE_LOG_FORMAT, rowOf(cell), colOf(cell), value);
             }
         }
         return results;
@@ -656,97 +624,22 @@ public class GameModel {
      * @return Egy halmazt ad vissza, amely tartalmazza azon cellák pozícióját és az egyetlen lehetséges számot,
      * amelyet az adott cellákban elhelyezhetünk.
      */
+    @Override
     public Set<Pair<Integer, Pair<Integer, Integer>>> checkHiddenSingles() {
         Set<Pair<Integer, Pair<Integer, Integer>>> results = new HashSet<>();
 
-        for (int row = 0; row < SIZE; row++) {
-            for (int col = 0; col < SIZE; col++) {
-                CellPosition cell = sudokuBoard[row][col];
-                if (cell.getValue() == 0) {
-                    for (int value : cell.getPossibleValues()) {
-                        if (isHiddenSingleCell(row, col, value)) {
-                            results.add(new Pair<>(value, new Pair<>(row, col)));
-                            Logger.debug("HIDDEN SINGLE: " + SINGLE_LOG_FORMAT, row, col, value);
-                        }
-                    }
-                }
+        for (int cell = 0; cell < CELLS; cell++) {
+            int hiddenValues = SolvingTechniques.hiddenSingleMask(board, cell);
+            while (hiddenValues != 0) {
+                int value = lowestValue(hiddenValues);
+                hiddenValues &= hiddenValues - 1;
+                results.add(new Pair<>(value, position(cell)));
+                Logger.debug("HIDDEN SINGLE: " + SINGLE_LOG_FORMAT, rowOf(cell), colOf(cell), value);
             }
         }
         return results;
     }
 
-    /**
-     * Megvizsgálja, hogy az adott érték szerepel-e más cellában is mint lehetséges érték.
-     *
-     * @param row   cella sora
-     * @param col   cella oszlopa
-     * @param value ellenőrizendő érték
-     * @return Igaz, ha a vizsgált szám csak az adott cellában lehetséges az adott kontextusban (sor, oszlop, blokk),
-     * egyébként hamis.
-     */
-    private boolean isHiddenSingleCell(int row, int col, int value) {
-        return !isPossibleValueInRow(row, col, value) && !isPossibleValueInCol(row, col, value) && !isPossibleValueInBox(row, col, value);
-    }
-
-    /**
-     * Megvizsgálja, hogy az adott sorban, az adott érték szerepel-e más cellában is mint lehetséges érték.
-     *
-     * @param row   cella sora
-     * @param col   cella oszlopa
-     * @param value ellenőrizendő érték
-     * @return Igaz, ha a vizsgált szám csak az adott cellában lehetséges az adott sorban,
-     * egyébként hamis.
-     */
-    private boolean isPossibleValueInRow(int row, int col, int value) {
-        for (int j = 0; j < SIZE; j++) {
-            if (j != col && sudokuBoard[row][j].getPossibleValues().contains(value)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    /**
-     * Megvizsgálja, hogy az adott oszlopban, az adott érték szerepel-e más cellában is mint lehetséges érték.
-     *
-     * @param row   cella sora
-     * @param col   cella oszlopa
-     * @param value ellenőrizendő érték
-     * @return Igaz, ha a vizsgált szám csak az adott cellában lehetséges az adott oszlopban,
-     * egyébként hamis.
-     */
-    private boolean isPossibleValueInCol(int row, int col, int value) {
-        for (int i = 0; i < SIZE; i++) {
-            if (i != row && sudokuBoard[i][col].getPossibleValues().contains(value)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    /**
-     * Megvizsgálja, hogy az adott blokkban, az adott érték szerepel-e más cellában is mint lehetséges érték.
-     *
-     * @param row   cella sora
-     * @param col   cella oszlopa
-     * @param value ellenőrizendő érték
-     * @return Igaz, ha a vizsgált szám csak az adott cellában lehetséges az adott blokkban,
-     * egyébként hamis.
-     */
-    private boolean isPossibleValueInBox(int row, int col, int value) {
-        int boxRow = row - row % 3;
-        int boxCol = col - col % 3;
-
-        for (int i = boxRow; i < boxRow + 3; i++) {
-            for (int j = boxCol; j < boxCol + 3; j++) {
-                if ((i != row || j != col) && sudokuBoard[i][j].getPossibleValues().contains(value)) {
-                    return true;
-                }
-            }
-        }
-        return false;
-    }
-
     /**
      * Segítő algoritmus.
      * Azokat a cellapárokat keresi egy sorban, oszlopban vagy blokkban,
@@ -756,22 +649,28 @@ public class GameModel {
      * @return Egy NakedPairsType objektumot ad vissza, amely tárolja ezeket az értékeket és azok
      * pozícióit, valamint azon cellák pozícióit, ahonnan el kell távolítani a lehetséges értékeket.
      */
+    @Override
     public PairsType checkNakedPairs() {
         PairsType nakedPairsType = new PairsType();
 
         Set<Pair<Integer, Integer>> nakedPairsPositionSet = new HashSet<>();
         Set<Pair<Pair<Integer, Integer>, Set<Integer>>> removeSet = new HashSet<>();
 
-        for (int row = 0; row < SIZE; row++) {
-            for (int col = 0; col < SIZE; col++) {
-                CellPosition cell = sudokuBoard[row][col];
-                if (cell.getPossibleValues().size() == 2) {
-                    Set<Integer> pairValues = cell.getPossibleValues();
-                    checkNakedPairForRow(row, col, pairValues, nakedPairsPositionSet, removeSet);
-                    checkNakedPairForCol(row, col, pairValues, nakedPairsPositionSet, removeSet);
-                    checkNakedPairForBox(row, col, pairValues, nakedPairsPositionSet, removeSet);
+        for (int house = 0; house < HOUSE_COUNT; house++) {
+            int[] cells = houseCells(house);
+            boolean isBox = house >= 2 * SIZE;
+            SolvingTechniques.findNakedPairs(board, cells, (first, second, pairValues) -> {
+                logForNakedPair(first, second, nakedPairsPositionSet);
+
+                nakedPairsPositionSet.add(position(first));
+                nakedPairsPositionSet.add(position(second));
+
+                if (isBox) {
+                    addRemovePositionAndValuesBox(first, cells, pairValues, removeSet);
+                } else {
+                    addRemovePositionAndValuesRowCol(first, second, cells, pairValues, removeSet);
                 }
-            }
+            });
         }
         return returnPairsType(nakedPairsType, nakedPairsPositionSet, removeSet);
     }
@@ -795,121 +694,31 @@ public class GameModel {
     }
 
     /**
-     * Felfedi a Naked párokat egy sorban, és eltávolítja a megfelelő értékeket más cellákból.
+     * Logolja a talált pár információit, ha egyik cellája sem szerepelt még párként.
      *
-     * @param row                   A vizsgált sor indexe.
-     * @param col                   A vizsgált oszlop indexe.
-     * @param pairValues            A talált párban szereplő értékek halmaza.
-     * @param nakedPairsPositionSet A talált párok pozícióinak halmaza.
-     * @param removeSet             Az eltávolítandó értékek és azok pozícióinak halmaza.
-     */
-    private void checkNakedPairForRow(int row, int col, Set<Integer> pairValues, Set<Pair<Integer, Integer>> nakedPairsPositionSet, Set<Pair<Pair<Integer, Integer>, Set<Integer>>> removeSet) {
-        for (int j = 0; j < SIZE; j++) {
-            if (j != col && sudokuBoard[row][j].getPossibleValues().equals(pairValues)) {
-                logForNakedPairRowCol(row, col, nakedPairsPositionSet, j, true);
-
-                nakedPairsPositionSet.add(new Pair<>(row, col));
-                nakedPairsPositionSet.add(new Pair<>(row, j));
-
-                addRemovePositionAndValuesRowCol(row, col, j, pairValues, removeSet, true);
-            }
-        }
-    }
-
-    /**
-     * Felfedi a Naked párokat egy oszlopban, és eltávolítja a megfelelő értékeket más cellákból.
-     *
-     * @param row                   A vizsgált sor indexe.
-     * @param col                   A vizsgált oszlop indexe.
-     * @param pairValues            A talált párban szereplő értékek halmaza.
-     * @param nakedPairsPositionSet A talált párok pozícióinak halmaza.
-     * @param removeSet             Az eltávolítandó értékek és azok pozícióinak halmaza.
-     */
-    private void checkNakedPairForCol(int row, int col, Set<Integer> pairValues, Set<Pair<Integer, Integer>> nakedPairsPositionSet, Set<Pair<Pair<Integer, Integer>, Set<Integer>>> removeSet) {
-        for (int i = 0; i < SIZE; i++) {
-            if (i != row && sudokuBoard[i][col].getPossibleValues().equals(pairValues)) {
-                logForNakedPairRowCol(row, col, nakedPairsPositionSet, i, false);
-
-                nakedPairsPositionSet.add(new Pair<>(row, col));
-                nakedPairsPositionSet.add(new Pair<>(i, col));
-
-                addRemovePositionAndValuesRowCol(row, col, i, pairValues, removeSet, false);
-            }
-        }
-    }
-
-    /**
-     * Felfedi a Naked párokat egy blokkban, és eltávolítja a megfelelő értékeket más cellákból.
-     *
-     * @param row                   A vizsgált sor indexe.
-     * @param col                   A vizsgált oszlop indexe.
-     * @param pairValues            A talált párban szereplő értékek halmaza.
-     * @param nakedPairsPositionSet A talált párok pozícióinak halmaza.
-     * @param removeSet             Az eltávolítandó értékek és azok pozícióinak halmaza.
-     */
-    private void checkNakedPairForBox(int row, int col, Set<Integer> pairValues, Set<Pair<Integer, Integer>> nakedPairsPositionSet, Set<Pair<Pair<Integer, Integer>, Set<Integer>>> removeSet) {
-        int startRow = row - row % 3;
-        int startCol = col - col % 3;
-        for (int i = startRow; i < startRow + 3; i++) {
-            for (int j = startCol; j < startCol + 3; j++) {
-                if ((i != row || j != col) && sudokuBoard[i][j].getPossibleValues().equals(pairValues)) {
-                    if (!nakedPairsPositionSet.contains(new Pair<>(row, col)) && !nakedPairsPositionSet.contains(new Pair<>(i, j))) {
-                        Logger.debug(NAKED_PAIR + PAIR_LOG_FORMAT, row, col, i, j);
-                    }
-
-                    nakedPairsPositionSet.add(new Pair<>(row, col));
-                    nakedPairsPositionSet.add(new Pair<>(i, j));
-
-                    addRemovePositionAndValuesBox(startRow, startCol, pairValues, removeSet);
-                }
-            }
-        }
-    }
-
-    /**
-     * Logolja a talált párok információit a megadott sorban vagy oszlopban.
-     *
-     * @param row                   A vizsgált sor indexe.
-     * @param col                   A vizsgált oszlop indexe.
+     * @param cell                  A vizsgált cella indexe.
+     * @param other                 A pár másik cellájának indexe.
      * @param nakedPairsPositionSet A meztelen párok pozícióinak halmaza.
-     * @param otherIndex            A pár másik cellájának indexe.
-     * @param isRow                 Igaz, ha a pár egy sorban található, hamis, ha egy oszlopban.
-     */
-    private void logForNakedPairRowCol(int row, int col, Set<Pair<Integer, Integer>> nakedPairsPositionSet, int otherIndex, boolean isRow) {
-        Pair<Integer, Integer> currentPair = new Pair<>(row, col);
-        Pair<Integer, Integer> otherPair = isRow ? new Pair<>(row, otherIndex) : new Pair<>(otherIndex, col);
-
-        if (!nakedPairsPositionSet.contains(currentPair) && !nakedPairsPositionSet.contains(otherPair)) {
-            if (isRow) {
-                Logger.debug(NAKED_PAIR + PAIR_LOG_FORMAT, row, col, row, otherIndex);
-            } else {
-                Logger.debug(NAKED_PAIR + PAIR_LOG_FORMAT, row, col, otherIndex, col);
-            }
+     */
+    private void logForNakedPair(int cell, int other, Set<Pair<Integer, Integer>> nakedPairsPositionSet) {
+        if (!nakedPairsPositionSet.contains(position(cell)) && !nakedPairsPositionSet.contains(position(other))) {
+            Logger.debug(NAKED_PAIR + PAIR_LOG_FORMAT, rowOf(cell), colOf(cell), rowOf(other), colOf(other));
         }
     }
 
     /**
      * Eltávolítja a talált párokban szereplő értékeket más cellákból egy adott sorban vagy oszlopban.
      *
-     * @param row        A vizsgált sor indexe.
-     * @param col        A vizsgált oszlop indexe.
-     * @param j          A pár másik cellájának indexe (sornál aktuális oszlop, oszlop esetén az aktuális sor)
-     * @param pairValues A meztelen párban szereplő értékek halmaza.
+     * @param cell       A vizsgált cella indexe.
+     * @param other      A pár másik cellájának indexe.
+     * @param line       A párt tartalmazó sor vagy oszlop cellái.
+     * @param pairValues A meztelen párban szereplő értékek maszkja.
      * @param results    Az eltávolítandó értékek és azok pozícióinak halmaza.
-     * @param isRow      Igaz, ha a pár egy sorban található, hamis, ha egy oszlopban.
      */
-    private void addRemovePositionAndValuesRowCol(int row, int col, int j, Set<Integer> pairValues, Set<Pair<Pair<Integer, Integer>, Set<Integer>>> results, boolean isRow) {
-        int otherIndex = isRow ? col : row;
-        for (int i = 0; i < SIZE; i++) {
-            if (i != otherIndex && i != j) {
-                CellPosition cell = isRow ? sudokuBoard[row][i] : sudokuBoard[i][col];
-                Set<Integer> removeValueSet = new HashSet<>();
-                for (int value : pairValues) {
-                    if (cell.getPossibleValues().contains(value)) {
-                        removeValueSet.add(value);
-                    }
-                }
-                addRemoveValueToSet(row, col, i, removeValueSet, results, isRow);
+    private void addRemovePositionAndValuesRowCol(int cell, int other, int[] line, int pairValues, Set<Pair<Pair<Integer, Integer>, Set<Integer>>> results) {
+        for (int target : line) {
+            if (target != cell && target != other) {
+                addRemoveValueToSet(target, board.getCandidates(target) & pairValues, results);
             }
         }
     }
@@ -917,90 +726,64 @@ public class GameModel {
     /**
      * Hozzáad egy értéket és annak eltávolítási pozícióját a megadott halmazhoz.
      *
-     * @param row            A sor indexe, ahol az értéket eltávolítják.
-     * @param col            Az oszlop indexe, ahol az értéket eltávolítják.
-     * @param i              Sor vizsgálat esetén oszlop index, oszlop vizsgálat esetén sor index.
-     * @param removeValueSet Az eltávolítandó értékek halmaza.
-     * @param results        A végeredmények halmaza, amely tartalmazza az eltávolítási pozíciókat és a hozzájuk tartozó értékeket.
-     * @param isRow          Igaz, ha a sorban történik az eltávolítás, hamis, ha oszlopban.
-     */
-    private void addRemoveValueToSet(int row, int col, int i, Set<Integer> removeValueSet, Set<Pair<Pair<Integer, Integer>, Set<Integer>>> results, boolean isRow) {
-        if (!removeValueSet.isEmpty()) {
-            if (isRow) {
-                results.add(new Pair<>(new Pair<>(row, i), removeValueSet));
-            } else {
-                results.add(new Pair<>(new Pair<>(i, col), removeValueSet));
-            }
-        }
-    }
-
-    /**
-     * Hozzáadja az eltávolítandó értékeket a megfelelő cellákhoz egy 3x3-as blokkban.
-     *
-     * @param removeValueSet    Az eltávolítandó értékek halmaza.
-     * @param results           Az eredmények halmaza, amely tartalmazza a pozíciókat és az eltávolítandó értékeket.
-     * @param removePositionSet Azon pozíciók halmaza, ahonnan értékeket kell eltávolítani.
+     * @param cell       A cella indexe, ahol az értéket eltávolítják.
+     * @param removeMask Az eltávolítandó értékek maszkja.
+     * @param results    A végeredmények halmaza, amely tartalmazza az eltávolítási pozíciókat és a hozzájuk tartozó értékeket.
      */
-    private void addRemoveValueToSetBox(Set<Integer> removeValueSet, Set<Pair<Pair<Integer, Integer>, Set<Integer>>> results, Set<Pair<Integer, Integer>> removePositionSet) {
-        if (!removeValueSet.isEmpty()) {
-            for (Pair<Integer, Integer> position : removePositionSet) {
-                results.add(new Pair<>(position, new HashSet<>(removeValueSet)));
-            }
+    private void addRemoveValueToSet(int cell, int removeMask, Set<Pair<Pair<Integer, Integer>, Set<Integer>>> results) {
+        if (removeMask != 0) {
+            results.add(new Pair<>(position(cell), toSet(removeMask)));
         }
     }
 
     /**
      * Eltávolítja a meztelen párokban szereplő értékeket más cellákból egy adott 3x3-as blokkban.
+     * Minden érintett cellához a blokkban talált összes eltávolítandó értéket hozzárendeli.
      *
-     * @param row        A vizsgált sor indexe a blokkban.
-     * @param col        A vizsgált oszlop indexe a blokkban.
-     * @param pairValues Talált párban szereplő értékek halmaza.
+     * @param cell       A vizsgált cella indexe.
+     * @param box        A blokk cellái.
+     * @param pairValues Talált párban szereplő értékek maszkja.
      * @param results    Az eltávolítandó értékek és azok pozícióinak halmaza.
      */
-    private void addRemovePositionAndValuesBox(int row, int col, Set<Integer> pairValues, Set<Pair<Pair<Integer, Integer>, Set<Integer>>> results) {
-        int startRow = row - row % 3;
-        int startCol = col - col % 3;
-
-        Set<Pair<Integer, Integer>> removePositionSet = new HashSet<>();
-        Set<Integer> removeValueSet = new HashSet<>();
-
-        for (int i = startRow; i < startRow + 3; i++) {
-            for (int j = startCol; j < startCol + 3; j++) {
-                if ((i == row && j == col) || sudokuBoard[i][j].getPossibleValues().equals(pairValues)) {
-                    continue;
-                }
-
-                for (Integer value : pairValues) {
-                    if (sudokuBoard[i][j].getPossibleValues().contains(value)) {
-                        removeValueSet.add(value);
-                        removePositionSet.add(new Pair<>(i, j));
-                    }
-                }
+    private void addRemovePositionAndValuesBox(int cell, int[] box, int pairValues, Set<Pair<Pair<Integer, Integer>, Set<Integer>>> results) {
+        int removeMask = 0;
+        int removeCells = 0;
+        for (int i = 0; i < box.length; i++) {
+            int possibleValues = board.getCandidates(box[i]);
+            if (box[i] != cell && possibleValues != pairValues && (possibleValues & pairValues) != 0) {
+                removeMask |= possibleValues & pairValues;
+                removeCells |= 1 << i;
+            }
+        }
+        for (int i = 0; i < box.length; i++) {
+            if ((removeCells & (1 << i)) != 0) {
+                addRemoveValueToSet(box[i], removeMask, results);
             }
         }
-        addRemoveValueToSetBox(removeValueSet, results, removePositionSet);
     }
 
     /**
      * Segítő algoritmus.
      * Olyan cellákat keres, amelyeknek a lehetséges értéke több mint kettő.
-     * Ezután bejárja sorokat, oszlopokat és blokkokat és összeszedi a rejtett párokat.
+     * Ezután bejárja a cellát tartalmazó házakat és összeszedi a rejtett párokat; minden házat egyszer vizsgál.
      *
      * @return Egy NakedPairsType objektumot ad vissza, amely tárolja ezeket az értékeket és azok
      * pozícióit, valamint azon cellák pozícióit, ahonnan el kell távolítani a lehetséges értékeket.
      */
+    @Override
     public PairsType checkHiddenPairs() {
         PairsType hiddenPairsType = new PairsType();
         Set<Pair<Integer, Integer>> hiddenPairsPositionSet = new HashSet<>();
         Set<Pair<Pair<Integer, Integer>, Set<Integer>>> removeSet = new HashSet<>();
 
-        for (int row = 0; row < SIZE; row++) {
-            for (int col = 0; col < SIZE; col++) {
-                CellPosition cell = sudokuBoard[row][col];
-                if (cell.getPossibleValues().size() > 2) {
-                    checkHiddenPairForRowCol(row, hiddenPairsPositionSet, removeSet, true);
-                    checkHiddenPairForRowCol(row, hiddenPairsPositionSet, removeSet, false);
-                    checkHiddenPairForBox(row, col, hiddenPairsPositionSet, removeSet);
+        boolean[] visited = new boolean[HOUSE_COUNT];
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (Integer.bitCount(board.getCandidates(cell)) > 2) {
+                for (int house : housesOf(cell)) {
+                    if (!visited[house]) {
+                        visited[house] = true;
+                        findAndProcessHiddenPairs(houseCells(house), hiddenPairsPositionSet, removeSet);
+                    }
                 }
             }
         }
@@ -1008,79 +791,19 @@ public class GameModel {
     }
 
     /**
-     * Összeszedi az értékek előfordulásait sorban/oszlopban, majd továbbítja, hogy megtaláljuk és feldolgozzuk azokat.
-     *
-     * @param index                  sor vizsgálat esetén oszlop index, oszlop vizsgálat esetén sor index
-     * @param hiddenPairsPositionSet rejtett párok pozíciói
-     * @param removeSet              eltávolítandó értékek halmaza
-     * @param isRow                  Igaz ha sor, hamis ha oszlop vizsgálat
-     */
-    private void checkHiddenPairForRowCol(int index, Set<Pair<Integer, Integer>> hiddenPairsPositionSet, Set<Pair<Pair<Integer, Integer>, Set<Integer>>> removeSet, boolean isRow) {
-        Map<Integer, List<Pair<Integer, Integer>>> valueOccurrences = new HashMap<>();
-        // Lehetséges kombinációk
-        for (int i = 0; i < SIZE; i++) {
-            Set<Integer> possibleValues = isRow ? sudokuBoard[index][i].getPossibleValues() : sudokuBoard[i][index].getPossibleValues();
-            for (Integer value : possibleValues) {
-                List<Pair<Integer, Integer>> positions = valueOccurrences.computeIfAbsent(value, k -> new ArrayList<>());
-                if (isRow) {
-                    positions.add(new Pair<>(index, i));
-                } else {
-                    positions.add(new Pair<>(i, index));
-                }
-            }
-        }
-
-        findAndProcessHiddenPairs(valueOccurrences, hiddenPairsPositionSet, removeSet);
-    }
-
-    /**
-     * Összeszedi az értékek előfordulásait a blokkokban, majd továbbítja, hogy megtaláljuk és feldolgozzuk azokat.
-     *
-     * @param row                    sor index
-     * @param col                    oszlop index
-     * @param hiddenPairsPositionSet rejtett párok pozíciói
-     * @param removeSet              eltávolítandó értékek halmaza
-     */
-    private void checkHiddenPairForBox(int row, int col, Set<Pair<Integer, Integer>> hiddenPairsPositionSet, Set<Pair<Pair<Integer, Integer>, Set<Integer>>> removeSet) {
-        Map<Integer, List<Pair<Integer, Integer>>> valueOccurrences = new HashMap<>();
-        int startRow = row - row % 3;
-        int startCol = col - col % 3;
-
-        for (int i = startRow; i < startRow + 3; i++) {
-            for (int j = startCol; j < startCol + 3; j++) {
-                Set<Integer> possibleValues = sudokuBoard[i][j].getPossibleValues();
-                for (Integer value : possibleValues) {
-                    valueOccurrences.computeIfAbsent(value, k -> new ArrayList<>()).add(new Pair<>(i, j));
-                }
-            }
-        }
-
-        findAndProcessHiddenPairs(valueOccurrences, hiddenPairsPositionSet, removeSet);
-    }
-
-    /**
-     * Megkeresi a rejtett párokat.
+     * Megkeresi a rejtett párokat egy sorban, oszlopban vagy blokkban.
+     * Minden értékhez kiszámolja, hogy a ház mely celláiban lehetséges (pozíció maszk).
      * Ha egy érték csak két cellában szerepel, akkor azt tovább vizsgálja
      * Aztán ellenőrzi, hogy van-e másik érték, amely ugyanazokban a cellákban fordul elő
      * HA igen, akkor az egy rejtett pár
      *
-     * @param valueOccurrences       az értékeket tárolja és azok pozícióit
+     * @param house                  a ház cellái
      * @param hiddenPairsPositionSet rejtett párok pozíciói
      * @param removeSet              eltávolítandó értékek halmaza
      */
-    private void findAndProcessHiddenPairs(Map<Integer, List<Pair<Integer, Integer>>> valueOccurrences, Set<Pair<Integer, Integer>> hiddenPairsPositionSet, Set<Pair<Pair<Integer, Integer>, Set<Integer>>> removeSet) {
-        for (Map.Entry<Integer, List<Pair<Integer, Integer>>> entry : valueOccurrences.entrySet()) {
-            if (entry.getValue().size() == 2) {
-                Integer value = entry.getKey();
-                List<Pair<Integer, Integer>> positions = entry.getValue();
-
-                for (Map.Entry<Integer, List<Pair<Integer, Integer>>> otherEntry : valueOccurrences.entrySet()) {
-                    if (!otherEntry.getKey().equals(value) && otherEntry.getValue().equals(positions)) {
-                        processHiddenPair(positions, value, otherEntry, hiddenPairsPositionSet, removeSet);
-                    }
-                }
-            }
-        }
+    private void findAndProcessHiddenPairs(int[] house, Set<Pair<Integer, Integer>> hiddenPairsPositionSet, Set<Pair<Pair<Integer, Integer>, Set<Integer>>> removeSet) {
+        SolvingTechniques.findHiddenPairs(board, house,
+                (first, second, pairValues) -> processHiddenPair(first, second, pairValues, hiddenPairsPositionSet, removeSet));
     }
 
     /**
@@ -1088,24 +811,25 @@ public class GameModel {
      * Eltávolítja ezekből a felesleges lehetséges értékeket.
      * Logol
      *
-     * @param positions              A rejtett pár celláinak pozíciói.
-     * @param value                  Az egyik érték a rejtett párból.
-     * @param otherEntry             A másik érték és annak pozíciói a rejtett párból.
+     * @param first                  A rejtett pár első cellája.
+     * @param second                 A rejtett pár második cellája.
+     * @param pairValues             A rejtett pár két értékének maszkja.
      * @param hiddenPairsPositionSet eddigi rejtett párok pozíciói
      * @param removeSet              eltávolítandó értékek halmaza
      */
-    private void processHiddenPair(List<Pair<Integer, Integer>> positions, Integer value, Map.Entry<Integer, List<Pair<Integer, Integer>>> otherEntry, Set<Pair<Integer, Integer>> hiddenPairsPositionSet, Set<Pair<Pair<Integer, Integer>, Set<Integer>>> removeSet) {
-        if (!hiddenPairsPositionSet.contains(new Pair<>(positions.get(0).getKey(), positions.get(0).getValue())) && !hiddenPairsPositionSet.contains(new Pair<>(positions.get(1).getKey(), positions.get(1).getValue()))) {
-            Logger.debug("HIDDEN PAIR: " + PAIR_LOG_FORMAT, positions.get(0).getKey(), positions.get(0).getValue(), positions.get(1).getKey(), positions.get(1).getValue());
+    private void processHiddenPair(int first, int second, int pairValues, Set<Pair<Integer, Integer>> hiddenPairsPositionSet, Set<Pair<Pair<Integer, Integer>, Set<Integer>>> removeSet) {
+        if (!hiddenPairsPositionSet.contains(position(first)) && !hiddenPairsPositionSet.contains(position(second))) {
+            Logger.debug("HIDDEN PAIR: " + PAIR_LOG_FORMAT, rowOf(first), colOf(first), rowOf(second), colOf(second));
         }
 
-        hiddenPairsPositionSet.addAll(positions);
+        hiddenPairsPositionSet.add(position(first));
+        hiddenPairsPositionSet.add(position(second));
 
-        for (Pair<Integer, Integer> position : positions) {
-            for (int removeValue : sudokuBoard[position.getKey()][position.getValue()].getPossibleValues()) {
-                if (removeValue != value && removeValue != otherEntry.getKey()) {
-                    removeSet.add(new Pair<>(position, new HashSet<>(List.of(removeValue))));
-                }
+        for (int cell : new int[]{first, second}) {
+            int removeValues = board.getCandidates(cell) & ~pairValues;
+            while (removeValues != 0) {
+                removeSet.add(new Pair<>(position(cell), new HashSet<>(List.of(lowestValue(removeValues)))));
+                removeValues &= removeValues - 1;
             }
         }
     }
@@ -1115,21 +839,30 @@ public class GameModel {
      *
      * @param removeSet eltávolított értékeket és pozíciójuk halmaza.
      */
+    @Override
     public void addCheckedPairSet(Set<Pair<Pair<Integer, Integer>, Set<Integer>>> removeSet) {
         for (Pair<Pair<Integer, Integer>, Set<Integer>> removeEntry : removeSet) {
             Pair<Integer, Integer> position = removeEntry.getKey();
-            Set<Integer> valuesToRemove = removeEntry.getValue();
-
-            Pair<Pair<Integer, Integer>, Set<Integer>> checkedEntry = new Pair<>(position, valuesToRemove);
-            checkedPairSet.add(checkedEntry);
+            excludedCandidates[index(position.getKey(), position.getValue())] |= toMask(removeEntry.getValue());
         }
     }
 
+    /**
+     * A cella indexét sor és oszlop párrá alakítja.
+     *
+     * @param cell A cella indexe.
+     * @return A cella pozíciója.
+     */
+    private static Pair<Integer, Integer> position(int cell) {
+        return new Pair<>(rowOf(cell), colOf(cell));
+    }
+
     /**
      * Visszaadja a segítség lehívásainak számát.
      *
      * @return A segítség lehívásainak száma.
      */
+    @Override
     public int getHelpCounter() {
         return helpCounter;
     }
@@ -1137,16 +870,20 @@ public class GameModel {
     /**
      * Megnöveli segítség lehívásainak számát.
      */
+    @Override
     public void increaseHelpCounter() {
         this.helpCounter++;
     }
 
     /**
      * Visszaadja a játéktábla aktuális állapotát.
+     * A visszaadott tömb a tábla pillanatnyi nézete, a modell minden lekéréskor frissíti.
      *
      * @return A játéktábla aktuális állapota.
      */
+    @Override
     public CellPosition[][] getSudokuBoard() {
+        board.writeTo(sudokuBoard);
         return sudokuBoard;
     }
 
@@ -1173,7 +910,9 @@ public class GameModel {
      *
      * @return megoldott tábla.
      */
+    @Override
     public CellPosition[][] getSolvedBoard() {
+        solved.writeTo(solvedBoard);
         return solvedBoard;
     }
 
@@ -1182,10 +921,92 @@ public class GameModel {
      *
      * @return A játék eredeti állapotát tartalmazó tábla.
      */
+    @Override
     public CellPosition[][] getOriginalBoard() {
+        original.writeTo(originalBoard);
         return originalBoard;
     }
 
+    /**
+     * Visszaadja a feladványok előállításának módját.
+     *
+     * @return A generálási mód.
+     */
+    public static GenerationMode getGenerationMode() {
+        return generationMode;
+    }
+
+    /**
+     * Beállítja a feladványok előállításának módját.
+     *
+     * @param mode A generálási mód.
+     */
+    public static void setGenerationMode(GenerationMode mode) {
+        generationMode = mode;
+    }
+
+    /**
+     * Visszaadja az egyértelműség vizsgálatához és a megoldáshoz használt megoldó motor nevét.
+     * Ha nincs beállítva, a {@link SolverEngines} által választott alapértelmezett motort adja vissza.
+     *
+     * @return A megoldó motor neve.
+     */
+    public static String getSolverEngineName() {
+        return solverEngineName != null ? solverEngineName : SolverEngines.defaultName();
+    }
+
+    /**
+     * Beállítja az egyértelműség vizsgálatához és a megoldáshoz használt megoldó motort.
+     *
+     * @param name A motor neve, null esetén az alapértelmezett motor.
+     * @throws IllegalArgumentException ha nincs ilyen nevű motor
+     */
+    public static void setSolverEngineName(String name) {
+        if (name != null && !SolverEngines.availableNames().contains(name)) {
+            throw new IllegalArgumentException("Ismeretlen megoldó motor: " + name);
+        }
+        solverEngineName = name;
+    }
+
+    /**
+     * Visszaadja, hogy be van-e kapcsolva a párhuzamos megoldásszámlálás.
+     *
+     * @return Igaz, ha a ritka táblák egyértelműségét több szálon vizsgáljuk.
+     */
+    public static boolean isParallelCounting() {
+        return parallelCounting;
+    }
+
+    /**
+     * Be- vagy kikapcsolja a párhuzamos megoldásszámlálást az egyértelműség vizsgálatánál és a generálás
+     * törlési lépésében ({@link PuzzleGenerator#setParallelCounter(ParallelSolutionCounter)}).
+     * Alapértéke a {@link #PARALLEL_COUNTING_PROPERTY} rendszertulajdonságból jön.
+     *
+     * @param parallel Igaz, ha a ritka táblák egyértelműségét több szálon szeretnénk vizsgálni.
+     */
+    public static void setParallelCounting(boolean parallel) {
+        parallelCounting = parallel;
+    }
+
+    /**
+     * Visszaadja az új játszmák blokkméretét (2: 4×4, 3: 9×9, 4: 16×16, 5: 25×25).
+     *
+     * @return A blokkok oldalhossza.
+     */
+    public static int getBoardBoxSize() {
+        return boardBoxSize;
+    }
+
+    /**
+     * Beállítja az új játszmák blokkméretét.
+     *
+     * @param boxSize A blokkok oldalhossza.
+     * @throws IllegalArgumentException ha a blokkméret nem támogatott ({@link BoardGeometry#of(int)})
+     */
+    public static void setBoardBoxSize(int boxSize) {
+        boardBoxSize = BoardGeometry.of(boxSize).getBoxSize();
+    }
+
     /**
      * Beállítja, hogy szükség van-e a játék előzményeinek betöltésére.
      *
@@ -1211,8 +1032,9 @@ public class GameModel {
      * @param col   A cella oszlopának indexe.
      * @param value Az adott cellához hozzáadandó érték.
      */
+    @Override
     public void setValueAt(int row, int col, int value) {
-        sudokuBoard[row][col].setValue(value);
+        board.setValue(index(row, col), value);
     }
 
     /**
@@ -1222,8 +1044,21 @@ public class GameModel {
      * @param col A cella oszlopának indexe.
      * @return A cella értéke.
      */
+    @Override
     public int getValueAt(int row, int col) {
-        return sudokuBoard[row][col].getValue();
+        return board.getValue(index(row, col));
+    }
+
+    /**
+     * Visszaadja egy adott sorban és oszlopban lévő cella helyes értékét a megoldott táblából.
+     *
+     * @param row A cella sorának indexe.
+     * @param col A cella oszlopának indexe.
+     * @return A cella helyes értéke.
+     */
+    @Override
+    public int getSolvedValueAt(int row, int col) {
+        return solved.getValue(index(row, col));
     }
 
     /**
@@ -1233,8 +1068,9 @@ public class GameModel {
      * @param col    A cella oszlopának indexe.
      * @param values A cellához beállítandó lehetséges értékek halmaza.
      */
+    @Override
     public void setPossibleValuesAt(int row, int col, Set<Integer> values) {
-        sudokuBoard[row][col].setPossibleValues(values);
+        board.setCandidates(index(row, col), toMask(values));
     }
 
     /**
@@ -1244,7 +1080,8 @@ public class GameModel {
      * @param col A cella oszlopának indexe.
      * @return A cella lehetséges értékeinek halmaza.
      */
+    @Override
     public Set<Integer> getPossibleValuesAt(int row, int col) {
-        return sudokuBoard[row][col].getPossibleValues();
+        return toSet(board.getCandidates(index(row, col)));
     }
 }
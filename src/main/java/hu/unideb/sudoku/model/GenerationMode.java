@@ -0,0 +1,43 @@
+package hu.unideb.sudoku.model;
+
+/**
+ * A feladványok előállításának módja.
+ * A {@link #RACING} kivételével minden mód reprodukálható: azonos mag és nehézségi szint minden gépen
+ * ugyanazt a feladványt adja ({@link #isReproducible()}).
+ */
+public enum GenerationMode {
+    /**
+     * Új, véletlen teljes tábla kitöltése, majd a számok törlése.
+     */
+    RANDOM,
+    /**
+     * Előre ellenőrzött kiinduló feladvány véletlen transzformációja ({@link PuzzleBank}).
+     */
+    SEED_BANK,
+    /**
+     * A buildkor generált, értékelt {@link BinaryPuzzleBank} egy feladványának véletlen transzformációja.
+     * Ha a beépített gyűjteményben nincs feladvány a szinthez, a {@link #RANDOM} módra vált.
+     */
+    PREBUILT,
+    /**
+     * Több, független magú generátor párhuzamosan versenyez, az elsőként elkészült teljes feladvány nyer
+     * ({@link PuzzleGenerator#race(GameDifficulty, int, CancellationToken)}). Az eredmény nem reprodukálható.
+     */
+    RACING,
+    /**
+     * Mint a {@link #RANDOM}, de a törlés a szint elérése után is folytatódik, amíg egyetlen megadott szám sem
+     * törölhető az egyértelműség elvesztése nélkül (minimális feladvány,
+     * {@link PuzzleGenerator#generateMinimal(GameDifficulty, CancellationToken)}).
+     */
+    MINIMAL;
+
+    /**
+     * Visszaadja, hogy a mód eredménye csak a magtól és a nehézségi szinttől függ-e.
+     *
+     * @return Igaz, ha azonos mag mindig ugyanazt a feladványt adja; a {@link #RACING} mód eredménye
+     * a szálak ütemezésétől függ.
+     */
+    public boolean isReproducible() {
+        return this != RACING;
+    }
+}
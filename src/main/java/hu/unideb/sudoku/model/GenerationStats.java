@@ -0,0 +1,131 @@
+package hu.unideb.sudoku.model;
+
+/**
+ * Egy feladvány generálásának mérőszámai.
+ * Tárolja a törölt cellák számát, a megvizsgált cellák számát,
+ * a megoldó hívások számát, a generálás idejét, valamint azt, hogy a törlés idő előtt leállt-e.
+ * Minimális feladványnál a minimalizáló szakasz idejét is.
+ */
+public class GenerationStats {
+    private final GameDifficulty difficulty;
+    private final int removed;
+    private final int attempts;
+    private final int solverCalls;
+    private final long elapsedNanos;
+    private final boolean cancelled;
+    private final long minimizationNanos;
+
+    /**
+     * Konstruktor minimalizáló szakasz nélküli generáláshoz, a minimalizálás ideje 0.
+     *
+     * @param difficulty   A generált feladvány nehézségi szintje.
+     * @param removed      A törölt cellák száma.
+     * @param attempts     A törlésre kipróbált cellák száma.
+     * @param solverCalls  Az egyértelműség vizsgálatához indított megoldó hívások száma.
+     * @param elapsedNanos A generálás ideje nanoszekundumban.
+     * @param cancelled    Igaz, ha a törlés megszakítás vagy lejárt határidő miatt állt le.
+     */
+    public GenerationStats(GameDifficulty difficulty, int removed, int attempts, int solverCalls, long elapsedNanos,
+                           boolean cancelled) {
+        this(difficulty, removed, attempts, solverCalls, elapsedNanos, cancelled, 0);
+    }
+
+    /**
+     * Teljes konstruktor a minimalizáló szakasz idejével.
+     *
+     * @param difficulty        A generált feladvány nehézségi szintje.
+     * @param removed           A törölt cellák száma.
+     * @param attempts          A törlésre kipróbált cellák száma.
+     * @param solverCalls       Az egyértelműség vizsgálatához indított megoldó hívások száma.
+     * @param elapsedNanos      A generálás ideje nanoszekundumban.
+     * @param cancelled         Igaz, ha a törlés megszakítás vagy lejárt határidő miatt állt le.
+     * @param minimizationNanos A minimalizáló szakasz ideje nanoszekundumban, 0 ha nem volt ilyen szakasz.
+     */
+    public GenerationStats(GameDifficulty difficulty, int removed, int attempts, int solverCalls, long elapsedNanos,
+                           boolean cancelled, long minimizationNanos) {
+        this.difficulty = difficulty;
+        this.removed = removed;
+        this.attempts = attempts;
+        this.solverCalls = solverCalls;
+        this.elapsedNanos = elapsedNanos;
+        this.cancelled = cancelled;
+        this.minimizationNanos = minimizationNanos;
+    }
+
+    /**
+     * Visszaadja a generált feladvány nehézségi szintjét.
+     *
+     * @return A nehézségi szint.
+     */
+    public GameDifficulty getDifficulty() {
+        return difficulty;
+    }
+
+    /**
+     * Visszaadja a törölt cellák számát.
+     *
+     * @return A törölt cellák száma.
+     */
+    public int getRemoved() {
+        return removed;
+    }
+
+    /**
+     * Visszaadja a törlésre kipróbált cellák számát.
+     *
+     * @return A kipróbált cellák száma.
+     */
+    public int getAttempts() {
+        return attempts;
+    }
+
+    /**
+     * Visszaadja az egyértelműség vizsgálatához indított megoldó hívások számát.
+     *
+     * @return A megoldó hívások száma.
+     */
+    public int getSolverCalls() {
+        return solverCalls;
+    }
+
+    /**
+     * Visszaadja a generálás idejét nanoszekundumban.
+     *
+     * @return A generálás ideje.
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Visszaadja, hogy a törlés megszakítás vagy lejárt határidő miatt állt-e le.
+     * Ilyenkor a feladvány az addig elért legjobb (egyértelmű) állapotot tartalmazza.
+     *
+     * @return Igaz, ha a törlés idő előtt leállt.
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Visszaadja a minimalizáló szakasz idejét nanoszekundumban: a szinthez szükséges törlések elérése után
+     * a maradék megadott számok végigpróbálásának idejét.
+     *
+     * @return A minimalizáló szakasz ideje, 0 ha nem minimális feladvány készült.
+     */
+    public long getMinimizationNanos() {
+        return minimizationNanos;
+    }
+
+    /**
+     * Visszaadja a mérőszámok szöveges alakját naplózáshoz.
+     *
+     * @return A mérőszámok szövegként.
+     */
+    @Override
+    public String toString() {
+        return "GenerationStats{difficulty=" + difficulty + ", removed=" + removed + ", attempts=" + attempts
+                + ", solverCalls=" + solverCalls + ", elapsedMs=" + elapsedNanos / 1_000_000
+                + ", cancelled=" + cancelled + ", minimizationUs=" + minimizationNanos / 1000 + "}";
+    }
+}
@@ -0,0 +1,143 @@
+package hu.unideb.sudoku.model;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Egy feladvány logikai értékelésének eredménye.
+ * Tárolja, hogy melyik technikát hányszor kellett alkalmazni, mi volt a legnehezebb szükséges technika,
+ * sikerült-e logikával végigjutni, valamint az ebből számolt pontszámot és nehézségi szintet.
+ */
+public class Grade {
+    /**
+     * Ennyivel nő a pontszám, ha a feladvány a technikákkal nem oldható meg végig.
+     */
+    public static final int UNSOLVED_PENALTY = 500;
+    /**
+     * Ennyi, a technikák után üresen maradt cellától számít egy feladvány extrémnek.
+     */
+    public static final int EXTREME_REMAINING = 45;
+
+    private final int[] counts;
+    private final boolean solved;
+    private final int remaining;
+
+    /**
+     * Konstruktor.
+     *
+     * @param counts    az egyes technikák alkalmazásainak száma a {@link Technique} sorrendjében
+     * @param solved    igaz, ha a technikákkal minden cella kitölthető volt
+     * @param remaining az értékelés végén üresen maradt cellák száma
+     */
+    Grade(int[] counts, boolean solved, int remaining) {
+        this.counts = counts.clone();
+        this.solved = solved;
+        this.remaining = remaining;
+    }
+
+    /**
+     * Visszaadja, hogy a technikát hányszor kellett alkalmazni.
+     *
+     * @param technique a technika
+     * @return az alkalmazások száma
+     */
+    public int getCount(Technique technique) {
+        return counts[technique.ordinal()];
+    }
+
+    /**
+     * Visszaadja az alkalmazott technikákat és azok számát.
+     *
+     * @return a technikák alkalmazásainak száma
+     */
+    public Map<Technique, Integer> getCounts() {
+        Map<Technique, Integer> result = new EnumMap<>(Technique.class);
+        for (Technique technique : Technique.values()) {
+            if (counts[technique.ordinal()] > 0) {
+                result.put(technique, counts[technique.ordinal()]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Visszaadja a legnehezebb alkalmazott technikát.
+     *
+     * @return a legnehezebb technika, null ha egyiket sem kellett alkalmazni
+     */
+    public Technique getHardestTechnique() {
+        Technique[] techniques = Technique.values();
+        for (int i = techniques.length - 1; i >= 0; i--) {
+            if (counts[i] > 0) {
+                return techniques[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Visszaadja, hogy a feladvány a technikákkal végig megoldható volt-e.
+     *
+     * @return Igaz, ha nem maradt üres cella.
+     */
+    public boolean isSolved() {
+        return solved;
+    }
+
+    /**
+     * Visszaadja az értékelés végén üresen maradt cellák számát.
+     *
+     * @return az üres cellák száma
+     */
+    public int getRemaining() {
+        return remaining;
+    }
+
+    /**
+     * Kiszámolja a nehézségi pontszámot: a technikák súlyozott összege,
+     * megoldatlan feladványnál büntetéssel és a maradék cellák számával növelve.
+     *
+     * @return a pontszám
+     */
+    public int getRating() {
+        int rating = 0;
+        for (Technique technique : Technique.values()) {
+            rating += technique.getWeight() * counts[technique.ordinal()];
+        }
+        return solved ? rating : rating + UNSOLVED_PENALTY + remaining;
+    }
+
+    /**
+     * Meghatározza a nehézségi szintet a legnehezebb szükséges technika alapján.
+     * A csak full house és naked single lépésekkel megoldható feladvány könnyű,
+     * a hidden single-t igénylő közepes, a párokat igénylő nehéz.
+     * A technikákkal meg nem oldható feladvány szakértő szintű, ha a végén üresen maradt cellák száma
+     * eléri a {@link #EXTREME_REMAINING} értéket, akkor extrém.
+     *
+     * @return a nehézségi szint
+     */
+    public GameDifficulty getDifficulty() {
+        if (!solved) {
+            return remaining >= EXTREME_REMAINING ? GameDifficulty.EXTREME : GameDifficulty.EXPERT;
+        }
+        Technique hardest = getHardestTechnique();
+        if (hardest == Technique.NAKED_PAIR || hardest == Technique.HIDDEN_PAIR) {
+            return GameDifficulty.HARD;
+        }
+        if (hardest == Technique.HIDDEN_SINGLE) {
+            return GameDifficulty.MEDIUM;
+        }
+        return GameDifficulty.EASY;
+    }
+
+    /**
+     * Visszaadja az értékelés szöveges alakját naplózáshoz.
+     *
+     * @return az értékelés szövegként
+     */
+    @Override
+    public String toString() {
+        return "Grade{difficulty=" + getDifficulty() + ", rating=" + getRating() + ", solved=" + solved
+                + ", counts=" + getCounts() + "}";
+    }
+}
@@ -0,0 +1,258 @@
+package hu.unideb.sudoku.model;
+
+import java.util.Arrays;
+
+/**
+ * A {@link BitBoard} tetszőleges méretű megfelelője: a geometriát egy {@link BoardGeometry} kényszergráf adja,
+ * a lehetséges értékeket és a házakban felhasznált számokat 64 bites maszkok tárolják.
+ * A házak maszkjai a geometria összes házára (változatoknál az átlókra és régiókra is) kiterjednek,
+ * a Killer ketrecek cellái egymás szomszédai, így ott sem ismétlődhet érték.
+ * A klasszikus 9×9-es játék továbbra is a {@link BitBoard}-ot használja, ez a 4×4-es, 16×16-os
+ * és 25×25-ös táblák reprezentációja.
+ */
+public final class GridBoard {
+    private final BoardGeometry geometry;
+    private final int[] values;
+    private final long[] candidates;
+    private final long[] houseUsed;
+
+    /**
+     * Létrehoz egy üres táblát.
+     *
+     * @param geometry a tábla geometriája
+     */
+    public GridBoard(BoardGeometry geometry) {
+        this.geometry = geometry;
+        this.values = new int[geometry.getCellCount()];
+        this.candidates = new long[geometry.getCellCount()];
+        this.houseUsed = new long[geometry.getHouseCount()];
+    }
+
+    /**
+     * Visszaadja a tábla geometriáját.
+     *
+     * @return a geometria
+     */
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * Visszaadja a cella értékét.
+     *
+     * @param cell A cella indexe.
+     * @return A cella értéke, 0 ha üres.
+     */
+    public int getValue(int cell) {
+        return values[cell];
+    }
+
+    /**
+     * Beállítja a cella értékét, és törli a lehetséges értékeit.
+     * Érték törlésekor a házak maszkjait újraszámolja, így ütköző értékek esetén is helyesek maradnak.
+     *
+     * @param cell  A cella indexe.
+     * @param value A beállítandó érték, 0 ha törölni szeretnénk.
+     */
+    public void setValue(int cell, int value) {
+        int oldValue = values[cell];
+        values[cell] = value;
+        candidates[cell] = 0;
+        if (oldValue == value) {
+            return;
+        }
+        if (geometry.isDigit(oldValue)) {
+            recomputeHouses(cell);
+        } else if (geometry.isDigit(value)) {
+            long bit = BoardGeometry.bit(value);
+            for (int house : geometry.housesOf(cell)) {
+                houseUsed[house] |= bit;
+            }
+        }
+    }
+
+    /**
+     * Visszaadja a cella lehetséges értékeinek maszkját.
+     *
+     * @param cell A cella indexe.
+     * @return A lehetséges értékek maszkja.
+     */
+    public long getCandidates(int cell) {
+        return candidates[cell];
+    }
+
+    /**
+     * Beállítja a cella lehetséges értékeit, és a cella értékét 0-ra állítja.
+     *
+     * @param cell A cella indexe.
+     * @param mask A lehetséges értékek maszkja.
+     */
+    public void setCandidates(int cell, long mask) {
+        setValue(cell, 0);
+        candidates[cell] = mask & geometry.getAllCandidates();
+    }
+
+    /**
+     * Kiszámítja a cellába az aktuális állapot alapján beírható értékek maszkját.
+     * A házak maszkjain túl a cella ketrecében már szereplő értékeket is kizárja.
+     *
+     * @param cell A cella indexe.
+     * @return A beírható értékek maszkja.
+     */
+    public long computeCandidates(int cell) {
+        long used = 0;
+        for (int house : geometry.housesOf(cell)) {
+            used |= houseUsed[house];
+        }
+        int cage = geometry.cageOf(cell);
+        if (cage >= 0) {
+            Cage cageCells = geometry.getCages().get(cage);
+            for (int i = 0; i < cageCells.size(); i++) {
+                used |= digitBit(values[cageCells.cellAt(i)]);
+            }
+        }
+        return geometry.getAllCandidates() & ~used;
+    }
+
+    /**
+     * Ellenőrzi, hogy az érték egyik szomszédos cellában sem szerepel-e.
+     *
+     * @param cell  A cella indexe.
+     * @param value Az ellenőrizendő érték.
+     * @return Igaz, ha egyik szomszéd értéke sem egyezik meg vele.
+     */
+    public boolean isValueValid(int cell, int value) {
+        for (int peer : geometry.peersOf(cell)) {
+            if (values[peer] == value) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Megvizsgálja, hogy minden cellában van-e érték.
+     *
+     * @return Igaz, ha nincs üres cella.
+     */
+    public boolean isComplete() {
+        for (int value : values) {
+            if (value == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Átmásolja egy másik, azonos geometriájú tábla teljes állapotát.
+     *
+     * @param other A másolandó tábla.
+     */
+    public void copyFrom(GridBoard other) {
+        System.arraycopy(other.values, 0, values, 0, values.length);
+        System.arraycopy(other.candidates, 0, candidates, 0, candidates.length);
+        System.arraycopy(other.houseUsed, 0, houseUsed, 0, houseUsed.length);
+    }
+
+    /**
+     * Visszaadja a cellák értékeinek másolatát.
+     *
+     * @return A sorfolytonos értéktömb másolata.
+     */
+    public int[] toValueArray() {
+        return values.clone();
+    }
+
+    /**
+     * Beállítja az összes cella értékét, a lehetséges értékeket törli.
+     *
+     * @param newValues A sorfolytonos értéktömb.
+     */
+    public void setValues(int[] newValues) {
+        System.arraycopy(newValues, 0, values, 0, values.length);
+        Arrays.fill(candidates, 0);
+        recomputeAllHouses();
+    }
+
+    /**
+     * Betölti az állapotot egy CellPosition nézetből.
+     *
+     * @param cells A betöltendő tábla.
+     */
+    public void readFrom(CellPosition[][] cells) {
+        for (int row = 0; row < geometry.getSize(); row++) {
+            for (int col = 0; col < geometry.getSize(); col++) {
+                int cell = geometry.index(row, col);
+                values[cell] = cells[row][col].getValue();
+                candidates[cell] = values[cell] == 0 ? geometry.toMask(cells[row][col].getPossibleValues()) : 0;
+            }
+        }
+        recomputeAllHouses();
+    }
+
+    /**
+     * Kiírja az állapotot egy CellPosition nézetbe, a meglévő cellákat felülírva.
+     *
+     * @param cells A cél tábla, hiányzó cellák esetén újakat hoz létre.
+     */
+    public void writeTo(CellPosition[][] cells) {
+        for (int row = 0; row < geometry.getSize(); row++) {
+            for (int col = 0; col < geometry.getSize(); col++) {
+                int cell = geometry.index(row, col);
+                if (cells[row][col] == null) {
+                    cells[row][col] = new CellPosition();
+                }
+                if (values[cell] != 0) {
+                    cells[row][col].setValue(values[cell]);
+                } else {
+                    cells[row][col].setPossibleValues(BoardGeometry.toSet(candidates[cell]));
+                }
+            }
+        }
+    }
+
+    /**
+     * Újraszámolja a cellát tartalmazó házak maszkját.
+     *
+     * @param cell A cella indexe.
+     */
+    private void recomputeHouses(int cell) {
+        for (int house : geometry.housesOf(cell)) {
+            houseUsed[house] = houseMask(geometry.houseCells(house));
+        }
+    }
+
+    /**
+     * Kiszámítja a ház celláiban szereplő értékek maszkját.
+     *
+     * @param house A ház cellái.
+     * @return A szereplő értékek maszkja.
+     */
+    private long houseMask(int[] house) {
+        long mask = 0;
+        for (int cell : house) {
+            mask |= digitBit(values[cell]);
+        }
+        return mask;
+    }
+
+    /**
+     * Újraszámolja az összes ház maszkját.
+     */
+    private void recomputeAllHouses() {
+        for (int house = 0; house < houseUsed.length; house++) {
+            houseUsed[house] = houseMask(geometry.houseCells(house));
+        }
+    }
+
+    /**
+     * Visszaadja az értékhez tartozó bitet, érvénytelen érték esetén 0-t.
+     *
+     * @param value Az érték.
+     * @return Az értékhez tartozó bit, vagy 0.
+     */
+    private long digitBit(int value) {
+        return geometry.isDigit(value) ? BoardGeometry.bit(value) : 0;
+    }
+}
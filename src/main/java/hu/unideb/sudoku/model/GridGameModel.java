@@ -0,0 +1,475 @@
+package hu.unideb.sudoku.model;
+
+import javafx.util.Pair;
+import org.tinylog.Logger;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static hu.unideb.sudoku.model.BoardGeometry.lowestValue;
+import static hu.unideb.sudoku.model.BoardGeometry.toSet;
+
+/**
+ * A 4×4-es, 16×16-os és 25×25-ös (általában nem klasszikus méretű) játszmák üzleti logikája.
+ * Ugyanazt nyújtja, mint a {@link GameModel}, de a táblákat {@link GridBoard} példányok tárolják,
+ * a feladványt a {@link GridGenerator} készíti, a megoldást a {@link GridSolver} számolja,
+ * a segítő algoritmusokat pedig a {@link GridTechniques} adja.
+ * A nehézségi szintet a {@link GameModel#getDifficulty()} beállításából veszi.
+ */
+public class GridGameModel implements SudokuGame {
+    private static final String SINGLE_LOG_FORMAT = "[{}][{}] = {}";
+    private static final String PAIR_LOG_FORMAT = "[{}, {}] and [{}, {}]";
+    private final BoardGeometry geometry;
+    private final GridBoard board;
+    private final GridBoard solved;
+    private final GridBoard original;
+    private final CellPosition[][] sudokuBoard;
+    private final CellPosition[][] solvedBoard;
+    private final CellPosition[][] originalBoard;
+    private final long[] excludedCandidates;
+    private final SplittableRandom random = new SplittableRandom();
+    private int helpCounter = 0;
+    private GameDifficulty puzzleDifficulty;
+
+    /**
+     * Létrehoz egy üres játszmát a megadott geometriával.
+     *
+     * @param geometry a tábla geometriája
+     */
+    public GridGameModel(BoardGeometry geometry) {
+        this.geometry = geometry;
+        this.board = new GridBoard(geometry);
+        this.solved = new GridBoard(geometry);
+        this.original = new GridBoard(geometry);
+        this.sudokuBoard = new CellPosition[geometry.getSize()][geometry.getSize()];
+        this.solvedBoard = new CellPosition[geometry.getSize()][geometry.getSize()];
+        this.originalBoard = new CellPosition[geometry.getSize()][geometry.getSize()];
+        this.excludedCandidates = new long[geometry.getCellCount()];
+    }
+
+    @Override
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    @Override
+    public void loadGameFromHistory(GameHistory history) {
+        GameModel.setDifficulty(GameDifficulty.valueOf(history.getDifficulty()));
+        puzzleDifficulty = GameModel.getDifficulty();
+        original.readFrom(history.getOriginalBoard());
+        board.readFrom(history.getOriginalBoard());
+        solved.readFrom(history.getSolvedBoard());
+    }
+
+    /**
+     * Megoldja a játékot, átmásolva a megoldott tábla állapotát a jelenlegi táblába.
+     * Ha a megoldott tábla még nem ismert, előbb az eredeti táblából a {@link GridSolver} kiszámolja.
+     */
+    @Override
+    public void solve() {
+        if (!solved.isComplete()) {
+            int[] solution = original.toValueArray();
+            if (!new GridSolver(geometry).solve(solution)) {
+                Logger.debug("A táblának nincs megoldása!");
+                return;
+            }
+            solved.setValues(solution);
+        }
+        board.copyFrom(solved);
+    }
+
+    /**
+     * Generál egy új feladványt a {@link GridGenerator}-ral a beállított nehézségi szint szerint.
+     *
+     * @param token a generálás megszakítására szolgáló jelző
+     */
+    @Override
+    public void generateSudoku(CancellationToken token) {
+        GameDifficulty level = GameModel.getDifficulty() != null ? GameModel.getDifficulty() : GameDifficulty.HARD;
+        loadPuzzle(new GridGenerator(geometry, random.split()).generate(level, token));
+    }
+
+    /**
+     * Betölti a megadott feladványt és a megoldását, majd eltárolja a cellák lehetséges értékeit.
+     *
+     * @param puzzle A betöltendő, a játszmával azonos geometriájú feladvány.
+     * @throws IllegalArgumentException ha a feladvány mérete eltér a játszmáétól
+     */
+    public void loadPuzzle(GridPuzzle puzzle) {
+        if (puzzle.getGeometry() != geometry) {
+            throw new IllegalArgumentException("Eltérő táblaméret: " + puzzle.getGeometry() + " helyett " + geometry);
+        }
+        puzzleDifficulty = puzzle.getDifficulty();
+        board.setValues(puzzle.getGivens());
+        solved.setValues(puzzle.getSolution());
+        storePossibleValues();
+        original.copyFrom(board);
+    }
+
+    @Override
+    public GameDifficulty getPuzzleDifficulty() {
+        return puzzleDifficulty;
+    }
+
+    @Override
+    public void storePossibleValues() {
+        for (int cell = 0; cell < geometry.getCellCount(); cell++) {
+            if (board.getValue(cell) == 0) {
+                board.setCandidates(cell, newPossibleValuesMask(cell));
+            }
+        }
+    }
+
+    @Override
+    public void storeActualPossibleValues() {
+        for (int cell = 0; cell < geometry.getCellCount(); cell++) {
+            if (board.getValue(cell) == 0) {
+                board.setCandidates(cell, board.getCandidates(cell) & newPossibleValuesMask(cell));
+            }
+        }
+    }
+
+    @Override
+    public void removePossibleValuesAt(int row, int col, Set<Integer> valuesToRemove) {
+        int cell = geometry.index(row, col);
+        board.setCandidates(cell, board.getCandidates(cell) & ~geometry.toMask(valuesToRemove));
+    }
+
+    @Override
+    public Set<Integer> getNewPossibleValues(int row, int col) {
+        return toSet(newPossibleValuesMask(geometry.index(row, col)));
+    }
+
+    /**
+     * Kiszámítja egy adott cella lehetséges értékeinek maszkját,
+     * figyelembe véve a párok által korábban kizárt értékeket is.
+     *
+     * @param cell A cella indexe.
+     * @return A lehetséges értékek maszkja.
+     */
+    private long newPossibleValuesMask(int cell) {
+        return board.computeCandidates(cell) & ~excludedCandidates[cell];
+    }
+
+    @Override
+    public boolean isValueValid(int row, int col, int value) {
+        return board.isValueValid(geometry.index(row, col), value);
+    }
+
+    @Override
+    public void resetBoard() {
+        helpCounter = 0;
+        Arrays.fill(excludedCandidates, 0);
+        board.copyFrom(original);
+    }
+
+    @Override
+    public boolean isComplete() {
+        return board.isComplete();
+    }
+
+    @Override
+    public boolean isCorrect() {
+        for (int cell = 0; cell < geometry.getCellCount(); cell++) {
+            if (board.getValue(cell) != solved.getValue(cell)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Set<Pair<Integer, Integer>> getIncorrectValues() {
+        Set<Pair<Integer, Integer>> incorrectValues = new HashSet<>();
+        for (int cell = 0; cell < geometry.getCellCount(); cell++) {
+            int value = board.getValue(cell);
+            if (value != 0 && value != solved.getValue(cell)) {
+                incorrectValues.add(position(cell));
+            }
+        }
+        return incorrectValues;
+    }
+
+    /**
+     * Segítő algoritmus.
+     * Bejárja a sorokat, oszlopokat és blokkokat, és olyan házat keres, ahol már csak egy cella maradt kitöltetlen.
+     * Az érték a cella legkisebb lehetséges értéke.
+     *
+     * @return a letárolt pozíció és értékek halmaza.
+     */
+    @Override
+    public Set<Pair<Integer, Pair<Integer, Integer>>> checkFullHouse() {
+        Set<Pair<Integer, Pair<Integer, Integer>>> results = new HashSet<>();
+        for (int house = 0; house < geometry.getHouseCount(); house++) {
+            int fullHouseCell = GridTechniques.fullHouseCell(board, geometry.houseCells(house));
+            if (fullHouseCell >= 0) {
+                int value = lowestValue(board.getCandidates(fullHouseCell));
+                if (value != 0) {
+                    results.add(new Pair<>(value, position(fullHouseCell)));
+                    logSingle("FULL HOUSE: ", fullHouseCell, value);
+                }
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public Set<Pair<Integer, Pair<Integer, Integer>>> checkNakedSingles() {
+        Set<Pair<Integer, Pair<Integer, Integer>>> results = new HashSet<>();
+        for (int cell = 0; cell < geometry.getCellCount(); cell++) {
+            int value = GridTechniques.nakedSingleValue(board, cell);
+            if (value != 0) {
+                results.add(new Pair<>(value, position(cell)));
+                logSingle("NAKED SINGLE: ", cell, value);
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public Set<Pair<Integer, Pair<Integer, Integer>>> checkHiddenSingles() {
+        Set<Pair<Integer, Pair<Integer, Integer>>> results = new HashSet<>();
+        for (int cell = 0; cell < geometry.getCellCount(); cell++) {
+            long hiddenValues = GridTechniques.hiddenSingleMask(board, cell);
+            while (hiddenValues != 0) {
+                int value = lowestValue(hiddenValues);
+                hiddenValues &= hiddenValues - 1;
+                results.add(new Pair<>(value, position(cell)));
+                logSingle("HIDDEN SINGLE: ", cell, value);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Segítő algoritmus.
+     * Azokat a cellapárokat keresi a házakban, ahol csak ugyanaz a két lehetséges szám található.
+     * Sorban és oszlopban a ház többi cellájából, blokkban az érintett cellákból zárja ki a pár értékeit.
+     *
+     * @return a párok pozíciói és a kizárandó értékek, null ha nincs találat
+     */
+    @Override
+    public PairsType checkNakedPairs() {
+        Set<Pair<Integer, Integer>> nakedPairsPositionSet = new HashSet<>();
+        Set<Pair<Pair<Integer, Integer>, Set<Integer>>> removeSet = new HashSet<>();
+
+        for (int house = 0; house < geometry.getHouseCount(); house++) {
+            int[] cells = geometry.houseCells(house);
+            boolean isBox = geometry.isBox(house);
+            GridTechniques.findNakedPairs(board, cells, (first, second, pairValues) -> {
+                if (!nakedPairsPositionSet.contains(position(first)) && !nakedPairsPositionSet.contains(position(second))) {
+                    logPair("NAKED PAIR: ", first, second);
+                }
+                nakedPairsPositionSet.add(position(first));
+                nakedPairsPositionSet.add(position(second));
+
+                if (isBox) {
+                    addRemovePositionAndValuesBox(first, cells, pairValues, removeSet);
+                } else {
+                    addRemovePositionAndValuesLine(first, second, cells, pairValues, removeSet);
+                }
+            });
+        }
+        return pairsType(nakedPairsPositionSet, removeSet);
+    }
+
+    /**
+     * Eltávolítja a talált párokban szereplő értékeket a sor vagy oszlop többi cellájából.
+     *
+     * @param cell       A pár első cellája.
+     * @param other      A pár másik cellája.
+     * @param line       A párt tartalmazó sor vagy oszlop cellái.
+     * @param pairValues A pár értékeinek maszkja.
+     * @param results    Az eltávolítandó értékek és azok pozícióinak halmaza.
+     */
+    private void addRemovePositionAndValuesLine(int cell, int other, int[] line, long pairValues, Set<Pair<Pair<Integer, Integer>, Set<Integer>>> results) {
+        for (int target : line) {
+            if (target != cell && target != other) {
+                addRemoveValueToSet(target, board.getCandidates(target) & pairValues, results);
+            }
+        }
+    }
+
+    /**
+     * Eltávolítja a párban szereplő értékeket a blokk érintett celláiból.
+     * Minden érintett cellához a blokkban talált összes eltávolítandó értéket hozzárendeli.
+     *
+     * @param cell       A pár első cellája.
+     * @param box        A blokk cellái.
+     * @param pairValues A pár értékeinek maszkja.
+     * @param results    Az eltávolítandó értékek és azok pozícióinak halmaza.
+     */
+    private void addRemovePositionAndValuesBox(int cell, int[] box, long pairValues, Set<Pair<Pair<Integer, Integer>, Set<Integer>>> results) {
+        long removeMask = 0;
+        long removeCells = 0;
+        for (int i = 0; i < box.length; i++) {
+            long possibleValues = board.getCandidates(box[i]);
+            if (box[i] != cell && possibleValues != pairValues && (possibleValues & pairValues) != 0) {
+                removeMask |= possibleValues & pairValues;
+                removeCells |= 1L << i;
+            }
+        }
+        for (int i = 0; i < box.length; i++) {
+            if ((removeCells & (1L << i)) != 0) {
+                addRemoveValueToSet(box[i], removeMask, results);
+            }
+        }
+    }
+
+    /**
+     * Hozzáad egy értéket és annak eltávolítási pozícióját a megadott halmazhoz.
+     *
+     * @param cell       A cella indexe, ahol az értéket eltávolítják.
+     * @param removeMask Az eltávolítandó értékek maszkja.
+     * @param results    Az eltávolítási pozíciók és értékek halmaza.
+     */
+    private void addRemoveValueToSet(int cell, long removeMask, Set<Pair<Pair<Integer, Integer>, Set<Integer>>> results) {
+        if (removeMask != 0) {
+            results.add(new Pair<>(position(cell), toSet(removeMask)));
+        }
+    }
+
+    /**
+     * Segítő algoritmus.
+     * Bejárja a házakat és összeszedi a rejtett párokat; a pár celláiból a többi lehetséges értéket zárja ki.
+     *
+     * @return a párok pozíciói és a kizárandó értékek, null ha nincs találat
+     */
+    @Override
+    public PairsType checkHiddenPairs() {
+        Set<Pair<Integer, Integer>> hiddenPairsPositionSet = new HashSet<>();
+        Set<Pair<Pair<Integer, Integer>, Set<Integer>>> removeSet = new HashSet<>();
+
+        for (int house = 0; house < geometry.getHouseCount(); house++) {
+            GridTechniques.findHiddenPairs(board, geometry.houseCells(house), (first, second, pairValues) -> {
+                if (!hiddenPairsPositionSet.contains(position(first)) && !hiddenPairsPositionSet.contains(position(second))) {
+                    logPair("HIDDEN PAIR: ", first, second);
+                }
+                hiddenPairsPositionSet.add(position(first));
+                hiddenPairsPositionSet.add(position(second));
+
+                for (int cell : new int[]{first, second}) {
+                    long removeValues = board.getCandidates(cell) & ~pairValues;
+                    while (removeValues != 0) {
+                        removeSet.add(new Pair<>(position(cell), new HashSet<>(List.of(lowestValue(removeValues)))));
+                        removeValues &= removeValues - 1;
+                    }
+                }
+            });
+        }
+        return pairsType(hiddenPairsPositionSet, removeSet);
+    }
+
+    /**
+     * Elkészíti a párok eredményét.
+     *
+     * @param pairsPositionSet A talált párok pozícióinak halmaza.
+     * @param removeSet        Az eltávolítandó értékek és azok pozícióinak halmaza.
+     * @return A kitöltött PairsType objektum, null ha nem volt találat.
+     */
+    private static PairsType pairsType(Set<Pair<Integer, Integer>> pairsPositionSet, Set<Pair<Pair<Integer, Integer>, Set<Integer>>> removeSet) {
+        if (pairsPositionSet.isEmpty()) {
+            return null;
+        }
+        PairsType pairsType = new PairsType();
+        pairsType.setPairsPositionSet(pairsPositionSet);
+        pairsType.setRemoveSet(removeSet);
+        return pairsType;
+    }
+
+    @Override
+    public void addCheckedPairSet(Set<Pair<Pair<Integer, Integer>, Set<Integer>>> removeSet) {
+        for (Pair<Pair<Integer, Integer>, Set<Integer>> removeEntry : removeSet) {
+            Pair<Integer, Integer> position = removeEntry.getKey();
+            excludedCandidates[geometry.index(position.getKey(), position.getValue())] |= geometry.toMask(removeEntry.getValue());
+        }
+    }
+
+    /**
+     * A cella indexét sor és oszlop párrá alakítja.
+     *
+     * @param cell A cella indexe.
+     * @return A cella pozíciója.
+     */
+    private Pair<Integer, Integer> position(int cell) {
+        return new Pair<>(geometry.rowOf(cell), geometry.colOf(cell));
+    }
+
+    /**
+     * Naplózza az egy cellát érintő segítséget.
+     *
+     * @param technique az algoritmus neve
+     * @param cell      a cella indexe
+     * @param value     a cellába kerülő érték
+     */
+    private void logSingle(String technique, int cell, int value) {
+        Logger.debug(technique + SINGLE_LOG_FORMAT, geometry.rowOf(cell), geometry.colOf(cell), value);
+    }
+
+    /**
+     * Naplózza a talált párt.
+     *
+     * @param technique az algoritmus neve
+     * @param first     a pár első cellája
+     * @param second    a pár második cellája
+     */
+    private void logPair(String technique, int first, int second) {
+        Logger.debug(technique + PAIR_LOG_FORMAT, geometry.rowOf(first), geometry.colOf(first), geometry.rowOf(second), geometry.colOf(second));
+    }
+
+    @Override
+    public int getHelpCounter() {
+        return helpCounter;
+    }
+
+    @Override
+    public void increaseHelpCounter() {
+        helpCounter++;
+    }
+
+    @Override
+    public CellPosition[][] getSudokuBoard() {
+        board.writeTo(sudokuBoard);
+        return sudokuBoard;
+    }
+
+    @Override
+    public CellPosition[][] getSolvedBoard() {
+        solved.writeTo(solvedBoard);
+        return solvedBoard;
+    }
+
+    @Override
+    public CellPosition[][] getOriginalBoard() {
+        original.writeTo(originalBoard);
+        return originalBoard;
+    }
+
+    @Override
+    public void setValueAt(int row, int col, int value) {
+        board.setValue(geometry.index(row, col), value);
+    }
+
+    @Override
+    public int getValueAt(int row, int col) {
+        return board.getValue(geometry.index(row, col));
+    }
+
+    @Override
+    public int getSolvedValueAt(int row, int col) {
+        return solved.getValue(geometry.index(row, col));
+    }
+
+    @Override
+    public void setPossibleValuesAt(int row, int col, Set<Integer> values) {
+        board.setCandidates(geometry.index(row, col), geometry.toMask(values));
+    }
+
+    @Override
+    public Set<Integer> getPossibleValuesAt(int row, int col) {
+        return toSet(board.getCandidates(geometry.index(row, col)));
+    }
+}
@@ -0,0 +1,343 @@
+package hu.unideb.sudoku.model;
+
+import org.tinylog.Logger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Tetszőleges {@link BoardGeometry} méretű feladványok generátora.
+ * A teljes táblát egy szabályos mintából készíti, amelyet véletlen, érvényességet megőrző transzformációkkal
+ * kever össze (értékek permutálása, sorok sávon belül, sávok, oszlopok oszlopcsoporton belül és oszlopcsoportok
+ * cseréje, tükrözés a főátlóra). Így a 25×25-ös tábla is visszalépés nélkül, azonnal elkészül.
+ * A törlés véletlen sorrendben halad, egy cella akkor törölhető, ha a {@link GridSolver} szerint a feladvány
+ * egyértelmű marad. A törlendő számok aránya a klasszikus táblára beállított {@link PuzzleGenerator#removedDigits}
+ * arányával egyezik meg. X és Jigsaw táblán a minta nem érvényes, ott a kitöltött táblát a {@link GridSolver}
+ * készíti el egy véletlen első sorból. Killer feladványt a {@link #generateKiller} készít: a megoldásból véletlen,
+ * összefüggő ketreceket növeszt, majd a ketrecekkel bővített geometrián töröl. Egy példány nem szálbiztos.
+ */
+public final class GridGenerator {
+    private final BoardGeometry geometry;
+    private final RandomGenerator random;
+    private final GridSolver solver;
+    private boolean lastCancelled;
+    private int lastRemoved;
+
+    /**
+     * Létrehoz egy generátort a megadott geometriához, új véletlenszám generátorral.
+     *
+     * @param geometry a tábla geometriája
+     */
+    public GridGenerator(BoardGeometry geometry) {
+        this(geometry, new SplittableRandom());
+    }
+
+    /**
+     * Létrehoz egy generátort a megadott geometriához és véletlenszám generátorral.
+     * Azonos magú generátor azonos feladványokat ad.
+     *
+     * @param geometry a tábla geometriája
+     * @param random   a véletlenszám generátor
+     * @throws IllegalArgumentException ha a geometriában már vannak ketrecek
+     */
+    public GridGenerator(BoardGeometry geometry, RandomGenerator random) {
+        if (!geometry.getCages().isEmpty()) {
+            throw new IllegalArgumentException("A ketreceket a generátor készíti, ketrecek nélküli geometriát vár!");
+        }
+        this.geometry = geometry;
+        this.random = random;
+        this.solver = new GridSolver(geometry);
+    }
+
+    /**
+     * Visszaadja, hogy a nehézségi szinthez hány számot kell törölni ezen a táblán.
+     *
+     * @param geometry   a tábla geometriája
+     * @param difficulty a nehézségi szint
+     * @return a törlendő számok száma
+     */
+    public static int removedDigits(BoardGeometry geometry, GameDifficulty difficulty) {
+        return (int) Math.round((double) PuzzleGenerator.removedDigits(difficulty) * geometry.getCellCount() / BitBoard.CELLS);
+    }
+
+    /**
+     * Visszaadja azt a legnehezebb szintet, amelynek törlési célját a megadott számú törlés ezen a táblán eléri.
+     *
+     * @param geometry a tábla geometriája
+     * @param removed  a törölt számok száma
+     * @return a törlések számának megfelelő nehézségi szint, legalább {@link GameDifficulty#EASY}
+     */
+    public static GameDifficulty difficultyFor(BoardGeometry geometry, int removed) {
+        GameDifficulty result = GameDifficulty.EASY;
+        for (GameDifficulty difficulty : GameDifficulty.values()) {
+            if (removedDigits(geometry, difficulty) <= removed) {
+                result = difficulty;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Generál egy feladványt a nehézségi szintnek megfelelően. A törlést a jelző megszakíthatja,
+     * ekkor az addig elért, egyértelmű feladványt adja vissza kevesebb törölt számmal,
+     * a ténylegesen elért szinttel ({@link #difficultyFor(BoardGeometry, int)}).
+     *
+     * @param difficulty a nehézségi szint
+     * @param token      a törlés megszakítására szolgáló jelző
+     * @return a feladvány
+     */
+    public GridPuzzle generate(GameDifficulty difficulty, CancellationToken token) {
+        int[] solution = sampleSolution();
+        int target = removedDigits(geometry, difficulty);
+        int[] givens = removeDigits(solver, solution, target, token);
+        return new GridPuzzle(geometry, givens, solution, reached(geometry, difficulty, target));
+    }
+
+    /**
+     * Generál egy Killer feladványt: a megoldásból 2-4 cellás, oldalszomszédos cellákból álló, ismétlődő érték
+     * nélküli ketreceket növeszt (ha egy cella mellett nincs szabad szomszéd, a ketrec kisebb marad), majd a ketrecekkel
+     * bővített geometrián törli a számokat. A visszaadott feladvány geometriája tartalmazza a ketreceket.
+     *
+     * @param difficulty a nehézségi szint
+     * @param token      a törlés megszakítására szolgáló jelző
+     * @return a feladvány
+     */
+    public GridPuzzle generateKiller(GameDifficulty difficulty, CancellationToken token) {
+        int[] solution = sampleSolution();
+        BoardGeometry killer = geometry.withCages(growCages(solution));
+        int target = removedDigits(killer, difficulty);
+        int[] givens = removeDigits(new GridSolver(killer), solution, target, token);
+        return new GridPuzzle(killer, givens, solution, reached(killer, difficulty, target));
+    }
+
+    /**
+     * Visszaadja az utolsó törlés által elért szintet: a kért szintet, ha a cél teljesült, különben a törlések
+     * számának megfelelőt.
+     *
+     * @param geometry   a tábla geometriája
+     * @param difficulty a kért nehézségi szint
+     * @param target     a kért szint törlési célja
+     * @return az elért nehézségi szint
+     */
+    private GameDifficulty reached(BoardGeometry geometry, GameDifficulty difficulty, int target) {
+        if (lastRemoved >= target) {
+            return difficulty;
+        }
+        GameDifficulty level = difficultyFor(geometry, lastRemoved);
+        Logger.warn("Csak {} szám törölhető a kért {} helyett, a feladvány szintje: {}.", lastRemoved, target, level);
+        return level;
+    }
+
+    /**
+     * Véletlen sorrendben törli a megoldás számait, amíg a feladvány egyértelmű marad és a célt el nem érjük.
+     *
+     * @param checker a törlés ellenőrzésére használt megoldó
+     * @param solution a kitöltött tábla
+     * @param target  a törlendő számok száma
+     * @param token   a törlés megszakítására szolgáló jelző
+     * @return a feladvány
+     */
+    private int[] removeDigits(GridSolver checker, int[] solution, int target, CancellationToken token) {
+        int[] givens = solution.clone();
+        int removed = 0;
+        lastCancelled = false;
+
+        int[] order = shuffledCells();
+        for (int cell : order) {
+            if (removed >= target) {
+                break;
+            }
+            if (token.isCancelled()) {
+                lastCancelled = true;
+                break;
+            }
+            int value = givens[cell];
+            givens[cell] = 0;
+            if (checker.hasSolutionExcluding(givens, cell, value, token)) {
+                givens[cell] = value;
+            } else {
+                removed++;
+            }
+        }
+        lastRemoved = removed;
+        Logger.debug("{} feladvány generálva: {} törölt szám a {} célból", checker.getGeometry(), removed, target);
+        return givens;
+    }
+
+    /**
+     * Véletlen ketrecekre osztja a kitöltött táblát. A ketrecek véletlen sorrendben kiválasztott szabad cellákból
+     * indulnak, és véletlen, szabad oldalszomszédokkal nőnek, amelyek értéke még nem szerepel a ketrecben.
+     *
+     * @param solution a kitöltött tábla
+     * @return a ketrecek
+     */
+    private List<Cage> growCages(int[] solution) {
+        int size = geometry.getSize();
+        boolean[] covered = new boolean[geometry.getCellCount()];
+        int[] buffer = new int[4];
+        int[] frontier = new int[4 * buffer.length];
+        List<Cage> cages = new ArrayList<>();
+        for (int start : shuffledCells()) {
+            if (covered[start]) {
+                continue;
+            }
+            int target = Math.min(2 + random.nextInt(3), size);
+            int count = 0;
+            long used = 0;
+            buffer[count++] = start;
+            covered[start] = true;
+            used |= BoardGeometry.bit(solution[start]);
+            while (count < target) {
+                int options = 0;
+                for (int i = 0; i < count; i++) {
+                    int row = geometry.rowOf(buffer[i]);
+                    int col = geometry.colOf(buffer[i]);
+                    options = addNeighbour(frontier, options, row - 1, col, covered, solution, used);
+                    options = addNeighbour(frontier, options, row + 1, col, covered, solution, used);
+                    options = addNeighbour(frontier, options, row, col - 1, covered, solution, used);
+                    options = addNeighbour(frontier, options, row, col + 1, covered, solution, used);
+                }
+                if (options == 0) {
+                    break;
+                }
+                int next = frontier[random.nextInt(options)];
+                buffer[count++] = next;
+                covered[next] = true;
+                used |= BoardGeometry.bit(solution[next]);
+            }
+            int sum = 0;
+            for (int i = 0; i < count; i++) {
+                sum += solution[buffer[i]];
+            }
+            cages.add(new Cage(sum, Arrays.copyOf(buffer, count)));
+        }
+        return cages;
+    }
+
+    /**
+     * Felveszi a cellát a ketrec növelésének jelöltjei közé, ha a táblán belül van, szabad,
+     * és értéke még nem szerepel a ketrecben.
+     *
+     * @param frontier a jelöltek tömbje
+     * @param options  a jelöltek eddigi száma
+     * @param row      a cella sora
+     * @param col      a cella oszlopa
+     * @param covered  cellánként igaz, ha már ketrecben van
+     * @param solution a kitöltött tábla
+     * @param used     a ketrecben már szereplő értékek maszkja
+     * @return a jelöltek új száma
+     */
+    private int addNeighbour(int[] frontier, int options, int row, int col, boolean[] covered, int[] solution, long used) {
+        int size = geometry.getSize();
+        if (row < 0 || row >= size || col < 0 || col >= size) {
+            return options;
+        }
+        int cell = geometry.index(row, col);
+        if (covered[cell] || (used & BoardGeometry.bit(solution[cell])) != 0) {
+            return options;
+        }
+        frontier[options] = cell;
+        return options + 1;
+    }
+
+    /**
+     * Visszaadja, hogy az utolsó generálás törlését megszakította-e a jelző.
+     *
+     * @return Igaz, ha a törlés a cél elérése előtt leállt.
+     */
+    public boolean isLastCancelled() {
+        return lastCancelled;
+    }
+
+    /**
+     * Előállít egy véletlen, teljesen kitöltött táblát: klasszikus szabályok mellett a szabályos minta
+     * összekeverésével, változatoknál a megoldóval egy véletlen első sorból. Mivel az értékek átcímkézése
+     * minden szabályt megőriz, bármely első sor kiegészíthető, ha a változatnak egyáltalán van megoldása.
+     * A minta (r, c) cellája: (n * (r mod n) + r / n + c) mod n² + 1, ahol n a blokkméret.
+     *
+     * @return a kitöltött tábla
+     * @throws IllegalStateException ha a változat szabályainak egyetlen tábla sem felel meg
+     */
+    int[] sampleSolution() {
+        if (!geometry.isClassicLayout()) {
+            int[] grid = new int[geometry.getCellCount()];
+            int[] digits = permutation(geometry.getSize());
+            for (int col = 0; col < digits.length; col++) {
+                grid[geometry.index(0, col)] = digits[col] + 1;
+            }
+            if (!solver.solve(grid)) {
+                throw new IllegalStateException("A(z) " + geometry + " táblának nincs megoldása!");
+            }
+            return grid;
+        }
+        int size = geometry.getSize();
+        int boxSize = geometry.getBoxSize();
+        int[] digits = permutation(size);
+        int[] rows = lineOrder();
+        int[] cols = lineOrder();
+        boolean transpose = random.nextBoolean();
+
+        int[] grid = new int[geometry.getCellCount()];
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                int r = rows[row];
+                int c = cols[col];
+                int pattern = (boxSize * (r % boxSize) + r / boxSize + c) % size;
+                int cell = transpose ? geometry.index(col, row) : geometry.index(row, col);
+                grid[cell] = digits[pattern] + 1;
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * Véletlen sor- (vagy oszlop-) sorrendet készít, amely csak sávon belül és sávok között cserél,
+     * így a blokkok szerkezete megmarad.
+     *
+     * @return a sorok új sorrendje
+     */
+    private int[] lineOrder() {
+        int boxSize = geometry.getBoxSize();
+        int[] bands = permutation(boxSize);
+        int[] order = new int[geometry.getSize()];
+        for (int band = 0; band < boxSize; band++) {
+            int[] inside = permutation(boxSize);
+            for (int i = 0; i < boxSize; i++) {
+                order[band * boxSize + i] = bands[band] * boxSize + inside[i];
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Véletlen sorrendbe rakja a cellákat.
+     *
+     * @return a cellák indexei véletlen sorrendben
+     */
+    private int[] shuffledCells() {
+        return permutation(geometry.getCellCount());
+    }
+
+    /**
+     * Véletlen permutációt készít (Fisher-Yates keverés).
+     *
+     * @param length a permutáció hossza
+     * @return a 0..length-1 számok véletlen sorrendben
+     */
+    private int[] permutation(int length) {
+        int[] result = new int[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = i;
+        }
+        for (int i = length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = result[i];
+            result[i] = result[j];
+            result[j] = tmp;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,82 @@
+package hu.unideb.sudoku.model;
+
+/**
+ * Tetszőleges méretű feladvány és a hozzá tartozó egyértelmű megoldás (a {@link Puzzle} megfelelője).
+ * A táblákat sorfolytonos tömbként tárolja, ahol 0 jelöli az üres cellát.
+ * Az osztály nem módosítható, a tömböket másolatként adja ki és veszi át.
+ */
+public final class GridPuzzle {
+    private final BoardGeometry geometry;
+    private final int[] givens;
+    private final int[] solution;
+    private final GameDifficulty difficulty;
+
+    /**
+     * Létrehoz egy feladványt.
+     *
+     * @param geometry   a tábla geometriája
+     * @param givens     a feladvány megadott értékei
+     * @param solution   a feladvány megoldása
+     * @param difficulty a feladvány nehézségi szintje
+     */
+    public GridPuzzle(BoardGeometry geometry, int[] givens, int[] solution, GameDifficulty difficulty) {
+        if (givens.length != geometry.getCellCount() || solution.length != geometry.getCellCount()) {
+            throw new IllegalArgumentException("A táblának " + geometry.getCellCount() + " cellából kell állnia!");
+        }
+        this.geometry = geometry;
+        this.givens = givens.clone();
+        this.solution = solution.clone();
+        this.difficulty = difficulty;
+    }
+
+    /**
+     * Visszaadja a tábla geometriáját.
+     *
+     * @return a geometria
+     */
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * Visszaadja a feladvány megadott értékeit.
+     *
+     * @return a feladvány másolata
+     */
+    public int[] getGivens() {
+        return givens.clone();
+    }
+
+    /**
+     * Visszaadja a feladvány megoldását.
+     *
+     * @return a megoldás másolata
+     */
+    public int[] getSolution() {
+        return solution.clone();
+    }
+
+    /**
+     * Visszaadja a feladvány nehézségi szintjét.
+     *
+     * @return a nehézségi szint
+     */
+    public GameDifficulty getDifficulty() {
+        return difficulty;
+    }
+
+    /**
+     * Megszámolja a feladvány megadott értékeit.
+     *
+     * @return a kitöltött cellák száma
+     */
+    public int getClueCount() {
+        int count = 0;
+        for (int value : givens) {
+            if (value != 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
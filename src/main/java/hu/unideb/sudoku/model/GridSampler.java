@@ -0,0 +1,160 @@
+package hu.unideb.sudoku.model;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+import static hu.unideb.sudoku.model.BitBoard.*;
+
+/**
+ * Véletlen, érvényes, teljesen kitöltött Sudoku táblákat állít elő.
+ * A kitöltés a házak lehetséges értékeinek bitmaszkjain dolgozik: mindig a legkevesebb lehetséges értékkel
+ * rendelkező cellát tölti ki (egyenlőség esetén véletlenszerűen választva), az értékeket pedig véletlen
+ * sorrendben próbálja. Így nincs szükség elutasításos mintavételre, és ritkán kell visszalépni.
+ * Egy példány nem szálbiztos.
+ */
+public final class GridSampler {
+    private final RandomGenerator random;
+    private final int[] values = new int[CELLS];
+    private final int[] rowUsed = new int[SIZE];
+    private final int[] colUsed = new int[SIZE];
+    private final int[] boxUsed = new int[SIZE];
+    private long nodes;
+
+    /**
+     * Létrehoz egy mintavevőt a megadott véletlenszám generátorral.
+     *
+     * @param random a véletlenszám generátor
+     */
+    public GridSampler(RandomGenerator random) {
+        this.random = random;
+    }
+
+    /**
+     * Előállít egy új, véletlen, teljesen kitöltött táblát.
+     *
+     * @return a 81 elemű kitöltött tábla
+     */
+    public int[] sample() {
+        int[] grid = new int[CELLS];
+        sample(grid);
+        return grid;
+    }
+
+    /**
+     * Előállít egy új, véletlen, teljesen kitöltött táblát a megadott tömbbe.
+     *
+     * @param grid a 81 elemű céltömb
+     */
+    public void sample(int[] grid) {
+        Arrays.fill(values, 0);
+        Arrays.fill(rowUsed, 0);
+        Arrays.fill(colUsed, 0);
+        Arrays.fill(boxUsed, 0);
+        nodes = 0;
+        fill();
+        System.arraycopy(values, 0, grid, 0, CELLS);
+    }
+
+    /**
+     * Visszaadja az utolsó mintavétel során elhelyezett értékek számát (visszalépés nélkül 81).
+     *
+     * @return az elhelyezett értékek száma
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Rekurzívan kitölti a még üres cellákat.
+     *
+     * @return Igaz, ha sikerült a táblát teljesen kitölteni.
+     */
+    private boolean fill() {
+        int cell = selectCell();
+        if (cell < 0) {
+            return true;
+        }
+        int candidates = ALL_CANDIDATES & ~(rowUsed[rowOf(cell)] | colUsed[colOf(cell)] | boxUsed[boxOf(cell)]);
+        while (candidates != 0) {
+            int bit = randomBit(candidates);
+            candidates ^= bit;
+            place(cell, bit);
+            nodes++;
+            if (fill()) {
+                return true;
+            }
+            unplace(cell, bit);
+        }
+        return false;
+    }
+
+    /**
+     * Kiválasztja a legkevesebb lehetséges értékkel rendelkező üres cellát,
+     * több ilyen cella közül egyenletes eséllyel választ.
+     *
+     * @return a cella indexe, -1 ha nincs több üres cella
+     */
+    private int selectCell() {
+        int best = -1;
+        int bestCount = SIZE + 1;
+        int ties = 0;
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (values[cell] != 0) {
+                continue;
+            }
+            int count = Integer.bitCount(ALL_CANDIDATES
+                    & ~(rowUsed[rowOf(cell)] | colUsed[colOf(cell)] | boxUsed[boxOf(cell)]));
+            if (count < bestCount) {
+                best = cell;
+                bestCount = count;
+                ties = 1;
+                if (count == 0) {
+                    break;
+                }
+            } else if (count == bestCount && random.nextInt(++ties) == 0) {
+                best = cell;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Egyenletes eséllyel kiválasztja a maszk egyik beállított bitjét.
+     *
+     * @param mask a nem üres maszk
+     * @return a kiválasztott bit
+     */
+    private int randomBit(int mask) {
+        int skip = random.nextInt(Integer.bitCount(mask));
+        for (int i = 0; i < skip; i++) {
+            mask &= mask - 1;
+        }
+        return mask & -mask;
+    }
+
+    /**
+     * Beírja az értéket a cellába, és frissíti a házak maszkjait.
+     *
+     * @param cell a cella indexe
+     * @param bit  a beírt érték bitje
+     */
+    private void place(int cell, int bit) {
+        values[cell] = Integer.numberOfTrailingZeros(bit) + 1;
+        rowUsed[rowOf(cell)] |= bit;
+        colUsed[colOf(cell)] |= bit;
+        boxUsed[boxOf(cell)] |= bit;
+    }
+
+    /**
+     * Törli a cella értékét, és frissíti a házak maszkjait.
+     *
+     * @param cell a cella indexe
+     * @param bit  a törölt érték bitje
+     */
+    private void unplace(int cell, int bit) {
+        values[cell] = 0;
+        rowUsed[rowOf(cell)] &= ~bit;
+        colUsed[colOf(cell)] &= ~bit;
+        boxUsed[boxOf(cell)] &= ~bit;
+    }
+}
@@ -0,0 +1,484 @@
+package hu.unideb.sudoku.model;
+
+import java.util.Arrays;
+
+/**
+ * Tetszőleges {@link BoardGeometry} méretű és szabályú táblák megoldója és megoldásszámlálója.
+ * Minden beírás után kényszerterjesztést végez (naked single a szomszédokon, hidden single a házakban,
+ * Killer táblán a ketrecek összegéből kizárt értékek törlése), és csak akkor ágazik el, ha a terjesztés elakadt,
+ * mindig a legkevesebb lehetséges értékű cellán. A változatok szabályait a geometria házai és szomszédai
+ * hordozzák, így az X és Jigsaw táblákhoz a megoldónak nem kell külön kód.
+ * A 16×16-os és 25×25-ös táblákon a terjesztés nélküli visszalépés használhatatlanul lassú lenne.
+ * Az állapotot szintenként előre lefoglalt tömbökben tárolja, a keresés közben nem foglal memóriát.
+ * Egy példány nem szálbiztos.
+ */
+public class GridSolver {
+    private static final int CANCEL_CHECK_INTERVAL = 1024;
+    private static final int[][] NO_SOLUTIONS = new int[0][];
+
+    private final BoardGeometry geometry;
+    private final int cells;
+    private final long[][] candidateStack;
+    private final int[][] valueStack;
+    private final int[] propagationQueue;
+    private int[][] solutionSinks = NO_SOLUTIONS;
+    private CancellationToken token;
+    private boolean cancelled;
+    private int found;
+    private long nodes;
+
+    /**
+     * Létrehoz egy megoldót a megadott geometriához.
+     *
+     * @param geometry a tábla geometriája
+     */
+    public GridSolver(BoardGeometry geometry) {
+        this.geometry = geometry;
+        this.cells = geometry.getCellCount();
+        this.candidateStack = new long[cells + 1][];
+        this.valueStack = new int[cells + 1][];
+        this.propagationQueue = new int[cells];
+    }
+
+    /**
+     * Visszaadja a megoldó geometriáját.
+     *
+     * @return a geometria
+     */
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * Megszámolja a tábla megoldásait legfeljebb a megadott korlátig,
+     * és az elsőként megtalált megoldást kimásolja.
+     *
+     * @param grid     sorfolytonos tömb, 0 jelöli az üres cellát
+     * @param limit    ennyi megoldás után leáll a keresés
+     * @param solution ide kerül az első megoldás, ha nem null és van megoldás
+     * @return a megtalált megoldások száma (legfeljebb limit)
+     */
+    public int countSolutions(int[] grid, int limit, int[] solution) {
+        return count(grid, -1, 0, limit, solution != null ? new int[][]{solution} : NO_SOLUTIONS, null);
+    }
+
+    /**
+     * Megszakítható megoldásszámlálás, amely az elsőként megtalált megoldásokat is kimásolja.
+     * Kettes korláttal és két tömbbel egy kereséssel eldönthető, hogy a tábla egyértelmű-e,
+     * és ha nem, a két megoldás különbsége megmutatja, melyik cella dönti el a kérdést.
+     * Megszakításkor az addig talált megoldások számát adja, ekkor a {@link #isLastCancelled()} igaz.
+     *
+     * @param grid      sorfolytonos tömb, 0 jelöli az üres cellát
+     * @param limit     ennyi megoldás után leáll a keresés
+     * @param solutions az i. megtalált megoldás az i. tömbbe kerül, amíg van tömb
+     * @param token     a keresés megszakítására szolgáló jelző
+     * @return a megtalált megoldások száma (legfeljebb limit)
+     */
+    public int countSolutions(int[] grid, int limit, int[][] solutions, CancellationToken token) {
+        return count(grid, -1, 0, limit, solutions, token);
+    }
+
+    /**
+     * Megszámolja a tábla megoldásait legfeljebb a megadott korlátig.
+     *
+     * @param grid  sorfolytonos tömb, 0 jelöli az üres cellát
+     * @param limit ennyi megoldás után leáll a keresés
+     * @return a megtalált megoldások száma (legfeljebb limit)
+     */
+    public int countSolutions(int[] grid, int limit) {
+        return countSolutions(grid, limit, null);
+    }
+
+    /**
+     * Megoldja a táblát, a megoldást a kapott tömbbe írja.
+     *
+     * @param grid sorfolytonos tömb, 0 jelöli az üres cellát
+     * @return Igaz, ha van megoldás, ekkor a tömb kitöltött állapotba kerül.
+     */
+    public boolean solve(int[] grid) {
+        return countSolutions(grid, 1, grid) == 1;
+    }
+
+    /**
+     * Ellenőrzi, hogy a táblának pontosan egy megoldása van-e.
+     *
+     * @param grid sorfolytonos tömb, 0 jelöli az üres cellát
+     * @return Igaz, ha a megoldás egyértelmű.
+     */
+    public boolean isUnique(int[] grid) {
+        return countSolutions(grid, 2) == 1;
+    }
+
+    /**
+     * Egyetlen kereséssel vizsgálja, hogy van-e a táblának olyan megoldása, amelyben a cella értéke
+     * eltér a kizárt értéktől (lásd {@link SolverEngine#hasSolutionExcluding(int[], int, int)}).
+     * Ha a jelző a keresés közben lejár, igazat ad, így a generátor a cellát biztosan nem törli.
+     *
+     * @param grid     sorfolytonos tömb, 0 jelöli az üres cellát, a hívás után változatlan marad
+     * @param cell     a vizsgált cella indexe
+     * @param excluded a cellában kizárt érték
+     * @param token    a keresés megszakítására szolgáló jelző
+     * @return Igaz, ha létezik a kizárt értéktől eltérő megoldás, vagy a keresés megszakadt.
+     */
+    public boolean hasSolutionExcluding(int[] grid, int cell, int excluded, CancellationToken token) {
+        int backup = grid[cell];
+        grid[cell] = 0;
+        try {
+            long excludedBit = geometry.isDigit(excluded) ? BoardGeometry.bit(excluded) : 0;
+            return count(grid, cell, excludedBit, 1, NO_SOLUTIONS, token) > 0 || cancelled;
+        } finally {
+            grid[cell] = backup;
+        }
+    }
+
+    /**
+     * Visszaadja, hogy az utolsó keresést megszakította-e a jelző.
+     *
+     * @return Igaz, ha a keresés a jelző miatt állt le, ekkor az eredménye nem teljes.
+     */
+    public boolean isLastCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Visszaadja az utolsó futás során meglátogatott ágak számát.
+     *
+     * @return a meglátogatott ágak száma
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Betölti a táblát, majd elindítja a keresést.
+     *
+     * @param grid         a kiinduló tábla
+     * @param excludedCell a cella, amelyből az excludedBit értéket előre kizárjuk, -1 ha nincs ilyen
+     * @param excludedBit  a kizárt érték bitje
+     * @param limit        ennyi megoldás után leáll a keresés
+     * @param solutions    ide kerülnek sorban a megtalált megoldások, amíg van tömb
+     * @param cancelToken  a keresés megszakítására szolgáló jelző, null ha nem szakítható meg
+     * @return a megtalált megoldások száma
+     */
+    private int count(int[] grid, int excludedCell, long excludedBit, int limit, int[][] solutions, CancellationToken cancelToken) {
+        token = cancelToken;
+        solutionSinks = solutions;
+        cancelled = false;
+        found = 0;
+        nodes = 0;
+        long[] candidates = level(candidateStack, 0);
+        int[] values = level(valueStack, 0);
+        Arrays.fill(candidates, geometry.getAllCandidates());
+        Arrays.fill(values, 0);
+        if (excludedCell >= 0) {
+            candidates[excludedCell] &= ~excludedBit;
+        }
+        for (int cell = 0; cell < cells; cell++) {
+            int value = grid[cell];
+            if (value != 0 && (!geometry.isDigit(value) || !assign(candidates, values, cell, BoardGeometry.bit(value)))) {
+                return 0;
+            }
+        }
+        int total = search(0, limit);
+        token = null;
+        solutionSinks = NO_SOLUTIONS;
+        return total;
+    }
+
+    /**
+     * Rekurzív keresés: kényszerterjesztés után a legkevesebb lehetséges értékű cellán ágazik el.
+     * Az ágak a következő szint előre lefoglalt tömbjeibe másolt állapoton dolgoznak.
+     *
+     * @param depth a szint indexe
+     * @param limit ennyi megoldás után leáll a keresés
+     * @return a megtalált megoldások száma
+     */
+    private int search(int depth, int limit) {
+        long[] candidates = candidateStack[depth];
+        int[] values = valueStack[depth];
+        if (!propagate(candidates, values)) {
+            return 0;
+        }
+        int bestCell = -1;
+        int bestCount = Long.SIZE + 1;
+        for (int cell = 0; cell < cells; cell++) {
+            if (values[cell] == 0) {
+                int count = Long.bitCount(candidates[cell]);
+                if (count < bestCount) {
+                    bestCount = count;
+                    bestCell = cell;
+                    if (count == 2) {
+                        break;
+                    }
+                }
+            }
+        }
+        if (bestCell < 0) {
+            if (found < solutionSinks.length) {
+                System.arraycopy(values, 0, solutionSinks[found], 0, cells);
+            }
+            found++;
+            return 1;
+        }
+
+        int solutions = 0;
+        long remaining = candidates[bestCell];
+        long[] nextCandidates = level(candidateStack, depth + 1);
+        int[] nextValues = level(valueStack, depth + 1);
+        while (remaining != 0 && solutions < limit) {
+            if (++nodes % CANCEL_CHECK_INTERVAL == 0 && token != null && token.isCancelled()) {
+                cancelled = true;
+            }
+            if (cancelled) {
+                break;
+            }
+            long bit = remaining & -remaining;
+            remaining ^= bit;
+            System.arraycopy(candidates, 0, nextCandidates, 0, cells);
+            System.arraycopy(values, 0, nextValues, 0, cells);
+            if (assign(nextCandidates, nextValues, bestCell, bit)) {
+                solutions += search(depth + 1, limit - solutions);
+            }
+        }
+        return solutions;
+    }
+
+    /**
+     * Beírja az értéket a cellába, majd a szomszédokból kizárja; ha egy szomszédnak egyetlen lehetséges
+     * értéke marad, azt is beírja (naked single terjesztés).
+     *
+     * @param candidates a lehetséges értékek maszkjai
+     * @param values     a cellák értékei
+     * @param cell       a cella indexe
+     * @param bit        a beírandó érték bitje
+     * @return Hamis, ha ellentmondásra jutottunk.
+     */
+    private boolean assign(long[] candidates, int[] values, int cell, long bit) {
+        int head = 0;
+        int tail = 0;
+        if ((candidates[cell] & bit) == 0) {
+            return false;
+        }
+        candidates[cell] = bit;
+        propagationQueue[tail++] = cell;
+        while (head < tail) {
+            int placed = propagationQueue[head++];
+            long placedBit = candidates[placed];
+            if (values[placed] != 0) {
+                continue;
+            }
+            values[placed] = BoardGeometry.lowestValue(placedBit);
+            for (int peer : geometry.peersOf(placed)) {
+                long peerCandidates = candidates[peer];
+                if ((peerCandidates & placedBit) != 0) {
+                    if (values[peer] != 0) {
+                        return false;
+                    }
+                    peerCandidates &= ~placedBit;
+                    candidates[peer] = peerCandidates;
+                    if (peerCandidates == 0) {
+                        return false;
+                    }
+                    if ((peerCandidates & (peerCandidates - 1)) == 0) {
+                        propagationQueue[tail++] = peer;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A beírásokon túli terjesztés: hidden single a házakban, ketrecek esetén az összegek vizsgálatával
+     * felváltva, amíg valamelyik változtat.
+     *
+     * @param candidates a lehetséges értékek maszkjai
+     * @param values     a cellák értékei
+     * @return Hamis, ha ellentmondásra jutottunk.
+     */
+    private boolean propagate(long[] candidates, int[] values) {
+        if (!propagateHiddenSingles(candidates, values)) {
+            return false;
+        }
+        if (geometry.getCages().isEmpty()) {
+            return true;
+        }
+        int pruned;
+        while ((pruned = pruneCages(candidates, values)) > 0) {
+            if (!propagateHiddenSingles(candidates, values)) {
+                return false;
+            }
+        }
+        return pruned == 0;
+    }
+
+    /**
+     * Ketrec terjesztés: a ketrec üres celláiból törli azokat az értékeket, amelyek mellett a ketrec többi üres
+     * cellája a hátralévő összeget különböző lehetséges értékekkel nem érheti el. Egyetlen megmaradt értéket beír.
+     *
+     * @param candidates a lehetséges értékek maszkjai
+     * @param values     a cellák értékei
+     * @return -1 ellentmondás esetén, 1 ha változtatott, különben 0
+     */
+    private int pruneCages(long[] candidates, int[] values) {
+        int result = 0;
+        for (Cage cage : geometry.getCages()) {
+            int remaining = cage.getSum();
+            int open = 0;
+            long openCandidates = 0;
+            for (int i = 0; i < cage.size(); i++) {
+                int cell = cage.cellAt(i);
+                if (values[cell] != 0) {
+                    remaining -= values[cell];
+                } else {
+                    open++;
+                    openCandidates |= candidates[cell];
+                }
+            }
+            if (open == 0) {
+                if (remaining != 0) {
+                    return -1;
+                }
+                continue;
+            }
+            for (int i = 0; i < cage.size(); i++) {
+                int cell = cage.cellAt(i);
+                if (values[cell] != 0) {
+                    continue;
+                }
+                long keep = 0;
+                for (long rest = candidates[cell]; rest != 0; rest &= rest - 1) {
+                    long bit = rest & -rest;
+                    int others = remaining - BoardGeometry.lowestValue(bit);
+                    long otherCandidates = openCandidates & ~bit;
+                    if (others >= smallestSum(otherCandidates, open - 1) && others <= largestSum(otherCandidates, open - 1)) {
+                        keep |= bit;
+                    }
+                }
+                if (keep == 0) {
+                    return -1;
+                }
+                if (keep != candidates[cell]) {
+                    result = 1;
+                    if ((keep & (keep - 1)) == 0) {
+                        if (!assign(candidates, values, cell, keep)) {
+                            return -1;
+                        }
+                    } else {
+                        candidates[cell] = keep;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Visszaadja a maszk k legkisebb értékének összegét.
+     *
+     * @param mask az értékek maszkja
+     * @param k    az értékek száma
+     * @return az összeg, {@link Integer#MAX_VALUE} ha a maszkban nincs k érték
+     */
+    private static int smallestSum(long mask, int k) {
+        int sum = 0;
+        for (int i = 0; i < k; i++) {
+            if (mask == 0) {
+                return Integer.MAX_VALUE;
+            }
+            long bit = mask & -mask;
+            sum += BoardGeometry.lowestValue(bit);
+            mask ^= bit;
+        }
+        return sum;
+    }
+
+    /**
+     * Visszaadja a maszk k legnagyobb értékének összegét.
+     *
+     * @param mask az értékek maszkja
+     * @param k    az értékek száma
+     * @return az összeg, {@link Integer#MIN_VALUE} ha a maszkban nincs k érték
+     */
+    private static int largestSum(long mask, int k) {
+        int sum = 0;
+        for (int i = 0; i < k; i++) {
+            if (mask == 0) {
+                return Integer.MIN_VALUE;
+            }
+            long bit = Long.highestOneBit(mask);
+            sum += BoardGeometry.lowestValue(bit);
+            mask ^= bit;
+        }
+        return sum;
+    }
+
+    /**
+     * Hidden single terjesztés: ha egy érték egy házban csak egy cellában lehetséges, beírja.
+     * Addig ismétli, amíg talál ilyet.
+     *
+     * @param candidates a lehetséges értékek maszkjai
+     * @param values     a cellák értékei
+     * @return Hamis, ha ellentmondásra jutottunk (egy érték a házban sehol sem lehetséges).
+     */
+    private boolean propagateHiddenSingles(long[] candidates, int[] values) {
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int house = 0; house < geometry.getHouseCount(); house++) {
+                int[] houseCells = geometry.houseCells(house);
+                long once = 0;
+                long twice = 0;
+                for (int cell : houseCells) {
+                    twice |= once & candidates[cell];
+                    once |= candidates[cell];
+                }
+                if (once != geometry.getAllCandidates()) {
+                    return false;
+                }
+                long single = once & ~twice;
+                if (single == 0) {
+                    continue;
+                }
+                for (int cell : houseCells) {
+                    long hidden = candidates[cell] & single;
+                    if (hidden != 0 && values[cell] == 0) {
+                        if ((hidden & (hidden - 1)) != 0 || !assign(candidates, values, cell, hidden)) {
+                            return false;
+                        }
+                        changed = true;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Visszaadja a verem adott szintjének tömbjét, szükség esetén lefoglalja.
+     *
+     * @param stack a verem
+     * @param depth a szint
+     * @return a szint tömbje
+     */
+    private long[] level(long[][] stack, int depth) {
+        if (stack[depth] == null) {
+            stack[depth] = new long[cells];
+        }
+        return stack[depth];
+    }
+
+    /**
+     * Visszaadja a verem adott szintjének tömbjét, szükség esetén lefoglalja.
+     *
+     * @param stack a verem
+     * @param depth a szint
+     * @return a szint tömbje
+     */
+    private int[] level(int[][] stack, int depth) {
+        if (stack[depth] == null) {
+            stack[depth] = new int[cells];
+        }
+        return stack[depth];
+    }
+}
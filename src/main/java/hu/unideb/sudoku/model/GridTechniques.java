@@ -0,0 +1,136 @@
+package hu.unideb.sudoku.model;
+
+/**
+ * A {@link SolvingTechniques} segítő algoritmusai (full house, naked single, hidden single, naked pair, hidden pair)
+ * tetszőleges méretű {@link GridBoard} táblákra, 64 bites maszkokkal.
+ * A házakat és a szomszédokat a tábla {@link BoardGeometry} táblázatai adják.
+ */
+public final class GridTechniques {
+
+    /**
+     * A talált párokat feldolgozó művelet.
+     */
+    @FunctionalInterface
+    public interface PairConsumer {
+        /**
+         * Feldolgoz egy talált párt.
+         *
+         * @param first      a pár első cellája
+         * @param second     a pár második cellája
+         * @param pairValues a pár két értékének maszkja
+         */
+        void accept(int first, int second, long pairValues);
+    }
+
+    /**
+     * Privát konstruktor.
+     */
+    private GridTechniques() {
+    }
+
+    /**
+     * Full house: ha a házban pontosan egy üres cella maradt, visszaadja azt.
+     *
+     * @param board a tábla
+     * @param house a ház cellái
+     * @return az egyetlen üres cella indexe, -1 ha nincs vagy több van
+     */
+    public static int fullHouseCell(GridBoard board, int[] house) {
+        int emptyCellCount = 0;
+        int fullHouseCell = -1;
+        for (int cell : house) {
+            if (board.getValue(cell) == 0) {
+                emptyCellCount++;
+                fullHouseCell = cell;
+            }
+        }
+        return emptyCellCount == 1 ? fullHouseCell : -1;
+    }
+
+    /**
+     * Naked single: visszaadja a cella egyetlen lehetséges értékét.
+     *
+     * @param board a tábla
+     * @param cell  a cella indexe
+     * @return az egyetlen lehetséges érték, 0 ha a cella kitöltött vagy nem egy lehetséges értéke van
+     */
+    public static int nakedSingleValue(GridBoard board, int cell) {
+        long possibleValues = board.getCandidates(cell);
+        if (board.getValue(cell) == 0 && Long.bitCount(possibleValues) == 1) {
+            return BoardGeometry.lowestValue(possibleValues);
+        }
+        return 0;
+    }
+
+    /**
+     * Hidden single: azokat a lehetséges értékeket adja vissza, amelyek a cella szomszédai közül
+     * egyikben sem lehetségesek.
+     *
+     * @param board a tábla
+     * @param cell  a cella indexe
+     * @return a rejtett egyesek maszkja, 0 ha nincs ilyen vagy a cella kitöltött
+     */
+    public static long hiddenSingleMask(GridBoard board, int cell) {
+        if (board.getValue(cell) != 0) {
+            return 0;
+        }
+        long peerCandidates = 0;
+        for (int peer : board.getGeometry().peersOf(cell)) {
+            peerCandidates |= board.getCandidates(peer);
+        }
+        return board.getCandidates(cell) & ~peerCandidates;
+    }
+
+    /**
+     * Naked pair: megkeresi a házban azokat a cellapárokat, amelyeknek pontosan ugyanaz a két lehetséges értéke van.
+     *
+     * @param board    a tábla
+     * @param house    a ház cellái
+     * @param consumer a talált párokat feldolgozó művelet
+     */
+    public static void findNakedPairs(GridBoard board, int[] house, PairConsumer consumer) {
+        for (int i = 0; i < house.length; i++) {
+            long pairValues = board.getCandidates(house[i]);
+            if (Long.bitCount(pairValues) == 2) {
+                for (int j = i + 1; j < house.length; j++) {
+                    if (board.getCandidates(house[j]) == pairValues) {
+                        consumer.accept(house[i], house[j], pairValues);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Hidden pair: megkeresi a házban azokat az értékpárokat, amelyek csak ugyanabban a két cellában lehetségesek.
+     * Minden értékhez kiszámolja, hogy a ház mely celláiban lehetséges (pozíció maszk).
+     * Minden párt mindkét értéksorrendben jelez.
+     *
+     * @param board    a tábla
+     * @param house    a ház cellái
+     * @param consumer a talált párokat feldolgozó művelet
+     */
+    public static void findHiddenPairs(GridBoard board, int[] house, PairConsumer consumer) {
+        int size = board.getGeometry().getSize();
+        long[] valueOccurrences = new long[size + 1];
+        for (int i = 0; i < house.length; i++) {
+            long possibleValues = board.getCandidates(house[i]);
+            while (possibleValues != 0) {
+                valueOccurrences[BoardGeometry.lowestValue(possibleValues)] |= 1L << i;
+                possibleValues &= possibleValues - 1;
+            }
+        }
+
+        for (int value = 1; value <= size; value++) {
+            if (Long.bitCount(valueOccurrences[value]) == 2) {
+                for (int otherValue = 1; otherValue <= size; otherValue++) {
+                    if (otherValue != value && valueOccurrences[otherValue] == valueOccurrences[value]) {
+                        int first = house[Long.numberOfTrailingZeros(valueOccurrences[value])];
+                        int second = house[63 - Long.numberOfLeadingZeros(valueOccurrences[value])];
+                        consumer.accept(first, second, BoardGeometry.bit(value) | BoardGeometry.bit(otherValue));
+                    }
+                }
+            }
+        }
+    }
+}
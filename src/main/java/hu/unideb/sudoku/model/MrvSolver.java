@@ -0,0 +1,246 @@
+package hu.unideb.sudoku.model;
+
+import static hu.unideb.sudoku.model.BitBoard.*;
+
+/**
+ * Nem rekurzív, visszalépéses megoldó, amely mindig a legkevesebb lehetséges értékkel
+ * rendelkező üres cellán ágazik el (minimum remaining values).
+ * A keresés saját, előre lefoglalt veremmel dolgozik, futás közben nem foglal memóriát.
+ * Minden futás után lekérdezhető a meglátogatott csúcsok és a visszalépések száma.
+ * Egy példány nem szálbiztos.
+ */
+public class MrvSolver implements SolverEngine {
+    /**
+     * A motor neve.
+     */
+    public static final String NAME = "mrv";
+
+    private final int[] values = new int[CELLS];
+    private final int[] rowUsed = new int[SIZE];
+    private final int[] colUsed = new int[SIZE];
+    private final int[] boxUsed = new int[SIZE];
+    private final int[] emptyCells = new int[CELLS];
+    private final int[] remaining = new int[CELLS];
+    private final int[] placedBit = new int[CELLS];
+    private final int[] firstSolution = new int[CELLS];
+    private int emptyCount;
+    private int excludedCell = -1;
+    private int excludedBit;
+    private long nodes;
+    private long backtracks;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    /**
+     * Megszámolja a tábla megoldásait legfeljebb a megadott korlátig,
+     * és az elsőként megtalált megoldást kimásolja.
+     *
+     * @param grid     81 elemű tömb, 0 jelöli az üres cellát
+     * @param maxCount ennyi megoldás után leáll a keresés
+     * @param solution ide kerül az első megoldás, ha nem null és van megoldás
+     * @return a megtalált megoldások száma (legfeljebb maxCount)
+     */
+    @Override
+    public int countSolutions(int[] grid, int maxCount, int[] solution) {
+        nodes = 0;
+        backtracks = 0;
+        if (!load(grid)) {
+            return 0;
+        }
+        int solutions = search(maxCount);
+        if (solution != null && solutions > 0) {
+            System.arraycopy(firstSolution, 0, solution, 0, CELLS);
+        }
+        return solutions;
+    }
+
+    /**
+     * Egyetlen kereséssel vizsgálja, hogy van-e a kizárt értéktől eltérő megoldás:
+     * a kiválasztásnál a cella lehetséges értékei közül eleve elhagyja a kizárt értéket.
+     *
+     * @param grid     81 elemű tömb, 0 jelöli az üres cellát
+     * @param cell     a vizsgált cella indexe
+     * @param excluded a cellában kizárt érték
+     * @return Igaz, ha létezik a kizárt értéktől eltérő megoldás.
+     */
+    @Override
+    public boolean hasSolutionExcluding(int[] grid, int cell, int excluded) {
+        int backup = grid[cell];
+        grid[cell] = 0;
+        excludedCell = cell;
+        excludedBit = excluded >= 1 && excluded <= SIZE ? bit(excluded) : 0;
+        try {
+            return countSolutions(grid, 1) > 0;
+        } finally {
+            grid[cell] = backup;
+            excludedCell = -1;
+            excludedBit = 0;
+        }
+    }
+
+    /**
+     * Visszaadja az utolsó futás során elhelyezett értékek (meglátogatott csúcsok) számát.
+     *
+     * @return a meglátogatott csúcsok száma
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Visszaadja az utolsó futás során történt visszalépések számát.
+     *
+     * @return a visszalépések száma
+     */
+    public long getBacktracks() {
+        return backtracks;
+    }
+
+    /**
+     * Betölti a táblát a belső tömbökbe, és összegyűjti az üres cellákat.
+     *
+     * @param grid a kiinduló tábla
+     * @return Hamis, ha a megadott értékek ütköznek vagy érvénytelenek.
+     */
+    private boolean load(int[] grid) {
+        for (int i = 0; i < SIZE; i++) {
+            rowUsed[i] = 0;
+            colUsed[i] = 0;
+            boxUsed[i] = 0;
+        }
+        emptyCount = 0;
+        for (int cell = 0; cell < CELLS; cell++) {
+            int value = grid[cell];
+            values[cell] = value;
+            if (value == 0) {
+                emptyCells[emptyCount++] = cell;
+            } else {
+                if (value < 0 || value > SIZE) {
+                    return false;
+                }
+                int bit = bit(value);
+                if (((rowUsed[rowOf(cell)] | colUsed[colOf(cell)] | boxUsed[boxOf(cell)]) & bit) != 0) {
+                    return false;
+                }
+                place(cell, bit);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Az iteratív keresés. A verem i. szintjén az emptyCells[i] cella áll,
+     * a remaining[i] a még ki nem próbált értékeket, a placedBit[i] a jelenleg beírt értéket tárolja.
+     *
+     * @param maxCount ennyi megoldás után leáll a keresés
+     * @return a megtalált megoldások száma
+     */
+    private int search(int maxCount) {
+        int solutions = 0;
+        int depth = 0;
+        boolean descend = true;
+        while (true) {
+            if (descend) {
+                if (depth == emptyCount) {
+                    if (solutions == 0) {
+                        System.arraycopy(values, 0, firstSolution, 0, CELLS);
+                    }
+                    solutions++;
+                    if (solutions >= maxCount) {
+                        return solutions;
+                    }
+                    descend = false;
+                    continue;
+                }
+                int candidates = selectCell(depth);
+                if (candidates == 0) {
+                    descend = false;
+                    continue;
+                }
+                remaining[depth] = candidates;
+            } else {
+                depth--;
+                if (depth < 0) {
+                    return solutions;
+                }
+                unplace(emptyCells[depth], placedBit[depth]);
+                backtracks++;
+            }
+
+            int candidates = remaining[depth];
+            if (candidates == 0) {
+                descend = false;
+                continue;
+            }
+            int bit = candidates & -candidates;
+            remaining[depth] = candidates ^ bit;
+            placedBit[depth] = bit;
+            place(emptyCells[depth], bit);
+            nodes++;
+            depth++;
+            descend = true;
+        }
+    }
+
+    /**
+     * Kiválasztja a még üres cellák közül a legkevesebb lehetséges értékkel rendelkezőt,
+     * és a verem adott szintjére cseréli.
+     *
+     * @param depth a verem aktuális szintje
+     * @return a kiválasztott cella lehetséges értékeinek maszkja, 0 ha zsákutcába jutottunk
+     */
+    private int selectCell(int depth) {
+        int bestIndex = depth;
+        int bestCandidates = 0;
+        int bestCount = SIZE + 1;
+        for (int i = depth; i < emptyCount; i++) {
+            int cell = emptyCells[i];
+            int candidates = ALL_CANDIDATES & ~(rowUsed[rowOf(cell)] | colUsed[colOf(cell)] | boxUsed[boxOf(cell)]);
+            if (cell == excludedCell) {
+                candidates &= ~excludedBit;
+            }
+            int count = Integer.bitCount(candidates);
+            if (count < bestCount) {
+                bestIndex = i;
+                bestCandidates = candidates;
+                bestCount = count;
+                if (count <= 1) {
+                    break;
+                }
+            }
+        }
+        int cell = emptyCells[bestIndex];
+        emptyCells[bestIndex] = emptyCells[depth];
+        emptyCells[depth] = cell;
+        return bestCandidates;
+    }
+
+    /**
+     * Beírja az értéket a cellába, és frissíti a házak maszkjait.
+     *
+     * @param cell a cella indexe
+     * @param bit  a beírt érték bitje
+     */
+    private void place(int cell, int bit) {
+        values[cell] = Integer.numberOfTrailingZeros(bit) + 1;
+        rowUsed[rowOf(cell)] |= bit;
+        colUsed[colOf(cell)] |= bit;
+        boxUsed[boxOf(cell)] |= bit;
+    }
+
+    /**
+     * Törli a cella értékét, és frissíti a házak maszkjait.
+     *
+     * @param cell a cella indexe
+     * @param bit  a törölt érték bitje
+     */
+    private void unplace(int cell, int bit) {
+        values[cell] = 0;
+        rowUsed[rowOf(cell)] &= ~bit;
+        colUsed[colOf(cell)] &= ~bit;
+        boxUsed[boxOf(cell)] &= ~bit;
+    }
+}
@@ -0,0 +1,54 @@
+package hu.unideb.sudoku.model;
+
+import java.nio.ByteBuffer;
+
+import static hu.unideb.sudoku.model.BitBoard.CELLS;
+
+/**
+ * Táblák tömörítése cellánként 4 bitre a bináris feladványfájlokhoz ({@link PuzzleStore}, {@link SharedPuzzlePool},
+ * {@link BatchGenerator}): a páros cella a bájt felső, a páratlan az alsó félbájtjába kerül, 0 az üres cella.
+ * A műveletek a puffer abszolút pozícióit használják, a puffer pozícióját nem mozdítják.
+ */
+final class PackedGrid {
+    /**
+     * Egy tömörített tábla mérete bájtban.
+     */
+    static final int BYTES = (CELLS + 1) / 2;
+
+    /**
+     * Nem példányosítható.
+     */
+    private PackedGrid() {
+    }
+
+    /**
+     * Tömörítve a pufferbe írja a táblát.
+     *
+     * @param grid   a 81 elemű tábla
+     * @param buffer a cél puffer
+     * @param start  a tábla kezdete a pufferben
+     */
+    static void pack(int[] grid, ByteBuffer buffer, int start) {
+        for (int cell = 0; cell < CELLS; cell += 2) {
+            int low = cell + 1 < CELLS ? grid[cell + 1] : 0;
+            buffer.put(start + (cell >> 1), (byte) (grid[cell] << 4 | low));
+        }
+    }
+
+    /**
+     * Kibont egy tömörített táblát a pufferből a megadott tömbbe.
+     *
+     * @param buffer a forrás puffer
+     * @param start  a tábla kezdete a pufferben
+     * @param target a legalább 81 elemű céltömb
+     */
+    static void unpack(ByteBuffer buffer, int start, int[] target) {
+        for (int cell = 0; cell < CELLS; cell += 2) {
+            int packed = buffer.get(start + (cell >> 1)) & 0xFF;
+            target[cell] = packed >> 4;
+            if (cell + 1 < CELLS) {
+                target[cell + 1] = packed & 0xF;
+            }
+        }
+    }
+}
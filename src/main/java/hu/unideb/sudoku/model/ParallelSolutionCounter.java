@@ -0,0 +1,320 @@
+package hu.unideb.sudoku.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static hu.unideb.sudoku.model.BitBoard.*;
+
+/**
+ * Több szálon számolja meg egy tábla megoldásait a {@link ForkJoinPool} segítségével.
+ * A keresési fát az első néhány elágazó cellánál (a legkevesebb lehetséges értékkel rendelkező celláknál)
+ * {@link RecursiveTask} feladatokra bontja, a feladatok egy közös számlálón osztoznak,
+ * és mindegyik leáll, amint a megtalált megoldások száma eléri a korlátot.
+ * A generátor törlési lépéséhez a {@link #hasSolutionExcluding(int[], int, int)} ugyanígy, több szálon keres.
+ * A példány szálbiztos, a keresés állapota hívásonként külön jön létre.
+ */
+public class ParallelSolutionCounter {
+    /**
+     * Az alapértelmezett mélység, ameddig a keresési fát külön feladatokra bontjuk.
+     */
+    public static final int DEFAULT_SPLIT_DEPTH = 3;
+    /**
+     * Ennyi üres cellától térül meg a keresés felosztása, a sűrűbb táblákon egy szál gyorsabb.
+     */
+    public static final int MIN_EMPTY_CELLS = 50;
+
+    private final ForkJoinPool pool;
+    private final int splitDepth;
+
+    /**
+     * Létrehoz egy számlálót a közös {@link ForkJoinPool} és az alapértelmezett bontási mélység használatával.
+     */
+    public ParallelSolutionCounter() {
+        this(ForkJoinPool.commonPool(), DEFAULT_SPLIT_DEPTH);
+    }
+
+    /**
+     * Létrehoz egy számlálót a megadott szálkészlettel és bontási mélységgel.
+     *
+     * @param pool       a feladatokat futtató szálkészlet
+     * @param splitDepth ennyi elágazó szintig bontja külön feladatokra a keresést
+     */
+    public ParallelSolutionCounter(ForkJoinPool pool, int splitDepth) {
+        this.pool = pool;
+        this.splitDepth = splitDepth;
+    }
+
+    /**
+     * Megszámolja a tábla megoldásait legfeljebb a megadott korlátig.
+     *
+     * @param grid  81 elemű tömb, 0 jelöli az üres cellát
+     * @param limit ennyi megoldás után az összes feladat leáll
+     * @return a megtalált megoldások száma (legfeljebb limit)
+     */
+    public int countSolutions(int[] grid, int limit) {
+        SearchState state = SearchState.load(grid);
+        if (state == null) {
+            return 0;
+        }
+        AtomicInteger found = new AtomicInteger();
+        pool.invoke(new CountTask(state, 0, found, limit));
+        return Math.min(found.get(), limit);
+    }
+
+    /**
+     * Megvizsgálja, hogy van-e a táblának olyan megoldása, amelyben a cella értéke eltér a kizárt értéktől.
+     * A cella többi lehetséges értéke egy-egy külön feladatot kap, és mindegyik leáll az első megtalált megoldásnál.
+     *
+     * @param grid     81 elemű tömb, 0 jelöli az üres cellát (a vizsgált cella is üres)
+     * @param cell     a vizsgált cella indexe
+     * @param excluded a kizárt érték
+     * @return Igaz, ha van a kizárt értéktől eltérő megoldás.
+     */
+    public boolean hasSolutionExcluding(int[] grid, int cell, int excluded) {
+        SearchState state = SearchState.load(grid);
+        if (state == null) {
+            return false;
+        }
+        AtomicInteger found = new AtomicInteger();
+        List<CountTask> tasks = new ArrayList<>();
+        int alternatives = state.candidates(cell) & ~bit(excluded);
+        while (alternatives != 0) {
+            int bit = alternatives & -alternatives;
+            alternatives ^= bit;
+            SearchState child = state.copy();
+            child.place(cell, bit);
+            tasks.add(new CountTask(child, 1, found, 1));
+        }
+        if (!tasks.isEmpty()) {
+            pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+        }
+        return found.get() > 0;
+    }
+
+    /**
+     * A keresés egy részfáját feldolgozó feladat.
+     * A bontási mélységig a lehetséges értékenként új feladatot indít, alatta rekurzívan, egy szálon keres.
+     */
+    private final class CountTask extends RecursiveTask<Integer> {
+        private static final long serialVersionUID = 1L;
+        private final transient SearchState state;
+        private final int depth;
+        private final transient AtomicInteger found;
+        private final int limit;
+
+        /**
+         * Létrehoz egy feladatot a megadott állapotból.
+         *
+         * @param state a feladat saját keresési állapota
+         * @param depth az elágazó szintek száma a gyökértől
+         * @param found a feladatok közös megoldás számlálója
+         * @param limit ennyi megoldás után minden feladat leáll
+         */
+        CountTask(SearchState state, int depth, AtomicInteger found, int limit) {
+            this.state = state;
+            this.depth = depth;
+            this.found = found;
+            this.limit = limit;
+        }
+
+        /**
+         * Feldolgozza a részfát, és visszaadja az itt talált megoldások számát.
+         *
+         * @return a részfában talált megoldások száma
+         */
+        @Override
+        protected Integer compute() {
+            if (depth >= splitDepth) {
+                return search();
+            }
+            int cell;
+            int candidates;
+            while (true) {
+                if (found.get() >= limit) {
+                    return 0;
+                }
+                cell = state.selectCell();
+                if (cell < 0) {
+                    found.incrementAndGet();
+                    return 1;
+                }
+                candidates = state.candidates(cell);
+                if (Integer.bitCount(candidates) != 1) {
+                    break;
+                }
+                state.place(cell, candidates);
+            }
+
+            List<CountTask> tasks = new ArrayList<>();
+            while (candidates != 0) {
+                int bit = candidates & -candidates;
+                candidates ^= bit;
+                SearchState child = state.copy();
+                child.place(cell, bit);
+                tasks.add(new CountTask(child, depth + 1, found, limit));
+            }
+            int solutions = 0;
+            for (CountTask task : invokeAll(tasks)) {
+                solutions += task.join();
+            }
+            return solutions;
+        }
+
+        /**
+         * Egy szálon, rekurzívan keres tovább; minden csúcsban ellenőrzi a közös számlálót.
+         *
+         * @return a részfában talált megoldások száma
+         */
+        private int search() {
+            if (found.get() >= limit) {
+                return 0;
+            }
+            int cell = state.selectCell();
+            if (cell < 0) {
+                found.incrementAndGet();
+                return 1;
+            }
+            int candidates = state.candidates(cell);
+            int solutions = 0;
+            while (candidates != 0 && found.get() < limit) {
+                int bit = candidates & -candidates;
+                candidates ^= bit;
+                state.place(cell, bit);
+                solutions += search();
+                state.unplace(cell, bit);
+            }
+            return solutions;
+        }
+    }
+
+    /**
+     * Egy feladat saját keresési állapota: a cellák értékei és a házak felhasznált értékeinek maszkjai.
+     */
+    private static final class SearchState {
+        private final int[] values;
+        private final int[] rowUsed;
+        private final int[] colUsed;
+        private final int[] boxUsed;
+
+        /**
+         * Létrehoz egy állapotot a megadott tömbökből.
+         *
+         * @param values  a cellák értékei
+         * @param rowUsed a sorok felhasznált értékei
+         * @param colUsed az oszlopok felhasznált értékei
+         * @param boxUsed a blokkok felhasznált értékei
+         */
+        private SearchState(int[] values, int[] rowUsed, int[] colUsed, int[] boxUsed) {
+            this.values = values;
+            this.rowUsed = rowUsed;
+            this.colUsed = colUsed;
+            this.boxUsed = boxUsed;
+        }
+
+        /**
+         * Betölti a táblát egy új állapotba.
+         *
+         * @param grid a kiinduló tábla
+         * @return az új állapot, null ha a megadott értékek ütköznek vagy érvénytelenek
+         */
+        static SearchState load(int[] grid) {
+            SearchState state = new SearchState(new int[CELLS], new int[SIZE], new int[SIZE], new int[SIZE]);
+            for (int cell = 0; cell < CELLS; cell++) {
+                int value = grid[cell];
+                if (value < 0 || value > SIZE) {
+                    return null;
+                }
+                if (value != 0) {
+                    int bit = bit(value);
+                    if ((state.used(cell) & bit) != 0) {
+                        return null;
+                    }
+                    state.place(cell, bit);
+                }
+            }
+            return state;
+        }
+
+        /**
+         * Lemásolja az állapotot egy új feladat számára.
+         *
+         * @return az állapot másolata
+         */
+        SearchState copy() {
+            return new SearchState(values.clone(), rowUsed.clone(), colUsed.clone(), boxUsed.clone());
+        }
+
+        /**
+         * Kiválasztja a legkevesebb lehetséges értékkel rendelkező üres cellát.
+         *
+         * @return a cella indexe, -1 ha nincs több üres cella
+         */
+        int selectCell() {
+            int best = -1;
+            int bestCount = SIZE + 1;
+            for (int cell = 0; cell < CELLS; cell++) {
+                if (values[cell] == 0) {
+                    int count = Integer.bitCount(candidates(cell));
+                    if (count < bestCount) {
+                        best = cell;
+                        bestCount = count;
+                        if (count <= 1) {
+                            break;
+                        }
+                    }
+                }
+            }
+            return best;
+        }
+
+        /**
+         * Visszaadja a cella lehetséges értékeinek maszkját.
+         *
+         * @param cell a cella indexe
+         * @return a lehetséges értékek maszkja
+         */
+        int candidates(int cell) {
+            return ALL_CANDIDATES & ~used(cell);
+        }
+
+        /**
+         * Visszaadja a cella sorában, oszlopában és blokkjában felhasznált értékek maszkját.
+         *
+         * @param cell a cella indexe
+         * @return a felhasznált értékek maszkja
+         */
+        int used(int cell) {
+            return rowUsed[rowOf(cell)] | colUsed[colOf(cell)] | boxUsed[boxOf(cell)];
+        }
+
+        /**
+         * Beírja az értéket a cellába, és frissíti a házak maszkjait.
+         *
+         * @param cell a cella indexe
+         * @param bit  a beírt érték bitje
+         */
+        void place(int cell, int bit) {
+            values[cell] = Integer.numberOfTrailingZeros(bit) + 1;
+            rowUsed[rowOf(cell)] |= bit;
+            colUsed[colOf(cell)] |= bit;
+            boxUsed[boxOf(cell)] |= bit;
+        }
+
+        /**
+         * Törli a cella értékét, és frissíti a házak maszkjait.
+         *
+         * @param cell a cella indexe
+         * @param bit  a törölt érték bitje
+         */
+        void unplace(int cell, int bit) {
+            values[cell] = 0;
+            rowUsed[rowOf(cell)] &= ~bit;
+            colUsed[colOf(cell)] &= ~bit;
+            boxUsed[boxOf(cell)] &= ~bit;
+        }
+    }
+}
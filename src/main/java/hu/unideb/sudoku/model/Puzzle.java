@@ -0,0 +1,131 @@
+package hu.unideb.sudoku.model;
+
+/**
+ * Egy feladvány és a hozzá tartozó egyértelmű megoldás.
+ * A táblákat 81 elemű, sorfolytonos tömbként tárolja, ahol 0 jelöli az üres cellát.
+ * Az osztály nem módosítható, a tömböket másolatként adja ki és veszi át.
+ */
+public final class Puzzle {
+    private final int[] givens;
+    private final int[] solution;
+    private final GameDifficulty difficulty;
+
+    /**
+     * Létrehoz egy feladványt.
+     *
+     * @param givens     a feladvány megadott értékei
+     * @param solution   a feladvány megoldása
+     * @param difficulty a feladvány nehézségi szintje
+     */
+    public Puzzle(int[] givens, int[] solution, GameDifficulty difficulty) {
+        if (givens.length != BitBoard.CELLS || solution.length != BitBoard.CELLS) {
+            throw new IllegalArgumentException("A táblának " + BitBoard.CELLS + " cellából kell állnia!");
+        }
+        this.givens = givens.clone();
+        this.solution = solution.clone();
+        this.difficulty = difficulty;
+    }
+
+    /**
+     * Létrehoz egy feladványt a 81 karakteres szöveges alakokból (0 vagy . az üres cella).
+     *
+     * @param givens     a feladvány szöveges alakja
+     * @param solution   a megoldás szöveges alakja
+     * @param difficulty a feladvány nehézségi szintje
+     * @return az új feladvány
+     */
+    public static Puzzle parse(String givens, String solution, GameDifficulty difficulty) {
+        return new Puzzle(parseGrid(givens), parseGrid(solution), difficulty);
+    }
+
+    /**
+     * 81 karakteres szövegből (0 vagy . az üres cella) táblát készít.
+     *
+     * @param text a tábla szöveges alakja
+     * @return a 81 elemű tábla
+     * @throws IllegalArgumentException ha a szöveg hossza vagy valamely karaktere érvénytelen
+     */
+    public static int[] parseGrid(String text) {
+        if (text.length() != BitBoard.CELLS) {
+            throw new IllegalArgumentException("Érvénytelen tábla hossz: " + text.length());
+        }
+        int[] grid = new int[BitBoard.CELLS];
+        for (int cell = 0; cell < grid.length; cell++) {
+            char c = text.charAt(cell);
+            if (c == '.') {
+                grid[cell] = 0;
+            } else if (c >= '0' && c <= '9') {
+                grid[cell] = c - '0';
+            } else {
+                throw new IllegalArgumentException("Érvénytelen karakter a táblában: " + c);
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * Visszaadja a tábla 81 karakteres szöveges alakját, az üres cellát 0 jelöli.
+     *
+     * @param grid a 81 elemű tábla
+     * @return a tábla szöveges alakja
+     */
+    public static String formatGrid(int[] grid) {
+        StringBuilder builder = new StringBuilder(grid.length);
+        for (int value : grid) {
+            builder.append((char) ('0' + value));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Visszaadja a feladvány megadott értékeit.
+     *
+     * @return a megadott értékek másolata
+     */
+    public int[] getGivens() {
+        return givens.clone();
+    }
+
+    /**
+     * Visszaadja a feladvány megoldását.
+     *
+     * @return a megoldás másolata
+     */
+    public int[] getSolution() {
+        return solution.clone();
+    }
+
+    /**
+     * Visszaadja a feladvány nehézségi szintjét.
+     *
+     * @return a nehézségi szint
+     */
+    public GameDifficulty getDifficulty() {
+        return difficulty;
+    }
+
+    /**
+     * Visszaadja a megadott értékek számát.
+     *
+     * @return a kitöltött cellák száma a feladványban
+     */
+    public int getClueCount() {
+        int count = 0;
+        for (int value : givens) {
+            if (value != 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Visszaadja a feladvány szöveges alakját.
+     *
+     * @return a feladvány 81 karakteres alakja
+     */
+    @Override
+    public String toString() {
+        return formatGrid(givens);
+    }
+}
@@ -0,0 +1,74 @@
+package hu.unideb.sudoku.model;
+
+/**
+ * Egy tábla elemzésének eredménye: a megoldások száma (legfeljebb 2), az első megoldás és a nehézség értékelése.
+ * A {@link PuzzleAnalysisCache} állítja elő; az értékelés a kanonikus alakra vonatkozik,
+ * így egymás transzformáltjai mindig ugyanazt az értékelést kapják.
+ * Az osztály nem módosítható.
+ */
+public final class PuzzleAnalysis {
+    private final String canonicalKey;
+    private final int solutionCount;
+    private final int[] solution;
+    private final Grade grade;
+
+    /**
+     * Konstruktor.
+     *
+     * @param canonicalKey  a tábla kanonikus alakja szövegként
+     * @param solutionCount a megoldások száma, legfeljebb 2
+     * @param solution      az első megoldás, null ha nincs megoldás
+     * @param grade         a nehézség értékelése
+     */
+    PuzzleAnalysis(String canonicalKey, int solutionCount, int[] solution, Grade grade) {
+        this.canonicalKey = canonicalKey;
+        this.solutionCount = solutionCount;
+        this.solution = solution;
+        this.grade = grade;
+    }
+
+    /**
+     * Visszaadja a tábla kanonikus alakját szövegként ({@link CanonicalForm#getKey()}).
+     *
+     * @return a kanonikus alak
+     */
+    public String getCanonicalKey() {
+        return canonicalKey;
+    }
+
+    /**
+     * Visszaadja a megoldások számát, legfeljebb 2-t.
+     *
+     * @return a megoldások száma
+     */
+    public int getSolutionCount() {
+        return solutionCount;
+    }
+
+    /**
+     * Visszaadja, hogy a táblának pontosan egy megoldása van-e.
+     *
+     * @return Igaz, ha a megoldás egyértelmű.
+     */
+    public boolean isUnique() {
+        return solutionCount == 1;
+    }
+
+    /**
+     * Visszaadja az első megoldást a lekérdezett tábla elrendezésében.
+     *
+     * @return a megoldás másolata, null ha nincs megoldás
+     */
+    public int[] getSolution() {
+        return solution == null ? null : solution.clone();
+    }
+
+    /**
+     * Visszaadja a kanonikus alak nehézség értékelését.
+     *
+     * @return az értékelés
+     */
+    public Grade getGrade() {
+        return grade;
+    }
+}
@@ -0,0 +1,142 @@
+package hu.unideb.sudoku.model;
+
+import org.tinylog.Logger;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Korlátos méretű, legrégebben használt elemet kidobó (LRU) gyorsítótár a táblák elemzéséhez.
+ * A kulcs a tábla kanonikus alakja ({@link CanonicalForm}), így ugyanannak a feladványnak bármelyik
+ * transzformált alakja (visszajátszás a {@link GameHistory}-ból, importálás, a {@link PuzzleBank} transzformált
+ * feladványai) egyetlen elemzést használ. A megoldást kanonikus alakban tárolja, és lekérdezéskor
+ * a kérdezett tábla elrendezésébe alakítja vissza.
+ * A metódusok szálbiztosak, az elemzés a gyorsítótár zárolása mellett fut.
+ */
+public class PuzzleAnalysisCache {
+    /**
+     * Az alapértelmezett gyorsítótár mérete.
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+    private static PuzzleAnalysisCache defaultCache;
+
+    private final Map<String, PuzzleAnalysis> entries;
+    private final SolverEngine engine;
+    private final DifficultyGrader grader = new DifficultyGrader();
+    private long hits;
+    private long misses;
+
+    /**
+     * Létrehoz egy gyorsítótárat az alapértelmezett megoldó motorral.
+     *
+     * @param capacity a tárolt elemzések legnagyobb száma
+     */
+    public PuzzleAnalysisCache(int capacity) {
+        this(capacity, SolverEngines.createDefault());
+    }
+
+    /**
+     * Létrehoz egy gyorsítótárat a megadott megoldó motorral.
+     *
+     * @param capacity a tárolt elemzések legnagyobb száma
+     * @param engine   a megoldások számolásához használt motor
+     * @throws IllegalArgumentException ha a méret nem pozitív
+     */
+    public PuzzleAnalysisCache(int capacity, SolverEngine engine) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("A gyorsítótár mérete pozitív kell legyen: " + capacity);
+        }
+        this.engine = engine;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PuzzleAnalysis> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Visszaadja az alkalmazás közös gyorsítótárát.
+     *
+     * @return a közös gyorsítótár
+     */
+    public static synchronized PuzzleAnalysisCache getDefault() {
+        if (defaultCache == null) {
+            defaultCache = new PuzzleAnalysisCache(DEFAULT_CAPACITY);
+        }
+        return defaultCache;
+    }
+
+    /**
+     * Elemzi a táblát: ha a kanonikus alakja már szerepel a gyorsítótárban, csak visszaalakítja a tárolt megoldást,
+     * különben megszámolja a megoldásokat, értékeli a kanonikus alakot, és eltárolja az eredményt.
+     *
+     * @param grid 81 elemű tábla, 0 jelöli az üres cellát
+     * @return az elemzés a kérdezett tábla elrendezésében
+     */
+    public synchronized PuzzleAnalysis analyze(int[] grid) {
+        CanonicalForm form = CanonicalForm.of(grid);
+        String key = form.getKey();
+        PuzzleAnalysis canonical = entries.get(key);
+        if (canonical != null) {
+            hits++;
+        } else {
+            misses++;
+            canonical = analyzeCanonical(key, form.getGrid());
+            entries.put(key, canonical);
+            Logger.debug("Elemzés a gyorsítótárba: {} megoldás, {}", canonical.getSolutionCount(), canonical.getGrade());
+        }
+        int[] solution = canonical.getSolution();
+        return new PuzzleAnalysis(key, canonical.getSolutionCount(),
+                solution == null ? null : form.toOriginal(solution), canonical.getGrade());
+    }
+
+    /**
+     * Visszaadja a tárolt elemzések számát.
+     *
+     * @return a tárolt elemzések száma
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Visszaadja, hányszor volt találat a gyorsítótárban.
+     *
+     * @return a találatok száma
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Visszaadja, hányszor kellett új elemzést végezni.
+     *
+     * @return a hiányok száma
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Kiüríti a gyorsítótárat és nullázza a számlálókat.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        hits = 0;
+        misses = 0;
+    }
+
+    /**
+     * Elemzi a kanonikus táblát.
+     *
+     * @param key       a kanonikus alak szövegként
+     * @param canonical a kanonikus tábla
+     * @return az elemzés kanonikus elrendezésben
+     */
+    private PuzzleAnalysis analyzeCanonical(String key, int[] canonical) {
+        int[] solution = new int[BitBoard.CELLS];
+        int count = engine.countSolutions(canonical, 2, solution);
+        return new PuzzleAnalysis(key, count, count > 0 ? solution : null, grader.grade(canonical));
+    }
+}
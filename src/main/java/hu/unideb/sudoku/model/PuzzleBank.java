@@ -0,0 +1,120 @@
+package hu.unideb.sudoku.model;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.random.RandomGenerator;
+
+/**
+ * Előre ellenőrzött, nehézségi szint szerint csoportosított kiinduló feladványok gyűjteménye.
+ * A gyűjteményből választott feladványra véletlen {@link PuzzleTransformer} transzformációt alkalmazva
+ * állandó idő alatt kapunk új, de azonos nehézségű feladványt.
+ * Az alapértelmezett gyűjteményt a {@value #DEFAULT_RESOURCE} erőforrásból, első használatkor tölti be.
+ */
+public final class PuzzleBank {
+    /**
+     * Az alapértelmezett gyűjtemény erőforrásának neve.
+     */
+    public static final String DEFAULT_RESOURCE = "json/seed_bank.json";
+    private static final Gson gson = new Gson();
+    private static PuzzleBank defaultBank;
+    private final Map<GameDifficulty, List<Puzzle>> puzzles;
+
+    /**
+     * Létrehoz egy gyűjteményt a megadott feladványokból.
+     *
+     * @param puzzles a feladványok nehézségi szint szerint
+     */
+    public PuzzleBank(Map<GameDifficulty, List<Puzzle>> puzzles) {
+        this.puzzles = new EnumMap<>(GameDifficulty.class);
+        puzzles.forEach((difficulty, list) -> this.puzzles.put(difficulty, List.copyOf(list)));
+    }
+
+    /**
+     * Visszaadja az alapértelmezett, erőforrásból betöltött gyűjteményt.
+     *
+     * @return az alapértelmezett gyűjtemény
+     */
+    public static synchronized PuzzleBank getDefault() {
+        if (defaultBank == null) {
+            defaultBank = load(DEFAULT_RESOURCE);
+        }
+        return defaultBank;
+    }
+
+    /**
+     * Betölt egy gyűjteményt a megadott JSON erőforrásból.
+     * A fájl nehézségi szintenként a feladványok és megoldásaik 81 karakteres alakját tartalmazza.
+     *
+     * @param resource az erőforrás neve
+     * @return a betöltött gyűjtemény
+     * @throws UncheckedIOException ha az erőforrás nem olvasható
+     */
+    public static PuzzleBank load(String resource) {
+        InputStream stream = PuzzleBank.class.getClassLoader().getResourceAsStream(resource);
+        if (stream == null) {
+            throw new UncheckedIOException(new IOException("Nem található a feladvány gyűjtemény: " + resource));
+        }
+        Type type = new TypeToken<Map<GameDifficulty, List<Entry>>>() {
+        }.getType();
+        Map<GameDifficulty, List<Entry>> entries;
+        try (Reader reader = new InputStreamReader(stream, StandardCharsets.UTF_8)) {
+            entries = gson.fromJson(reader, type);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        Map<GameDifficulty, List<Puzzle>> puzzles = new EnumMap<>(GameDifficulty.class);
+        entries.forEach((difficulty, list) -> {
+            List<Puzzle> parsed = new ArrayList<>();
+            for (Entry entry : list) {
+                parsed.add(Puzzle.parse(entry.puzzle, entry.solution, difficulty));
+            }
+            puzzles.put(difficulty, parsed);
+        });
+        return new PuzzleBank(puzzles);
+    }
+
+    /**
+     * Visszaadja a megadott nehézségi szint kiinduló feladványait.
+     *
+     * @param difficulty a nehézségi szint
+     * @return a feladványok listája, üres lista ha nincs ilyen szintű feladvány
+     */
+    public List<Puzzle> getPuzzles(GameDifficulty difficulty) {
+        return puzzles.getOrDefault(difficulty, List.of());
+    }
+
+    /**
+     * Véletlenszerűen választ egy kiinduló feladványt, és véletlen transzformációt alkalmaz rá.
+     *
+     * @param difficulty a kért nehézségi szint
+     * @param random     a véletlenszám generátor
+     * @return az új feladvány
+     * @throws IllegalStateException ha nincs a szinthez kiinduló feladvány
+     */
+    public Puzzle next(GameDifficulty difficulty, RandomGenerator random) {
+        List<Puzzle> seeds = getPuzzles(difficulty);
+        if (seeds.isEmpty()) {
+            throw new IllegalStateException("Nincs kiinduló feladvány ehhez a szinthez: " + difficulty);
+        }
+        Puzzle seed = seeds.get(random.nextInt(seeds.size()));
+        return PuzzleTransformer.random(random).apply(seed);
+    }
+
+    /**
+     * A JSON fájl egy bejegyzése.
+     */
+    private static final class Entry {
+        private String puzzle;
+        private String solution;
+    }
+}
@@ -0,0 +1,82 @@
+package hu.unideb.sudoku.model;
+
+import org.tinylog.Logger;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A beépített {@link BinaryPuzzleBank} gyűjteményt előállító parancssori program, a build futtatja.
+ * A feladványokat egyetlen, rögzített magú {@link PuzzleGenerator} állítja elő, így a gyűjtemény
+ * minden buildben bájtra azonos.
+ */
+public final class PuzzleBankBuilder {
+    /**
+     * Az alapértelmezett mag.
+     */
+    public static final long DEFAULT_SEED = 20240501L;
+    /**
+     * Az alapértelmezett feladványszám nehézségi szintenként.
+     */
+    public static final int DEFAULT_COUNT = 64;
+
+    /**
+     * Nem példányosítható.
+     */
+    private PuzzleBankBuilder() {
+    }
+
+    /**
+     * Előállítja és kiírja a gyűjteményt.
+     * Paraméterek: a kimeneti fájl, a mag (elhagyható) és a szintenkénti feladványszám (elhagyható).
+     *
+     * @param args parancssori argumentumok
+     * @throws IOException ha a fájl nem írható
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            throw new IllegalArgumentException("Használat: PuzzleBankBuilder <kimenet> [mag] [darabszám]");
+        }
+        Path output = Path.of(args[0]);
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : DEFAULT_SEED;
+        int count = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_COUNT;
+
+        long start = System.nanoTime();
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(output))) {
+            build(out, seed, count);
+        }
+        Logger.info("Feladvány gyűjtemény elkészült: {} ({} bájt, {} ms)", output, Files.size(output),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Előállítja a gyűjteményt, és a kimenetre írja.
+     *
+     * @param out   a kimenet
+     * @param seed  a generátor magja
+     * @param count a feladványok száma nehézségi szintenként
+     * @throws IOException ha az írás nem sikerült
+     */
+    public static void build(OutputStream out, long seed, int count) throws IOException {
+        PuzzleGenerator generator = new PuzzleGenerator(seed);
+        Map<GameDifficulty, List<Puzzle>> puzzles = new EnumMap<>(GameDifficulty.class);
+        for (GameDifficulty difficulty : GameDifficulty.values()) {
+            List<Puzzle> level = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                level.add(generator.generate(difficulty));
+            }
+            puzzles.put(difficulty, level);
+        }
+        BinaryPuzzleBank.write(out, seed, puzzles);
+    }
+}
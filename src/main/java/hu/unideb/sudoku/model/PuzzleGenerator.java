@@ -0,0 +1,768 @@
+package hu.unideb.sudoku.model;
+
+import org.tinylog.Logger;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.Spliterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static hu.unideb.sudoku.model.BitBoard.*;
+
+/**
+ * Sudoku feladványokat generál egy saját, magról indítható {@link SplittableRandom} véletlenszám generátorral.
+ * Azonos mag és nehézségi szint mindig ugyanazt a feladványt adja, bármelyik gépen
+ * (a teljes táblát a {@link GridSampler} a megoldó motortól függetlenül tölti ki).
+ * Párhuzamos generáláshoz a {@link #split()} ad független generátort, így a szálak nem osztoznak a véletlenszám generátoron,
+ * nagy mennyiségű feladványhoz pedig a {@link #stream(GameDifficulty, long)} párhuzamosítható folyamot ad.
+ * Egy példány nem szálbiztos.
+ */
+public class PuzzleGenerator {
+    private static final int EASY_MOD_REVOME_DIGITS = 44;
+    private static final int MEDIUM_MOD_REVOME_DIGITS = 48;
+    private static final int HARD_MOD_REVOME_DIGITS = 52;
+    private static final int EXPERT_MOD_REVOME_DIGITS = 56;
+    private static final int EXTREME_MOD_REVOME_DIGITS = 59;
+    /**
+     * Egy generálás legfeljebb ennyi teljes táblával próbálkozik. A legmélyebb szinten átlagosan
+     * 20-30 tábla kell, így a korlát csak nagyon ritkán ér véget a szint elérése nélkül, de határidő nélkül is
+     * véges futást biztosít.
+     */
+    public static final int MAX_GRIDS = 256;
+    /**
+     * A célzott generálás legfeljebb ennyi teljes táblával próbálkozik. A párokat igénylő követelményekhez
+     * jellemzően néhány tucat tábla elég, így a korlát határidő nélküli jelzővel is véges, kiszámítható futást ad,
+     * teljesíthetetlen követelménynél is.
+     */
+    public static final int MAX_TARGET_CANDIDATES = 256;
+    private final SplittableRandom random;
+    private final SolverEngine engine;
+    private final GridSampler sampler;
+    private final BitBoard board = new BitBoard();
+    private DifficultyGrader grader;
+    private GenerationStats lastStats;
+    private TargetedGenerationStats lastTargetedStats;
+    private Puzzle lastRacePuzzle;
+    private ParallelSolutionCounter parallelCounter;
+
+    /**
+     * Létrehoz egy véletlen magú generátort az alapértelmezett megoldó motorral.
+     */
+    public PuzzleGenerator() {
+        this(new SplittableRandom(), SolverEngines.createDefault());
+    }
+
+    /**
+     * Létrehoz egy generátort a megadott maggal és az alapértelmezett megoldó motorral.
+     *
+     * @param seed a véletlenszám generátor magja
+     */
+    public PuzzleGenerator(long seed) {
+        this(new SplittableRandom(seed), SolverEngines.createDefault());
+    }
+
+    /**
+     * Létrehoz egy generátort a megadott véletlenszám generátorral és megoldó motorral.
+     * Az egyértelműség vizsgálatának eredménye nem függ a motortól, így a motor a reprodukálhatóságot nem befolyásolja.
+     *
+     * @param random a véletlenszám generátor
+     * @param engine az egyértelműség vizsgálatához használt megoldó motor
+     */
+    public PuzzleGenerator(SplittableRandom random, SolverEngine engine) {
+        this.random = random;
+        this.engine = engine;
+        this.sampler = new GridSampler(random);
+    }
+
+    /**
+     * Visszaadja a megadott nap feladványának magját, amely minden gépen ugyanaz.
+     *
+     * @param date a nap
+     * @return a nap feladványának magja
+     */
+    public static long dailySeed(LocalDate date) {
+        return date.toEpochDay() * 0x9E3779B97F4A7C15L;
+    }
+
+    /**
+     * Létrehoz egy új, független generátort, amelynek véletlen sorozata ebből a generátorból ágazik le.
+     * Az új generátor saját megoldó motor példányt kap, párhuzamos számlálót nem: a leágaztatott generátorok
+     * maguk is párhuzamosan futnak.
+     *
+     * @return az új generátor
+     */
+    public PuzzleGenerator split() {
+        return new PuzzleGenerator(random.split(), SolverEngines.create(engine.getName()));
+    }
+
+    /**
+     * Végtelen, párhuzamosítható feladvány folyamot ad a megadott nehézségi szinten.
+     * A folyamot {@link Stream#limit(long)} hívással kell korlátozni.
+     *
+     * @param difficulty a nehézségi szint
+     * @param seed       a véletlenszám generátor magja
+     * @return a feladványok folyama
+     */
+    public static Stream<Puzzle> stream(GameDifficulty difficulty, long seed) {
+        return stream(difficulty, seed, Long.MAX_VALUE);
+    }
+
+    /**
+     * Pontosan count darab feladványból álló, párhuzamosítható folyamot ad a megadott nehézségi szinten.
+     * A folyamot egy {@link Spliterator} szolgálja ki: felosztáskor mindkét fél saját, leágaztatott generátort
+     * (és így saját táblákat, megoldó motort) kap, a szálak semmilyen állapoton nem osztoznak.
+     * Soros feldolgozásnál az eredmény csak a magtól függ.
+     *
+     * @param difficulty a nehézségi szint
+     * @param seed       a véletlenszám generátor magja
+     * @param count      a feladványok száma
+     * @return a feladványok folyama
+     */
+    public static Stream<Puzzle> stream(GameDifficulty difficulty, long seed, long count) {
+        PuzzleGenerator generator = new PuzzleGenerator(seed);
+        return StreamSupport.stream(new PuzzleSpliterator(generator, difficulty, 0, count), false);
+    }
+
+    /**
+     * Minden nehézségi szinten párhuzamosan legenerál count darab feladványt,
+     * és naplózza, illetve visszaadja az áteresztőképességet (feladvány / másodperc).
+     *
+     * @param count a szintenként generálandó feladványok száma
+     * @param seed  a véletlenszám generátor magja
+     * @return az áteresztőképesség nehézségi szintenként
+     */
+    public static Map<GameDifficulty, Double> measureThroughput(long count, long seed) {
+        Map<GameDifficulty, Double> result = new EnumMap<>(GameDifficulty.class);
+        for (GameDifficulty difficulty : GameDifficulty.values()) {
+            long start = System.nanoTime();
+            long generated = stream(difficulty, seed, count).parallel().count();
+            double seconds = (System.nanoTime() - start) / 1e9;
+            double throughput = generated / Math.max(seconds, 1e-9);
+            result.put(difficulty, throughput);
+            Logger.info("{}: {} feladvány {} s alatt, {} feladvány/s", difficulty, generated,
+                    String.format("%.2f", seconds), String.format("%.1f", throughput));
+        }
+        return result;
+    }
+
+    /**
+     * Visszaadja, hogy az adott nehézségi szinten hány számot kell törölni a teljes táblából.
+     *
+     * @param difficulty a nehézségi szint
+     * @return a törlendő számok száma
+     */
+    public static int removedDigits(GameDifficulty difficulty) {
+        if (difficulty == GameDifficulty.EASY) {
+            return EASY_MOD_REVOME_DIGITS;
+        } else if (difficulty == GameDifficulty.MEDIUM) {
+            return MEDIUM_MOD_REVOME_DIGITS;
+        } else if (difficulty == GameDifficulty.EXPERT) {
+            return EXPERT_MOD_REVOME_DIGITS;
+        } else if (difficulty == GameDifficulty.EXTREME) {
+            return EXTREME_MOD_REVOME_DIGITS;
+        }
+        return HARD_MOD_REVOME_DIGITS;
+    }
+
+    /**
+     * Visszaadja azt a legnehezebb szintet, amelynek törlési célját a megadott számú törlés eléri.
+     * A szint alatti feladvány is legalább {@link GameDifficulty#EASY} szintű.
+     *
+     * @param removed a törölt számok száma
+     * @return a törlések számának megfelelő nehézségi szint
+     */
+    public static GameDifficulty difficultyFor(int removed) {
+        GameDifficulty result = GameDifficulty.EASY;
+        for (GameDifficulty difficulty : GameDifficulty.values()) {
+            if (removedDigits(difficulty) <= removed) {
+                result = difficulty;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Generál egy feladványt határidő nélkül, így az eredmény csak a magtól és a nehézségi szinttől függ.
+     *
+     * @param difficulty a nehézségi szint
+     * @return az új feladvány
+     */
+    public Puzzle generate(GameDifficulty difficulty) {
+        return generate(difficulty, new CancellationToken());
+    }
+
+    /**
+     * Generál egy feladványt.
+     * Először véletlen teljes táblát készít ({@link #sampleSolution()}),
+     * majd eltávolít néhány számot a nehézségi szintnek megfelelően.
+     * Ha a táblából nem törölhető a kért számú szám (a mély szinteken, például {@link GameDifficulty#EXTREME}
+     * esetén gyakori), új táblával kezdi újra, és a legtöbb törlést elérő feladványt tartja meg,
+     * legfeljebb {@link #MAX_GRIDS} táblán át.
+     * Megszakítás esetén is érvényes, egyértelmű feladvány jön létre, csak kevesebb szám törlődik
+     * (lásd {@link GenerationStats#isCancelled()}). A szintet el nem érő feladvány a ténylegesen elért
+     * szintet kapja ({@link #difficultyFor(int)}), nem a kértet.
+     *
+     * @param difficulty a nehézségi szint
+     * @param token      a generálás megszakítására szolgáló jelző
+     * @return az új feladvány
+     */
+    public Puzzle generate(GameDifficulty difficulty, CancellationToken token) {
+        return generate(difficulty, false, token);
+    }
+
+    /**
+     * Minimális feladványt generál: a szinthez szükséges törlések után a maradék, még ki nem próbált
+     * megadott számokat is sorra törli, amíg egyetlen szám sem törölhető az egyértelműség elvesztése nélkül.
+     * A minimalizáló szakasz csak a még ki nem próbált cellákat vizsgálja: ami egyszer nem volt törölhető,
+     * az a további törlések után sem lesz az (kevesebb megadott számmal csak több megoldás lehet),
+     * így minden cellát legfeljebb egyszer kell ellenőrizni. Az ellenőrzések ugyanazt a táblát és megoldó motort
+     * használják, és az első eltérő megoldásnál leállnak. A szakasz ideje a
+     * {@link GenerationStats#getMinimizationNanos()} értékéből olvasható ki.
+     * Megszakítás esetén a feladvány egyértelmű, de nem feltétlenül minimális.
+     *
+     * @param difficulty a nehézségi szint, ennyi törlést legalább el kell érni
+     * @param token      a generálás megszakítására szolgáló jelző
+     * @return az új, minimális feladvány
+     */
+    public Puzzle generateMinimal(GameDifficulty difficulty, CancellationToken token) {
+        return generate(difficulty, true, token);
+    }
+
+    /**
+     * Generál egy feladványt, szükség esetén új táblával újrakezdve, legfeljebb {@link #MAX_GRIDS} táblán át.
+     *
+     * @param difficulty a nehézségi szint
+     * @param minimize   igaz, ha a szint elérése után minimális feladványig kell folytatni a törlést
+     * @param token      a generálás megszakítására szolgáló jelző
+     * @return az új feladvány
+     */
+    private Puzzle generate(GameDifficulty difficulty, boolean minimize, CancellationToken token) {
+        long start = System.nanoTime();
+        int target = removedDigits(difficulty);
+        int[] bestGivens = null;
+        int[] bestSolution = null;
+        int bestRemoved = -1;
+        int attempts = 0;
+        int solverCalls = 0;
+        int grids = 0;
+        boolean cancelled;
+        do {
+            int[] solution = sampleSolution();
+            board.setValues(solution);
+            removeDigits(difficulty, target, minimize, token, start);
+            grids++;
+            attempts += lastStats.getAttempts();
+            solverCalls += lastStats.getSolverCalls();
+            cancelled = lastStats.isCancelled();
+            if (lastStats.getRemoved() > bestRemoved) {
+                bestRemoved = lastStats.getRemoved();
+                bestGivens = board.toValueArray();
+                bestSolution = solution;
+            }
+        } while (bestRemoved < target && !cancelled && grids < MAX_GRIDS);
+
+        GameDifficulty reached = bestRemoved >= target ? difficulty : difficultyFor(bestRemoved);
+        lastStats = new GenerationStats(reached, bestRemoved, attempts, solverCalls,
+                System.nanoTime() - start, cancelled, lastStats.getMinimizationNanos());
+        if (bestRemoved < target) {
+            Logger.warn("Csak {} szám törölhető a kért {} helyett, a feladvány szintje: {}.", bestRemoved, target, reached);
+        }
+        Logger.debug("Generálás ({} tábla): {}", grids, lastStats);
+        return new Puzzle(bestGivens, bestSolution, reached);
+    }
+
+    /**
+     * A megadott módon állít elő egy feladványt.
+     *
+     * @param difficulty a nehézségi szint
+     * @param mode       a generálási mód
+     * @param token      a generálás megszakítására szolgáló jelző ({@link GenerationMode#RANDOM} módban)
+     * @return az új feladvány
+     */
+    public Puzzle generate(GameDifficulty difficulty, GenerationMode mode, CancellationToken token) {
+        if (mode == GenerationMode.SEED_BANK) {
+            return fromSeedBank(difficulty);
+        } else if (mode == GenerationMode.PREBUILT) {
+            return fromPrebuiltBank(difficulty, token);
+        } else if (mode == GenerationMode.RACING) {
+            return race(difficulty, Runtime.getRuntime().availableProcessors(), token);
+        } else if (mode == GenerationMode.MINIMAL) {
+            return generateMinimal(difficulty, token);
+        }
+        return generate(difficulty, token);
+    }
+
+    /**
+     * Célzott generálás: a követelménynek megfelelő nehézségű feladványt készít.
+     * Minden teljes táblából véletlen sorrendben töröl, és amint elérte a minimális üres cella számot,
+     * minden törlés után értékeli a feladványt ({@link DifficultyGrader}), így a törlések száma
+     * feladványonként igazodik a követelményhez:
+     * <ul>
+     *     <li>ha a feladvány megfelel, azonnal elkészül;</li>
+     *     <li>ha túl nehéz lett, a törlést visszavonja, és a következő cellával próbálkozik;</li>
+     *     <li>ha túl könnyű, tovább töröl; ha elfogytak a cellák, a táblát elveti és újat kezd.</li>
+     * </ul>
+     * Ha a technikák végig megoldják a feladványt, az egyben az egyértelműséget is bizonyítja, ilyenkor
+     * megoldó hívásra nincs szükség. Legfeljebb {@link #MAX_TARGET_CANDIDATES} táblát próbál ki, így határidő nélkül is
+     * véget ér; a jelző (például {@link CancellationToken#withTimeout(java.time.Duration)}) ennél szorosabban is
+     * korlátozhatja a futási időt. Az elutasítások okai, és hogy a keret vagy a jelző miatt nem készült feladvány,
+     * a {@link #getLastTargetedStats()} mérőszámaiban láthatók.
+     *
+     * @param requirement a teljesítendő követelmény
+     * @param token       a generálás megszakítására szolgáló jelző
+     * @return a feladvány, üres ha a keretben vagy az időkereten belül nem készült megfelelő
+     */
+    public Optional<Puzzle> generate(PuzzleRequirement requirement, CancellationToken token) {
+        long start = System.nanoTime();
+        if (grader == null) {
+            grader = new DifficultyGrader();
+        }
+        int candidates = 0;
+        int rejectedTooEasy = 0;
+        int rejectedTooFewBlanks = 0;
+        int tooHardRemovals = 0;
+        int grades = 0;
+        int solverCalls = 0;
+        int attempts = 0;
+        int removed = 0;
+        Puzzle puzzle = null;
+        Grade grade = null;
+        while (puzzle == null && !token.isCancelled() && candidates < MAX_TARGET_CANDIDATES) {
+            candidates++;
+            int[] solution = sampleSolution();
+            int[] grid = solution.clone();
+            int[] order = shuffledCells();
+            removed = 0;
+            for (int i = 0; i < CELLS && puzzle == null && !token.isCancelled(); i++) {
+                int cell = order[i];
+                int value = grid[cell];
+                grid[cell] = 0;
+                attempts++;
+                Grade current = null;
+                PuzzleRequirement.Verdict verdict = PuzzleRequirement.Verdict.TOO_EASY;
+                if (removed + 1 >= requirement.getMinBlanks()) {
+                    current = grader.grade(grid);
+                    grades++;
+                    verdict = requirement.verdict(current);
+                    if (verdict == PuzzleRequirement.Verdict.TOO_HARD) {
+                        grid[cell] = value;
+                        tooHardRemovals++;
+                        continue;
+                    }
+                }
+                if (current == null || !current.isSolved()) {
+                    solverCalls++;
+                    if (hasSolutionExcluding(grid, cell, value, removed + 1)) {
+                        grid[cell] = value;
+                        continue;
+                    }
+                }
+                removed++;
+                if (verdict == PuzzleRequirement.Verdict.MATCH) {
+                    grade = current;
+                    puzzle = new Puzzle(grid, solution, current.getDifficulty());
+                }
+            }
+            if (puzzle == null && !token.isCancelled()) {
+                if (removed < requirement.getMinBlanks()) {
+                    rejectedTooFewBlanks++;
+                } else {
+                    rejectedTooEasy++;
+                }
+            }
+        }
+
+        long elapsed = System.nanoTime() - start;
+        boolean timedOut = puzzle == null && token.isCancelled();
+        boolean exhausted = puzzle == null && !timedOut;
+        GameDifficulty difficulty = puzzle != null ? puzzle.getDifficulty() : null;
+        lastStats = new GenerationStats(difficulty, removed, attempts, solverCalls, elapsed, puzzle == null);
+        lastTargetedStats = new TargetedGenerationStats(requirement, candidates, rejectedTooEasy, rejectedTooFewBlanks,
+                tooHardRemovals, grades, solverCalls, elapsed, timedOut, exhausted, grade);
+        if (exhausted) {
+            Logger.warn("{} tábla alatt nem készült a követelménynek megfelelő feladvány: {}", candidates, lastTargetedStats);
+        } else if (timedOut) {
+            Logger.warn("Az időkereten belül nem készült a követelménynek megfelelő feladvány: {}", lastTargetedStats);
+        } else {
+            Logger.debug("Célzott generálás: {}, {}", lastTargetedStats, grade);
+        }
+        return Optional.ofNullable(puzzle);
+    }
+
+    /**
+     * Több, ebből a generátorból leágaztatott generátort indít párhuzamosan a közös {@link ForkJoinPool} szálain.
+     *
+     * @param difficulty a nehézségi szint
+     * @param racers     a versenyző generátorok száma
+     * @param token      a verseny megszakítására szolgáló jelző
+     * @return az elsőként elkészült feladvány
+     * @see #race(GameDifficulty, int, CancellationToken, ExecutorService)
+     */
+    public Puzzle race(GameDifficulty difficulty, int racers, CancellationToken token) {
+        return race(difficulty, racers, token, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Több, ebből a generátorból leágaztatott generátort indít párhuzamosan.
+     * Az a versenyző nyer, amelyik elsőként készít a szintnek megfelelő számú törléssel feladványt;
+     * amelyik táblából ez nem sikerül, azt eldobja és újat kezd. A győztes után a többiek leállnak.
+     * A {@link #MAX_GRIDS} táblát szint elérése nélkül kimerítő versenyző kiesik, a többiek tovább versenyeznek.
+     * Ha a jelzőt a győztes előtt megszakítják, vagy minden versenyző kiesett, a legtöbb törlést elérő (egyértelmű),
+     * a ténylegesen elért szinttel jelölt feladvány az eredmény.
+     * Az eredmény a szálak ütemezésétől függ, így nem reprodukálható.
+     *
+     * @param difficulty a nehézségi szint
+     * @param racers     a versenyző generátorok száma
+     * @param token      a verseny megszakítására szolgáló jelző
+     * @param executor   a versenyzőket futtató szálkészlet
+     * @return az elsőként elkészült feladvány
+     * @throws CancellationException ha a várakozó szálat megszakították
+     */
+    public Puzzle race(GameDifficulty difficulty, int racers, CancellationToken token, ExecutorService executor) {
+        long start = System.nanoTime();
+        CancellationToken finished = token.createChild();
+        int target = removedDigits(difficulty);
+        RaceState state = new RaceState(Math.max(1, racers));
+        List<Callable<PuzzleGenerator>> tasks = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, racers); i++) {
+            PuzzleGenerator racer = split();
+            tasks.add(() -> racer.runRace(difficulty, target, token, finished, state));
+        }
+
+        PuzzleGenerator winner;
+        try {
+            winner = executor.invokeAny(tasks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("A generálás várakozását megszakították.");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Egyik versenyző sem készített feladványt.", e.getCause());
+        } finally {
+            finished.cancel();
+        }
+
+        GenerationStats stats = winner.getLastStats();
+        lastStats = new GenerationStats(stats.getDifficulty(), stats.getRemoved(), stats.getAttempts(), stats.getSolverCalls(),
+                System.nanoTime() - start, stats.isCancelled());
+        Logger.debug("Verseny győztese ({} versenyző): {}", racers, lastStats);
+        return winner.lastRacePuzzle;
+    }
+
+    /**
+     * Egy versenyző futása: egy korlátos generálás ({@link #MAX_GRIDS} tábla), amely akkor ér véget,
+     * ha teljes feladványt készít, a korlátot eléri, vagy leállítják.
+     * A korlátot elérő versenyző csak akkor ad eredményt, ha utolsóként esett ki: ekkor a kiesettek legjobbját.
+     *
+     * @param difficulty a nehézségi szint
+     * @param target     a szinthez szükséges törlések száma
+     * @param token      a verseny külső megszakító jelzője
+     * @param finished   a verseny végét jelző gyermek jelző
+     * @param state      a kiesett versenyzők közös nyilvántartása
+     * @return a győztes generátor, a feladvány a lastRacePuzzle mezőben
+     * @throws CancellationException ha egy másik versenyző már nyert, vagy ez a versenyző kiesett
+     */
+    private PuzzleGenerator runRace(GameDifficulty difficulty, int target, CancellationToken token,
+                                    CancellationToken finished, RaceState state) {
+        lastRacePuzzle = generate(difficulty, finished);
+        if (lastStats.getRemoved() >= target || token.isCancelled()) {
+            return this;
+        }
+        if (finished.isCancelled()) {
+            throw new CancellationException("Egy másik versenyző nyert.");
+        }
+        PuzzleGenerator best = state.capped(this);
+        if (best == null) {
+            throw new CancellationException("A versenyző " + MAX_GRIDS + " tábla alatt sem érte el a szintet.");
+        }
+        return best;
+    }
+
+    /**
+     * Véletlen, érvényes, teljesen kitöltött táblát készít a generátor véletlenszám sorozatából.
+     *
+     * @return a 81 elemű kitöltött tábla
+     */
+    public int[] sampleSolution() {
+        return sampler.sample();
+    }
+
+    /**
+     * A kiinduló feladványok gyűjteményéből választ egy feladványt, és véletlen transzformációt alkalmaz rá.
+     * A futási idő nem függ a nehézségi szinttől, megoldó hívásra nincs szükség.
+     *
+     * @param difficulty a nehézségi szint
+     * @return az új feladvány
+     */
+    public Puzzle fromSeedBank(GameDifficulty difficulty) {
+        long start = System.nanoTime();
+        Puzzle puzzle = PuzzleBank.getDefault().next(difficulty, random);
+        lastStats = new GenerationStats(difficulty, CELLS - puzzle.getClueCount(), 0, 0,
+                System.nanoTime() - start, false);
+        Logger.debug("Generálás: {}", lastStats);
+        return puzzle;
+    }
+
+    /**
+     * A beépített, buildkor generált gyűjteményből ({@link BinaryPuzzleBank#getDefault()}) választ egy feladványt,
+     * és véletlen transzformációt alkalmaz rá. Ha a gyűjteményben nincs feladvány a szinthez,
+     * élő generálással készít feladványt ({@link #generate(GameDifficulty, CancellationToken)}).
+     *
+     * @param difficulty a nehézségi szint
+     * @param token      az élő generálás megszakítására szolgáló jelző
+     * @return az új feladvány
+     */
+    public Puzzle fromPrebuiltBank(GameDifficulty difficulty, CancellationToken token) {
+        BinaryPuzzleBank bank = BinaryPuzzleBank.getDefault();
+        if (bank.size(difficulty) == 0) {
+            Logger.info("Nincs beépített feladvány ehhez a szinthez: {}, élő generálás.", difficulty);
+            return generate(difficulty, token);
+        }
+        long start = System.nanoTime();
+        Puzzle puzzle = bank.next(difficulty, random);
+        lastStats = new GenerationStats(difficulty, CELLS - puzzle.getClueCount(), 0, 0,
+                System.nanoTime() - start, false);
+        Logger.debug("Generálás: {}", lastStats);
+        return puzzle;
+    }
+
+    /**
+     * Beállítja a ritka táblák törlési lépésének párhuzamos vizsgálatát: legalább
+     * {@link ParallelSolutionCounter#MIN_EMPTY_CELLS} üres cella esetén az egyértelműséget a megadott számláló
+     * vizsgálja több szálon, a sűrűbb táblákon a megoldó motor. Az eredmény ettől nem változik,
+     * így a reprodukálhatóságot sem befolyásolja.
+     *
+     * @param parallelCounter a párhuzamos számláló, null esetén minden vizsgálat a megoldó motorral fut
+     */
+    public void setParallelCounter(ParallelSolutionCounter parallelCounter) {
+        this.parallelCounter = parallelCounter;
+    }
+
+    /**
+     * Visszaadja az utolsó generálás mérőszámait.
+     *
+     * @return a generálás mérőszámai, null ha még nem volt generálás
+     */
+    public GenerationStats getLastStats() {
+        return lastStats;
+    }
+
+    /**
+     * Visszaadja az utolsó célzott generálás mérőszámait.
+     *
+     * @return a célzott generálás mérőszámai, null ha még nem volt célzott generálás
+     */
+    public TargetedGenerationStats getLastTargetedStats() {
+        return lastTargetedStats;
+    }
+
+    /**
+     * Eltávolít véletlenszerűen számokat a cellából.
+     * Biztosítja, hogy minden eltávolított szám után a tábla még mindig egyedi megoldással rendelkezzen.
+     * Mivel a megoldás ismert, elég azt vizsgálni, hogy a törölt cellába kerülhet-e a megoldástól eltérő érték
+     * ({@link SolverEngine#hasSolutionExcluding(int[], int, int)}), ez az első talált megoldásnál leáll.
+     * A cellákat véletlen sorrendben, mindegyiket legfeljebb egyszer vizsgálja: az egyszer elutasított cella
+     * a további törlések után sem törölhető. Így a futás korlátos akkor is, ha a kért darabszám nem érhető el.
+     * Minimalizáláskor a kért darabszám elérése után is végigmegy a maradék cellákon.
+     *
+     * @param difficulty A nehézségi szint a mérőszámokhoz.
+     * @param count      Az eltávolítandó számok száma.
+     * @param minimize   Igaz, ha a kért darabszám után minden cellát ki kell próbálni.
+     * @param token      Megszakítás esetén a törlés leáll, és az addig elért tábla marad.
+     * @param startNanos A generálás kezdetének időpontja a mérőszámokhoz.
+     */
+    private void removeDigits(GameDifficulty difficulty, int count, boolean minimize, CancellationToken token,
+                              long startNanos) {
+        int[] grid = board.toValueArray();
+        int[] order = shuffledCells();
+        int removed = 0;
+        int attempts = 0;
+        int solverCalls = 0;
+        boolean cancelled = false;
+        long minimizationStart = 0;
+        for (int i = 0; i < CELLS && (minimize || removed < count); i++) {
+            if (minimize && minimizationStart == 0 && removed >= count) {
+                minimizationStart = System.nanoTime();
+            }
+            if (token.isCancelled()) {
+                cancelled = true;
+                break;
+            }
+            int cell = order[i];
+            int backupValue = grid[cell];
+            if (backupValue == 0) {
+                continue;
+            }
+            grid[cell] = 0;
+            attempts++;
+            solverCalls++;
+
+            if (hasSolutionExcluding(grid, cell, backupValue, removed + 1)) {
+                grid[cell] = backupValue;
+            } else {
+                board.setValue(cell, 0);
+                removed++;
+            }
+        }
+        long end = System.nanoTime();
+        lastStats = new GenerationStats(difficulty, removed, attempts, solverCalls, end - startNanos, cancelled,
+                minimizationStart == 0 ? 0 : end - minimizationStart);
+    }
+
+    /**
+     * Megvizsgálja, hogy a törölt cellába kerülhet-e a megoldástól eltérő érték. Ritka táblán, ha be van állítva,
+     * a párhuzamos számlálót használja ({@link #setParallelCounter(ParallelSolutionCounter)}).
+     *
+     * @param grid       a tábla a törölt cellával
+     * @param cell       a törölt cella indexe
+     * @param value      a cella értéke a megoldásban
+     * @param emptyCells az üres cellák száma a táblán
+     * @return Igaz, ha van a megoldástól eltérő kitöltés, azaz a cella nem törölhető.
+     */
+    private boolean hasSolutionExcluding(int[] grid, int cell, int value, int emptyCells) {
+        if (parallelCounter != null && emptyCells >= ParallelSolutionCounter.MIN_EMPTY_CELLS) {
+            return parallelCounter.hasSolutionExcluding(grid, cell, value);
+        }
+        return engine.hasSolutionExcluding(grid, cell, value);
+    }
+
+    /**
+     * Visszaadja a cellák indexeit véletlen sorrendben.
+     *
+     * @return a cellák indexei összekeverve
+     */
+    private int[] shuffledCells() {
+        int[] order = new int[CELLS];
+        for (int i = 0; i < CELLS; i++) {
+            order[i] = i;
+        }
+        for (int i = CELLS - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+        return order;
+    }
+
+    /**
+     * Egy verseny kiesett versenyzőinek nyilvántartása: számolja őket, és megőrzi a legtöbb törlést elérőt.
+     */
+    private static final class RaceState {
+        private final int racers;
+        private int capped;
+        private PuzzleGenerator best;
+
+        /**
+         * Létrehoz egy nyilvántartást.
+         *
+         * @param racers a versenyzők száma
+         */
+        RaceState(int racers) {
+            this.racers = racers;
+        }
+
+        /**
+         * Feljegyzi a korlátot elérő versenyzőt.
+         *
+         * @param racer a kiesett versenyző, a feladványa a lastRacePuzzle mezőben
+         * @return a kiesettek legjobbja, ha ez volt az utolsó versenyző, különben null
+         */
+        synchronized PuzzleGenerator capped(PuzzleGenerator racer) {
+            if (best == null || racer.lastStats.getRemoved() > best.lastStats.getRemoved()) {
+                best = racer;
+            }
+            capped++;
+            return capped == racers ? best : null;
+        }
+    }
+
+    /**
+     * A feladvány folyamot kiszolgáló {@link Spliterator}.
+     * Az [origin, fence) indextartományt felezve osztja fel, a leválasztott rész leágaztatott generátort kap.
+     */
+    private static final class PuzzleSpliterator implements Spliterator<Puzzle> {
+        private final PuzzleGenerator generator;
+        private final GameDifficulty difficulty;
+        private long origin;
+        private final long fence;
+
+        /**
+         * Létrehoz egy spliteratort a megadott tartományra.
+         *
+         * @param generator  a tartomány saját generátora
+         * @param difficulty a nehézségi szint
+         * @param origin     a tartomány eleje (benne van)
+         * @param fence      a tartomány vége (nincs benne)
+         */
+        PuzzleSpliterator(PuzzleGenerator generator, GameDifficulty difficulty, long origin, long fence) {
+            this.generator = generator;
+            this.difficulty = difficulty;
+            this.origin = origin;
+            this.fence = fence;
+        }
+
+        /**
+         * Generál egy feladványt, ha van még hátra a tartományból.
+         *
+         * @param action a feladványt feldolgozó művelet
+         * @return Igaz, ha készült feladvány.
+         */
+        @Override
+        public boolean tryAdvance(Consumer<? super Puzzle> action) {
+            if (origin >= fence) {
+                return false;
+            }
+            action.accept(generator.generate(difficulty));
+            origin++;
+            return true;
+        }
+
+        /**
+         * Leválasztja a tartomány első felét egy leágaztatott generátorral.
+         *
+         * @return az új spliterator, null ha a tartomány már nem osztható
+         */
+        @Override
+        public Spliterator<Puzzle> trySplit() {
+            long mid = (origin + fence) >>> 1;
+            if (mid <= origin) {
+                return null;
+            }
+            PuzzleSpliterator prefix = new PuzzleSpliterator(generator.split(), difficulty, origin, mid);
+            origin = mid;
+            return prefix;
+        }
+
+        /**
+         * Visszaadja a hátralévő feladványok számát.
+         *
+         * @return a hátralévő feladványok száma
+         */
+        @Override
+        public long estimateSize() {
+            return fence - origin;
+        }
+
+        /**
+         * Visszaadja a spliterator jellemzőit.
+         *
+         * @return a jellemzők
+         */
+        @Override
+        public int characteristics() {
+            return SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+        }
+    }
+}
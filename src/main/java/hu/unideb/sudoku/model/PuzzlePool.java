@@ -0,0 +1,184 @@
+package hu.unideb.sudoku.model;
+
+import org.tinylog.Logger;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Nehézségi szintenként néhány előre legenerált, kész feladványt tároló készlet.
+ * A készletet egy alacsony prioritású háttérszál tölti fel, így új játék indításakor
+ * a feladvány azonnal rendelkezésre áll; szinkron generálásra csak üres készlet esetén van szükség.
+ * Ha be van állítva a gépen futó példányok közös készlete ({@link SharedPuzzlePool}), a feltöltés
+ * először abból vesz feladványt, és csak utána generál; a saját készlet megtelte után a közös készletet is pótolja.
+ * A generált feladvány a saját (ténylegesen elért) szintjének készletébe kerül, így a szintet el nem érő
+ * feladvány nem jelenik meg a kért szinten.
+ * A háttérszál lépésenként egy feladványt generál ({@link #REFILL_TIME_BUDGET} időkerettel), majd a lépést a sor
+ * végére ütemezi újra, így a szintek feltöltése váltakozik, és egy nehéz szint sem tartja fel a többit.
+ * Egy feltöltés legfeljebb a készlet méretének kétszerese lépésig tart; ha addig sem telt meg, a következő
+ * kivétel indítja újra.
+ * Az osztály szálbiztos, a háttérszál generátorát csak a háttérszál használja.
+ */
+public final class PuzzlePool {
+    /**
+     * A szintenként tárolt feladványok alapértelmezett száma.
+     */
+    public static final int DEFAULT_CAPACITY = 3;
+    /**
+     * Egy feltöltési lépés (egy feladvány, illetve a közös készlet pótlása) időkerete.
+     */
+    public static final Duration REFILL_TIME_BUDGET = Duration.ofSeconds(5);
+    private static PuzzlePool instance;
+    private final Map<GameDifficulty, BlockingQueue<Puzzle>> puzzles = new EnumMap<>(GameDifficulty.class);
+    private final Map<GameDifficulty, AtomicBoolean> refilling = new EnumMap<>(GameDifficulty.class);
+    private final ExecutorService executor;
+    private final int capacity;
+    private final SharedPuzzlePool shared;
+    private PuzzleGenerator generator;
+
+    /**
+     * Létrehoz egy készletet a megadott szintenkénti mérettel.
+     *
+     * @param capacity a szintenként tárolt feladványok száma
+     */
+    PuzzlePool(int capacity) {
+        this(capacity, null);
+    }
+
+    /**
+     * Létrehoz egy készletet a megadott szintenkénti mérettel, amely a közös készletre támaszkodik.
+     *
+     * @param capacity a szintenként tárolt feladványok száma
+     * @param shared   a gépen futó példányok közös készlete, null ha nincs
+     */
+    PuzzlePool(int capacity, SharedPuzzlePool shared) {
+        this.shared = shared;
+        this.capacity = capacity;
+        for (GameDifficulty difficulty : GameDifficulty.values()) {
+            puzzles.put(difficulty, new ArrayBlockingQueue<>(capacity));
+            refilling.put(difficulty, new AtomicBoolean());
+        }
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sudoku-puzzle-pool");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    /**
+     * Visszaadja az alkalmazás közös készletét.
+     *
+     * @return a közös készlet
+     */
+    public static synchronized PuzzlePool getInstance() {
+        if (instance == null) {
+            instance = new PuzzlePool(DEFAULT_CAPACITY, SharedPuzzlePool.getDefault().orElse(null));
+        }
+        return instance;
+    }
+
+    /**
+     * Elindítja az összes szint feltöltését a háttérben, ha még nem telt meg.
+     */
+    public void warmUp() {
+        for (GameDifficulty difficulty : GameDifficulty.values()) {
+            refill(difficulty);
+        }
+    }
+
+    /**
+     * Kivesz egy kész feladványt a készletből, és a háttérben elindítja a pótlását.
+     *
+     * @param difficulty a nehézségi szint
+     * @return a feladvány, üres ha a készlet éppen üres vagy nincs megadva szint
+     */
+    public Optional<Puzzle> poll(GameDifficulty difficulty) {
+        if (difficulty == null) {
+            return Optional.empty();
+        }
+        Puzzle puzzle = puzzles.get(difficulty).poll();
+        refill(difficulty);
+        Logger.debug("Feladvány készlet {}: {}", difficulty, puzzle != null ? "találat" : "üres");
+        return Optional.ofNullable(puzzle);
+    }
+
+    /**
+     * Kivesz egy kész feladványt a készletből, üres készlet esetén a hívó szálon generál egyet.
+     *
+     * @param difficulty a nehézségi szint
+     * @return a feladvány
+     */
+    public Puzzle take(GameDifficulty difficulty) {
+        return poll(difficulty).orElseGet(() -> new PuzzleGenerator()
+                .generate(difficulty, GameModel.getGenerationMode(), new CancellationToken()));
+    }
+
+    /**
+     * Visszaadja a megadott szinten tárolt kész feladványok számát.
+     *
+     * @param difficulty a nehézségi szint
+     * @return a kész feladványok száma
+     */
+    public int size(GameDifficulty difficulty) {
+        return puzzles.get(difficulty).size();
+    }
+
+    /**
+     * A háttérszálon elindítja a megadott szint készletének feltöltését, ha még nincs folyamatban feltöltés.
+     *
+     * @param difficulty a nehézségi szint
+     */
+    private void refill(GameDifficulty difficulty) {
+        BlockingQueue<Puzzle> queue = puzzles.get(difficulty);
+        AtomicBoolean running = refilling.get(difficulty);
+        if (queue.remainingCapacity() == 0 || !running.compareAndSet(false, true)) {
+            return;
+        }
+        executor.execute(() -> refillStep(difficulty, 2 * capacity));
+    }
+
+    /**
+     * A feltöltés egy lépése a háttérszálon: egy feladványt vesz a közös készletből vagy generál, és a saját
+     * szintjének készletébe teszi; ha a kért szint megtelt, a közös készletet pótolja. Ha a szint még nem telt meg,
+     * és van hátra lépés, a következő lépést a sor végére ütemezi, különben befejezi a feltöltést.
+     *
+     * @param difficulty a nehézségi szint
+     * @param stepsLeft  a feltöltésből hátralévő lépések száma, ezzel együtt
+     */
+    private void refillStep(GameDifficulty difficulty, int stepsLeft) {
+        BlockingQueue<Puzzle> queue = puzzles.get(difficulty);
+        AtomicBoolean running = refilling.get(difficulty);
+        try {
+            if (generator == null) {
+                generator = new PuzzleGenerator();
+            }
+            Optional<Puzzle> ready = shared != null ? shared.poll(difficulty) : Optional.empty();
+            Puzzle puzzle = ready.orElseGet(() -> generator.generate(difficulty, GameModel.getGenerationMode(),
+                    CancellationToken.withTimeout(REFILL_TIME_BUDGET)));
+            puzzles.get(puzzle.getDifficulty()).offer(puzzle);
+            if (queue.remainingCapacity() == 0 && shared != null) {
+                shared.refill(generator, difficulty, CancellationToken.withTimeout(REFILL_TIME_BUDGET));
+            }
+        } catch (RuntimeException e) {
+            Logger.error(e, "Nem sikerült a feladvány készlet feltöltése!");
+            running.set(false);
+            return;
+        }
+        if (queue.remainingCapacity() > 0 && stepsLeft > 1) {
+            executor.execute(() -> refillStep(difficulty, stepsLeft - 1));
+            return;
+        }
+        running.set(false);
+        if (queue.remainingCapacity() > 0) {
+            Logger.debug("Feladvány készlet {}: a feltöltés {} lépés után sem telt meg.", difficulty, 2 * capacity);
+        }
+    }
+}
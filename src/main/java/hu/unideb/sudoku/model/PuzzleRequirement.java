@@ -0,0 +1,142 @@
+package hu.unideb.sudoku.model;
+
+/**
+ * Célzott generáláshoz megadott követelmény: a legnehezebb szükséges technika alsó és felső határa,
+ * valamint az üres cellák minimális száma.
+ * Például a "rejtett pár kell, de annál nehezebb nem" követelmény {@code requiring(Technique.HIDDEN_PAIR)},
+ * a "csak egyesekkel megoldható, legalább 50 üres cellával" pedig
+ * {@code atMost(Technique.HIDDEN_SINGLE).withMinBlanks(50)}.
+ * Az osztály nem módosítható.
+ */
+public final class PuzzleRequirement {
+    /**
+     * Egy értékelés viszonya a követelményhez.
+     */
+    public enum Verdict {
+        /**
+         * A feladvány megfelel a követelménynek.
+         */
+        MATCH,
+        /**
+         * A feladvány nem igényli a megkövetelt technikát.
+         */
+        TOO_EASY,
+        /**
+         * A feladvány a megengedettnél nehezebb technikát igényel, vagy a technikákkal nem oldható meg.
+         */
+        TOO_HARD
+    }
+
+    private final Technique minTechnique;
+    private final Technique maxTechnique;
+    private final int minBlanks;
+
+    /**
+     * Konstruktor.
+     *
+     * @param minTechnique a legnehezebb szükséges technika alsó határa, null ha nincs
+     * @param maxTechnique a legnehezebb szükséges technika felső határa, null ha nincs
+     * @param minBlanks    az üres cellák minimális száma
+     * @throws IllegalArgumentException ha a határok ellentmondóak, vagy az üres cellák száma érvénytelen
+     */
+    public PuzzleRequirement(Technique minTechnique, Technique maxTechnique, int minBlanks) {
+        if (minTechnique != null && maxTechnique != null && minTechnique.compareTo(maxTechnique) > 0) {
+            throw new IllegalArgumentException("Az alsó határ nehezebb a felsőnél: " + minTechnique + " > " + maxTechnique);
+        }
+        if (minBlanks < 0 || minBlanks >= BitBoard.CELLS) {
+            throw new IllegalArgumentException("Érvénytelen üres cella szám: " + minBlanks);
+        }
+        this.minTechnique = minTechnique;
+        this.maxTechnique = maxTechnique;
+        this.minBlanks = minBlanks;
+    }
+
+    /**
+     * Olyan feladványt kér, amelynek legnehezebb szükséges technikája pontosan a megadott.
+     *
+     * @param technique a megkövetelt technika
+     * @return a követelmény
+     */
+    public static PuzzleRequirement requiring(Technique technique) {
+        return new PuzzleRequirement(technique, technique, 0);
+    }
+
+    /**
+     * Olyan feladványt kér, amely legfeljebb a megadott technikáig megoldható.
+     *
+     * @param technique a legnehezebb megengedett technika
+     * @return a követelmény
+     */
+    public static PuzzleRequirement atMost(Technique technique) {
+        return new PuzzleRequirement(null, technique, 0);
+    }
+
+    /**
+     * Visszaad egy ugyanilyen követelményt a megadott minimális üres cella számmal.
+     *
+     * @param blanks az üres cellák minimális száma
+     * @return az új követelmény
+     */
+    public PuzzleRequirement withMinBlanks(int blanks) {
+        return new PuzzleRequirement(minTechnique, maxTechnique, blanks);
+    }
+
+    /**
+     * Visszaadja a legnehezebb szükséges technika alsó határát.
+     *
+     * @return az alsó határ, null ha nincs
+     */
+    public Technique getMinTechnique() {
+        return minTechnique;
+    }
+
+    /**
+     * Visszaadja a legnehezebb szükséges technika felső határát.
+     *
+     * @return a felső határ, null ha nincs
+     */
+    public Technique getMaxTechnique() {
+        return maxTechnique;
+    }
+
+    /**
+     * Visszaadja az üres cellák minimális számát.
+     *
+     * @return az üres cellák minimális száma
+     */
+    public int getMinBlanks() {
+        return minBlanks;
+    }
+
+    /**
+     * Összeveti az értékelést a technikákra vonatkozó határokkal.
+     * A technikákkal meg nem oldható feladvány minden technikánál nehezebbnek számít.
+     *
+     * @param grade a feladvány értékelése
+     * @return az értékelés viszonya a követelményhez
+     */
+    public Verdict verdict(Grade grade) {
+        Technique hardest = grade.getHardestTechnique();
+        if (!grade.isSolved()) {
+            return maxTechnique == null ? Verdict.MATCH : Verdict.TOO_HARD;
+        }
+        if (maxTechnique != null && hardest != null && hardest.compareTo(maxTechnique) > 0) {
+            return Verdict.TOO_HARD;
+        }
+        if (minTechnique != null && (hardest == null || hardest.compareTo(minTechnique) < 0)) {
+            return Verdict.TOO_EASY;
+        }
+        return Verdict.MATCH;
+    }
+
+    /**
+     * Visszaadja a követelmény szöveges alakját naplózáshoz.
+     *
+     * @return a követelmény szövegként
+     */
+    @Override
+    public String toString() {
+        return "PuzzleRequirement{minTechnique=" + minTechnique + ", maxTechnique=" + maxTechnique
+                + ", minBlanks=" + minBlanks + "}";
+    }
+}
@@ -0,0 +1,636 @@
+package hu.unideb.sudoku.model;
+
+import org.tinylog.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+import static hu.unideb.sudoku.model.BitBoard.CELLS;
+
+/**
+ * Nagy mennyiségű (akár több millió) előre generált feladványt tároló, memóriába leképezett
+ * ({@link FileChannel#map(FileChannel.MapMode, long, long)}) fájl.
+ * <p>
+ * A fájl felépítése:
+ * <ul>
+ *     <li>{@value #HEADER_SIZE} bájtos fejléc: azonosító, verzió, rekordméret, a rekordok száma
+ *     és az indexek helye;</li>
+ *     <li>{@value #RECORD_SIZE} bájtos, rögzített méretű rekordok: a feladvány és a megoldás cellánként 4 biten
+ *     (0 az üres cella), a {@link DifficultyGrader} pontszáma, a legnehezebb szükséges technika,
+ *     a nehézségi szint, a megadott számok száma és a jelzők;</li>
+ *     <li>három másodlagos index (nehézségi szint, megadott számok száma, legnehezebb technika szerint):
+ *     kulcsonként a rekordok sorszámai, előtte a kulcsok kezdőpozíciói.</li>
+ * </ul>
+ * A rekordokat és az indexeket közvetlenül a leképezett pufferből olvassa, a kupacra nem másolja őket,
+ * így a megnyitás ideje nem függ a rekordok számától, és bármely rekord állandó idő alatt elérhető.
+ * Egy rekordot a fájlbeli helye (eltolása) azonosít, ezt adják az index lekérdezések,
+ * és ezzel tölthető be a feladvány ({@link #read(long)}, {@link GameModel#loadPuzzle(PuzzleStore, long)}).
+ * Az írásra a {@link Writer} szolgál. Egy megnyitott tár csak olvasható, és szálbiztos.
+ */
+public final class PuzzleStore {
+    /**
+     * A fejléc mérete bájtban.
+     */
+    public static final int HEADER_SIZE = 32;
+    /**
+     * Egy rekord mérete bájtban.
+     */
+    public static final int RECORD_SIZE = 88;
+    /**
+     * Az egy leképezett szakaszba kerülő rekordok alapértelmezett száma (egy szakasz 2 GiB alatt marad).
+     */
+    static final int DEFAULT_RECORDS_PER_SEGMENT = 1 << 24;
+    private static final int MAGIC = 0x53444B53;
+    private static final int VERSION = 1;
+    private static final int SOLUTION_OFFSET = PackedGrid.BYTES;
+    private static final int RATING_OFFSET = 2 * PackedGrid.BYTES;
+    private static final int TECHNIQUE_OFFSET = RATING_OFFSET + 2;
+    private static final int DIFFICULTY_OFFSET = TECHNIQUE_OFFSET + 1;
+    private static final int CLUES_OFFSET = DIFFICULTY_OFFSET + 1;
+    private static final int FLAGS_OFFSET = CLUES_OFFSET + 1;
+    private static final int SOLVED_FLAG = 1;
+    private static final int DIFFICULTY_KEYS = GameDifficulty.values().length;
+    private static final int CLUE_KEYS = CELLS + 1;
+    private static final int TECHNIQUE_KEYS = Technique.values().length + 1;
+    private final Path path;
+    private final int recordCount;
+    private final int recordsPerSegment;
+    private final ByteBuffer[] segments;
+    private final Index difficultyIndex;
+    private final Index clueIndex;
+    private final Index techniqueIndex;
+
+    /**
+     * Létrehoz egy tárat a már leképezett szakaszokból.
+     *
+     * @param path              a fájl
+     * @param recordCount       a rekordok száma
+     * @param recordsPerSegment az egy szakaszba kerülő rekordok száma
+     * @param segments          a rekordok leképezett szakaszai
+     * @param indexes           az indexek leképezett szakasza
+     */
+    private PuzzleStore(Path path, int recordCount, int recordsPerSegment, ByteBuffer[] segments, IntBuffer indexes) {
+        this.path = path;
+        this.recordCount = recordCount;
+        this.recordsPerSegment = recordsPerSegment;
+        this.segments = segments;
+        this.difficultyIndex = new Index(indexes, 0, DIFFICULTY_KEYS, recordCount);
+        this.clueIndex = new Index(indexes, indexSize(DIFFICULTY_KEYS, recordCount), CLUE_KEYS, recordCount);
+        this.techniqueIndex = new Index(indexes,
+                indexSize(DIFFICULTY_KEYS, recordCount) + indexSize(CLUE_KEYS, recordCount), TECHNIQUE_KEYS, recordCount);
+    }
+
+    /**
+     * Megnyit egy tárat olvasásra.
+     *
+     * @param path a fájl
+     * @return a megnyitott tár
+     * @throws IOException              ha a fájl nem olvasható
+     * @throws IllegalArgumentException ha a fájl nem támogatott formátumú
+     */
+    public static PuzzleStore open(Path path) throws IOException {
+        return open(path, DEFAULT_RECORDS_PER_SEGMENT);
+    }
+
+    /**
+     * Megnyit egy tárat olvasásra, a rekordokat a megadott méretű szakaszokban képezi le.
+     *
+     * @param path              a fájl
+     * @param recordsPerSegment az egy szakaszba kerülő rekordok száma
+     * @return a megnyitott tár
+     * @throws IOException              ha a fájl nem olvasható
+     * @throws IllegalArgumentException ha a fájl nem támogatott formátumú
+     */
+    static PuzzleStore open(Path path, int recordsPerSegment) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            if (header.getInt(0) != MAGIC) {
+                throw new IllegalArgumentException("Nem feladvány tár fájl: " + path);
+            }
+            if (header.getInt(4) != VERSION || header.getInt(8) != RECORD_SIZE) {
+                throw new IllegalArgumentException("Nem támogatott feladvány tár verzió: " + path);
+            }
+            int count = header.getInt(12);
+            long indexOffset = header.getLong(16);
+            long indexBytes = (long) Integer.BYTES * (indexSize(DIFFICULTY_KEYS, count) + indexSize(CLUE_KEYS, count)
+                    + indexSize(TECHNIQUE_KEYS, count));
+            if (indexOffset != HEADER_SIZE + (long) count * RECORD_SIZE
+                    || channel.size() < indexOffset + indexBytes) {
+                throw new IllegalArgumentException("Csonka feladvány tár fájl: " + path);
+            }
+
+            ByteBuffer[] segments = new ByteBuffer[(count + recordsPerSegment - 1) / recordsPerSegment];
+            for (int i = 0; i < segments.length; i++) {
+                long first = (long) i * recordsPerSegment;
+                long records = Math.min(recordsPerSegment, count - first);
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + first * RECORD_SIZE,
+                        records * RECORD_SIZE);
+            }
+            MappedByteBuffer indexes = channel.map(FileChannel.MapMode.READ_ONLY, indexOffset, indexBytes);
+            Logger.debug("Feladvány tár megnyitva: {} ({} rekord)", path, count);
+            return new PuzzleStore(path, count, recordsPerSegment, segments, indexes.asIntBuffer());
+        }
+    }
+
+    /**
+     * Létrehoz egy új tárat, a meglévő fájlt felülírja.
+     *
+     * @param path a fájl
+     * @return a tár írója
+     * @throws IOException ha a fájl nem hozható létre
+     */
+    public static Writer create(Path path) throws IOException {
+        return new Writer(path);
+    }
+
+    /**
+     * Visszaadja a tár fájlját.
+     *
+     * @return a fájl
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Visszaadja a rekordok számát.
+     *
+     * @return a rekordok száma
+     */
+    public int size() {
+        return recordCount;
+    }
+
+    /**
+     * Visszaadja a megadott sorszámú rekord fájlbeli helyét.
+     *
+     * @param record a rekord sorszáma
+     * @return a rekord helye
+     * @throws IndexOutOfBoundsException ha nincs ilyen sorszámú rekord
+     */
+    public long offsetOf(int record) {
+        if (record < 0 || record >= recordCount) {
+            throw new IndexOutOfBoundsException("Érvénytelen rekord sorszám: " + record);
+        }
+        return HEADER_SIZE + (long) record * RECORD_SIZE;
+    }
+
+    /**
+     * Beolvassa a megadott helyű rekord feladványát.
+     *
+     * @param offset a rekord helye
+     * @return a feladvány
+     */
+    public Puzzle read(long offset) {
+        int[] givens = new int[CELLS];
+        int[] solution = new int[CELLS];
+        readGivens(offset, givens);
+        readSolution(offset, solution);
+        return new Puzzle(givens, solution, getDifficulty(offset));
+    }
+
+    /**
+     * A megadott helyű rekord feladványát a megadott tömbbe bontja ki, új tömb foglalása nélkül.
+     *
+     * @param offset a rekord helye
+     * @param target a legalább 81 elemű céltömb
+     */
+    public void readGivens(long offset, int[] target) {
+        unpack(offset, 0, target);
+    }
+
+    /**
+     * A megadott helyű rekord megoldását a megadott tömbbe bontja ki, új tömb foglalása nélkül.
+     *
+     * @param offset a rekord helye
+     * @param target a legalább 81 elemű céltömb
+     */
+    public void readSolution(long offset, int[] target) {
+        unpack(offset, SOLUTION_OFFSET, target);
+    }
+
+    /**
+     * Visszaadja a rekord feladványának nehézségi szintjét.
+     *
+     * @param offset a rekord helye
+     * @return a nehézségi szint
+     */
+    public GameDifficulty getDifficulty(long offset) {
+        return GameDifficulty.values()[byteAt(offset, DIFFICULTY_OFFSET)];
+    }
+
+    /**
+     * Visszaadja a rekord feladványában megadott számok számát.
+     *
+     * @param offset a rekord helye
+     * @return a megadott számok száma
+     */
+    public int getClueCount(long offset) {
+        return byteAt(offset, CLUES_OFFSET);
+    }
+
+    /**
+     * Visszaadja a rekord feladványának pontszámát ({@link Grade#getRating()}).
+     *
+     * @param offset a rekord helye
+     * @return a pontszám
+     */
+    public int getRating(long offset) {
+        return byteAt(offset, RATING_OFFSET) << 8 | byteAt(offset, RATING_OFFSET + 1);
+    }
+
+    /**
+     * Visszaadja a rekord feladványához szükséges legnehezebb technikát ({@link Grade#getHardestTechnique()}).
+     *
+     * @param offset a rekord helye
+     * @return a legnehezebb technika, null ha nem volt szükség technikára
+     */
+    public Technique getHardestTechnique(long offset) {
+        int key = byteAt(offset, TECHNIQUE_OFFSET);
+        return key == 0 ? null : Technique.values()[key - 1];
+    }
+
+    /**
+     * Megadja, hogy a technikák végig megoldják-e a rekord feladványát ({@link Grade#isSolved()}).
+     *
+     * @param offset a rekord helye
+     * @return Igaz, ha a feladvány találgatás nélkül megoldható.
+     */
+    public boolean isLogicallySolved(long offset) {
+        return (byteAt(offset, FLAGS_OFFSET) & SOLVED_FLAG) != 0;
+    }
+
+    /**
+     * Visszaadja a megadott nehézségi szintű rekordok számát.
+     *
+     * @param difficulty a nehézségi szint
+     * @return a rekordok száma
+     */
+    public int count(GameDifficulty difficulty) {
+        return difficultyIndex.size(difficulty.ordinal());
+    }
+
+    /**
+     * Visszaadja a megadott nehézségi szintű rekordok közül az i. helyét (a rekordok tárbeli sorrendjében).
+     *
+     * @param difficulty a nehézségi szint
+     * @param i          a rekord sorszáma a szinten belül
+     * @return a rekord helye
+     * @throws IndexOutOfBoundsException ha nincs ennyi rekord a szinten
+     */
+    public long offset(GameDifficulty difficulty, int i) {
+        return offsetOf(difficultyIndex.record(difficulty.ordinal(), i));
+    }
+
+    /**
+     * Visszaadja a pontosan a megadott számú megadott számot tartalmazó rekordok számát.
+     *
+     * @param clues a megadott számok száma
+     * @return a rekordok száma
+     */
+    public int countByClues(int clues) {
+        return clues < 0 || clues >= CLUE_KEYS ? 0 : clueIndex.size(clues);
+    }
+
+    /**
+     * Visszaadja a pontosan a megadott számú megadott számot tartalmazó rekordok közül az i. helyét.
+     *
+     * @param clues a megadott számok száma
+     * @param i     a rekord sorszáma a csoporton belül
+     * @return a rekord helye
+     * @throws IndexOutOfBoundsException ha nincs ennyi ilyen rekord
+     */
+    public long offsetByClues(int clues, int i) {
+        if (clues < 0 || clues >= CLUE_KEYS) {
+            throw new IndexOutOfBoundsException("Érvénytelen megadott szám darabszám: " + clues);
+        }
+        return offsetOf(clueIndex.record(clues, i));
+    }
+
+    /**
+     * Visszaadja azon rekordok számát, amelyek legnehezebb szükséges technikája a megadott technika.
+     *
+     * @param technique a technika, null a technika nélkül megoldható feladványokhoz
+     * @return a rekordok száma
+     */
+    public int countByTechnique(Technique technique) {
+        return techniqueIndex.size(techniqueKey(technique));
+    }
+
+    /**
+     * Visszaadja azon rekordok közül az i. helyét, amelyek legnehezebb szükséges technikája a megadott technika.
+     *
+     * @param technique a technika, null a technika nélkül megoldható feladványokhoz
+     * @param i         a rekord sorszáma a csoporton belül
+     * @return a rekord helye
+     * @throws IndexOutOfBoundsException ha nincs ennyi ilyen rekord
+     */
+    public long offsetByTechnique(Technique technique, int i) {
+        return offsetOf(techniqueIndex.record(techniqueKey(technique), i));
+    }
+
+    /**
+     * Véletlenszerűen választ egy megadott nehézségi szintű rekordot.
+     *
+     * @param difficulty a nehézségi szint
+     * @param random     a véletlenszám generátor
+     * @return a rekord helye
+     * @throws IllegalStateException ha nincs a szinthez rekord
+     */
+    public long randomOffset(GameDifficulty difficulty, RandomGenerator random) {
+        int count = count(difficulty);
+        if (count == 0) {
+            throw new IllegalStateException("Nincs feladvány a tárban ehhez a szinthez: " + difficulty);
+        }
+        return offset(difficulty, random.nextInt(count));
+    }
+
+    /**
+     * A rekord egy tömörített táblájának kibontása.
+     *
+     * @param offset a rekord helye
+     * @param start  a tábla kezdete a rekordon belül
+     * @param target a céltömb
+     */
+    private void unpack(long offset, int start, int[] target) {
+        PackedGrid.unpack(segmentOf(offset), positionOf(offset) + start, target);
+    }
+
+    /**
+     * Kiolvassa a rekord egy bájtját előjel nélkül.
+     *
+     * @param offset a rekord helye
+     * @param field  a bájt helye a rekordon belül
+     * @return a bájt értéke
+     */
+    private int byteAt(long offset, int field) {
+        return segmentOf(offset).get(positionOf(offset) + field) & 0xFF;
+    }
+
+    /**
+     * Megkeresi a rekordot tartalmazó szakaszt, és ellenőrzi a helyet.
+     *
+     * @param offset a rekord helye
+     * @return a szakasz
+     * @throws IndexOutOfBoundsException ha a hely nem egy rekord eleje
+     */
+    private ByteBuffer segmentOf(long offset) {
+        long relative = offset - HEADER_SIZE;
+        if (relative < 0 || relative % RECORD_SIZE != 0 || relative / RECORD_SIZE >= recordCount) {
+            throw new IndexOutOfBoundsException("Érvénytelen rekord hely: " + offset);
+        }
+        return segments[(int) (relative / RECORD_SIZE / recordsPerSegment)];
+    }
+
+    /**
+     * Kiszámítja a rekord kezdetét a szakaszán belül.
+     *
+     * @param offset a rekord helye
+     * @return a rekord kezdete a szakaszban
+     */
+    private int positionOf(long offset) {
+        return (int) ((offset - HEADER_SIZE) / RECORD_SIZE % recordsPerSegment) * RECORD_SIZE;
+    }
+
+    /**
+     * Visszaadja egy index méretét egészekben: a kulcsok kezdőpozíciói és a rekordsorszámok.
+     *
+     * @param keys    a kulcsok száma
+     * @param records a rekordok száma
+     * @return az index mérete
+     */
+    private static int indexSize(int keys, int records) {
+        return keys + 1 + records;
+    }
+
+    /**
+     * A technika indexbeli kulcsa.
+     *
+     * @param technique a technika, null ha nem volt szükség technikára
+     * @return a kulcs
+     */
+    private static int techniqueKey(Technique technique) {
+        return technique == null ? 0 : technique.ordinal() + 1;
+    }
+
+    /**
+     * Egy másodlagos index a leképezett fájlban: a kulcsok kezdőpozíciói, majd kulcsonként a rekordok sorszámai.
+     */
+    private static final class Index {
+        private final IntBuffer starts;
+        private final IntBuffer records;
+
+        /**
+         * Kivágja az indexet az indexek közös pufferéből.
+         *
+         * @param indexes     az indexek
+         * @param start       az index kezdete
+         * @param keys        a kulcsok száma
+         * @param recordCount a rekordok száma
+         */
+        private Index(IntBuffer indexes, int start, int keys, int recordCount) {
+            this.starts = indexes.slice(start, keys + 1);
+            this.records = indexes.slice(start + keys + 1, recordCount);
+        }
+
+        /**
+         * Visszaadja egy kulcs csoportjának méretét.
+         *
+         * @param key a kulcs
+         * @return a csoport mérete
+         */
+        private int size(int key) {
+            return starts.get(key + 1) - starts.get(key);
+        }
+
+        /**
+         * Visszaadja egy kulcs csoportjának i. rekordsorszámát.
+         *
+         * @param key a kulcs
+         * @param i   a sorszám a csoporton belül
+         * @return a rekord sorszáma
+         * @throws IndexOutOfBoundsException ha nincs ennyi rekord a csoportban
+         */
+        private int record(int key, int i) {
+            if (i < 0 || i >= size(key)) {
+                throw new IndexOutOfBoundsException("Érvénytelen sorszám: " + i);
+            }
+            return records.get(starts.get(key) + i);
+        }
+    }
+
+    /**
+     * Feladványokat ír egy új tárba. A rekordokat azonnal a fájlba írja, a memóriában rekordonként
+     * csak a három indexkulcsot tartja, az indexeket a {@link #close()} írja ki.
+     */
+    public static final class Writer implements AutoCloseable {
+        private static final int BUFFER_RECORDS = 4096;
+        private final Path path;
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_RECORDS * RECORD_SIZE);
+        private final DifficultyGrader grader = new DifficultyGrader();
+        private byte[] keys = new byte[3 * 1024];
+        private int count;
+        private boolean closed;
+
+        /**
+         * Létrehoz egy írót, és üres fejlécet ír a fájlba.
+         *
+         * @param path a fájl
+         * @throws IOException ha a fájl nem hozható létre
+         */
+        private Writer(Path path) throws IOException {
+            this.path = path;
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            channel.write(ByteBuffer.allocate(HEADER_SIZE));
+        }
+
+        /**
+         * Értékeli és hozzáadja a feladványt a tárhoz.
+         *
+         * @param puzzle a feladvány
+         * @return a rekord helye
+         * @throws IOException ha az írás nem sikerült
+         */
+        public long add(Puzzle puzzle) throws IOException {
+            return add(puzzle, grader.grade(puzzle));
+        }
+
+        /**
+         * Hozzáadja a feladványt a megadott értékeléssel a tárhoz.
+         *
+         * @param puzzle a feladvány
+         * @param grade  a feladvány értékelése
+         * @return a rekord helye
+         * @throws IOException ha az írás nem sikerült
+         */
+        public long add(Puzzle puzzle, Grade grade) throws IOException {
+            if (closed) {
+                throw new IllegalStateException("A tár írása már lezárult!");
+            }
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+            int start = buffer.position();
+            PackedGrid.pack(puzzle.getGivens(), buffer, start);
+            PackedGrid.pack(puzzle.getSolution(), buffer, start + SOLUTION_OFFSET);
+            int rating = Math.min(grade.getRating(), 0xFFFF);
+            buffer.put(start + RATING_OFFSET, (byte) (rating >> 8));
+            buffer.put(start + RATING_OFFSET + 1, (byte) rating);
+            int technique = techniqueKey(grade.getHardestTechnique());
+            buffer.put(start + TECHNIQUE_OFFSET, (byte) technique);
+            buffer.put(start + DIFFICULTY_OFFSET, (byte) puzzle.getDifficulty().ordinal());
+            buffer.put(start + CLUES_OFFSET, (byte) puzzle.getClueCount());
+            buffer.put(start + FLAGS_OFFSET, (byte) (grade.isSolved() ? SOLVED_FLAG : 0));
+            buffer.position(start + RECORD_SIZE);
+
+            if (3 * count + 3 > keys.length) {
+                keys = Arrays.copyOf(keys, keys.length * 2);
+            }
+            keys[3 * count] = (byte) puzzle.getDifficulty().ordinal();
+            keys[3 * count + 1] = (byte) puzzle.getClueCount();
+            keys[3 * count + 2] = (byte) technique;
+            return HEADER_SIZE + (long) count++ * RECORD_SIZE;
+        }
+
+        /**
+         * Visszaadja az eddig hozzáadott feladványok számát.
+         *
+         * @return a feladványok száma
+         */
+        public int size() {
+            return count;
+        }
+
+        /**
+         * Kiírja az indexeket és a fejlécet, majd lezárja a fájlt.
+         *
+         * @throws IOException ha az írás nem sikerült
+         */
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                flush();
+                long indexOffset = HEADER_SIZE + (long) count * RECORD_SIZE;
+                writeIndex(0, DIFFICULTY_KEYS);
+                writeIndex(1, CLUE_KEYS);
+                writeIndex(2, TECHNIQUE_KEYS);
+
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                header.putInt(MAGIC).putInt(VERSION).putInt(RECORD_SIZE).putInt(count).putLong(indexOffset);
+                header.flip();
+                channel.write(header, 0);
+                channel.force(false);
+                Logger.debug("Feladvány tár elkészült: {} ({} rekord)", path, count);
+            } finally {
+                channel.close();
+            }
+        }
+
+        /**
+         * Kiírja az egyik indexet: a kulcsok kezdőpozícióit, majd kulcsonként a rekordok sorszámait
+         * (leszámláló rendezéssel, így kulcson belül a rekordok tárbeli sorrendje marad).
+         *
+         * @param field    a kulcs helye a rekordonkénti kulcsok között
+         * @param keyCount a kulcsok száma
+         * @throws IOException ha az írás nem sikerült
+         */
+        private void writeIndex(int field, int keyCount) throws IOException {
+            int[] starts = new int[keyCount + 1];
+            for (int i = 0; i < count; i++) {
+                starts[(keys[3 * i + field] & 0xFF) + 1]++;
+            }
+            for (int key = 0; key < keyCount; key++) {
+                starts[key + 1] += starts[key];
+            }
+            int[] records = new int[count];
+            int[] next = Arrays.copyOf(starts, keyCount);
+            for (int i = 0; i < count; i++) {
+                records[next[keys[3 * i + field] & 0xFF]++] = i;
+            }
+            writeInts(starts);
+            writeInts(records);
+        }
+
+        /**
+         * Kiír egy egész tömböt a fájl végére.
+         *
+         * @param values az egészek
+         * @throws IOException ha az írás nem sikerült
+         */
+        private void writeInts(int[] values) throws IOException {
+            for (int value : values) {
+                if (buffer.remaining() < Integer.BYTES) {
+                    flush();
+                }
+                buffer.putInt(value);
+            }
+            flush();
+        }
+
+        /**
+         * Kiírja a puffer tartalmát a fájlba.
+         *
+         * @throws IOException ha az írás nem sikerült
+         */
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
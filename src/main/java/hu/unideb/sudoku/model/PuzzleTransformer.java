@@ -0,0 +1,139 @@
+package hu.unideb.sudoku.model;
+
+import java.util.random.RandomGenerator;
+
+import static hu.unideb.sudoku.model.BitBoard.*;
+
+/**
+ * A Sudoku tábla egy szimmetria-transzformációja, amely érvényes feladványból érvényes,
+ * azonos megoldásszámú és azonos nehézségű feladványt készít.
+ * A transzformáció részei: a számjegyek átcímkézése, a sorok cseréje a sávokon belül,
+ * az oszlopok cseréje az oszlopsávokon belül, a sávok és oszlopsávok cseréje, valamint a tükrözés a főátlóra.
+ * Ezek kombinálásával egy feladványból nagyjából 1,2 billió különböző alak állítható elő.
+ */
+public final class PuzzleTransformer {
+    private final int[] digitMap;
+    private final int[] rowMap;
+    private final int[] colMap;
+    private final boolean transpose;
+
+    /**
+     * Létrehoz egy transzformációt a megadott leképezésekből.
+     *
+     * @param digitMap  a számjegyek új értéke (1..9 indexelve, a 0. elem 0)
+     * @param rowMap    az új tábla i. sora a régi tábla rowMap[i]. sora
+     * @param colMap    az új tábla j. oszlopa a régi tábla colMap[j]. oszlopa
+     * @param transpose igaz, ha a táblát a főátlóra is tükrözni kell
+     */
+    PuzzleTransformer(int[] digitMap, int[] rowMap, int[] colMap, boolean transpose) {
+        this.digitMap = digitMap;
+        this.rowMap = rowMap;
+        this.colMap = colMap;
+        this.transpose = transpose;
+    }
+
+    /**
+     * Véletlenszerű transzformációt készít.
+     *
+     * @param random a véletlenszám generátor
+     * @return az új transzformáció
+     */
+    public static PuzzleTransformer random(RandomGenerator random) {
+        int[] digits = permutation(SIZE, random);
+        int[] digitMap = new int[SIZE + 1];
+        for (int i = 0; i < SIZE; i++) {
+            digitMap[i + 1] = digits[i] + 1;
+        }
+        return new PuzzleTransformer(digitMap, linePermutation(random), linePermutation(random), random.nextBoolean());
+    }
+
+    /**
+     * Alkalmazza a transzformációt egy táblára.
+     *
+     * @param grid a 81 elemű tábla, 0 jelöli az üres cellát
+     * @return az átalakított új tábla
+     */
+    public int[] apply(int[] grid) {
+        int[] result = new int[CELLS];
+        for (int row = 0; row < SIZE; row++) {
+            for (int col = 0; col < SIZE; col++) {
+                int sourceRow = rowMap[row];
+                int sourceCol = colMap[col];
+                int source = transpose ? index(sourceCol, sourceRow) : index(sourceRow, sourceCol);
+                result[index(row, col)] = digitMap[grid[source]];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Elkészíti az inverz transzformációt, amely az átalakított táblából visszaállítja az eredetit.
+     * Tükrözésnél a sor- és oszlopleképezés szerepet cserél.
+     *
+     * @return az inverz transzformáció
+     */
+    public PuzzleTransformer inverse() {
+        int[] inverseDigits = new int[SIZE + 1];
+        for (int digit = 1; digit <= SIZE; digit++) {
+            inverseDigits[digitMap[digit]] = digit;
+        }
+        int[] inverseRows = new int[SIZE];
+        int[] inverseCols = new int[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            inverseRows[rowMap[i]] = i;
+            inverseCols[colMap[i]] = i;
+        }
+        return transpose
+                ? new PuzzleTransformer(inverseDigits, inverseCols, inverseRows, true)
+                : new PuzzleTransformer(inverseDigits, inverseRows, inverseCols, false);
+    }
+
+    /**
+     * Alkalmazza a transzformációt egy feladványra és a megoldására.
+     *
+     * @param puzzle az átalakítandó feladvány
+     * @return az átalakított új feladvány, azonos nehézségi szinttel
+     */
+    public Puzzle apply(Puzzle puzzle) {
+        return new Puzzle(apply(puzzle.getGivens()), apply(puzzle.getSolution()), puzzle.getDifficulty());
+    }
+
+    /**
+     * Véletlen sor- (vagy oszlop-) sorrendet készít: a sávokat, majd a sávokon belül a sorokat keveri.
+     *
+     * @param random a véletlenszám generátor
+     * @return a 9 elemű leképezés
+     */
+    private static int[] linePermutation(RandomGenerator random) {
+        int[] bands = permutation(BOX_SIZE, random);
+        int[] lines = new int[SIZE];
+        for (int band = 0; band < BOX_SIZE; band++) {
+            int[] inner = permutation(BOX_SIZE, random);
+            for (int i = 0; i < BOX_SIZE; i++) {
+                lines[band * BOX_SIZE + i] = bands[band] * BOX_SIZE + inner[i];
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Véletlen permutációt készít a 0..n-1 számokból (Fisher–Yates keverés).
+     *
+     * @param n      a permutáció hossza
+     * @param random a véletlenszám generátor
+     * @return a permutáció
+     */
+    private static int[] permutation(int n, RandomGenerator random) {
+        int[] result = new int[n];
+        for (int i = 0; i < n; i++) {
+            result[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = result[i];
+            result[i] = result[j];
+            result[j] = tmp;
+        }
+        return result;
+    }
+}
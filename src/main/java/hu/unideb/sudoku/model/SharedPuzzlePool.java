@@ -0,0 +1,325 @@
+package hu.unideb.sudoku.model;
+
+import org.tinylog.Logger;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+import static hu.unideb.sudoku.model.BitBoard.CELLS;
+
+/**
+ * Egy gépen futó több alkalmazáspéldány (folyamat) közös feladványkészlete egy memóriába leképezett fájlban.
+ * Amíg a {@link PuzzlePool} egy JVM-en belül tart kész feladványokat, ezt a készletet bármelyik példány
+ * vagy egy külön segédfolyamat ({@link #main(String[])}) feltöltheti, és minden példány azonnal vehet belőle,
+ * így a generálás költsége gépenként egyszer jelentkezik, nem folyamatonként.
+ * <p>
+ * Nehézségi szintenként egy rögzített méretű, zármentes gyűrű tárolja a feladványokat
+ * (korlátos, több író és több olvasó számára alkalmas sor, rekeszenkénti sorszámmal).
+ * Íráskor a folyamat a beírási pozíció összehasonlító cseréjével (CAS) lefoglal egy rekeszt,
+ * beleírja a feladványt, majd a rekesz sorszámának kiadó írásával közzéteszi; olvasáskor ugyanígy
+ * foglal a kiolvasási pozíción, és a sorszám továbbléptetésével szabadítja fel a rekeszt.
+ * Az atomi műveleteket a leképezett pufferre illesztett {@link VarHandle} végzi, ezek folyamatok között is
+ * atomiak. Fájlzárat csak a megnyitás (a fejléc ellenőrzése és a fájl első kialakítása) használ.
+ * <p>
+ * Ha egy folyamat a foglalás és a közzététel között leáll, a gyűrű az adott rekesznél megakad
+ * (a készlet üresnek vagy telinek látszik); ilyenkor a fájl törlésével a készlet újraépül.
+ */
+public final class SharedPuzzlePool {
+    /**
+     * A közös készlet fájljának helyét megadó rendszertulajdonság neve; ha nincs megadva, nincs közös készlet.
+     */
+    public static final String PATH_PROPERTY = "sudoku.sharedPool";
+    /**
+     * A szintenkénti rekeszek alapértelmezett száma.
+     */
+    public static final int DEFAULT_CAPACITY = 16;
+    private static final int MAGIC = 0x53444B50;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int LINE_SIZE = 64;
+    private static final int SLOT_SIZE = 128;
+    private static final int ENQUEUE_OFFSET = 0;
+    private static final int DEQUEUE_OFFSET = LINE_SIZE;
+    private static final int RING_HEADER_SIZE = 2 * LINE_SIZE;
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final VarHandle INTS = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+    private static SharedPuzzlePool defaultPool;
+    private static boolean defaultResolved;
+    private final Path path;
+    private final int capacity;
+    private final MappedByteBuffer buffer;
+
+    /**
+     * Létrehoz egy készletet a leképezett fájlból.
+     *
+     * @param path     a fájl
+     * @param capacity a szintenkénti rekeszek száma
+     * @param buffer   a leképezett fájl
+     */
+    private SharedPuzzlePool(Path path, int capacity, MappedByteBuffer buffer) {
+        this.path = path;
+        this.capacity = capacity;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Megnyitja a {@value #PATH_PROPERTY} rendszertulajdonságban megadott közös készletet, első használatkor.
+     *
+     * @return a közös készlet, üres ha nincs megadva, vagy nem nyitható meg
+     */
+    public static synchronized Optional<SharedPuzzlePool> getDefault() {
+        if (!defaultResolved) {
+            defaultResolved = true;
+            String location = System.getProperty(PATH_PROPERTY);
+            if (location != null && !location.isBlank()) {
+                try {
+                    defaultPool = open(Path.of(location), DEFAULT_CAPACITY);
+                } catch (IOException | IllegalArgumentException e) {
+                    Logger.warn("A közös feladvány készlet nem nyitható meg: {}", e.getMessage());
+                }
+            }
+        }
+        return Optional.ofNullable(defaultPool);
+    }
+
+    /**
+     * Megnyitja a közös készletet, ha a fájl még nem létezik, létrehozza.
+     * Több folyamat egyszerre is megnyithatja: a fejléc ellenőrzését és a kialakítást fájlzár védi,
+     * egy folyamaton belül pedig a hívások egymás után futnak, mert a fájlzár a teljes folyamatra vonatkozik.
+     * A fejlécet a leképezés előtt ellenőrzi, így eltérő méretű meglévő fájlt nem növel meg.
+     * Csak üres fájlt alakít ki, vagy pontosan készletméretű, azonosító nélküli fájlt (megszakadt kialakítás);
+     * más meglévő fájlt nem ír felül.
+     *
+     * @param path     a fájl
+     * @param capacity a szintenkénti rekeszek száma, meglévő fájl esetén egyeznie kell
+     * @return a megnyitott készlet
+     * @throws IOException              ha a fájl nem nyitható meg
+     * @throws IllegalArgumentException ha a fájl nem közös készlet, vagy más a mérete
+     */
+    public static synchronized SharedPuzzlePool open(Path path, int capacity) throws IOException {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("A készlet mérete legalább 1 kell legyen!");
+        }
+        long size = HEADER_SIZE + (long) GameDifficulty.values().length * (RING_HEADER_SIZE + (long) capacity * SLOT_SIZE);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            FileLock lock = channel.lock();
+            try {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                channel.read(header, 0);
+                int magic = (int) INTS.get(header, 0);
+                if (magic != MAGIC) {
+                    long existing = channel.size();
+                    if (existing != 0 && (existing != size || magic != 0)) {
+                        throw new IllegalArgumentException("A fájl nem közös feladvány készlet: " + path);
+                    }
+                    MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                    initialize(buffer, capacity);
+                    Logger.info("Közös feladvány készlet létrehozva: {}", path);
+                    return new SharedPuzzlePool(path, capacity, buffer);
+                }
+                if (header.getInt(4) != VERSION || header.getInt(8) != capacity
+                        || header.getInt(12) != GameDifficulty.values().length) {
+                    throw new IllegalArgumentException("Eltérő formátumú közös feladvány készlet: " + path);
+                }
+                return new SharedPuzzlePool(path, capacity, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+            } finally {
+                lock.release();
+            }
+        }
+    }
+
+    /**
+     * Kialakítja az üres gyűrűket: minden rekesz sorszáma a saját indexe, majd utolsóként
+     * kiadó írással beírja az azonosítót, így más folyamat csak kész fájlt lát érvényesnek.
+     *
+     * @param buffer   a leképezett fájl
+     * @param capacity a szintenkénti rekeszek száma
+     */
+    private static void initialize(MappedByteBuffer buffer, int capacity) {
+        buffer.putInt(4, VERSION);
+        buffer.putInt(8, capacity);
+        buffer.putInt(12, GameDifficulty.values().length);
+        for (int level = 0; level < GameDifficulty.values().length; level++) {
+            int ring = ringOffset(level, capacity);
+            LONGS.set(buffer, ring + ENQUEUE_OFFSET, 0L);
+            LONGS.set(buffer, ring + DEQUEUE_OFFSET, 0L);
+            for (int slot = 0; slot < capacity; slot++) {
+                LONGS.set(buffer, ring + RING_HEADER_SIZE + slot * SLOT_SIZE, (long) slot);
+            }
+        }
+        INTS.setRelease(buffer, 0, MAGIC);
+        buffer.force();
+    }
+
+    /**
+     * Kiszámítja egy szint gyűrűjének kezdetét.
+     *
+     * @param level    a szint sorszáma
+     * @param capacity a szintenkénti rekeszek száma
+     * @return a gyűrű kezdete
+     */
+    private static int ringOffset(int level, int capacity) {
+        return HEADER_SIZE + level * (RING_HEADER_SIZE + capacity * SLOT_SIZE);
+    }
+
+    /**
+     * Visszaadja a készlet fájlját.
+     *
+     * @return a fájl
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Visszaadja a szintenkénti rekeszek számát.
+     *
+     * @return a rekeszek száma
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Betesz egy feladványt a szintjének gyűrűjébe.
+     *
+     * @param puzzle a feladvány
+     * @return Igaz, ha volt szabad rekesz.
+     */
+    public boolean offer(Puzzle puzzle) {
+        int ring = ringOffset(puzzle.getDifficulty().ordinal(), capacity);
+        while (true) {
+            long position = (long) LONGS.getAcquire(buffer, ring + ENQUEUE_OFFSET);
+            int slot = slotOffset(ring, position);
+            long sequence = (long) LONGS.getAcquire(buffer, slot);
+            long difference = sequence - position;
+            if (difference == 0) {
+                if (LONGS.compareAndSet(buffer, ring + ENQUEUE_OFFSET, position, position + 1)) {
+                    PackedGrid.pack(puzzle.getGivens(), buffer, slot + Long.BYTES);
+                    PackedGrid.pack(puzzle.getSolution(), buffer, slot + Long.BYTES + PackedGrid.BYTES);
+                    LONGS.setRelease(buffer, slot, position + 1);
+                    return true;
+                }
+            } else if (difference < 0) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Kivesz egy kész feladványt a megadott szint gyűrűjéből.
+     *
+     * @param difficulty a nehézségi szint
+     * @return a feladvány, üres ha a gyűrű üres
+     */
+    public Optional<Puzzle> poll(GameDifficulty difficulty) {
+        if (difficulty == null) {
+            return Optional.empty();
+        }
+        int ring = ringOffset(difficulty.ordinal(), capacity);
+        while (true) {
+            long position = (long) LONGS.getAcquire(buffer, ring + DEQUEUE_OFFSET);
+            int slot = slotOffset(ring, position);
+            long sequence = (long) LONGS.getAcquire(buffer, slot);
+            long difference = sequence - (position + 1);
+            if (difference == 0) {
+                if (LONGS.compareAndSet(buffer, ring + DEQUEUE_OFFSET, position, position + 1)) {
+                    int[] givens = new int[CELLS];
+                    int[] solution = new int[CELLS];
+                    PackedGrid.unpack(buffer, slot + Long.BYTES, givens);
+                    PackedGrid.unpack(buffer, slot + Long.BYTES + PackedGrid.BYTES, solution);
+                    LONGS.setRelease(buffer, slot, position + capacity);
+                    return Optional.of(new Puzzle(givens, solution, difficulty));
+                }
+            } else if (difference < 0) {
+                return Optional.empty();
+            }
+        }
+    }
+
+    /**
+     * Visszaadja a megadott szinten közzétett, még ki nem vett feladványok hozzávetőleges számát.
+     *
+     * @param difficulty a nehézségi szint
+     * @return a feladványok száma
+     */
+    public int size(GameDifficulty difficulty) {
+        int ring = ringOffset(difficulty.ordinal(), capacity);
+        long dequeued = (long) LONGS.getAcquire(buffer, ring + DEQUEUE_OFFSET);
+        long enqueued = (long) LONGS.getAcquire(buffer, ring + ENQUEUE_OFFSET);
+        return (int) Math.max(0, Math.min(capacity, enqueued - dequeued));
+    }
+
+    /**
+     * Feltölti a megadott szint gyűrűjét a generátorral, amíg van szabad rekesz, vagy a jelző megszakítást kér.
+     * Megszakításkor a félbemaradt (a kértnél kevesebb törlésű) feladvány nem kerül a készletbe.
+     *
+     * @param generator  a generátor
+     * @param difficulty a nehézségi szint
+     * @param token      a feltöltés megszakítására szolgáló jelző
+     * @return a betett feladványok száma
+     */
+    public int refill(PuzzleGenerator generator, GameDifficulty difficulty, CancellationToken token) {
+        int added = 0;
+        while (size(difficulty) < capacity && !token.isCancelled()) {
+            Puzzle puzzle = generator.generate(difficulty, token);
+            if (token.isCancelled() || !offer(puzzle)) {
+                break;
+            }
+            added++;
+        }
+        return added;
+    }
+
+    /**
+     * Kiszámítja egy pozíció rekeszének kezdetét.
+     *
+     * @param ring     a gyűrű kezdete
+     * @param position a beírási vagy kiolvasási pozíció
+     * @return a rekesz kezdete
+     */
+    private int slotOffset(int ring, long position) {
+        return ring + RING_HEADER_SIZE + (int) (position % capacity) * SLOT_SIZE;
+    }
+
+    /**
+     * Segédfolyamatként tölti a közös készletet.
+     * Paraméterek: a fájl, a szintenkénti rekeszek száma (elhagyható) és az ellenőrzések közti várakozás
+     * ezredmásodpercben (elhagyható; 0 esetén egyszer tölt fel, majd kilép).
+     *
+     * @param args parancssori argumentumok
+     * @throws IOException          ha a fájl nem nyitható meg
+     * @throws InterruptedException ha a várakozás megszakad
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 1) {
+            throw new IllegalArgumentException("Használat: SharedPuzzlePool <fájl> [méret] [várakozás ms]");
+        }
+        int capacity = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_CAPACITY;
+        long interval = args.length > 2 ? Long.parseLong(args[2]) : 0;
+        SharedPuzzlePool pool = open(Path.of(args[0]), capacity);
+        PuzzleGenerator generator = new PuzzleGenerator();
+        while (true) {
+            for (GameDifficulty difficulty : GameDifficulty.values()) {
+                int added = pool.refill(generator, difficulty, new CancellationToken());
+                if (added > 0) {
+                    Logger.info("Közös készlet {}: {} új feladvány", difficulty, added);
+                }
+            }
+            if (interval <= 0) {
+                return;
+            }
+            Thread.sleep(interval);
+        }
+    }
+}
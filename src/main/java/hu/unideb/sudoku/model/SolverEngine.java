@@ -0,0 +1,89 @@
+package hu.unideb.sudoku.model;
+
+/**
+ * Sudoku megoldó motorok közös felülete.
+ * A megvalósításokat a {@link java.util.ServiceLoader} fedezi fel
+ * (META-INF/services/hu.unideb.sudoku.model.SolverEngine), ezért mindegyiknek
+ * publikus, paraméter nélküli konstruktorral kell rendelkeznie.
+ * A táblát 81 elemű, sorfolytonos tömbként kapják, ahol 0 jelöli az üres cellát.
+ * Egy példány nem szálbiztos, szálanként külön példányt kell használni.
+ */
+public interface SolverEngine {
+
+    /**
+     * Visszaadja a motor egyedi nevét, amellyel konfigurációban hivatkozni lehet rá.
+     *
+     * @return a motor neve
+     */
+    String getName();
+
+    /**
+     * Megszámolja a tábla megoldásait legfeljebb a megadott korlátig,
+     * és az elsőként megtalált megoldást kimásolja.
+     *
+     * @param grid     81 elemű tömb, 0 jelöli az üres cellát
+     * @param limit    ennyi megoldás után leáll a keresés
+     * @param solution ide kerül az első megoldás, ha nem null és van megoldás
+     * @return a megtalált megoldások száma (legfeljebb limit)
+     */
+    int countSolutions(int[] grid, int limit, int[] solution);
+
+    /**
+     * Megszámolja a tábla megoldásait legfeljebb a megadott korlátig.
+     *
+     * @param grid  81 elemű tömb, 0 jelöli az üres cellát
+     * @param limit ennyi megoldás után leáll a keresés
+     * @return a megtalált megoldások száma (legfeljebb limit)
+     */
+    default int countSolutions(int[] grid, int limit) {
+        return countSolutions(grid, limit, null);
+    }
+
+    /**
+     * Megoldja a táblát, a megoldást a kapott tömbbe írja.
+     *
+     * @param grid 81 elemű tömb, 0 jelöli az üres cellát
+     * @return Igaz, ha van megoldás, ekkor a tömb kitöltött állapotba kerül.
+     */
+    default boolean solve(int[] grid) {
+        return countSolutions(grid, 1, grid) == 1;
+    }
+
+    /**
+     * Ellenőrzi, hogy a táblának pontosan egy megoldása van-e.
+     *
+     * @param grid 81 elemű tömb, 0 jelöli az üres cellát
+     * @return Igaz, ha a megoldás egyértelmű.
+     */
+    default boolean isUnique(int[] grid) {
+        return countSolutions(grid, 2) == 1;
+    }
+
+    /**
+     * Ellenőrzi, hogy van-e a táblának olyan megoldása, amelyben a megadott cella értéke
+     * eltér a kizárt értéktől. Az első talált megoldásnál leáll.
+     * Ha egy egyértelmű táblából egyetlen, ismert értékű cellát törlünk, akkor a tábla pontosan akkor
+     * marad egyértelmű, ha ilyen megoldás nincs, így nem kell az összes megoldást újra megkeresni.
+     *
+     * @param grid     81 elemű tömb, 0 jelöli az üres cellát, a hívás után változatlan marad
+     * @param cell     a vizsgált cella indexe
+     * @param excluded a cellában kizárt érték
+     * @return Igaz, ha létezik a kizárt értéktől eltérő megoldás.
+     */
+    default boolean hasSolutionExcluding(int[] grid, int cell, int excluded) {
+        int backup = grid[cell];
+        try {
+            for (int value = 1; value <= BitBoard.SIZE; value++) {
+                if (value != excluded) {
+                    grid[cell] = value;
+                    if (countSolutions(grid, 1) > 0) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        } finally {
+            grid[cell] = backup;
+        }
+    }
+}
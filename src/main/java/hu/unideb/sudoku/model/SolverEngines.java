@@ -0,0 +1,136 @@
+package hu.unideb.sudoku.model;
+
+import org.tinylog.Logger;
+
+import java.util.*;
+
+/**
+ * A {@link ServiceLoader} által felfedezett megoldó motorok nyilvántartása.
+ * Az alapértelmezett motort a {@value #SOLVER_PROPERTY} rendszertulajdonság határozza meg;
+ * ha nincs megadva (vagy "auto" az értéke), egy rövid kalibráció választja ki a leggyorsabbat.
+ */
+public final class SolverEngines {
+    /**
+     * A motor kiválasztására szolgáló rendszertulajdonság neve.
+     */
+    public static final String SOLVER_PROPERTY = "sudoku.solver";
+    private static final String AUTO = "auto";
+    private static final int CALIBRATION_ROUNDS = 5;
+    private static final String[] CALIBRATION_PUZZLES = {
+            "042030006003400270500090300070016490000005008256000700009061050000000000000000964",
+            "102030600900100040000000003054906000600308050080054060000743000301005400400000007",
+            "019000608000200100000070090030827000790150840508300002020010007000004500000500060"
+    };
+    private static Map<String, ServiceLoader.Provider<SolverEngine>> providers;
+    private static String defaultName;
+
+    /**
+     * Privát konstruktor.
+     */
+    private SolverEngines() {
+    }
+
+    /**
+     * Visszaadja az elérhető motorok neveit a felfedezés sorrendjében.
+     *
+     * @return a motorok nevei
+     */
+    public static synchronized List<String> availableNames() {
+        return new ArrayList<>(providers().keySet());
+    }
+
+    /**
+     * Létrehoz egy új példányt a megadott nevű motorból.
+     *
+     * @param name a motor neve
+     * @return az új motor példány
+     * @throws IllegalArgumentException ha nincs ilyen nevű motor
+     */
+    public static synchronized SolverEngine create(String name) {
+        ServiceLoader.Provider<SolverEngine> provider = providers().get(name);
+        if (provider == null) {
+            throw new IllegalArgumentException("Ismeretlen megoldó motor: " + name);
+        }
+        return provider.get();
+    }
+
+    /**
+     * Visszaadja az alapértelmezett motor nevét.
+     * Az első hívás olvassa ki a konfigurációt, illetve futtatja a kalibrációt.
+     *
+     * @return az alapértelmezett motor neve
+     */
+    public static synchronized String defaultName() {
+        if (defaultName == null) {
+            String configured = System.getProperty(SOLVER_PROPERTY, AUTO);
+            if (!AUTO.equals(configured) && providers().containsKey(configured)) {
+                defaultName = configured;
+            } else {
+                if (!AUTO.equals(configured)) {
+                    Logger.warn("Ismeretlen megoldó motor: {}, kalibrációval választunk.", configured);
+                }
+                defaultName = calibrate();
+            }
+            Logger.debug("Alapértelmezett megoldó motor: {}", defaultName);
+        }
+        return defaultName;
+    }
+
+    /**
+     * Létrehoz egy új példányt az alapértelmezett motorból.
+     *
+     * @return az új motor példány
+     */
+    public static SolverEngine createDefault() {
+        return create(defaultName());
+    }
+
+    /**
+     * Lefuttatja az összes motort néhány beépített feladványon, és visszaadja a leggyorsabb nevét.
+     * Az első kör bemelegítés, azt nem számítja bele.
+     *
+     * @return a leggyorsabb motor neve
+     */
+    static String calibrate() {
+        int[][] puzzles = new int[CALIBRATION_PUZZLES.length][];
+        for (int i = 0; i < puzzles.length; i++) {
+            puzzles[i] = Puzzle.parseGrid(CALIBRATION_PUZZLES[i]);
+        }
+
+        String fastest = null;
+        long fastestTime = Long.MAX_VALUE;
+        for (String name : availableNames()) {
+            SolverEngine engine = create(name);
+            long elapsed = 0;
+            for (int round = 0; round <= CALIBRATION_ROUNDS; round++) {
+                long start = System.nanoTime();
+                for (int[] puzzle : puzzles) {
+                    engine.countSolutions(puzzle, 2);
+                }
+                if (round > 0) {
+                    elapsed += System.nanoTime() - start;
+                }
+            }
+            Logger.debug("Kalibráció: {} {} µs", name, elapsed / 1000);
+            if (elapsed < fastestTime) {
+                fastest = name;
+                fastestTime = elapsed;
+            }
+        }
+        return fastest;
+    }
+
+    /**
+     * Betölti a szolgáltatókat, és név szerint eltárolja őket.
+     *
+     * @return a motorok név szerint
+     */
+    private static Map<String, ServiceLoader.Provider<SolverEngine>> providers() {
+        if (providers == null) {
+            providers = new LinkedHashMap<>();
+            ServiceLoader.load(SolverEngine.class).stream()
+                    .forEach(provider -> providers.putIfAbsent(provider.get().getName(), provider));
+        }
+        return providers;
+    }
+}
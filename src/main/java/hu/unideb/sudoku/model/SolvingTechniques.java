@@ -0,0 +1,189 @@
+package hu.unideb.sudoku.model;
+
+import static hu.unideb.sudoku.model.BitBoard.*;
+
+/**
+ * A segítő algoritmusok (full house, naked single, hidden single, naked pair, hidden pair)
+ * bitmaszkos magja. A {@link GameModel} segítség funkciói és a {@link DifficultyGrader} is ezeket használja,
+ * így a nehézség értékelése pontosan azokat a lépéseket veszi alapul, amelyeket a játékos segítségként kaphat.
+ * A metódusok nem készítenek halmazokat és nem naplóznak, a táblán tárolt lehetséges értékekkel dolgoznak.
+ */
+public final class SolvingTechniques {
+
+    /**
+     * A talált párokat feldolgozó művelet.
+     */
+    @FunctionalInterface
+    public interface PairConsumer {
+        /**
+         * Feldolgoz egy talált párt.
+         *
+         * @param first      a pár első cellája
+         * @param second     a pár második cellája
+         * @param pairValues a pár két értékének maszkja
+         */
+        void accept(int first, int second, int pairValues);
+    }
+
+    /**
+     * Privát konstruktor.
+     */
+    private SolvingTechniques() {
+    }
+
+    /**
+     * Full house: ha a házban pontosan egy üres cella maradt, visszaadja azt.
+     *
+     * @param board a tábla
+     * @param house a ház cellái
+     * @return az egyetlen üres cella indexe, -1 ha nincs vagy több van
+     */
+    public static int fullHouseCell(BitBoard board, int[] house) {
+        int emptyCellCount = 0;
+        int fullHouseCell = -1;
+        for (int cell : house) {
+            if (board.getValue(cell) == 0) {
+                emptyCellCount++;
+                fullHouseCell = cell;
+            }
+        }
+        return emptyCellCount == 1 ? fullHouseCell : -1;
+    }
+
+    /**
+     * Naked single: visszaadja a cella egyetlen lehetséges értékét.
+     *
+     * @param board a tábla
+     * @param cell  a cella indexe
+     * @return az egyetlen lehetséges érték, 0 ha a cella kitöltött vagy nem egy lehetséges értéke van
+     */
+    public static int nakedSingleValue(BitBoard board, int cell) {
+        int possibleValues = board.getCandidates(cell);
+        if (board.getValue(cell) == 0 && Integer.bitCount(possibleValues) == 1) {
+            return lowestValue(possibleValues);
+        }
+        return 0;
+    }
+
+    /**
+     * Hidden single: azokat a lehetséges értékeket adja vissza, amelyek a cella sorában, oszlopában és blokkjában
+     * egyetlen más cellában sem lehetségesek.
+     *
+     * @param board a tábla
+     * @param cell  a cella indexe
+     * @return a rejtett egyesek maszkja, 0 ha nincs ilyen vagy a cella kitöltött
+     */
+    public static int hiddenSingleMask(BitBoard board, int cell) {
+        if (board.getValue(cell) != 0) {
+            return 0;
+        }
+        return board.getCandidates(cell) & ~peerCandidates(board, cell);
+    }
+
+    /**
+     * Hidden single házanként: azokat a lehetséges értékeket adja vissza, amelyek a cella sorában,
+     * oszlopában vagy blokkjában közül legalább egyben csak ebben a cellában lehetségesek.
+     * Ez a szokásos hidden single definíció, a {@link #hiddenSingleMask(BitBoard, int)}-nél több értéket talál.
+     *
+     * @param board a tábla
+     * @param cell  a cella indexe
+     * @return a rejtett egyesek maszkja, 0 ha nincs ilyen vagy a cella kitöltött
+     */
+    public static int houseHiddenSingleMask(BitBoard board, int cell) {
+        if (board.getValue(cell) != 0) {
+            return 0;
+        }
+        int unique = 0;
+        for (int house : housesOf(cell)) {
+            unique |= ~otherCandidates(board, houseCells(house), cell);
+        }
+        return board.getCandidates(cell) & unique;
+    }
+
+    /**
+     * Összegyűjti a ház többi cellájának lehetséges értékeit.
+     *
+     * @param board a tábla
+     * @param house a ház cellái
+     * @param cell  a kihagyandó cella
+     * @return a többi cella lehetséges értékeinek uniója
+     */
+    private static int otherCandidates(BitBoard board, int[] house, int cell) {
+        int mask = 0;
+        for (int other : house) {
+            if (other != cell) {
+                mask |= board.getCandidates(other);
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Összegyűjti, hogy a cella sorában, oszlopában és blokkjában lévő többi cella mely értékeket tartalmazza
+     * lehetséges értékként. Ami ebben nem szerepel, az csak az adott cellában lehetséges.
+     *
+     * @param board a tábla
+     * @param cell  a vizsgált cella indexe
+     * @return a szomszédos cellák lehetséges értékeinek uniója
+     */
+    public static int peerCandidates(BitBoard board, int cell) {
+        int mask = 0;
+        for (int peer : peersOf(cell)) {
+            mask |= board.getCandidates(peer);
+        }
+        return mask;
+    }
+
+    /**
+     * Naked pair: megkeresi a házban azokat a cellapárokat, amelyeknek pontosan ugyanaz a két lehetséges értéke van.
+     *
+     * @param board    a tábla
+     * @param house    a ház cellái
+     * @param consumer a talált párokat feldolgozó művelet
+     */
+    public static void findNakedPairs(BitBoard board, int[] house, PairConsumer consumer) {
+        for (int i = 0; i < house.length; i++) {
+            int pairValues = board.getCandidates(house[i]);
+            if (Integer.bitCount(pairValues) == 2) {
+                for (int j = i + 1; j < house.length; j++) {
+                    if (board.getCandidates(house[j]) == pairValues) {
+                        consumer.accept(house[i], house[j], pairValues);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Hidden pair: megkeresi a házban azokat az értékpárokat, amelyek csak ugyanabban a két cellában lehetségesek.
+     * Minden értékhez kiszámolja, hogy a ház mely celláiban lehetséges (pozíció maszk).
+     * Ha egy érték csak két cellában szerepel, és egy másik érték ugyanazokban a cellákban, akkor az rejtett pár.
+     * Minden párt mindkét értéksorrendben jelez.
+     *
+     * @param board    a tábla
+     * @param house    a ház cellái
+     * @param consumer a talált párokat feldolgozó művelet
+     */
+    public static void findHiddenPairs(BitBoard board, int[] house, PairConsumer consumer) {
+        int[] valueOccurrences = new int[SIZE + 1];
+        for (int i = 0; i < house.length; i++) {
+            int possibleValues = board.getCandidates(house[i]);
+            while (possibleValues != 0) {
+                valueOccurrences[lowestValue(possibleValues)] |= 1 << i;
+                possibleValues &= possibleValues - 1;
+            }
+        }
+
+        for (int value = 1; value <= SIZE; value++) {
+            if (Integer.bitCount(valueOccurrences[value]) == 2) {
+                for (int otherValue = 1; otherValue <= SIZE; otherValue++) {
+                    if (otherValue != value && valueOccurrences[otherValue] == valueOccurrences[value]) {
+                        int first = house[Integer.numberOfTrailingZeros(valueOccurrences[value])];
+                        int second = house[31 - Integer.numberOfLeadingZeros(valueOccurrences[value])];
+                        consumer.accept(first, second, bit(value) | bit(otherValue));
+                    }
+                }
+            }
+        }
+    }
+}
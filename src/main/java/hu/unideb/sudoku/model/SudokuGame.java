@@ -0,0 +1,230 @@
+package hu.unideb.sudoku.model;
+
+import javafx.util.Pair;
+
+import java.util.Set;
+
+/**
+ * Egy játszma közös felülete, ezen keresztül dolgozik a játék kontroller.
+ * A klasszikus 9×9-es táblát a bitmaszkos {@link GameModel}, a többi méretet a {@link GridGameModel} valósítja meg.
+ * A pozíciók sor és oszlop indexek, az értékek 1 és a tábla mérete közé esnek.
+ */
+public interface SudokuGame {
+
+    /**
+     * Visszaadja a tábla geometriáját.
+     *
+     * @return a geometria
+     */
+    BoardGeometry getGeometry();
+
+    /**
+     * Betölti a játékot egy korábban mentett állapotból.
+     *
+     * @param history A betöltendő játék előzménye.
+     */
+    void loadGameFromHistory(GameHistory history);
+
+    /**
+     * Megoldja a játékot, átmásolva a megoldott tábla állapotát a jelenlegi táblába.
+     */
+    void solve();
+
+    /**
+     * Generál egy új feladványt a beállított nehézségi szint szerint, a törlést a megadott jelző megszakíthatja.
+     *
+     * @param token a generálás megszakítására szolgáló jelző
+     */
+    void generateSudoku(CancellationToken token);
+
+    /**
+     * Visszaadja a betöltött feladvány tényleges nehézségi szintjét, ezt kell a mentésbe írni.
+     *
+     * @return a feladvány szintje, null ha még nincs betöltött feladvány
+     */
+    GameDifficulty getPuzzleDifficulty();
+
+    /**
+     * Eltárolja az összes cella lehetséges értékeit.
+     */
+    void storePossibleValues();
+
+    /**
+     * Eltárolja a cellák lehetséges értékeit az aktuális tábla állapota alapján.
+     */
+    void storeActualPossibleValues();
+
+    /**
+     * Eltávolítja a megadott értékeket a cella lehetséges értékei közül.
+     *
+     * @param row            A cella sorának indexe.
+     * @param col            A cella oszlopának indexe.
+     * @param valuesToRemove Az eltávolítandó értékek halmaza.
+     */
+    void removePossibleValuesAt(int row, int col, Set<Integer> valuesToRemove);
+
+    /**
+     * Kiszámítja egy adott cella számára az új lehetséges értékeket a tábla aktuális állapota alapján.
+     *
+     * @param row A cella sorának indexe.
+     * @param col A cella oszlopának indexe.
+     * @return A cella számára lehetséges új értékek halmaza.
+     */
+    Set<Integer> getNewPossibleValues(int row, int col);
+
+    /**
+     * Ellenőrzi, hogy egy adott érték hozzáadható-e az adott cellához anélkül, hogy szabályokat sértenénk.
+     *
+     * @param row   A cella sorának indexe.
+     * @param col   A cella oszlopának indexe.
+     * @param value A hozzáadni kívánt érték.
+     * @return Igaz, ha az érték hozzáadható, egyébként hamis.
+     */
+    boolean isValueValid(int row, int col, int value);
+
+    /**
+     * Alaphelyzetbe állítja a játéktáblát, visszaállítva az eredeti állapotot.
+     */
+    void resetBoard();
+
+    /**
+     * Ellenőrzi, hogy minden cellában van-e érték.
+     *
+     * @return Igaz, ha a játék befejeződött, egyébként hamis.
+     */
+    boolean isComplete();
+
+    /**
+     * Ellenőrzi, hogy a jelenlegi tábla megegyezik-e a megoldással.
+     *
+     * @return Igaz, ha a két tábla értékei azonosak, egyébként hamis.
+     */
+    boolean isCorrect();
+
+    /**
+     * Azon cellák halmazát adja vissza, ahol a játékos által beírt érték eltér a megoldástól.
+     *
+     * @return A helytelenül kitöltött cellák halmaza.
+     */
+    Set<Pair<Integer, Integer>> getIncorrectValues();
+
+    /**
+     * Full house segítő algoritmus.
+     *
+     * @return a talált értékek és pozícióik halmaza
+     */
+    Set<Pair<Integer, Pair<Integer, Integer>>> checkFullHouse();
+
+    /**
+     * Naked single segítő algoritmus.
+     *
+     * @return a talált értékek és pozícióik halmaza
+     */
+    Set<Pair<Integer, Pair<Integer, Integer>>> checkNakedSingles();
+
+    /**
+     * Hidden single segítő algoritmus.
+     *
+     * @return a talált értékek és pozícióik halmaza
+     */
+    Set<Pair<Integer, Pair<Integer, Integer>>> checkHiddenSingles();
+
+    /**
+     * Naked pair segítő algoritmus.
+     *
+     * @return a párok pozíciói és a kizárandó értékek, null ha nincs találat
+     */
+    PairsType checkNakedPairs();
+
+    /**
+     * Hidden pair segítő algoritmus.
+     *
+     * @return a párok pozíciói és a kizárandó értékek, null ha nincs találat
+     */
+    PairsType checkHiddenPairs();
+
+    /**
+     * NakedPair és HiddenPair által eltávolított értékeket letárolja (és azok pozícióját).
+     *
+     * @param removeSet eltávolított értékeket és pozíciójuk halmaza.
+     */
+    void addCheckedPairSet(Set<Pair<Pair<Integer, Integer>, Set<Integer>>> removeSet);
+
+    /**
+     * Visszaadja a segítség lehívásainak számát.
+     *
+     * @return A segítség lehívásainak száma.
+     */
+    int getHelpCounter();
+
+    /**
+     * Megnöveli segítség lehívásainak számát.
+     */
+    void increaseHelpCounter();
+
+    /**
+     * Visszaadja a játéktábla aktuális állapotát.
+     *
+     * @return A játéktábla aktuális állapota.
+     */
+    CellPosition[][] getSudokuBoard();
+
+    /**
+     * Visszaadja a megoldott táblát.
+     *
+     * @return megoldott tábla.
+     */
+    CellPosition[][] getSolvedBoard();
+
+    /**
+     * Visszaadja a játék eredeti állapotát tartalmazó táblát.
+     *
+     * @return A játék eredeti állapotát tartalmazó tábla.
+     */
+    CellPosition[][] getOriginalBoard();
+
+    /**
+     * Megadott értéket hozzárendeli az adott sor és oszlop pároshoz.
+     *
+     * @param row   A cella sorának indexe.
+     * @param col   A cella oszlopának indexe.
+     * @param value Az adott cellához hozzáadandó érték.
+     */
+    void setValueAt(int row, int col, int value);
+
+    /**
+     * Visszaadja egy adott sorban és oszlopban lévő cella értékét.
+     *
+     * @param row A cella sorának indexe.
+     * @param col A cella oszlopának indexe.
+     * @return A cella értéke.
+     */
+    int getValueAt(int row, int col);
+
+    /**
+     * Visszaadja egy adott sorban és oszlopban lévő cella helyes értékét a megoldott táblából.
+     *
+     * @param row A cella sorának indexe.
+     * @param col A cella oszlopának indexe.
+     * @return A cella helyes értéke.
+     */
+    int getSolvedValueAt(int row, int col);
+
+    /**
+     * Beállítja az adott sorban és oszlopban lévő cella lehetséges értékeit.
+     *
+     * @param row    A cella sorának indexe.
+     * @param col    A cella oszlopának indexe.
+     * @param values A cellához beállítandó lehetséges értékek halmaza.
+     */
+    void setPossibleValuesAt(int row, int col, Set<Integer> values);
+
+    /**
+     * Visszaadja egy adott sorban és oszlopban lévő cella lehetséges értékeit.
+     *
+     * @param row A cella sorának indexe.
+     * @param col A cella oszlopának indexe.
+     * @return A cella lehetséges értékeinek halmaza.
+     */
+    Set<Integer> getPossibleValuesAt(int row, int col);
+}
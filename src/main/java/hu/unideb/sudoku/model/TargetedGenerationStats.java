@@ -0,0 +1,165 @@
+package hu.unideb.sudoku.model;
+
+/**
+ * Egy célzott generálás ({@link PuzzleGenerator#generate(PuzzleRequirement, CancellationToken)}) mérőszámai.
+ * Tárolja a kipróbált teljes táblák számát, az elutasítások okait, az értékelések és megoldó hívások számát,
+ * a generálás idejét, valamint azt, hogy az időkeret lejárt-e, illetve elfogyott-e a kipróbálható táblák kerete.
+ */
+public class TargetedGenerationStats {
+    private final PuzzleRequirement requirement;
+    private final int candidates;
+    private final int rejectedTooEasy;
+    private final int rejectedTooFewBlanks;
+    private final int tooHardRemovals;
+    private final int grades;
+    private final int solverCalls;
+    private final long elapsedNanos;
+    private final boolean timedOut;
+    private final boolean exhausted;
+    private final Grade grade;
+
+    /**
+     * Teljes konstruktor a célzott generálás mérőszámainak létrehozásához.
+     *
+     * @param requirement          A teljesítendő követelmény.
+     * @param candidates           A kipróbált teljes táblák száma.
+     * @param rejectedTooEasy      Az elutasított táblák száma, amelyekből nem lett elég nehéz feladvány.
+     * @param rejectedTooFewBlanks Az elutasított táblák száma, amelyekből nem törölhető elég szám.
+     * @param tooHardRemovals      A visszavont törlések száma, amelyek után a feladvány túl nehéz lett.
+     * @param grades               A nehézség értékelések száma.
+     * @param solverCalls          Az egyértelműség vizsgálatához indított megoldó hívások száma.
+     * @param elapsedNanos         A generálás ideje nanoszekundumban.
+     * @param timedOut             Igaz, ha az időkeret lejárt vagy a generálást megszakították.
+     * @param exhausted            Igaz, ha a kipróbálható táblák kerete elfogyott, mielőtt megfelelő feladvány készült.
+     * @param grade                Az elkészült feladvány értékelése, null ha nem készült feladvány.
+     */
+    public TargetedGenerationStats(PuzzleRequirement requirement, int candidates, int rejectedTooEasy,
+                                   int rejectedTooFewBlanks, int tooHardRemovals, int grades, int solverCalls,
+                                   long elapsedNanos, boolean timedOut, boolean exhausted, Grade grade) {
+        this.requirement = requirement;
+        this.candidates = candidates;
+        this.rejectedTooEasy = rejectedTooEasy;
+        this.rejectedTooFewBlanks = rejectedTooFewBlanks;
+        this.tooHardRemovals = tooHardRemovals;
+        this.grades = grades;
+        this.solverCalls = solverCalls;
+        this.elapsedNanos = elapsedNanos;
+        this.timedOut = timedOut;
+        this.exhausted = exhausted;
+        this.grade = grade;
+    }
+
+    /**
+     * Visszaadja a teljesítendő követelményt.
+     *
+     * @return A követelmény.
+     */
+    public PuzzleRequirement getRequirement() {
+        return requirement;
+    }
+
+    /**
+     * Visszaadja a kipróbált teljes táblák számát.
+     *
+     * @return A kipróbált táblák száma.
+     */
+    public int getCandidates() {
+        return candidates;
+    }
+
+    /**
+     * Visszaadja azoknak az elutasított tábláknak a számát, amelyekből nem lett elég nehéz feladvány.
+     *
+     * @return A túl könnyű táblák száma.
+     */
+    public int getRejectedTooEasy() {
+        return rejectedTooEasy;
+    }
+
+    /**
+     * Visszaadja azoknak az elutasított tábláknak a számát, amelyekből nem törölhető elég szám.
+     *
+     * @return A túl kevés üres cellát adó táblák száma.
+     */
+    public int getRejectedTooFewBlanks() {
+        return rejectedTooFewBlanks;
+    }
+
+    /**
+     * Visszaadja a visszavont törlések számát, amelyek után a feladvány túl nehéz lett.
+     *
+     * @return A visszavont törlések száma.
+     */
+    public int getTooHardRemovals() {
+        return tooHardRemovals;
+    }
+
+    /**
+     * Visszaadja a nehézség értékelések számát.
+     *
+     * @return Az értékelések száma.
+     */
+    public int getGrades() {
+        return grades;
+    }
+
+    /**
+     * Visszaadja az egyértelműség vizsgálatához indított megoldó hívások számát.
+     *
+     * @return A megoldó hívások száma.
+     */
+    public int getSolverCalls() {
+        return solverCalls;
+    }
+
+    /**
+     * Visszaadja a generálás idejét nanoszekundumban.
+     *
+     * @return A generálás ideje.
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Visszaadja, hogy az időkeret lejárt-e (vagy a generálást megszakították), mielőtt megfelelő feladvány készült.
+     *
+     * @return Igaz, ha nem készült feladvány az időkereten belül.
+     */
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+
+    /**
+     * Visszaadja, hogy a kipróbálható táblák kerete ({@link PuzzleGenerator#MAX_TARGET_CANDIDATES}) elfogyott-e,
+     * mielőtt megfelelő feladvány készült.
+     *
+     * @return Igaz, ha a keretben nem készült feladvány.
+     */
+    public boolean isExhausted() {
+        return exhausted;
+    }
+
+    /**
+     * Visszaadja az elkészült feladvány értékelését.
+     *
+     * @return Az értékelés, null ha nem készült feladvány.
+     */
+    public Grade getGrade() {
+        return grade;
+    }
+
+    /**
+     * Visszaadja a mérőszámok szöveges alakját naplózáshoz.
+     *
+     * @return A mérőszámok szövegként.
+     */
+    @Override
+    public String toString() {
+        return "TargetedGenerationStats{requirement=" + requirement + ", candidates=" + candidates
+                + ", rejectedTooEasy=" + rejectedTooEasy + ", rejectedTooFewBlanks=" + rejectedTooFewBlanks
+                + ", tooHardRemovals=" + tooHardRemovals + ", grades=" + grades + ", solverCalls=" + solverCalls
+                + ", elapsedMs=" + elapsedNanos / 1_000_000 + ", timedOut=" + timedOut
+                + ", exhausted=" + exhausted + "}";
+    }
+}
@@ -0,0 +1,48 @@
+package hu.unideb.sudoku.model;
+
+/**
+ * A logikai megoldás során használt technikák a segítség funkció sorrendjében, a legolcsóbbtól a legdrágábbig.
+ * Minden technikához tartozik egy súly, amellyel egy alkalmazása a nehézségi pontszámba beszámít.
+ */
+public enum Technique {
+    /**
+     * Egy házban egyetlen üres cella maradt.
+     */
+    FULL_HOUSE(1),
+    /**
+     * A cellának egyetlen lehetséges értéke van.
+     */
+    NAKED_SINGLE(2),
+    /**
+     * Egy érték a házban csak egy cellában lehetséges.
+     */
+    HIDDEN_SINGLE(3),
+    /**
+     * Két cellának ugyanaz a két lehetséges értéke van.
+     */
+    NAKED_PAIR(10),
+    /**
+     * Két érték a házban csak ugyanabban a két cellában lehetséges.
+     */
+    HIDDEN_PAIR(15);
+
+    private final int weight;
+
+    /**
+     * Konstruktor.
+     *
+     * @param weight egy alkalmazás súlya a pontszámban
+     */
+    Technique(int weight) {
+        this.weight = weight;
+    }
+
+    /**
+     * Visszaadja, hogy egy alkalmazás mennyivel növeli a nehézségi pontszámot.
+     *
+     * @return a technika súlya
+     */
+    public int getWeight() {
+        return weight;
+    }
+}
@@ -0,0 +1,90 @@
+package hu.unideb.sudoku.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchGeneratorTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testInterruptedShardResumesToSameContent() throws IOException {
+        BatchGenerator complete = new BatchGenerator(dir.resolve("complete"), GameDifficulty.EASY, GameDifficulty.HARD);
+        complete.setCheckpointInterval(3);
+        assertEquals(10, complete.runShard(0, 100, 10, new CancellationToken()));
+
+        BatchGenerator underTest = new BatchGenerator(dir.resolve("resumed"), GameDifficulty.EASY, GameDifficulty.HARD);
+        underTest.setCheckpointInterval(3);
+        assertEquals(7, underTest.runShard(0, 100, 10, cancelAfter(7)));
+        Files.write(underTest.shardFile(0), new byte[40], StandardOpenOption.APPEND);
+
+        assertEquals(10, underTest.runShard(0, 100, 10, new CancellationToken()));
+        assertArrayEquals(Files.readAllBytes(complete.shardFile(0)), Files.readAllBytes(underTest.shardFile(0)));
+        assertEquals(10L * BatchGenerator.RECORD_SIZE, Files.size(underTest.shardFile(0)));
+        assertEquals(10, underTest.runShard(0, 100, 10, new CancellationToken()));
+    }
+
+    @Test
+    void testResumeWithDifferentRangeIsRejected() throws IOException {
+        BatchGenerator underTest = new BatchGenerator(dir);
+        underTest.runShard(0, 0, 2, new CancellationToken());
+
+        assertThrows(IllegalArgumentException.class, () -> underTest.runShard(0, 1, 2, new CancellationToken()));
+    }
+
+    @Test
+    void testMergeRemovesDuplicatesAndBuildsIndexedStore() throws IOException {
+        BatchGenerator underTest = new BatchGenerator(dir, GameDifficulty.MEDIUM, GameDifficulty.EXPERT);
+        underTest.runShard(0, 0, 10, new CancellationToken());
+        underTest.runShard(1, 5, 10, new CancellationToken());
+
+        BatchGenerator.MergeResult result = underTest.merge(dir.resolve("bank.store"));
+
+        assertEquals(2, result.getShards());
+        assertEquals(20, result.getRead());
+        assertEquals(5, result.getDuplicates());
+        assertEquals(15, result.getWritten());
+        PuzzleStore store = PuzzleStore.open(dir.resolve("bank.store"));
+        assertEquals(15, store.size());
+        assertEquals(15, store.count(GameDifficulty.MEDIUM) + store.count(GameDifficulty.EXPERT));
+        assertEquals(store.count(GameDifficulty.EXPERT), store.countByClues(25));
+        assertTrue(new DlxSolver().isUnique(store.read(store.offset(GameDifficulty.EXPERT, 0)).getGivens()));
+    }
+
+    @Test
+    void testWorkerProcessesAndMerge() throws Exception {
+        BatchGenerator underTest = new BatchGenerator(dir, GameDifficulty.HARD);
+
+        underTest.runWorkers(2, 40, 9);
+        BatchGenerator.MergeResult result = underTest.merge(dir.resolve("bank.store"));
+
+        assertEquals(5L * BatchGenerator.RECORD_SIZE, Files.size(underTest.shardFile(0)));
+        assertEquals(4L * BatchGenerator.RECORD_SIZE, Files.size(underTest.shardFile(1)));
+        assertEquals(9, result.getRead());
+        assertEquals(9, result.getWritten() + result.getDuplicates());
+        assertEquals(result.getWritten(), PuzzleStore.open(dir.resolve("bank.store")).count(GameDifficulty.HARD));
+
+        BatchGenerator local = new BatchGenerator(dir.resolve("local"), GameDifficulty.HARD);
+        local.runShard(1, 45, 4, new CancellationToken());
+        assertArrayEquals(Files.readAllBytes(local.shardFile(1)), Files.readAllBytes(underTest.shardFile(1)));
+    }
+
+    private static CancellationToken cancelAfter(int checks) {
+        return new CancellationToken() {
+            private int calls;
+
+            @Override
+            public boolean isCancelled() {
+                return calls++ >= checks;
+            }
+        };
+    }
+}
@@ -0,0 +1,114 @@
+package hu.unideb.sudoku.model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryPuzzleBankTest {
+
+    @AfterEach
+    void tearDown() {
+        GameModel.setGenerationMode(GenerationMode.RANDOM);
+    }
+
+    @Test
+    void testWriteAndReadBack() throws IOException {
+        PuzzleGenerator generator = new PuzzleGenerator(3);
+        List<Puzzle> puzzles = List.of(generator.generate(GameDifficulty.MEDIUM), generator.generate(GameDifficulty.MEDIUM));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        BinaryPuzzleBank.write(out, 3, Map.of(GameDifficulty.MEDIUM, puzzles));
+        BinaryPuzzleBank underTest = BinaryPuzzleBank.read(out.toByteArray());
+
+        assertEquals(3, underTest.getSeed());
+        assertEquals(2, underTest.size(GameDifficulty.MEDIUM));
+        assertEquals(0, underTest.size(GameDifficulty.EASY));
+        DifficultyGrader grader = new DifficultyGrader();
+        for (int i = 0; i < 2; i++) {
+            Puzzle puzzle = underTest.get(GameDifficulty.MEDIUM, i);
+            Puzzle expected = puzzles.stream()
+                    .filter(p -> Arrays.equals(p.getGivens(), puzzle.getGivens())).findFirst().orElseThrow();
+            Grade grade = grader.grade(expected);
+
+            assertArrayEquals(expected.getSolution(), puzzle.getSolution());
+            assertEquals(grade.getRating(), underTest.getRating(GameDifficulty.MEDIUM, i));
+            assertEquals(grade.getHardestTechnique(), underTest.getHardestTechnique(GameDifficulty.MEDIUM, i));
+            assertEquals(grade.isSolved(), underTest.isLogicallySolved(GameDifficulty.MEDIUM, i));
+        }
+        assertTrue(underTest.getRating(GameDifficulty.MEDIUM, 0) <= underTest.getRating(GameDifficulty.MEDIUM, 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> underTest.get(GameDifficulty.MEDIUM, 2));
+    }
+
+    @Test
+    void testBuildIsDeterministic() throws IOException {
+        ByteArrayOutputStream first = new ByteArrayOutputStream();
+        ByteArrayOutputStream second = new ByteArrayOutputStream();
+
+        PuzzleBankBuilder.build(first, 11, 2);
+        PuzzleBankBuilder.build(second, 11, 2);
+
+        assertArrayEquals(first.toByteArray(), second.toByteArray());
+    }
+
+    @Test
+    void testInvalidContentIsRejected() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PuzzleBankBuilder.build(out, 5, 1);
+        byte[] bytes = out.toByteArray();
+
+        assertThrows(IllegalArgumentException.class, () -> BinaryPuzzleBank.read(Arrays.copyOf(bytes, bytes.length - 1)));
+        bytes[0] = 0;
+        assertThrows(IllegalArgumentException.class, () -> BinaryPuzzleBank.read(bytes));
+    }
+
+    @ParameterizedTest
+    @EnumSource(GameDifficulty.class)
+    void testDefaultBankPuzzlesAreValid(GameDifficulty difficulty) {
+        BinaryPuzzleBank bank = BinaryPuzzleBank.getDefault();
+        DlxSolver solver = new DlxSolver();
+
+        assertEquals(PuzzleBankBuilder.DEFAULT_COUNT, bank.size(difficulty));
+        for (int i = 0; i < bank.size(difficulty); i++) {
+            Puzzle puzzle = bank.get(difficulty, i);
+            int[] solution = puzzle.getGivens();
+
+            assertEquals(81 - PuzzleGenerator.removedDigits(difficulty), puzzle.getClueCount());
+            assertTrue(solver.isUnique(puzzle.getGivens()));
+            assertTrue(solver.solve(solution));
+            assertArrayEquals(puzzle.getSolution(), solution);
+        }
+    }
+
+    @Test
+    void testGeneratorServesFromPrebuiltBank() {
+        PuzzleGenerator underTest = new PuzzleGenerator(new SplittableRandom(1), new DlxSolver());
+
+        Puzzle puzzle = underTest.generate(GameDifficulty.EXPERT, GenerationMode.PREBUILT, new CancellationToken());
+
+        assertEquals(25, puzzle.getClueCount());
+        assertEquals(0, underTest.getLastStats().getSolverCalls());
+        assertTrue(new DlxSolver().isUnique(puzzle.getGivens()));
+    }
+
+    @Test
+    void testGameModelPrebuiltMode() {
+        GameModel.setGenerationMode(GenerationMode.PREBUILT);
+        GameModel.setDifficulty(GameDifficulty.HARD);
+        GameModel model = new GameModel();
+
+        model.generateSudoku();
+
+        assertEquals(52, model.getLastGenerationStats().getRemoved());
+        assertTrue(model.hasUniqueSolution());
+    }
+}
@@ -0,0 +1,50 @@
+package hu.unideb.sudoku.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CancellationTokenTest {
+
+    @Test
+    void testCancel() {
+        CancellationToken underTest = new CancellationToken();
+        assertFalse(underTest.isCancelled());
+
+        underTest.cancel();
+
+        assertTrue(underTest.isCancelled());
+    }
+
+    @Test
+    void testWithTimeout() {
+        assertTrue(CancellationToken.withTimeout(Duration.ZERO).isCancelled());
+        assertFalse(CancellationToken.withTimeout(Duration.ofHours(1)).isCancelled());
+    }
+
+    @Test
+    void testWithTimeoutCancel() {
+        CancellationToken underTest = CancellationToken.withTimeout(Duration.ofHours(1));
+
+        underTest.cancel();
+
+        assertTrue(underTest.isCancelled());
+    }
+
+    @Test
+    void testCreateChild() {
+        CancellationToken parent = new CancellationToken();
+        CancellationToken child = parent.createChild();
+        CancellationToken sibling = parent.createChild();
+
+        child.cancel();
+        assertTrue(child.isCancelled());
+        assertFalse(parent.isCancelled());
+        assertFalse(sibling.isCancelled());
+
+        parent.cancel();
+        assertTrue(sibling.isCancelled());
+    }
+}
@@ -0,0 +1,67 @@
+package hu.unideb.sudoku.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CanonicalFormTest {
+
+    @Test
+    void testEquivalentPuzzlesHaveSameCanonicalForm() {
+        SplittableRandom random = new SplittableRandom(21);
+        PuzzleGenerator generator = new PuzzleGenerator(21);
+
+        for (int i = 0; i < 10; i++) {
+            int[] grid = generator.generate(GameDifficulty.HARD).getGivens();
+            String key = CanonicalForm.of(grid).getKey();
+
+            for (int j = 0; j < 5; j++) {
+                int[] transformed = PuzzleTransformer.random(random).apply(grid);
+
+                assertEquals(key, CanonicalForm.of(transformed).getKey());
+            }
+        }
+    }
+
+    @Test
+    void testDifferentPuzzlesHaveDifferentCanonicalForms() {
+        PuzzleGenerator generator = new PuzzleGenerator(22);
+
+        String first = CanonicalForm.of(generator.generate(GameDifficulty.MEDIUM).getGivens()).getKey();
+        String second = CanonicalForm.of(generator.generate(GameDifficulty.MEDIUM).getGivens()).getKey();
+
+        assertNotEquals(first, second);
+    }
+
+    @Test
+    void testCanonicalFormIsMinimalAndIdempotent() {
+        int[] grid = new PuzzleGenerator(23).generate(GameDifficulty.EASY).getGivens();
+        CanonicalForm form = CanonicalForm.of(grid);
+
+        assertEquals(form.getKey(), CanonicalForm.of(form.getGrid()).getKey());
+        assertTrue(form.getKey().compareTo(Puzzle.formatGrid(grid)) <= 0);
+        assertArrayEquals(form.getGrid(), form.getTransformer().apply(grid));
+    }
+
+    @Test
+    void testToOriginalRestoresLayout() {
+        Puzzle puzzle = PuzzleTransformer.random(new SplittableRandom(24))
+                .apply(new PuzzleGenerator(24).generate(GameDifficulty.HARD));
+        CanonicalForm form = CanonicalForm.of(puzzle.getGivens());
+
+        int[] canonicalSolution = form.getTransformer().apply(puzzle.getSolution());
+
+        assertArrayEquals(puzzle.getGivens(), form.toOriginal(form.getGrid()));
+        assertArrayEquals(puzzle.getSolution(), form.toOriginal(canonicalSolution));
+    }
+
+    @Test
+    void testInvalidGrid() {
+        assertThrows(IllegalArgumentException.class, () -> CanonicalForm.of(new int[80]));
+        int[] grid = new int[81];
+        grid[3] = 10;
+        assertThrows(IllegalArgumentException.class, () -> CanonicalForm.of(grid));
+    }
+}
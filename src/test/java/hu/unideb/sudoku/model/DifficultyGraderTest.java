@@ -0,0 +1,99 @@
+package hu.unideb.sudoku.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DifficultyGraderTest {
+    private static final String SOLUTION =
+            "534678912672195348198342567859761423426853791713924856961537284287419635345286179";
+    private static final String HARDEST =
+            "800000000003600000070090200050007000000045700000100030001000068008500010090000400";
+
+    private final DifficultyGrader underTest = new DifficultyGrader();
+
+    @Test
+    void testSingleMissingCellIsFullHouse() {
+        int[] grid = Puzzle.parseGrid(SOLUTION);
+        grid[40] = 0;
+
+        Grade grade = underTest.grade(grid);
+
+        assertTrue(grade.isSolved());
+        assertEquals(Technique.FULL_HOUSE, grade.getHardestTechnique());
+        assertEquals(1, grade.getCount(Technique.FULL_HOUSE));
+        assertEquals(1, grade.getRating());
+        assertEquals(GameDifficulty.EASY, grade.getDifficulty());
+    }
+
+    @Test
+    void testGradeDoesNotModifyInput() {
+        int[] grid = Puzzle.parseGrid(HARDEST);
+        int[] copy = grid.clone();
+
+        underTest.grade(grid);
+
+        assertArrayEquals(copy, grid);
+    }
+
+    @Test
+    void testPuzzleBeyondTechniquesIsExtreme() {
+        Grade grade = underTest.grade(Puzzle.parseGrid(HARDEST));
+
+        assertFalse(grade.isSolved());
+        assertTrue(grade.getRemaining() > 0);
+        assertTrue(grade.getRating() >= Grade.UNSOLVED_PENALTY);
+        assertEquals(GameDifficulty.EXTREME, grade.getDifficulty());
+    }
+
+    @ParameterizedTest
+    @EnumSource(GameDifficulty.class)
+    void testGradeIsConsistent(GameDifficulty difficulty) {
+        List<Puzzle> puzzles = PuzzleGenerator.stream(difficulty, 5, 20).collect(Collectors.toList());
+
+        for (Puzzle puzzle : puzzles) {
+            Grade grade = underTest.grade(puzzle);
+
+            assertNotNull(grade.getHardestTechnique());
+            assertTrue(grade.getRating() > 0);
+            if (!grade.isSolved()) {
+                assertTrue(grade.getDifficulty().compareTo(GameDifficulty.EXPERT) >= 0);
+            } else {
+                assertEquals(0, grade.getRemaining());
+            }
+        }
+    }
+
+    @Test
+    void testGameModelGradePuzzle() {
+        Puzzle puzzle = new PuzzleGenerator(3).generate(GameDifficulty.MEDIUM);
+        GameModel model = new GameModel();
+        model.loadPuzzle(puzzle);
+
+        int[] canonical = CanonicalForm.of(puzzle.getGivens()).getGrid();
+        assertEquals(underTest.grade(canonical).getRating(), model.gradePuzzle().getRating());
+    }
+
+    @Test
+    void testGradingIsFastEnoughForGeneration() {
+        List<Puzzle> puzzles = PuzzleGenerator.stream(GameDifficulty.HARD, 11, 50).collect(Collectors.toList());
+        for (int round = 0; round < 20; round++) {
+            for (Puzzle puzzle : puzzles) {
+                underTest.grade(puzzle);
+            }
+        }
+
+        long start = System.nanoTime();
+        for (Puzzle puzzle : puzzles) {
+            underTest.grade(puzzle);
+        }
+        long average = (System.nanoTime() - start) / puzzles.size();
+
+        assertTrue(average < 1_000_000, "Átlagos értékelési idő: " + average + " ns");
+    }
+}
@@ -0,0 +1,111 @@
+package hu.unideb.sudoku.model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DlxSolverTest {
+    DlxSolver underTest;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new DlxSolver();
+    }
+
+    @AfterEach
+    void tearDown() {
+        GameModel.setSolverEngineName(null);
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = GameDifficulty.class, names = {"EASY", "MEDIUM", "HARD"})
+    void testAgreesWithBacktrackingOnGeneratedPuzzles(GameDifficulty difficulty) {
+        GameModel.setDifficulty(difficulty);
+        GameModel model = new GameModel();
+
+        for (int round = 0; round < 3; round++) {
+            GameModel.setSolverEngineName(BacktrackingSolverEngine.NAME);
+            model.generateSudoku();
+
+            for (int removed = 0; removed < 6; removed++) {
+                GameModel.setSolverEngineName(BacktrackingSolverEngine.NAME);
+                boolean expected = model.hasUniqueSolution();
+                GameModel.setSolverEngineName(DlxSolver.NAME);
+
+                assertEquals(expected, model.hasUniqueSolution());
+
+                clearFirstFilledCell(model);
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = GameDifficulty.class, names = {"EXPERT", "EXTREME"})
+    void testAgreesWithMrvOnDeepPuzzles(GameDifficulty difficulty) {
+        MrvSolver mrv = new MrvSolver();
+        PuzzleGenerator generator = new PuzzleGenerator(17);
+
+        for (int round = 0; round < 3; round++) {
+            int[] grid = generator.generate(difficulty).getGivens();
+
+            for (int removed = 0; removed < 6; removed++) {
+                assertEquals(mrv.countSolutions(grid, 2), underTest.countSolutions(grid, 2));
+
+                clearFirstFilledCell(grid);
+            }
+        }
+    }
+
+    @Test
+    void testSolveMatchesSolvedBoard() {
+        GameModel.setDifficulty(GameDifficulty.HARD);
+        GameModel model = new GameModel();
+        model.generateSudoku();
+
+        int[] grid = new int[81];
+        for (int cell = 0; cell < 81; cell++) {
+            grid[cell] = model.getValueAt(cell / 9, cell % 9);
+        }
+
+        assertTrue(underTest.solve(grid));
+        for (int cell = 0; cell < 81; cell++) {
+            assertEquals(model.getSolvedValueAt(cell / 9, cell % 9), grid[cell]);
+        }
+    }
+
+    @Test
+    void testCountSolutionsEmptyGridStopsAtLimit() {
+        assertEquals(2, underTest.countSolutions(new int[81], 2));
+    }
+
+    @Test
+    void testCountSolutionsConflictingGivens() {
+        int[] grid = new int[81];
+        grid[0] = 5;
+        grid[1] = 5;
+
+        assertEquals(0, underTest.countSolutions(grid, 2));
+    }
+
+    private void clearFirstFilledCell(int[] grid) {
+        for (int cell = 0; cell < 81; cell++) {
+            if (grid[cell] != 0) {
+                grid[cell] = 0;
+                return;
+            }
+        }
+    }
+
+    private void clearFirstFilledCell(GameModel model) {
+        for (int cell = 0; cell < 81; cell++) {
+            if (model.getValueAt(cell / 9, cell % 9) != 0) {
+                model.setValueAt(cell / 9, cell % 9, 0);
+                return;
+            }
+        }
+    }
+}
@@ -6,6 +6,10 @@ import org.junit.jupiter.api.Test;
 
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -15,6 +19,7 @@ class GameModelTest {
 
     @BeforeEach
     void setUp() {
+        GameModel.setDifficulty(GameDifficulty.HARD);
         underTest = new GameModel();
     }
 
@@ -152,6 +157,75 @@ class GameModelTest {
         assertEquals(52, hasPossibleValuesCount);
     }
 
+    @Test
+    void testGenerateSudokuExpert() {
+        GameModel.setDifficulty(GameDifficulty.EXPERT);
+        underTest.generateSudoku();
+
+        long nonZeroCount = Stream.of(underTest.getSudokuBoard()).flatMap(Stream::of).filter(cell -> cell.getValue() != 0).count();
+
+        assertEquals(25, nonZeroCount);
+        assertTrue(underTest.hasUniqueSolution());
+    }
+
+    @Test
+    void testGenerateSudokuExtreme() {
+        GameModel.setDifficulty(GameDifficulty.EXTREME);
+        underTest.generateSudoku();
+
+        long nonZeroCount = Stream.of(underTest.getSudokuBoard()).flatMap(Stream::of).filter(cell -> cell.getValue() != 0).count();
+
+        assertEquals(22, nonZeroCount);
+        assertTrue(underTest.hasUniqueSolution());
+        assertFalse(underTest.getLastGenerationStats().isCancelled());
+    }
+
+    @Test
+    void testPuzzleDifficultyFollowsLoadedPuzzle() {
+        assertNull(underTest.getPuzzleDifficulty());
+
+        GameModel.setDifficulty(GameDifficulty.EXPERT);
+        underTest.loadPuzzle(new PuzzleGenerator(3).generate(GameDifficulty.MEDIUM));
+
+        assertEquals(GameDifficulty.MEDIUM, underTest.getPuzzleDifficulty());
+        assertEquals(GameDifficulty.EXPERT, GameModel.getDifficulty());
+    }
+
+    @Test
+    void testGetLastGenerationStats() {
+        assertNull(underTest.getLastGenerationStats());
+
+        GameModel.setDifficulty(GameDifficulty.HARD);
+        underTest.generateSudoku();
+        GenerationStats stats = underTest.getLastGenerationStats();
+
+        assertEquals(GameDifficulty.HARD, stats.getDifficulty());
+        assertEquals(52, stats.getRemoved());
+        assertEquals(stats.getAttempts(), stats.getSolverCalls());
+        assertTrue(stats.getAttempts() >= 52);
+        assertFalse(stats.isCancelled());
+        assertTrue(underTest.hasUniqueSolution());
+    }
+
+    @Test
+    void testGenerateSudokuCancelled() {
+        GameModel.setDifficulty(GameDifficulty.HARD);
+        CancellationToken token = new CancellationToken();
+        token.cancel();
+
+        underTest.generateSudoku(token);
+        GenerationStats stats = underTest.getLastGenerationStats();
+
+        assertTrue(stats.isCancelled());
+        assertEquals(0, stats.getRemoved());
+        assertEquals(0, stats.getSolverCalls());
+        for (int i = 0; i < 9; i++) {
+            for (int j = 0; j < 9; j++) {
+                assertEquals(underTest.getSolvedValueAt(i, j), underTest.getValueAt(i, j));
+            }
+        }
+    }
+
     @Test
     void testRemovePossibleValuesAt() {
         underTest.setPossibleValuesAt(0, 1, new HashSet<>(Set.of(1, 2, 3, 4)));
@@ -481,6 +555,107 @@ class GameModelTest {
         assertFalse(pairsType.getRemoveSet().isEmpty());
     }
 
+    @Test
+    void testEntryRejectsConflictingValues() throws Exception {
+        assertThrows(IllegalStateException.class, () -> underTest.enterValueAt(0, 0, 5));
+        underTest.startEntry();
+
+        assertTrue(underTest.isEntryMode());
+        assertTrue(underTest.enterValueAt(0, 0, 5));
+        assertFalse(underTest.enterValueAt(0, 5, 5));
+        assertFalse(underTest.enterValueAt(4, 0, 5));
+        assertFalse(underTest.enterValueAt(1, 1, 5));
+        assertFalse(underTest.enterValueAt(2, 2, 10));
+        assertEquals(0, underTest.getValueAt(0, 5));
+
+        EntryAnalysis analysis = underTest.getEntryAnalysis().get(10, TimeUnit.SECONDS);
+
+        assertTrue(analysis.hasMultipleSolutions());
+        Pair<Integer, Integer> cell = analysis.getDistinguishingCell();
+        assertEquals(0, underTest.getValueAt(cell.getKey(), cell.getValue()));
+        assertEquals(2, analysis.getDistinguishingValues().size());
+        assertFalse(underTest.finishEntry());
+        assertTrue(underTest.isEntryMode());
+    }
+
+    @Test
+    void testEntryWithoutSolution() throws Exception {
+        underTest.startEntry();
+        for (int col = 0; col < 8; col++) {
+            assertTrue(underTest.enterValueAt(0, col, col + 1));
+        }
+        assertTrue(underTest.enterValueAt(5, 8, 9));
+
+        EntryAnalysis analysis = underTest.getEntryAnalysis().get(10, TimeUnit.SECONDS);
+
+        assertTrue(analysis.hasNoSolution());
+        assertNull(analysis.getSolution());
+        assertNull(analysis.getDistinguishingCell());
+        assertTrue(underTest.enterValueAt(6, 8, 1));
+        assertTrue(underTest.getEntryAnalysis().isDone());
+        assertTrue(underTest.enterValueAt(5, 8, 0));
+        assertTrue(underTest.getEntryAnalysis().get(10, TimeUnit.SECONDS).hasMultipleSolutions());
+    }
+
+    @Test
+    void testEntryUniquePuzzlePlaysLikeGenerated() throws Exception {
+        Puzzle puzzle = new PuzzleGenerator(7).generate(GameDifficulty.MEDIUM, new CancellationToken());
+        int[] givens = puzzle.getGivens();
+        int[] solution = puzzle.getSolution();
+        underTest.startEntry();
+
+        for (int cell = 0; cell < givens.length; cell++) {
+            assertTrue(underTest.enterValueAt(cell / 9, cell % 9, givens[cell]));
+        }
+        EntryAnalysis analysis = underTest.getEntryAnalysis().get(10, TimeUnit.SECONDS);
+
+        assertTrue(analysis.isUnique());
+        assertArrayEquals(solution, analysis.getSolution());
+        int hinted = firstEmptyCell(givens);
+        assertTrue(underTest.enterValueAt(hinted / 9, hinted % 9, solution[hinted]));
+        assertTrue(underTest.getEntryAnalysis().isDone());
+        assertTrue(underTest.enterValueAt(hinted / 9, hinted % 9, 0));
+
+        assertTrue(underTest.finishEntry());
+
+        assertFalse(underTest.isEntryMode());
+        assertNotNull(GameModel.getDifficulty());
+        for (int cell = 0; cell < givens.length; cell++) {
+            assertEquals(givens[cell], underTest.getOriginalBoard()[cell / 9][cell % 9].getValue());
+            assertEquals(solution[cell], underTest.getSolvedValueAt(cell / 9, cell % 9));
+        }
+        assertFalse(underTest.getPossibleValuesAt(hinted / 9, hinted % 9).isEmpty());
+        underTest.solve();
+        assertTrue(underTest.isCorrect());
+    }
+
+    @Test
+    void testEntryCancelsStaleAnalysis() throws Exception {
+        underTest.startEntry();
+        assertTrue(underTest.enterValueAt(0, 0, 1));
+        CompletableFuture<EntryAnalysis> stale = underTest.getEntryAnalysis();
+        for (int col = 1; col < 8; col++) {
+            assertTrue(underTest.enterValueAt(0, col, col + 1));
+        }
+        assertTrue(underTest.enterValueAt(5, 8, 9));
+
+        assertTrue(underTest.getEntryAnalysis().get(10, TimeUnit.SECONDS).hasNoSolution());
+        assertTrue(stale.isDone());
+        if (stale.isCompletedExceptionally()) {
+            ExecutionException e = assertThrows(ExecutionException.class, stale::get);
+            assertInstanceOf(CancellationException.class, e.getCause());
+        }
+    }
+
+    private static int firstEmptyCell(int[] grid) {
+        for (int cell = 0; cell < grid.length; cell++) {
+            if (grid[cell] == 0) {
+                return cell;
+            }
+        }
+        throw new AssertionError("Nincs üres cella");
+    }
+
     private void setFullBoard() {
         int i = 1;
         for (int row = 0; row < 9; row++) {
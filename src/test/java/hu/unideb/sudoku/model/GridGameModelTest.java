@@ -0,0 +1,125 @@
+package hu.unideb.sudoku.model;
+
+import javafx.util.Pair;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GridGameModelTest {
+
+    @AfterEach
+    void tearDown() {
+        GameModel.setBoardBoxSize(BitBoard.BOX_SIZE);
+    }
+
+    @Test
+    void testNewGameFollowsBoardSize() {
+        assertInstanceOf(GameModel.class, GameModel.newGame());
+        assertSame(BoardGeometry.CLASSIC, GameModel.newGame().getGeometry());
+
+        GameModel.setBoardBoxSize(4);
+
+        SudokuGame game = GameModel.newGame();
+        assertInstanceOf(GridGameModel.class, game);
+        assertEquals(16, game.getGeometry().getSize());
+        assertEquals(16, game.getSudokuBoard().length);
+        assertThrows(IllegalArgumentException.class, () -> GameModel.setBoardBoxSize(12));
+        assertEquals(4, GameModel.getBoardBoxSize());
+    }
+
+    @Test
+    void testGenerateSolveAndCheck() {
+        GameModel.setDifficulty(GameDifficulty.MEDIUM);
+        GridGameModel underTest = new GridGameModel(BoardGeometry.of(4));
+
+        underTest.generateSudoku(new CancellationToken());
+
+        assertFalse(underTest.isComplete());
+        int[] cell = firstEmptyCell(underTest);
+        int solvedValue = underTest.getSolvedValueAt(cell[0], cell[1]);
+        assertTrue(underTest.getPossibleValuesAt(cell[0], cell[1]).contains(solvedValue));
+        underTest.setValueAt(cell[0], cell[1], solvedValue % 16 + 1);
+        assertEquals(Set.of(new Pair<>(cell[0], cell[1])), underTest.getIncorrectValues());
+
+        underTest.solve();
+
+        assertTrue(underTest.isComplete());
+        assertTrue(underTest.isCorrect());
+        underTest.resetBoard();
+        assertFalse(underTest.isComplete());
+        assertEquals(0, underTest.getValueAt(cell[0], cell[1]));
+    }
+
+    @Test
+    void testHintsLeadToSolutionOnSmallBoard() {
+        BoardGeometry geometry = BoardGeometry.of(2);
+        GridGameModel underTest = new GridGameModel(geometry);
+        underTest.loadPuzzle(new GridGenerator(geometry, new SplittableRandom(1)).generate(GameDifficulty.EXTREME, new CancellationToken()));
+
+        for (int step = 0; step < geometry.getCellCount() && !underTest.isComplete(); step++) {
+            Set<Pair<Integer, Pair<Integer, Integer>>> hints = underTest.checkFullHouse();
+            hints.addAll(underTest.checkNakedSingles());
+            hints.addAll(underTest.checkHiddenSingles());
+            assertFalse(hints.isEmpty());
+            for (Pair<Integer, Pair<Integer, Integer>> hint : hints) {
+                int row = hint.getValue().getKey();
+                int col = hint.getValue().getValue();
+                assertEquals(underTest.getSolvedValueAt(row, col), hint.getKey());
+                underTest.setValueAt(row, col, hint.getKey());
+            }
+            underTest.storeActualPossibleValues();
+        }
+        assertTrue(underTest.isCorrect());
+    }
+
+    @Test
+    void testNakedPairRemovesValuesFromHouse() {
+        BoardGeometry geometry = BoardGeometry.of(2);
+        GridGameModel underTest = new GridGameModel(geometry);
+        underTest.setPossibleValuesAt(0, 0, Set.of(1, 2));
+        underTest.setPossibleValuesAt(0, 1, Set.of(1, 2));
+        underTest.setPossibleValuesAt(0, 2, Set.of(1, 3, 4));
+        underTest.setPossibleValuesAt(0, 3, Set.of(2, 3, 4));
+
+        PairsType pairs = underTest.checkNakedPairs();
+
+        assertEquals(Set.of(new Pair<>(0, 0), new Pair<>(0, 1)), pairs.getPairsPositionSet());
+        assertTrue(pairs.getRemoveSet().contains(new Pair<>(new Pair<>(0, 2), Set.of(1))));
+        assertTrue(pairs.getRemoveSet().contains(new Pair<>(new Pair<>(0, 3), Set.of(2))));
+    }
+
+    @Test
+    void testLoadGameFromHistoryKeepsBoardSize() {
+        GameModel.setDifficulty(GameDifficulty.EASY);
+        GridGameModel generated = new GridGameModel(BoardGeometry.of(4));
+        generated.generateSudoku(new CancellationToken());
+        GameHistory history = new GameHistory(generated.getOriginalBoard(), generated.getSolvedBoard(), 10, "HARD");
+
+        assertEquals(4, history.getBoxSize());
+        GridGameModel underTest = new GridGameModel(BoardGeometry.of(history.getBoxSize()));
+        underTest.loadGameFromHistory(history);
+
+        assertEquals(GameDifficulty.HARD, GameModel.getDifficulty());
+        for (int row = 0; row < 16; row++) {
+            for (int col = 0; col < 16; col++) {
+                assertEquals(generated.getSolvedValueAt(row, col), underTest.getSolvedValueAt(row, col));
+            }
+        }
+    }
+
+    private static int[] firstEmptyCell(SudokuGame game) {
+        int size = game.getGeometry().getSize();
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                if (game.getValueAt(row, col) == 0) {
+                    return new int[]{row, col};
+                }
+            }
+        }
+        throw new AssertionError("Nincs üres cella");
+    }
+}
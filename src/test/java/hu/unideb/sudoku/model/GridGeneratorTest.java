@@ -0,0 +1,63 @@
+package hu.unideb.sudoku.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.Duration;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GridGeneratorTest {
+
+    @ParameterizedTest
+    @ValueSource(ints = {2, 3, 4})
+    void testGeneratesUniquePuzzleWithTargetClueCount(int boxSize) {
+        BoardGeometry geometry = BoardGeometry.of(boxSize);
+        GridGenerator underTest = new GridGenerator(geometry, new SplittableRandom(42));
+
+        GridPuzzle puzzle = underTest.generate(GameDifficulty.EASY, new CancellationToken());
+
+        GridSolverTest.assertValidSolution(geometry, puzzle.getSolution());
+        assertTrue(new GridSolver(geometry).isUnique(puzzle.getGivens()));
+        assertEquals(geometry.getCellCount() - GridGenerator.removedDigits(geometry, GameDifficulty.EASY), puzzle.getClueCount());
+        assertFalse(underTest.isLastCancelled());
+        int[] givens = puzzle.getGivens();
+        int[] solution = puzzle.getSolution();
+        for (int cell = 0; cell < givens.length; cell++) {
+            assertTrue(givens[cell] == 0 || givens[cell] == solution[cell]);
+        }
+    }
+
+    @Test
+    void testLargeBoardRespectsTimeBudget() {
+        BoardGeometry geometry = BoardGeometry.of(5);
+        GridGenerator underTest = new GridGenerator(geometry, new SplittableRandom(7));
+
+        long start = System.nanoTime();
+        GridPuzzle puzzle = underTest.generate(GameDifficulty.HARD, CancellationToken.withTimeout(Duration.ofSeconds(2)));
+
+        assertTrue(System.nanoTime() - start < Duration.ofSeconds(10).toNanos());
+        GridSolverTest.assertValidSolution(geometry, puzzle.getSolution());
+        assertTrue(puzzle.getClueCount() < geometry.getCellCount());
+        assertEquals(1, new GridSolver(geometry).countSolutions(puzzle.getGivens(), 2));
+    }
+
+    @Test
+    void testSameSeedGivesSamePuzzle() {
+        BoardGeometry geometry = BoardGeometry.of(4);
+
+        GridPuzzle first = new GridGenerator(geometry, new SplittableRandom(3)).generate(GameDifficulty.MEDIUM, new CancellationToken());
+        GridPuzzle second = new GridGenerator(geometry, new SplittableRandom(3)).generate(GameDifficulty.MEDIUM, new CancellationToken());
+
+        assertArrayEquals(first.getGivens(), second.getGivens());
+        assertArrayEquals(first.getSolution(), second.getSolution());
+    }
+
+    @Test
+    void testRemovedDigitsScalesWithBoardSize() {
+        assertEquals(PuzzleGenerator.removedDigits(GameDifficulty.HARD), GridGenerator.removedDigits(BoardGeometry.CLASSIC, GameDifficulty.HARD));
+        assertTrue(GridGenerator.removedDigits(BoardGeometry.of(5), GameDifficulty.HARD) > GridGenerator.removedDigits(BoardGeometry.of(4), GameDifficulty.HARD));
+    }
+}
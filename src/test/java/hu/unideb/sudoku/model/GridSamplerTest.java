@@ -0,0 +1,54 @@
+package hu.unideb.sudoku.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GridSamplerTest {
+
+    @Test
+    void testSampleIsValidCompleteGrid() {
+        GridSampler underTest = new GridSampler(new SplittableRandom(3));
+
+        for (int round = 0; round < 50; round++) {
+            BitBoard board = new BitBoard();
+            board.setValues(underTest.sample());
+
+            assertTrue(board.isComplete());
+            for (int cell = 0; cell < 81; cell++) {
+                assertTrue(board.isValueValid(cell, board.getValue(cell)));
+            }
+        }
+    }
+
+    @Test
+    void testSameSeedGivesSameGrid() {
+        assertArrayEquals(new GridSampler(new SplittableRandom(11)).sample(),
+                new GridSampler(new SplittableRandom(11)).sample());
+    }
+
+    @Test
+    void testDigitsAreSpreadEvenly() {
+        GridSampler underTest = new GridSampler(new SplittableRandom(5));
+        int[][] counts = new int[81][10];
+        int samples = 900;
+        long nodes = 0;
+
+        for (int round = 0; round < samples; round++) {
+            int[] grid = underTest.sample();
+            nodes += underTest.getNodes();
+            for (int cell = 0; cell < 81; cell++) {
+                counts[cell][grid[cell]]++;
+            }
+        }
+
+        for (int cell : new int[]{0, 40, 80}) {
+            for (int digit = 1; digit <= 9; digit++) {
+                assertTrue(counts[cell][digit] > samples / 9 / 2, "cell " + cell + " digit " + digit);
+            }
+        }
+        assertTrue(nodes < samples * 81L * 2);
+    }
+}
@@ -0,0 +1,121 @@
+package hu.unideb.sudoku.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GridSolverTest {
+
+    @ParameterizedTest
+    @ValueSource(ints = {2, 3, 4, 5})
+    void testGeometryTables(int boxSize) {
+        BoardGeometry geometry = BoardGeometry.of(boxSize);
+        int size = boxSize * boxSize;
+
+        assertEquals(size * size, geometry.getCellCount());
+        assertEquals(3 * size, geometry.getHouseCount());
+        assertEquals(size == 64 ? -1L : (1L << size) - 1, geometry.getAllCandidates());
+        assertEquals(3 * size - 2 * boxSize - 1, geometry.peersOf(0).length);
+        int last = geometry.getCellCount() - 1;
+        assertEquals(size - 1, geometry.rowOf(last));
+        assertEquals(size - 1, geometry.colOf(last));
+        assertEquals(size - 1, geometry.boxOf(last));
+        assertArrayEquals(geometry.houseCells(2 * size + size - 1), geometry.boxCells(geometry.boxOf(last)));
+        assertSame(geometry, BoardGeometry.of(boxSize));
+    }
+
+    @Test
+    void testClassicGeometryMatchesBitBoard() {
+        for (int cell = 0; cell < BitBoard.CELLS; cell++) {
+            assertEquals(BitBoard.boxOf(cell), BoardGeometry.CLASSIC.boxOf(cell));
+            assertArrayEquals(BitBoard.peersOf(cell), BoardGeometry.CLASSIC.peersOf(cell));
+        }
+        assertThrows(IllegalArgumentException.class, () -> BoardGeometry.of(1));
+        assertThrows(IllegalArgumentException.class, () -> BoardGeometry.of(9));
+    }
+
+    @Test
+    void testAgreesWithDlxOnClassicPuzzles() {
+        GridSolver underTest = new GridSolver(BoardGeometry.CLASSIC);
+        DlxSolver dlxSolver = new DlxSolver();
+        PuzzleGenerator generator = new PuzzleGenerator(11);
+
+        for (int round = 0; round < 3; round++) {
+            int[] grid = generator.generate(GameDifficulty.EXPERT).getGivens();
+            for (int cell = 0; cell < BitBoard.CELLS; cell++) {
+                if (grid[cell] != 0) {
+                    assertEquals(dlxSolver.countSolutions(grid, 2), underTest.countSolutions(grid, 2));
+                    grid[cell] = 0;
+                }
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {2, 4, 5})
+    void testSolvesEmptyAndSparseBoards(int boxSize) {
+        BoardGeometry geometry = BoardGeometry.of(boxSize);
+        GridSolver underTest = new GridSolver(geometry);
+        int[] grid = new int[geometry.getCellCount()];
+
+        assertTrue(underTest.solve(grid));
+        assertValidSolution(geometry, grid);
+        assertEquals(2, underTest.countSolutions(new int[geometry.getCellCount()], 2));
+    }
+
+    @Test
+    void testConflictingGivensHaveNoSolution() {
+        BoardGeometry geometry = BoardGeometry.of(4);
+        int[] grid = new int[geometry.getCellCount()];
+        grid[0] = 16;
+        grid[geometry.index(0, 15)] = 16;
+
+        assertEquals(0, new GridSolver(geometry).countSolutions(grid, 2));
+        grid[geometry.index(0, 15)] = 17;
+        assertEquals(0, new GridSolver(geometry).countSolutions(grid, 2));
+    }
+
+    @Test
+    void testHasSolutionExcluding() {
+        BoardGeometry geometry = BoardGeometry.of(4);
+        GridPuzzle puzzle = new GridGenerator(geometry, new SplittableRandom(5)).generate(GameDifficulty.MEDIUM, new CancellationToken());
+        int[] givens = puzzle.getGivens();
+        int[] solution = puzzle.getSolution();
+        GridSolver underTest = new GridSolver(geometry);
+
+        for (int cell = 0; cell < geometry.getCellCount(); cell++) {
+            if (givens[cell] == 0) {
+                assertFalse(underTest.hasSolutionExcluding(givens, cell, solution[cell], new CancellationToken()));
+                assertEquals(0, givens[cell]);
+            }
+        }
+        int empty = firstEmpty(givens);
+        givens[empty] = solution[empty];
+        assertFalse(underTest.hasSolutionExcluding(givens, empty, solution[empty], new CancellationToken()));
+        assertEquals(solution[empty], givens[empty]);
+    }
+
+    private static int firstEmpty(int[] grid) {
+        for (int cell = 0; cell < grid.length; cell++) {
+            if (grid[cell] == 0) {
+                return cell;
+            }
+        }
+        return -1;
+    }
+
+    static void assertValidSolution(BoardGeometry geometry, int[] grid) {
+        for (int house = 0; house < geometry.getHouseCount(); house++) {
+            long seen = 0;
+            for (int cell : geometry.houseCells(house)) {
+                assertTrue(geometry.isDigit(grid[cell]));
+                seen |= BoardGeometry.bit(grid[cell]);
+            }
+            assertEquals(geometry.getAllCandidates(), seen);
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package hu.unideb.sudoku.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GridVariantTest {
+
+    @Test
+    void testClassicHousesMatchBitBoard() {
+        BoardGeometry geometry = BoardGeometry.CLASSIC;
+
+        assertTrue(geometry.isClassicLayout());
+        assertEquals(BitBoard.HOUSE_COUNT, geometry.getHouseCount());
+        for (int cell = 0; cell < BitBoard.CELLS; cell++) {
+            assertArrayEquals(BitBoard.peersOf(cell), geometry.peersOf(cell));
+            assertArrayEquals(BitBoard.housesOf(cell), geometry.housesOf(cell));
+            assertEquals(20, geometry.peersOf(cell).length);
+        }
+        for (int house = 0; house < BitBoard.HOUSE_COUNT; house++) {
+            assertArrayEquals(BitBoard.houseCells(house), geometry.houseCells(house));
+        }
+    }
+
+    @Test
+    void testDiagonalsAddHousesAndPeers() {
+        BoardGeometry geometry = BoardGeometry.CLASSIC.withDiagonals();
+
+        assertEquals(29, geometry.getHouseCount());
+        assertEquals("9×9 X", geometry.toString());
+        assertEquals(5, geometry.housesOf(geometry.index(4, 4)).length);
+        assertEquals(3, geometry.housesOf(geometry.index(0, 1)).length);
+        assertTrue(contains(geometry.peersOf(geometry.index(0, 0)), geometry.index(8, 8)));
+        assertFalse(contains(BoardGeometry.CLASSIC.peersOf(geometry.index(0, 0)), geometry.index(8, 8)));
+    }
+
+    @Test
+    void testXSudokuGeneratesUniquePuzzle() {
+        BoardGeometry geometry = BoardGeometry.CLASSIC.withDiagonals();
+
+        GridPuzzle puzzle = new GridGenerator(geometry, new SplittableRandom(5)).generate(GameDifficulty.MEDIUM, new CancellationToken());
+
+        assertValidSolution(geometry, puzzle.getSolution());
+        assertTrue(new GridSolver(geometry).isUnique(puzzle.getGivens()));
+    }
+
+    @Test
+    void testJigsawGeneratesUniquePuzzle() {
+        BoardGeometry geometry = BoardGeometry.CLASSIC.withRegions(jigsawRegions());
+
+        assertFalse(geometry.hasStandardRegions());
+        GridPuzzle puzzle = new GridGenerator(geometry, new SplittableRandom(11)).generate(GameDifficulty.EASY, new CancellationToken());
+
+        assertValidSolution(geometry, puzzle.getSolution());
+        assertTrue(new GridSolver(geometry).isUnique(puzzle.getGivens()));
+    }
+
+    @Test
+    void testInvalidRegionsAreRejected() {
+        int[] regions = BoardGeometry.CLASSIC.regionTable();
+        regions[0] = 1;
+
+        assertThrows(IllegalArgumentException.class, () -> BoardGeometry.CLASSIC.withRegions(regions));
+        assertThrows(IllegalArgumentException.class, () -> BoardGeometry.CLASSIC.withRegions(new int[3]));
+    }
+
+    @Test
+    void testCagesAreValidated() {
+        BoardGeometry geometry = BoardGeometry.of(2);
+        BoardGeometry killer = geometry.withCages(List.of(new Cage(3, 0, 5)));
+
+        assertEquals("4×4 Killer", killer.toString());
+        assertTrue(contains(killer.peersOf(0), 5));
+        assertEquals(0, killer.cageOf(5));
+        assertEquals(-1, killer.cageOf(1));
+
+        assertThrows(IllegalArgumentException.class, () -> new Cage(3));
+        assertThrows(IllegalArgumentException.class, () -> new Cage(3, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> geometry.withCages(List.of(new Cage(8, 0, 1))));
+        assertThrows(IllegalArgumentException.class, () -> geometry.withCages(List.of(new Cage(2, 0, 1))));
+        assertThrows(IllegalArgumentException.class, () -> geometry.withCages(List.of(new Cage(3, 0, 1), new Cage(5, 1, 2))));
+        assertThrows(IllegalArgumentException.class, () -> geometry.withCages(List.of(new Cage(3, 0, 16))));
+        assertThrows(IllegalArgumentException.class, () -> new GridGenerator(geometry.withCages(List.of(new Cage(3, 0, 1)))));
+    }
+
+    @Test
+    void testKillerCountMatchesBruteForce() {
+        BoardGeometry geometry = BoardGeometry.of(2);
+        int[] solution = new GridGenerator(geometry, new SplittableRandom(9)).sampleSolution();
+        List<int[]> allSolutions = new ArrayList<>();
+        enumerate(geometry, new int[geometry.getCellCount()], 0, allSolutions);
+        assertEquals(288, allSolutions.size());
+
+        List<List<int[]>> layouts = List.of(
+                List.of(new int[]{0, 1}, new int[]{2, 3}, new int[]{4, 5}, new int[]{6, 7},
+                        new int[]{8, 9}, new int[]{10, 11}, new int[]{12, 13}, new int[]{14, 15}),
+                List.of(new int[]{0, 4}, new int[]{1, 5}, new int[]{2, 6}, new int[]{3, 7}),
+                List.of(new int[]{0, 1, 5}, new int[]{10, 11, 15}, new int[]{12, 13}));
+        for (List<int[]> layout : layouts) {
+            List<Cage> cages = new ArrayList<>();
+            for (int[] cells : layout) {
+                int sum = 0;
+                for (int cell : cells) {
+                    sum += solution[cell];
+                }
+                cages.add(new Cage(sum, cells));
+            }
+            BoardGeometry killer = geometry.withCages(cages);
+            long expected = allSolutions.stream().filter(grid -> satisfiesCages(killer, grid)).count();
+
+            int[] first = new int[killer.getCellCount()];
+            assertEquals(expected, new GridSolver(killer).countSolutions(new int[killer.getCellCount()], 1000, first));
+            assertTrue(satisfiesCages(killer, first));
+        }
+    }
+
+    @Test
+    void testKillerGeneratesUniquePuzzleWithValidCages() {
+        BoardGeometry geometry = BoardGeometry.CLASSIC;
+
+        GridPuzzle puzzle = new GridGenerator(geometry, new SplittableRandom(17)).generateKiller(GameDifficulty.EXTREME, new CancellationToken());
+
+        BoardGeometry killer = puzzle.getGeometry();
+        assertFalse(killer.getCages().isEmpty());
+        int[] solution = puzzle.getSolution();
+        assertValidSolution(killer, solution);
+        int covered = 0;
+        for (Cage cage : killer.getCages()) {
+            int sum = 0;
+            for (int cell : cage.getCells()) {
+                sum += solution[cell];
+                covered++;
+            }
+            assertEquals(cage.getSum(), sum);
+        }
+        assertEquals(BitBoard.CELLS, covered);
+        assertTrue(new GridSolver(killer).isUnique(puzzle.getGivens()));
+        assertTrue(puzzle.getClueCount() <= BitBoard.CELLS - GridGenerator.removedDigits(killer, GameDifficulty.EXTREME));
+    }
+
+    @Test
+    void testKillerGameModelAcceptsPuzzle() {
+        BoardGeometry geometry = BoardGeometry.of(2);
+        GridPuzzle puzzle = new GridGenerator(geometry, new SplittableRandom(3)).generateKiller(GameDifficulty.EXTREME, new CancellationToken());
+        GridGameModel underTest = new GridGameModel(puzzle.getGeometry());
+
+        underTest.loadPuzzle(puzzle);
+        underTest.solve();
+
+        assertTrue(underTest.isCorrect());
+    }
+
+    /**
+     * A szabályos blokkokból két szomszédos blokk egy-egy celláját felcseréli.
+     * A cserélt cellák külön sorban vannak, különben a sáv miatt egyenlőnek kellene lenniük, és nem lenne megoldás.
+     *
+     * @return a régiók táblája
+     */
+    private static int[] jigsawRegions() {
+        BoardGeometry geometry = BoardGeometry.CLASSIC;
+        int[] regions = geometry.regionTable();
+        regions[geometry.index(2, 2)] = 1;
+        regions[geometry.index(1, 3)] = 0;
+        regions[geometry.index(5, 5)] = 5;
+        regions[geometry.index(4, 6)] = 4;
+        return regions;
+    }
+
+    /**
+     * Ellenőrzi, hogy a kitöltött tábla a geometria minden házában minden értéket pontosan egyszer tartalmaz.
+     *
+     * @param geometry a tábla geometriája
+     * @param grid     a kitöltött tábla
+     */
+    private static void assertValidSolution(BoardGeometry geometry, int[] grid) {
+        for (int house = 0; house < geometry.getHouseCount(); house++) {
+            long seen = 0;
+            for (int cell : geometry.houseCells(house)) {
+                assertTrue(geometry.isDigit(grid[cell]));
+                seen |= BoardGeometry.bit(grid[cell]);
+            }
+            assertEquals(geometry.getAllCandidates(), seen, "ház: " + house);
+        }
+        for (Cage cage : geometry.getCages()) {
+            long seen = 0;
+            for (int cell : cage.getCells()) {
+                assertEquals(0, seen & BoardGeometry.bit(grid[cell]));
+                seen |= BoardGeometry.bit(grid[cell]);
+            }
+        }
+    }
+
+    /**
+     * Felsorolja a tábla összes kitöltését egyszerű visszalépéssel.
+     *
+     * @param geometry  a tábla geometriája
+     * @param grid      a részben kitöltött tábla
+     * @param cell      a következő kitöltendő cella
+     * @param solutions ide kerülnek a kitöltések
+     */
+    private static void enumerate(BoardGeometry geometry, int[] grid, int cell, List<int[]> solutions) {
+        if (cell == grid.length) {
+            solutions.add(grid.clone());
+            return;
+        }
+        for (int value = 1; value <= geometry.getSize(); value++) {
+            boolean valid = true;
+            for (int peer : geometry.peersOf(cell)) {
+                valid &= grid[peer] != value;
+            }
+            if (valid) {
+                grid[cell] = value;
+                enumerate(geometry, grid, cell + 1, solutions);
+                grid[cell] = 0;
+            }
+        }
+    }
+
+    private static boolean satisfiesCages(BoardGeometry geometry, int[] grid) {
+        for (Cage cage : geometry.getCages()) {
+            int sum = 0;
+            long seen = 0;
+            for (int cell : cage.getCells()) {
+                if ((seen & BoardGeometry.bit(grid[cell])) != 0) {
+                    return false;
+                }
+                seen |= BoardGeometry.bit(grid[cell]);
+                sum += grid[cell];
+            }
+            if (sum != cage.getSum()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean contains(int[] cells, int cell) {
+        for (int other : cells) {
+            if (other == cell) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,85 @@
+package hu.unideb.sudoku.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MrvSolverTest {
+    MrvSolver underTest;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new MrvSolver();
+    }
+
+    @Test
+    void testAgreesWithDlxOnGeneratedPuzzles() {
+        GameModel.setDifficulty(GameDifficulty.HARD);
+        GameModel model = new GameModel();
+        DlxSolver dlxSolver = new DlxSolver();
+
+        for (int round = 0; round < 5; round++) {
+            model.generateSudoku();
+            int[] grid = toGrid(model);
+
+            for (int cell = 0; cell < 81; cell++) {
+                if (grid[cell] != 0) {
+                    assertEquals(dlxSolver.countSolutions(grid, 2), underTest.countSolutions(grid, 2));
+                    grid[cell] = 0;
+                }
+            }
+        }
+    }
+
+    @Test
+    void testSolveReportsCounters() {
+        GameModel.setDifficulty(GameDifficulty.HARD);
+        GameModel model = new GameModel();
+        model.generateSudoku();
+        int[] grid = toGrid(model);
+
+        assertTrue(underTest.solve(grid));
+        for (int cell = 0; cell < 81; cell++) {
+            assertEquals(model.getSolvedValueAt(cell / 9, cell % 9), grid[cell]);
+        }
+        assertEquals(52, underTest.getNodes() - underTest.getBacktracks());
+    }
+
+    @Test
+    void testHasSolutionExcludingAgreesWithDlx() {
+        GameModel.setDifficulty(GameDifficulty.HARD);
+        GameModel model = new GameModel();
+        model.generateSudoku();
+        int[] grid = toGrid(model);
+        DlxSolver dlxSolver = new DlxSolver();
+
+        for (int cell = 0; cell < 81; cell++) {
+            int solutionValue = model.getSolvedValueAt(cell / 9, cell % 9);
+            boolean expected = dlxSolver.hasSolutionExcluding(grid, cell, solutionValue);
+
+            assertEquals(expected, underTest.hasSolutionExcluding(grid, cell, solutionValue));
+            assertEquals(model.getValueAt(cell / 9, cell % 9), grid[cell]);
+        }
+        assertTrue(underTest.hasSolutionExcluding(new int[81], 0, 1));
+    }
+
+    @Test
+    void testCountSolutionsConflictingGivens() {
+        int[] grid = new int[81];
+        grid[0] = 5;
+        grid[80] = 5;
+        grid[8] = 5;
+
+        assertEquals(0, underTest.countSolutions(grid, 2));
+        assertEquals(0, underTest.getNodes());
+    }
+
+    private int[] toGrid(GameModel model) {
+        int[] grid = new int[81];
+        for (int cell = 0; cell < 81; cell++) {
+            grid[cell] = model.getValueAt(cell / 9, cell % 9);
+        }
+        return grid;
+    }
+}
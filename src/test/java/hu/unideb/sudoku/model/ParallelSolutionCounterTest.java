@@ -0,0 +1,113 @@
+package hu.unideb.sudoku.model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelSolutionCounterTest {
+    ForkJoinPool pool;
+    ParallelSolutionCounter underTest;
+
+    @BeforeEach
+    void setUp() {
+        pool = new ForkJoinPool(4);
+        underTest = new ParallelSolutionCounter(pool, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+        GameModel.setParallelCounting(false);
+    }
+
+    @Test
+    void testAgreesWithDlxOnGeneratedPuzzles() {
+        GameModel.setDifficulty(GameDifficulty.HARD);
+        GameModel model = new GameModel();
+        DlxSolver dlxSolver = new DlxSolver();
+        model.generateSudoku();
+        int[] grid = new int[81];
+        for (int cell = 0; cell < 81; cell++) {
+            grid[cell] = model.getValueAt(cell / 9, cell % 9);
+        }
+
+        for (int cell = 0; cell < 81; cell++) {
+            if (grid[cell] != 0) {
+                assertEquals(dlxSolver.countSolutions(grid, 3), underTest.countSolutions(grid, 3));
+                grid[cell] = 0;
+            }
+        }
+    }
+
+    @Test
+    void testCountSolutionsEmptyGridStopsAtLimit() {
+        assertEquals(2, underTest.countSolutions(new int[81], 2));
+        assertEquals(50, underTest.countSolutions(new int[81], 50));
+    }
+
+    @Test
+    void testCountSolutionsConflictingGivens() {
+        int[] grid = new int[81];
+        grid[0] = 5;
+        grid[9] = 5;
+
+        assertEquals(0, underTest.countSolutions(grid, 2));
+    }
+
+    @Test
+    void testHasUniqueSolutionInParallelMode() {
+        GameModel.setParallelCounting(true);
+        GameModel.setDifficulty(GameDifficulty.HARD);
+        GameModel model = new GameModel();
+        model.generateSudoku();
+
+        assertTrue(GameModel.isParallelCounting());
+        assertTrue(model.hasUniqueSolution());
+
+        model.setValueAt(0, 0, 0);
+        model.setValueAt(0, 1, 0);
+        model.setValueAt(0, 2, 0);
+        assertEquals(new DlxSolver().isUnique(toGrid(model)),
+                model.hasUniqueSolution());
+    }
+
+    @Test
+    void testHasSolutionExcludingAgreesWithDlx() {
+        Puzzle puzzle = new PuzzleGenerator(21).generate(GameDifficulty.EXTREME);
+        DlxSolver dlxSolver = new DlxSolver();
+        int[] grid = puzzle.getGivens();
+        int[] solution = puzzle.getSolution();
+
+        for (int cell = 0; cell < 81; cell++) {
+            int value = grid[cell];
+            grid[cell] = 0;
+            assertEquals(dlxSolver.hasSolutionExcluding(grid, cell, solution[cell]),
+                    underTest.hasSolutionExcluding(grid, cell, solution[cell]), "cella: " + cell);
+            grid[cell] = value;
+        }
+    }
+
+    @Test
+    void testParallelGenerationGivesSamePuzzle() {
+        Puzzle expected = new PuzzleGenerator(8).generate(GameDifficulty.EXTREME);
+        PuzzleGenerator generator = new PuzzleGenerator(8);
+        generator.setParallelCounter(underTest);
+
+        Puzzle puzzle = generator.generate(GameDifficulty.EXTREME);
+
+        assertArrayEquals(expected.getGivens(), puzzle.getGivens());
+        assertEquals(expected.getDifficulty(), puzzle.getDifficulty());
+    }
+
+    private int[] toGrid(GameModel model) {
+        int[] grid = new int[81];
+        for (int cell = 0; cell < 81; cell++) {
+            grid[cell] = model.getValueAt(cell / 9, cell % 9);
+        }
+        return grid;
+    }
+}
@@ -0,0 +1,71 @@
+package hu.unideb.sudoku.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PuzzleAnalysisCacheTest {
+
+    @Test
+    void testTransformedPuzzleIsCacheHit() {
+        PuzzleAnalysisCache underTest = new PuzzleAnalysisCache(8, new DlxSolver());
+        Puzzle puzzle = new PuzzleGenerator(31).generate(GameDifficulty.HARD);
+        Puzzle transformed = PuzzleTransformer.random(new SplittableRandom(31)).apply(puzzle);
+
+        PuzzleAnalysis first = underTest.analyze(puzzle.getGivens());
+        PuzzleAnalysis second = underTest.analyze(transformed.getGivens());
+
+        assertEquals(1, underTest.getMisses());
+        assertEquals(1, underTest.getHits());
+        assertTrue(second.isUnique());
+        assertArrayEquals(puzzle.getSolution(), first.getSolution());
+        assertArrayEquals(transformed.getSolution(), second.getSolution());
+        assertEquals(first.getGrade().getRating(), second.getGrade().getRating());
+        assertEquals(first.getCanonicalKey(), second.getCanonicalKey());
+    }
+
+    @Test
+    void testLeastRecentlyUsedIsEvicted() {
+        PuzzleAnalysisCache underTest = new PuzzleAnalysisCache(2, new DlxSolver());
+        PuzzleGenerator generator = new PuzzleGenerator(32);
+        int[] first = generator.generate(GameDifficulty.EASY).getGivens();
+        int[] second = generator.generate(GameDifficulty.EASY).getGivens();
+        int[] third = generator.generate(GameDifficulty.EASY).getGivens();
+
+        underTest.analyze(first);
+        underTest.analyze(second);
+        underTest.analyze(first);
+        underTest.analyze(third);
+        underTest.analyze(first);
+        underTest.analyze(second);
+
+        assertEquals(2, underTest.size());
+        assertEquals(2, underTest.getHits());
+        assertEquals(4, underTest.getMisses());
+    }
+
+    @Test
+    void testSolutionCountIsCapped() {
+        PuzzleAnalysisCache underTest = new PuzzleAnalysisCache(4, new DlxSolver());
+        int[] grid = new PuzzleGenerator(33).generate(GameDifficulty.HARD).getGivens();
+        for (int cell = 0, cleared = 0; cell < 81 && cleared < 10; cell++) {
+            if (grid[cell] != 0) {
+                grid[cell] = 0;
+                cleared++;
+            }
+        }
+
+        PuzzleAnalysis analysis = underTest.analyze(grid);
+
+        assertEquals(2, analysis.getSolutionCount());
+        assertFalse(analysis.isUnique());
+        assertNotNull(analysis.getSolution());
+    }
+
+    @Test
+    void testInvalidCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new PuzzleAnalysisCache(0, new DlxSolver()));
+    }
+}
@@ -0,0 +1,79 @@
+package hu.unideb.sudoku.model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PuzzleBankTest {
+
+    @AfterEach
+    void tearDown() {
+        GameModel.setGenerationMode(GenerationMode.RANDOM);
+    }
+
+    @ParameterizedTest
+    @CsvSource({"EASY, 37", "MEDIUM, 33", "HARD, 29", "EXPERT, 25", "EXTREME, 22"})
+    void testDefaultBankPuzzlesAreValid(GameDifficulty difficulty, int clues) {
+        DlxSolver solver = new DlxSolver();
+        assertFalse(PuzzleBank.getDefault().getPuzzles(difficulty).isEmpty());
+
+        for (Puzzle puzzle : PuzzleBank.getDefault().getPuzzles(difficulty)) {
+            int[] solution = puzzle.getGivens();
+
+            assertEquals(clues, puzzle.getClueCount());
+            assertTrue(solver.isUnique(puzzle.getGivens()));
+            assertTrue(solver.solve(solution));
+            assertArrayEquals(puzzle.getSolution(), solution);
+        }
+    }
+
+    @Test
+    void testTransformPreservesValidity() {
+        Random random = new Random(42);
+        DlxSolver solver = new DlxSolver();
+        Puzzle seed = PuzzleBank.getDefault().getPuzzles(GameDifficulty.HARD).get(0);
+
+        for (int round = 0; round < 20; round++) {
+            Puzzle puzzle = PuzzleTransformer.random(random).apply(seed);
+            int[] givens = puzzle.getGivens();
+            int[] solution = givens.clone();
+
+            assertEquals(seed.getClueCount(), puzzle.getClueCount());
+            assertTrue(solver.isUnique(givens));
+            assertTrue(solver.solve(solution));
+            assertArrayEquals(puzzle.getSolution(), solution);
+        }
+    }
+
+    @Test
+    void testNextUnknownDifficulty() {
+        PuzzleBank bank = new PuzzleBank(Map.of());
+
+        assertThrows(IllegalStateException.class, () -> bank.next(GameDifficulty.EASY, new Random()));
+    }
+
+    @Test
+    void testGenerateSudokuFromSeedBank() {
+        GameModel.setGenerationMode(GenerationMode.SEED_BANK);
+        GameModel.setDifficulty(GameDifficulty.MEDIUM);
+        GameModel model = new GameModel();
+
+        model.generateSudoku();
+
+        assertEquals(48, model.getLastGenerationStats().getRemoved());
+        assertEquals(0, model.getLastGenerationStats().getSolverCalls());
+        assertTrue(model.hasUniqueSolution());
+        model.solve();
+        for (int i = 0; i < 9; i++) {
+            for (int j = 0; j < 9; j++) {
+                assertEquals(model.getSolvedValueAt(i, j), model.getValueAt(i, j));
+            }
+        }
+    }
+}
@@ -0,0 +1,343 @@
+package hu.unideb.sudoku.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PuzzleGeneratorTest {
+
+    @ParameterizedTest
+    @EnumSource(GameDifficulty.class)
+    void testSameSeedGivesSamePuzzle(GameDifficulty difficulty) {
+        Puzzle first = new PuzzleGenerator(42).generate(difficulty);
+        Puzzle second = new PuzzleGenerator(42).generate(difficulty);
+
+        assertArrayEquals(first.getGivens(), second.getGivens());
+        assertArrayEquals(first.getSolution(), second.getSolution());
+        assertEquals(81 - PuzzleGenerator.removedDigits(difficulty), first.getClueCount());
+        assertTrue(new DlxSolver().isUnique(first.getGivens()));
+    }
+
+    @Test
+    void testPuzzleDoesNotDependOnEngine() {
+        Puzzle expected = new PuzzleGenerator(new SplittableRandom(7), new DlxSolver()).generate(GameDifficulty.HARD);
+
+        for (String name : SolverEngines.availableNames()) {
+            Puzzle puzzle = new PuzzleGenerator(new SplittableRandom(7), SolverEngines.create(name))
+                    .generate(GameDifficulty.HARD);
+
+            assertArrayEquals(expected.getGivens(), puzzle.getGivens(), name);
+        }
+    }
+
+    @Test
+    void testDifficultyFor() {
+        for (GameDifficulty difficulty : GameDifficulty.values()) {
+            assertEquals(difficulty, PuzzleGenerator.difficultyFor(PuzzleGenerator.removedDigits(difficulty)));
+        }
+        assertEquals(GameDifficulty.EASY, PuzzleGenerator.difficultyFor(0));
+        assertEquals(GameDifficulty.HARD, PuzzleGenerator.difficultyFor(55));
+        assertEquals(GameDifficulty.EXTREME, PuzzleGenerator.difficultyFor(64));
+    }
+
+    @Test
+    void testCancelledPuzzleIsLabelledByReachedLevel() {
+        PuzzleGenerator underTest = new PuzzleGenerator(13);
+        CancellationToken token = new CancellationToken();
+        token.cancel();
+
+        Puzzle puzzle = underTest.generate(GameDifficulty.EXTREME, token);
+
+        assertEquals(81, puzzle.getClueCount());
+        assertEquals(GameDifficulty.EASY, puzzle.getDifficulty());
+        assertEquals(GameDifficulty.EASY, underTest.getLastStats().getDifficulty());
+        assertTrue(underTest.getLastStats().isCancelled());
+    }
+
+    @Test
+    void testExtremeGenerationIsBoundedAndHonestlyLabelled() {
+        for (long seed = 0; seed < 20; seed++) {
+            PuzzleGenerator underTest = new PuzzleGenerator(seed);
+
+            Puzzle puzzle = underTest.generate(GameDifficulty.EXTREME);
+
+            int removed = 81 - puzzle.getClueCount();
+            assertEquals(removed, underTest.getLastStats().getRemoved());
+            assertEquals(removed >= PuzzleGenerator.removedDigits(GameDifficulty.EXTREME)
+                    ? GameDifficulty.EXTREME : PuzzleGenerator.difficultyFor(removed), puzzle.getDifficulty());
+        }
+    }
+
+    @Test
+    void testSplitGivesIndependentGenerator() {
+        PuzzleGenerator underTest = new PuzzleGenerator(1);
+        PuzzleGenerator split = underTest.split();
+
+        Puzzle puzzle = underTest.generate(GameDifficulty.EASY);
+        Puzzle splitPuzzle = split.generate(GameDifficulty.EASY);
+
+        assertFalse(Arrays.equals(puzzle.getGivens(), splitPuzzle.getGivens()));
+        assertEquals(44, underTest.getLastStats().getRemoved());
+    }
+
+    @Test
+    void testDailySeed() {
+        LocalDate date = LocalDate.of(2024, 5, 1);
+
+        assertEquals(PuzzleGenerator.dailySeed(date), PuzzleGenerator.dailySeed(LocalDate.of(2024, 5, 1)));
+        assertNotEquals(PuzzleGenerator.dailySeed(date), PuzzleGenerator.dailySeed(date.plusDays(1)));
+    }
+
+    @Test
+    void testGameModelGenerateSudokuWithSeed() {
+        GameModel.setDifficulty(GameDifficulty.MEDIUM);
+        GameModel first = new GameModel();
+        GameModel second = new GameModel();
+
+        first.generateSudoku(PuzzleGenerator.dailySeed(LocalDate.of(2024, 5, 1)));
+        second.generateSudoku(PuzzleGenerator.dailySeed(LocalDate.of(2024, 5, 1)));
+
+        for (int i = 0; i < 9; i++) {
+            for (int j = 0; j < 9; j++) {
+                assertEquals(first.getValueAt(i, j), second.getValueAt(i, j));
+                assertEquals(first.getSolvedValueAt(i, j), second.getSolvedValueAt(i, j));
+            }
+        }
+    }
+
+    @Test
+    void testSequentialStreamIsReproducible() {
+        List<String> first = PuzzleGenerator.stream(GameDifficulty.EASY, 9).limit(5)
+                .map(Puzzle::toString).collect(Collectors.toList());
+        List<String> second = PuzzleGenerator.stream(GameDifficulty.EASY, 9).limit(5)
+                .map(Puzzle::toString).collect(Collectors.toList());
+
+        assertEquals(first, second);
+    }
+
+    @Test
+    void testParallelStreamGeneratesValidPuzzles() {
+        DlxSolver solver = new DlxSolver();
+
+        List<Puzzle> puzzles = PuzzleGenerator.stream(GameDifficulty.HARD, 3, 40).parallel()
+                .collect(Collectors.toList());
+
+        assertEquals(40, puzzles.size());
+        for (Puzzle puzzle : puzzles) {
+            assertEquals(GameDifficulty.HARD, puzzle.getDifficulty());
+            assertEquals(29, puzzle.getClueCount());
+            assertTrue(solver.isUnique(puzzle.getGivens()));
+        }
+        assertEquals(40, puzzles.stream().map(Puzzle::toString).distinct().count());
+    }
+
+    @Test
+    void testMeasureThroughput() {
+        Map<GameDifficulty, Double> throughput = PuzzleGenerator.measureThroughput(4, 1);
+
+        for (GameDifficulty difficulty : GameDifficulty.values()) {
+            assertTrue(throughput.get(difficulty) > 0);
+        }
+    }
+
+    @Test
+    void testRaceReturnsCompletePuzzle() {
+        PuzzleGenerator underTest = new PuzzleGenerator(5);
+
+        Puzzle puzzle = underTest.race(GameDifficulty.HARD, 4, new CancellationToken());
+
+        assertEquals(29, puzzle.getClueCount());
+        assertTrue(new DlxSolver().isUnique(puzzle.getGivens()));
+        assertEquals(52, underTest.getLastStats().getRemoved());
+        assertFalse(underTest.getLastStats().isCancelled());
+    }
+
+    @Test
+    void testRaceCancelledReturnsBestPuzzle() {
+        PuzzleGenerator underTest = new PuzzleGenerator(5);
+        CancellationToken token = new CancellationToken();
+        token.cancel();
+
+        Puzzle puzzle = underTest.race(GameDifficulty.HARD, 2, token);
+
+        assertEquals(81, puzzle.getClueCount());
+        assertTrue(underTest.getLastStats().isCancelled());
+    }
+
+    @Test
+    void testGameModelRacingMode() {
+        GameModel.setGenerationMode(GenerationMode.RACING);
+        try {
+            GameModel.setDifficulty(GameDifficulty.MEDIUM);
+            GameModel model = new GameModel();
+
+            model.generateSudoku();
+
+            assertEquals(48, model.getLastGenerationStats().getRemoved());
+            assertTrue(model.hasUniqueSolution());
+        } finally {
+            GameModel.setGenerationMode(GenerationMode.RANDOM);
+        }
+    }
+
+    @Test
+    void testUnknownGenerationModePropertyFallsBackToRandom() {
+        try {
+            System.setProperty(GameModel.GENERATION_PROPERTY, "RACEING");
+            assertEquals(GenerationMode.RANDOM, GameModel.configuredGenerationMode());
+
+            System.setProperty(GameModel.GENERATION_PROPERTY, "MINIMAL");
+            assertEquals(GenerationMode.MINIMAL, GameModel.configuredGenerationMode());
+        } finally {
+            System.clearProperty(GameModel.GENERATION_PROPERTY);
+        }
+    }
+
+    @Test
+    void testSeededGenerationIsReproducibleInRacingMode() {
+        GameModel.setGenerationMode(GenerationMode.RACING);
+        try {
+            GameModel.setDifficulty(GameDifficulty.HARD);
+            GameModel first = new GameModel();
+            GameModel second = new GameModel();
+
+            first.generateSudoku(PuzzleGenerator.dailySeed(LocalDate.of(2024, 5, 1)));
+            second.generateSudoku(PuzzleGenerator.dailySeed(LocalDate.of(2024, 5, 1)));
+
+            for (int cell = 0; cell < 81; cell++) {
+                assertEquals(first.getValueAt(cell / 9, cell % 9), second.getValueAt(cell / 9, cell % 9));
+            }
+            assertEquals(52, first.getLastGenerationStats().getRemoved());
+            assertFalse(GenerationMode.RACING.isReproducible());
+            assertTrue(GenerationMode.SEED_BANK.isReproducible());
+        } finally {
+            GameModel.setGenerationMode(GenerationMode.RANDOM);
+        }
+    }
+
+    @Test
+    void testTargetedGenerationRequiringHiddenPair() {
+        PuzzleGenerator underTest = new PuzzleGenerator(8);
+
+        Puzzle puzzle = underTest.generate(PuzzleRequirement.requiring(Technique.HIDDEN_PAIR),
+                CancellationToken.withTimeout(Duration.ofSeconds(10))).orElseThrow();
+
+        Grade grade = new DifficultyGrader().grade(puzzle);
+        assertTrue(grade.isSolved());
+        assertEquals(Technique.HIDDEN_PAIR, grade.getHardestTechnique());
+        assertTrue(new DlxSolver().isUnique(puzzle.getGivens()));
+        TargetedGenerationStats stats = underTest.getLastTargetedStats();
+        assertFalse(stats.isTimedOut());
+        assertEquals(stats.getCandidates() - 1, stats.getRejectedTooEasy() + stats.getRejectedTooFewBlanks());
+    }
+
+    @Test
+    void testTargetedGenerationSinglesOnlyWithManyBlanks() {
+        PuzzleGenerator underTest = new PuzzleGenerator(9);
+
+        Puzzle puzzle = underTest.generate(PuzzleRequirement.atMost(Technique.HIDDEN_SINGLE).withMinBlanks(50),
+                CancellationToken.withTimeout(Duration.ofSeconds(10))).orElseThrow();
+
+        Grade grade = new DifficultyGrader().grade(puzzle);
+        assertTrue(grade.isSolved());
+        assertTrue(grade.getHardestTechnique().compareTo(Technique.HIDDEN_SINGLE) <= 0);
+        assertTrue(81 - puzzle.getClueCount() >= 50);
+        assertTrue(new DlxSolver().isUnique(puzzle.getGivens()));
+    }
+
+    @Test
+    void testTargetedGenerationIsReproducible() {
+        PuzzleRequirement requirement = PuzzleRequirement.requiring(Technique.NAKED_PAIR);
+
+        Puzzle first = new PuzzleGenerator(3).generate(requirement, new CancellationToken()).orElseThrow();
+        Puzzle second = new PuzzleGenerator(3).generate(requirement, new CancellationToken()).orElseThrow();
+
+        assertArrayEquals(first.getGivens(), second.getGivens());
+    }
+
+    @Test
+    void testTargetedGenerationRespectsTimeBudget() {
+        PuzzleGenerator underTest = new PuzzleGenerator(4);
+        PuzzleRequirement impossible = PuzzleRequirement.atMost(Technique.FULL_HOUSE).withMinBlanks(60);
+
+        long start = System.nanoTime();
+        Optional<Puzzle> puzzle = underTest.generate(impossible, CancellationToken.withTimeout(Duration.ofMillis(200)));
+
+        assertTrue(puzzle.isEmpty());
+        assertTrue(underTest.getLastTargetedStats().isTimedOut());
+        assertFalse(underTest.getLastTargetedStats().isExhausted());
+        assertTrue(underTest.getLastTargetedStats().getCandidates() > 0);
+        assertTrue(System.nanoTime() - start < 2_000_000_000L);
+    }
+
+    @Test
+    void testTargetedGenerationIsBoundedWithoutDeadline() {
+        PuzzleGenerator underTest = new PuzzleGenerator(4);
+        PuzzleRequirement impossible = PuzzleRequirement.atMost(Technique.FULL_HOUSE).withMinBlanks(60);
+
+        Optional<Puzzle> puzzle = underTest.generate(impossible, new CancellationToken());
+
+        assertTrue(puzzle.isEmpty());
+        TargetedGenerationStats stats = underTest.getLastTargetedStats();
+        assertTrue(stats.isExhausted());
+        assertFalse(stats.isTimedOut());
+        assertEquals(PuzzleGenerator.MAX_TARGET_CANDIDATES, stats.getCandidates());
+    }
+
+    @Test
+    void testInvalidRequirement() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new PuzzleRequirement(Technique.HIDDEN_PAIR, Technique.NAKED_SINGLE, 0));
+        assertThrows(IllegalArgumentException.class, () -> PuzzleRequirement.requiring(Technique.NAKED_PAIR).withMinBlanks(81));
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = GameDifficulty.class, names = {"EASY", "HARD", "EXTREME"})
+    void testGenerateMinimalIsMinimal(GameDifficulty difficulty) {
+        PuzzleGenerator underTest = new PuzzleGenerator(12);
+        DlxSolver solver = new DlxSolver();
+
+        Puzzle puzzle = underTest.generateMinimal(difficulty, new CancellationToken());
+
+        int[] grid = puzzle.getGivens();
+        assertTrue(solver.isUnique(grid));
+        assertTrue(81 - puzzle.getClueCount() >= PuzzleGenerator.removedDigits(difficulty));
+        for (int cell = 0; cell < 81; cell++) {
+            if (grid[cell] != 0) {
+                int value = grid[cell];
+                grid[cell] = 0;
+                assertFalse(solver.isUnique(grid), "Törölhető cella: " + cell);
+                grid[cell] = value;
+            }
+        }
+        assertFalse(underTest.getLastStats().isCancelled());
+        assertTrue(underTest.getLastStats().getMinimizationNanos() > 0);
+    }
+
+    @Test
+    void testGameModelMinimalMode() {
+        GameModel.setGenerationMode(GenerationMode.MINIMAL);
+        try {
+            GameModel.setDifficulty(GameDifficulty.EASY);
+            GameModel model = new GameModel();
+
+            model.generateSudoku();
+
+            assertTrue(model.getLastGenerationStats().getRemoved() > 44);
+            assertTrue(model.hasUniqueSolution());
+        } finally {
+            GameModel.setGenerationMode(GenerationMode.RANDOM);
+        }
+    }
+}
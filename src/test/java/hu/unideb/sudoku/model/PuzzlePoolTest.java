@@ -0,0 +1,56 @@
+package hu.unideb.sudoku.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PuzzlePoolTest {
+
+    @Test
+    void testWarmUpFillsEveryDifficulty() throws InterruptedException {
+        PuzzlePool underTest = new PuzzlePool(2);
+
+        underTest.warmUp();
+
+        for (GameDifficulty difficulty : GameDifficulty.values()) {
+            awaitSize(underTest, difficulty, 2);
+        }
+    }
+
+    @Test
+    void testPollTakesReadyPuzzleAndRefills() throws InterruptedException {
+        PuzzlePool underTest = new PuzzlePool(2);
+        underTest.warmUp();
+        awaitSize(underTest, GameDifficulty.HARD, 2);
+
+        Puzzle puzzle = underTest.poll(GameDifficulty.HARD).orElseThrow();
+
+        assertEquals(GameDifficulty.HARD, puzzle.getDifficulty());
+        assertEquals(29, puzzle.getClueCount());
+        assertTrue(new DlxSolver().isUnique(puzzle.getGivens()));
+        awaitSize(underTest, GameDifficulty.HARD, 2);
+    }
+
+    @Test
+    void testTakeGeneratesWhenEmpty() {
+        PuzzlePool underTest = new PuzzlePool(1);
+
+        Puzzle puzzle = underTest.take(GameDifficulty.EASY);
+
+        assertEquals(GameDifficulty.EASY, puzzle.getDifficulty());
+        assertEquals(37, puzzle.getClueCount());
+    }
+
+    @Test
+    void testPollWithoutDifficulty() {
+        assertTrue(new PuzzlePool(1).poll(null).isEmpty());
+    }
+
+    private void awaitSize(PuzzlePool pool, GameDifficulty difficulty, int size) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (pool.size(difficulty) < size && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(size, pool.size(difficulty));
+    }
+}
@@ -0,0 +1,150 @@
+package hu.unideb.sudoku.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PuzzleStoreTest {
+    private static final GameDifficulty[] LEVELS = {GameDifficulty.EASY, GameDifficulty.HARD, GameDifficulty.EXPERT};
+
+    @TempDir
+    Path dir;
+    private Path file;
+    private final List<Puzzle> puzzles = new ArrayList<>();
+    private final List<Long> offsets = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = dir.resolve("puzzles.store");
+        PuzzleGenerator generator = new PuzzleGenerator(17);
+        try (PuzzleStore.Writer writer = PuzzleStore.create(file)) {
+            for (int i = 0; i < 30; i++) {
+                Puzzle puzzle = generator.generate(LEVELS[i % LEVELS.length]);
+                puzzles.add(puzzle);
+                offsets.add(writer.add(puzzle));
+            }
+            assertEquals(30, writer.size());
+        }
+    }
+
+    @Test
+    void testRecordsRoundTrip() throws IOException {
+        PuzzleStore underTest = PuzzleStore.open(file);
+        DifficultyGrader grader = new DifficultyGrader();
+
+        assertEquals(30, underTest.size());
+        for (int i = 0; i < puzzles.size(); i++) {
+            long offset = offsets.get(i);
+            Puzzle expected = puzzles.get(i);
+            Grade grade = grader.grade(expected);
+            Puzzle actual = underTest.read(offset);
+
+            assertEquals(underTest.offsetOf(i), offset);
+            assertArrayEquals(expected.getGivens(), actual.getGivens());
+            assertArrayEquals(expected.getSolution(), actual.getSolution());
+            assertEquals(expected.getDifficulty(), actual.getDifficulty());
+            assertEquals(expected.getClueCount(), underTest.getClueCount(offset));
+            assertEquals(grade.getRating(), underTest.getRating(offset));
+            assertEquals(grade.getHardestTechnique(), underTest.getHardestTechnique(offset));
+            assertEquals(grade.isSolved(), underTest.isLogicallySolved(offset));
+        }
+    }
+
+    @Test
+    void testIndexesCoverEveryRecordOnce() throws IOException {
+        PuzzleStore underTest = PuzzleStore.open(file);
+
+        Set<Long> byDifficulty = new HashSet<>();
+        for (GameDifficulty difficulty : GameDifficulty.values()) {
+            for (int i = 0; i < underTest.count(difficulty); i++) {
+                long offset = underTest.offset(difficulty, i);
+                assertEquals(difficulty, underTest.getDifficulty(offset));
+                byDifficulty.add(offset);
+            }
+        }
+        assertEquals(10, underTest.count(GameDifficulty.HARD));
+        assertEquals(0, underTest.count(GameDifficulty.MEDIUM));
+
+        Set<Long> byClues = new HashSet<>();
+        for (int clues = 0; clues <= 81; clues++) {
+            for (int i = 0; i < underTest.countByClues(clues); i++) {
+                long offset = underTest.offsetByClues(clues, i);
+                assertEquals(clues, underTest.getClueCount(offset));
+                byClues.add(offset);
+            }
+        }
+        assertEquals(10, underTest.countByClues(25));
+
+        Set<Long> byTechnique = new HashSet<>();
+        List<Technique> techniques = new ArrayList<>(List.of(Technique.values()));
+        techniques.add(null);
+        for (Technique technique : techniques) {
+            for (int i = 0; i < underTest.countByTechnique(technique); i++) {
+                long offset = underTest.offsetByTechnique(technique, i);
+                assertEquals(technique, underTest.getHardestTechnique(offset));
+                byTechnique.add(offset);
+            }
+        }
+
+        assertEquals(new HashSet<>(offsets), byDifficulty);
+        assertEquals(byDifficulty, byClues);
+        assertEquals(byDifficulty, byTechnique);
+        assertThrows(IndexOutOfBoundsException.class, () -> underTest.offset(GameDifficulty.MEDIUM, 0));
+    }
+
+    @Test
+    void testSmallSegmentsGiveSameRecords() throws IOException {
+        PuzzleStore whole = PuzzleStore.open(file);
+        PuzzleStore segmented = PuzzleStore.open(file, 7);
+
+        for (int i = 0; i < whole.size(); i++) {
+            long offset = whole.offsetOf(i);
+            assertArrayEquals(whole.read(offset).getGivens(), segmented.read(offset).getGivens());
+            assertEquals(whole.getRating(offset), segmented.getRating(offset));
+        }
+    }
+
+    @Test
+    void testInvalidOffsetAndFile() throws IOException {
+        PuzzleStore underTest = PuzzleStore.open(file);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> underTest.read(PuzzleStore.HEADER_SIZE + 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> underTest.read(underTest.offsetOf(29) + PuzzleStore.RECORD_SIZE));
+
+        byte[] bytes = Files.readAllBytes(file);
+        Path truncated = dir.resolve("truncated.store");
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 4));
+        assertThrows(IllegalArgumentException.class, () -> PuzzleStore.open(truncated));
+    }
+
+    @Test
+    void testGameModelLoadsFromOffset() throws IOException {
+        PuzzleStore store = PuzzleStore.open(file);
+        long offset = store.randomOffset(GameDifficulty.EXPERT, new SplittableRandom(2));
+        GameModel model = new GameModel();
+
+        model.loadPuzzle(store, offset);
+
+        int[] givens = new int[81];
+        int[] solution = new int[81];
+        store.readGivens(offset, givens);
+        store.readSolution(offset, solution);
+        for (int cell = 0; cell < 81; cell++) {
+            assertEquals(givens[cell], model.getValueAt(cell / 9, cell % 9));
+            assertEquals(solution[cell], model.getSolvedValueAt(cell / 9, cell % 9));
+        }
+        assertTrue(model.hasUniqueSolution());
+    }
+}
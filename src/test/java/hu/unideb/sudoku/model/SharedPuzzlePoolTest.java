@@ -0,0 +1,181 @@
+package hu.unideb.sudoku.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SharedPuzzlePoolTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testOfferAndPollAcrossMappings() throws IOException {
+        Path file = dir.resolve("pool.bin");
+        SharedPuzzlePool producer = SharedPuzzlePool.open(file, 2);
+        SharedPuzzlePool consumer = SharedPuzzlePool.open(file, 2);
+        PuzzleGenerator generator = new PuzzleGenerator(6);
+        Puzzle first = generator.generate(GameDifficulty.MEDIUM);
+        Puzzle second = generator.generate(GameDifficulty.MEDIUM);
+
+        assertTrue(producer.offer(first));
+        assertTrue(producer.offer(second));
+        assertFalse(producer.offer(first));
+        assertEquals(2, consumer.size(GameDifficulty.MEDIUM));
+        assertEquals(0, consumer.size(GameDifficulty.EASY));
+
+        Puzzle taken = consumer.poll(GameDifficulty.MEDIUM).orElseThrow();
+        assertArrayEquals(first.getGivens(), taken.getGivens());
+        assertArrayEquals(first.getSolution(), taken.getSolution());
+        assertEquals(GameDifficulty.MEDIUM, taken.getDifficulty());
+        assertArrayEquals(second.getGivens(), consumer.poll(GameDifficulty.MEDIUM).orElseThrow().getGivens());
+        assertTrue(consumer.poll(GameDifficulty.MEDIUM).isEmpty());
+        assertTrue(consumer.poll(GameDifficulty.EASY).isEmpty());
+    }
+
+    @Test
+    void testCapacityMismatchIsRejected() throws IOException {
+        Path file = dir.resolve("pool.bin");
+        SharedPuzzlePool.open(file, 4);
+        long size = Files.size(file);
+
+        assertThrows(IllegalArgumentException.class, () -> SharedPuzzlePool.open(file, 8));
+        assertEquals(size, Files.size(file));
+    }
+
+    @Test
+    void testForeignFileIsRejectedUnchanged() throws IOException {
+        Path file = dir.resolve("notes.txt");
+        byte[] content = "Nem feladvány készlet.".getBytes(StandardCharsets.UTF_8);
+        Files.write(file, content);
+
+        assertThrows(IllegalArgumentException.class, () -> SharedPuzzlePool.open(file, 2));
+        assertArrayEquals(content, Files.readAllBytes(file));
+    }
+
+    @Test
+    void testInterruptedInitializationIsCompleted() throws IOException {
+        SharedPuzzlePool.open(dir.resolve("pool.bin"), 2);
+        Path file = dir.resolve("interrupted.bin");
+        Files.write(file, new byte[(int) Files.size(dir.resolve("pool.bin"))]);
+
+        SharedPuzzlePool underTest = SharedPuzzlePool.open(file, 2);
+
+        assertTrue(underTest.offer(new PuzzleGenerator(4).generate(GameDifficulty.EASY)));
+        assertEquals(1, underTest.size(GameDifficulty.EASY));
+    }
+
+    @Test
+    void testConcurrentOpenInOneProcess() throws Exception {
+        Path file = dir.resolve("pool.bin");
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<SharedPuzzlePool>> pools = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                pools.add(executor.submit(() -> SharedPuzzlePool.open(file, 2)));
+            }
+            for (Future<SharedPuzzlePool> pool : pools) {
+                assertEquals(2, pool.get(30, TimeUnit.SECONDS).getCapacity());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testConcurrentProducersAndConsumersLoseNothing() throws Exception {
+        Path file = dir.resolve("pool.bin");
+        List<Puzzle> puzzles = new ArrayList<>();
+        PuzzleGenerator generator = new PuzzleGenerator(8);
+        for (int i = 0; i < 40; i++) {
+            puzzles.add(generator.generate(GameDifficulty.EASY));
+        }
+        Set<String> received = ConcurrentHashMap.newKeySet();
+        CountDownLatch done = new CountDownLatch(4);
+
+        for (int t = 0; t < 2; t++) {
+            SharedPuzzlePool pool = SharedPuzzlePool.open(file, 4);
+            List<Puzzle> part = puzzles.subList(t * 20, t * 20 + 20);
+            new Thread(() -> {
+                for (Puzzle puzzle : part) {
+                    while (!pool.offer(puzzle)) {
+                        Thread.onSpinWait();
+                    }
+                }
+                done.countDown();
+            }).start();
+        }
+        for (int t = 0; t < 2; t++) {
+            SharedPuzzlePool pool = SharedPuzzlePool.open(file, 4);
+            new Thread(() -> {
+                for (int i = 0; i < 20; i++) {
+                    Optional<Puzzle> puzzle;
+                    while ((puzzle = pool.poll(GameDifficulty.EASY)).isEmpty()) {
+                        Thread.onSpinWait();
+                    }
+                    received.add(puzzle.get().toString());
+                }
+                done.countDown();
+            }).start();
+        }
+
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        Set<String> expected = new HashSet<>();
+        puzzles.forEach(puzzle -> expected.add(puzzle.toString()));
+        assertEquals(expected, received);
+    }
+
+    @Test
+    void testHelperProcessFillsPoolForThisProcess() throws Exception {
+        Path file = dir.resolve("pool.bin");
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        Process process = new ProcessBuilder(java, "-Dtinylog.writer.level=off",
+                "-cp", System.getProperty("java.class.path"), SharedPuzzlePool.class.getName(), file.toString(), "2")
+                .redirectErrorStream(true).redirectOutput(new File(dir.toFile(), "helper.log")).start();
+
+        assertTrue(process.waitFor(60, TimeUnit.SECONDS));
+        assertEquals(0, process.exitValue());
+
+        SharedPuzzlePool underTest = SharedPuzzlePool.open(file, 2);
+        for (GameDifficulty difficulty : GameDifficulty.values()) {
+            assertEquals(2, underTest.size(difficulty));
+            Puzzle puzzle = underTest.poll(difficulty).orElseThrow();
+            assertEquals(81 - PuzzleGenerator.removedDigits(difficulty), puzzle.getClueCount());
+            assertTrue(new DlxSolver().isUnique(puzzle.getGivens()));
+        }
+    }
+
+    @Test
+    void testLocalPoolTakesFromSharedPool() throws Exception {
+        SharedPuzzlePool shared = SharedPuzzlePool.open(dir.resolve("pool.bin"), 2);
+        Puzzle ready = new PuzzleGenerator(3).generate(GameDifficulty.HARD);
+        shared.offer(ready);
+        PuzzlePool underTest = new PuzzlePool(1, shared);
+
+        underTest.warmUp();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (underTest.size(GameDifficulty.HARD) < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertArrayEquals(ready.getGivens(), underTest.poll(GameDifficulty.HARD).orElseThrow().getGivens());
+    }
+}
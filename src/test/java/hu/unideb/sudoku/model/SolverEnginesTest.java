@@ -0,0 +1,58 @@
+package hu.unideb.sudoku.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SolverEnginesTest {
+
+    @Test
+    void testAvailableNamesContainsBuiltInEngines() {
+        List<String> names = SolverEngines.availableNames();
+
+        assertTrue(names.contains(BacktrackingSolverEngine.NAME));
+        assertTrue(names.contains(DlxSolver.NAME));
+        assertTrue(names.contains(MrvSolver.NAME));
+    }
+
+    @Test
+    void testCreateReturnsNewInstances() {
+        SolverEngine first = SolverEngines.create(MrvSolver.NAME);
+        SolverEngine second = SolverEngines.create(MrvSolver.NAME);
+
+        assertInstanceOf(MrvSolver.class, first);
+        assertNotSame(first, second);
+    }
+
+    @Test
+    void testCreateUnknownEngine() {
+        assertThrows(IllegalArgumentException.class, () -> SolverEngines.create("unknown"));
+        assertThrows(IllegalArgumentException.class, () -> GameModel.setSolverEngineName("unknown"));
+    }
+
+    @Test
+    void testDefaultNameIsAvailable() {
+        assertTrue(SolverEngines.availableNames().contains(SolverEngines.defaultName()));
+    }
+
+    @Test
+    void testEnginesAgree() {
+        int[] grid = Puzzle.parseGrid(
+                "102030600900100040000000003054906000600308050080054060000743000301005400400000007");
+        int[] expected = null;
+
+        for (String name : SolverEngines.availableNames()) {
+            int[] solution = grid.clone();
+            SolverEngine engine = SolverEngines.create(name);
+
+            assertTrue(engine.isUnique(grid), name);
+            assertTrue(engine.solve(solution), name);
+            if (expected == null) {
+                expected = solution;
+            }
+            assertArrayEquals(expected, solution, name);
+        }
+    }
+}